@@ -0,0 +1,78 @@
+package com.plannex.Benchmark;
+
+import com.plannex.Audit.AuditLog;
+import com.plannex.Dataset.DatasetSpec;
+import com.plannex.Dataset.SyntheticDataset;
+import com.plannex.Live.ProjectEventBus;
+import com.plannex.Model.Task;
+import com.plannex.Purge.Purger;
+import com.plannex.Repository.TaskRepository;
+import com.plannex.RowMapper.ProjectEmployeeRowMapper;
+import com.plannex.RowMapper.TaskRowMapper;
+import com.plannex.RowMapper.TaskSummaryRowMapper;
+import com.plannex.Search.SearchIndex;
+import com.plannex.TimeLog.TimeLog;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// What auditing adds to a write: updateTask with the audit log off, buffered as configured, and written in the
+// caller's thread (a buffer that is always full with when-full=WRITE_THROUGH, as if auditing were synchronous).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuditLogBenchmark {
+    @Param({ "off", "buffered", "synchronous" })
+    public String audit;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private AuditLog auditLog;
+    private TaskRepository taskRepository;
+    private Task[] tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:audit-" + audit + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        new ResourceDatabasePopulator(new ClassPathResource("schemah2.sql")).execute(dataSource);
+        SyntheticDataset.generate(dataSource, DatasetSpec.forProjects(100).withPasswordHashIterations(1000));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        auditLog = switch (audit) {
+            case "off" -> new AuditLog(jdbcTemplate, false, 2, 1, Duration.ofMillis(200), AuditLog.WhenFull.DROP, Duration.ZERO);
+            case "buffered" -> new AuditLog(jdbcTemplate, true, 8192, 256, Duration.ofMillis(200), AuditLog.WhenFull.BLOCK, Duration.ofSeconds(1));
+            default -> new AuditLog(jdbcTemplate, true, 2, Integer.MAX_VALUE, Duration.ofHours(1), AuditLog.WhenFull.WRITE_THROUGH, Duration.ZERO);
+        };
+        ProjectEventBus projectEventBus = new ProjectEventBus(false, 64, 0, Duration.ofSeconds(25), Duration.ofMinutes(10));
+        taskRepository = new TaskRepository(jdbcTemplate, new TaskRowMapper(), new ProjectEmployeeRowMapper(), new TaskSummaryRowMapper(), new SearchIndex(jdbcTemplate),
+                projectEventBus, new TimeLog(jdbcTemplate, projectEventBus, auditLog, event -> { }, false, Path.of("time-log"), DataSize.ofMegabytes(8), 65536, 500),
+                new Purger(jdbcTemplate, false, Duration.ofHours(24), 500, Duration.ofMillis(50), Duration.ofMinutes(5)), event -> { }, auditLog);
+        tasks = jdbcTemplate.query("SELECT * FROM Tasks", new TaskRowMapper()).toArray(new Task[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        auditLog.destroy();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.close();
+    }
+
+    @Benchmark
+    public int updateTask() {
+        Task task = tasks[ThreadLocalRandom.current().nextInt(tasks.length)];
+        return taskRepository.updateTask(task, task.getID());
+    }
+}
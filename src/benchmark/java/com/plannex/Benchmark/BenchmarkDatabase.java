@@ -0,0 +1,121 @@
+package com.plannex.Benchmark;
+
+import com.plannex.Analytics.TimeAnalytics;
+import com.plannex.Audit.AuditLog;
+import com.plannex.Burn.BurnCharts;
+import com.plannex.Dataset.DatasetSpec;
+import com.plannex.Dataset.SyntheticDataset;
+import com.plannex.Forecast.CompletionForecasts;
+import com.plannex.Live.ProjectEventBus;
+import com.plannex.Purge.Purger;
+import com.plannex.Repository.ProjectEmployeeRepository;
+import com.plannex.Repository.ProjectRepository;
+import com.plannex.Repository.TaskRepository;
+import com.plannex.Repository.TimesheetRepository;
+import com.plannex.RowMapper.*;
+import com.plannex.Search.SearchIndex;
+import com.plannex.TimeLog.TimeLog;
+import com.plannex.Search.Typeahead;
+import com.plannex.Service.PasswordHasher;
+import com.plannex.Service.ProjectEmployeeService;
+import com.plannex.Service.TimesheetService;
+import com.plannex.Variance.VarianceReports;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.event.TransactionalEventListenerFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+// An embedded H2 database in MySQL mode with the real schema and a synthetic dataset, one per scale.
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+    @Param({"10", "100", "1000"})
+    public int projects;
+
+    public JdbcTemplate jdbcTemplate;
+    public TaskRepository taskRepository;
+    public ProjectRepository projectRepository;
+    public ProjectEmployeeRepository projectEmployeeRepository;
+    public ProjectEmployeeService projectEmployeeService;
+    public BurnCharts burnCharts;
+    public VarianceReports varianceReports;
+    public CompletionForecasts completionForecasts;
+    public TimeAnalytics timeAnalytics;
+    public TimesheetService timesheetService;
+    public SyntheticDataset.Summary summary;
+    public AuditLog auditLog;
+
+    private HikariDataSource dataSource;
+    private GenericApplicationContext events;
+    private int[] topLevelTaskIDs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:benchmark-" + projects + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        new ResourceDatabasePopulator(new ClassPathResource("schemah2.sql")).execute(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        summary = SyntheticDataset.generate(dataSource, DatasetSpec.forProjects(projects));
+        topLevelTaskIDs = jdbcTemplate.queryForList("SELECT TaskID FROM Tasks WHERE ParentTaskID IS NULL", Integer.class).stream().mapToInt(Integer::intValue).toArray();
+
+        SearchIndex searchIndex = new SearchIndex(jdbcTemplate);
+        auditLog = new AuditLog(jdbcTemplate, true, 8192, 256, Duration.ofMillis(200), AuditLog.WhenFull.BLOCK, Duration.ofSeconds(1));
+        ProjectEventBus projectEventBus = new ProjectEventBus(false, 64, 0, Duration.ofSeconds(25), Duration.ofMinutes(10));
+        burnCharts = new BurnCharts(jdbcTemplate, 256, 3660);
+        varianceReports = new VarianceReports(jdbcTemplate, 250, Runtime.getRuntime().availableProcessors());
+        completionForecasts = new CompletionForecasts(jdbcTemplate, 100000, 0, 42, 256, Duration.ofHours(1), 5);
+        timeAnalytics = new TimeAnalytics(jdbcTemplate, Duration.ofSeconds(10), Duration.ofMinutes(5));
+        events = listening(burnCharts, varianceReports, completionForecasts, timeAnalytics);
+        Purger purger = new Purger(jdbcTemplate, false, Duration.ofHours(24), 500, Duration.ofMillis(50), Duration.ofMinutes(5));
+        taskRepository = new TaskRepository(jdbcTemplate, new TaskRowMapper(), new ProjectEmployeeRowMapper(), new TaskSummaryRowMapper(), searchIndex,
+                projectEventBus, new TimeLog(jdbcTemplate, projectEventBus, auditLog, events, false, Path.of("time-log"), DataSize.ofMegabytes(8), 65536, 500), purger, events, auditLog);
+        projectRepository = new ProjectRepository(jdbcTemplate, new ProjectRowMapper(), new TaskRowMapper(), new ProjectSummaryRowMapper(), new TaskSummaryRowMapper(), searchIndex, purger, events, auditLog);
+        projectEmployeeRepository = new ProjectEmployeeRepository(jdbcTemplate, new ProjectEmployeeRowMapper(), new EmployeeSkillRowMapper(), new SkillRowMapper(), new EmployeeCredentialsRowMapper(), new Typeahead(jdbcTemplate), events, auditLog);
+        projectEmployeeService = new ProjectEmployeeService(projectEmployeeRepository, new PasswordHasher(PasswordHasher.DEFAULT_ITERATIONS));
+        timesheetService = new TimesheetService(new TimesheetRepository(jdbcTemplate), taskRepository);
+    }
+
+    // Delivers what the repositories and the time log publish to the caches, as the application context does
+    private static GenericApplicationContext listening(Object... caches) {
+        GenericApplicationContext context = new GenericApplicationContext();
+        AnnotationConfigUtils.registerAnnotationConfigProcessors(context);
+        context.registerBean(TransactionalEventListenerFactory.class);
+        for (Object cache : caches) {
+            context.getBeanFactory().registerSingleton(cache.getClass().getSimpleName(), cache);
+        }
+        context.refresh();
+        return context;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        events.close();
+        varianceReports.destroy();
+        completionForecasts.destroy();
+        auditLog.destroy();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.close();
+    }
+
+    public int randomProjectID() {
+        return 1 + ThreadLocalRandom.current().nextInt(summary.projects());
+    }
+
+    public int randomTaskID() {
+        return topLevelTaskIDs[ThreadLocalRandom.current().nextInt(topLevelTaskIDs.length)];
+    }
+
+    public String randomUsername() {
+        return SyntheticDataset.username(ThreadLocalRandom.current().nextInt(summary.employees()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.plannex.Benchmark;
+
+import com.plannex.Model.BurnChart;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// A project's burn chart summed in the database every time (what a chart without the cached totals costs), from the
+// cached totals, and adding a contribution to them.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BurnChartBenchmark {
+    @Benchmark
+    public BurnChart summedEachTime(BenchmarkDatabase db) {
+        int projectID = db.randomProjectID();
+        db.burnCharts.invalidate(projectID);
+        return db.burnCharts.forProject(projectID, null, null);
+    }
+
+    @Benchmark
+    public BurnChart fromTotals(BenchmarkDatabase db) {
+        return db.burnCharts.forProject(db.randomProjectID(), null, null);
+    }
+
+    @Benchmark
+    public void timeContributed(BenchmarkDatabase db) {
+        db.burnCharts.timeContributed(db.randomProjectID(), 1, LocalDate.now(), 0.5);
+    }
+}
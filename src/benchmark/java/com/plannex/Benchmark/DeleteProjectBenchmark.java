@@ -0,0 +1,77 @@
+package com.plannex.Benchmark;
+
+import com.plannex.Audit.AuditLog;
+import com.plannex.Dataset.DatasetSpec;
+import com.plannex.Dataset.SyntheticDataset;
+import com.plannex.Purge.Purger;
+import com.plannex.Repository.ProjectRepository;
+import com.plannex.RowMapper.ProjectRowMapper;
+import com.plannex.RowMapper.ProjectSummaryRowMapper;
+import com.plannex.RowMapper.TaskRowMapper;
+import com.plannex.RowMapper.TaskSummaryRowMapper;
+import com.plannex.Search.SearchIndex;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// How long deleting a big project (200 subtasks, 4 000 time entries) takes, and so holds its locks: in one cascading
+// DELETE, as before, or by marking it deleted. Each shot deletes another project. purgeProject is the whole purge of
+// one deleted project without pauses, which goes in statements of at most 500 rows.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 30)
+@Fork(1)
+public class DeleteProjectBenchmark {
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private AuditLog auditLog;
+    private ProjectRepository projectRepository;
+    private Purger purger;
+    private int nextProjectID = 1;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:delete-project;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        new ResourceDatabasePopulator(new ClassPathResource("schemah2.sql")).execute(dataSource);
+        SyntheticDataset.generate(dataSource, DatasetSpec.forProjects(130).withFanOut(20, 10).withAssignees(2, 20).withPasswordHashIterations(1000));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        auditLog = new AuditLog(jdbcTemplate, false, 8192, 256, Duration.ofMillis(200), AuditLog.WhenFull.BLOCK, Duration.ofSeconds(1));
+        purger = new Purger(jdbcTemplate, false, Duration.ZERO, 500, Duration.ZERO, Duration.ofMinutes(5));
+        projectRepository = new ProjectRepository(jdbcTemplate, new ProjectRowMapper(), new TaskRowMapper(), new ProjectSummaryRowMapper(), new TaskSummaryRowMapper(),
+                new SearchIndex(jdbcTemplate), purger, event -> { }, auditLog);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        purger.destroy();
+        auditLog.destroy();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.close();
+    }
+
+    @Benchmark
+    public int cascadingDelete() {
+        return jdbcTemplate.update("DELETE FROM Projects WHERE ProjectID = ?;", nextProjectID++);
+    }
+
+    @Benchmark
+    public int markDeleted() {
+        return projectRepository.deleteProjectByID(nextProjectID++);
+    }
+
+    @Benchmark
+    public long purgeProject() throws InterruptedException {
+        projectRepository.deleteProjectByID(nextProjectID++);
+        return purger.purge();
+    }
+}
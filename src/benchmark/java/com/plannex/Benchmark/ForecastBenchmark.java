@@ -0,0 +1,76 @@
+package com.plannex.Benchmark;
+
+import com.plannex.Model.CompletionForecast;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The completion forecast of a project of 5000 tasks and subtasks (500 tasks of 9 subtasks, each subtask after the
+// one before, each task after the one before and the one 7 before), computed again (after a plan change) and read
+// from the cache, with the default 100k runs.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ForecastBenchmark {
+    static final int TASKS = 500;
+    static final int SUBTASKS_PER_TASK = 9;
+
+    @State(Scope.Benchmark)
+    public static class LargeProject {
+        int projectID;
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkDatabase db) {
+            LocalDate start = LocalDate.of(2026, 1, 5);
+            projectID = db.jdbcTemplate.queryForObject("SELECT MAX(ProjectID) + 1 FROM Projects;", Integer.class);
+            int firstTaskID = db.jdbcTemplate.queryForObject("SELECT MAX(TaskID) + 1 FROM Tasks;", Integer.class);
+            db.jdbcTemplate.update("INSERT INTO Projects (ProjectID, ProjectTitle, ProjectDescription, ProjectStart, ProjectEnd) VALUES (?, 'Forecast benchmark', '', ?, ?);",
+                    projectID, Date.valueOf(start), Date.valueOf(start.plusYears(2)));
+
+            List<Object[]> tasks = new ArrayList<>();
+            List<Object[]> dependencies = new ArrayList<>();
+            int taskID = firstTaskID;
+            int[] taskIDs = new int[TASKS];
+            for (int task = 0; task < TASKS; task++) {
+                LocalDate taskStart = start.plusDays(task);
+                taskIDs[task] = taskID;
+                tasks.add(new Object[] { taskID, projectID, null, Date.valueOf(taskStart), Date.valueOf(taskStart.plusDays(SUBTASKS_PER_TASK)), 36 });
+                if (task > 0) {
+                    dependencies.add(new Object[] { taskID, taskIDs[task - 1] });
+                }
+                if (task >= 7) {
+                    dependencies.add(new Object[] { taskID, taskIDs[task - 7] });
+                }
+                int parentTaskID = taskID++;
+                for (int subtask = 0; subtask < SUBTASKS_PER_TASK; subtask++) {
+                    LocalDate subtaskStart = taskStart.plusDays(subtask);
+                    tasks.add(new Object[] { taskID, projectID, parentTaskID, Date.valueOf(subtaskStart), Date.valueOf(subtaskStart.plusDays(subtask % 3)), 4 });
+                    if (subtask > 0) {
+                        dependencies.add(new Object[] { taskID, taskID - 1 });
+                    }
+                    taskID++;
+                }
+            }
+            db.jdbcTemplate.batchUpdate("INSERT INTO Tasks (TaskID, ProjectID, ParentTaskID, TaskTitle, TaskDescription, TaskStart, TaskEnd, TaskDurationHours) " +
+                    "VALUES (?, ?, ?, 'Forecast benchmark task', '', ?, ?, ?);", tasks);
+            db.jdbcTemplate.batchUpdate("INSERT INTO TaskDependencies (TaskIDFor, MustComeAfterTaskWithID) VALUES (?, ?);", dependencies);
+        }
+    }
+
+    @Benchmark
+    public CompletionForecast computed(BenchmarkDatabase db, LargeProject project) {
+        db.completionForecasts.planChanged(project.projectID);
+        return db.completionForecasts.forProject(project.projectID);
+    }
+
+    @Benchmark
+    public CompletionForecast cached(BenchmarkDatabase db, LargeProject project) {
+        return db.completionForecasts.forProject(project.projectID);
+    }
+}
@@ -0,0 +1,125 @@
+package com.plannex.Benchmark;
+
+import com.plannex.Dataset.DatasetSpec;
+import com.plannex.Dataset.SyntheticDataset;
+import com.plannex.RowMapper.ProjectRowMapper;
+import com.plannex.RowMapper.ProjectSummaryRowMapper;
+import com.plannex.RowMapper.TaskRowMapper;
+import com.plannex.RowMapper.TaskSummaryRowMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Full rows (SELECT *, TaskRowMapper/ProjectRowMapper) against the list pages' summaries, ROWS rows per operation, so
+// the score is time per row and -prof gc's gc.alloc.rate.norm is bytes allocated per row.
+// The payload counters are the bytes of column values per row as a MySQL server would send them: text as UTF-8, the rest fixed width.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListProjectionBenchmark {
+    private static final int ROWS = 1000;
+    private static final String FULL_TASKS = "SELECT * FROM Tasks ORDER BY TaskID LIMIT " + ROWS;
+    private static final String TASK_SUMMARIES = "SELECT " + TaskSummaryRowMapper.COLUMNS + " FROM Tasks ORDER BY TaskID LIMIT " + ROWS;
+    private static final String FULL_PROJECTS = "SELECT * FROM Projects ORDER BY ProjectID LIMIT " + ROWS;
+    private static final String PROJECT_SUMMARIES = "SELECT " + ProjectSummaryRowMapper.COLUMNS + " FROM Projects ORDER BY ProjectID LIMIT " + ROWS;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private final TaskRowMapper taskRowMapper = new TaskRowMapper();
+    private final TaskSummaryRowMapper taskSummaryRowMapper = new TaskSummaryRowMapper();
+    private final ProjectRowMapper projectRowMapper = new ProjectRowMapper();
+    private final ProjectSummaryRowMapper projectSummaryRowMapper = new ProjectSummaryRowMapper();
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Payload {
+        public long payloadBytesPerRow;
+    }
+
+    private long fullTaskBytes, taskSummaryBytes, fullProjectBytes, projectSummaryBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:list-projection;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        new ResourceDatabasePopulator(new ClassPathResource("schemah2.sql")).execute(dataSource);
+        SyntheticDataset.generate(dataSource, DatasetSpec.forProjects(ROWS).withPasswordHashIterations(1000));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        fullTaskBytes = payloadBytesPerRow(FULL_TASKS);
+        taskSummaryBytes = payloadBytesPerRow(TASK_SUMMARIES);
+        fullProjectBytes = payloadBytesPerRow(FULL_PROJECTS);
+        projectSummaryBytes = payloadBytesPerRow(PROJECT_SUMMARIES);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.close();
+    }
+
+    private long payloadBytesPerRow(String query) {
+        List<Long> rowBytes = jdbcTemplate.query(query, (rs, rowNum) -> payloadBytes(rs));
+        return rowBytes.stream().mapToLong(Long::longValue).sum() / rowBytes.size();
+    }
+
+    private static long payloadBytes(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        long bytes = 0;
+        for (int column = 1; column <= meta.getColumnCount(); column++) {
+            bytes += switch (meta.getColumnType(column)) {
+                case Types.INTEGER, Types.REAL, Types.FLOAT, Types.DATE -> 4;
+                default -> {
+                    String value = rs.getString(column);
+                    yield value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+                }
+            };
+        }
+
+        return bytes;
+    }
+
+    private <T> List<T> query(String query, RowMapper<T> rowMapper, Payload payload, long bytesPerRow) {
+        payload.payloadBytesPerRow = bytesPerRow;
+        return jdbcTemplate.query(query, rowMapper);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Object fullTasks(Payload payload) {
+        return query(FULL_TASKS, taskRowMapper, payload, fullTaskBytes);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Object taskSummaries(Payload payload) {
+        return query(TASK_SUMMARIES, taskSummaryRowMapper, payload, taskSummaryBytes);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Object fullProjects(Payload payload) {
+        return query(FULL_PROJECTS, projectRowMapper, payload, fullProjectBytes);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Object projectSummaries(Payload payload) {
+        return query(PROJECT_SUMMARIES, projectSummaryRowMapper, payload, projectSummaryBytes);
+    }
+}
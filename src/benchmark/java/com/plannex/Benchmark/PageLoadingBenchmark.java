@@ -0,0 +1,62 @@
+package com.plannex.Benchmark;
+
+import com.plannex.Service.PageLoadingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+// Serial versus concurrent loading of a page shaped like showTaskPage, with every "query" sleeping for a fixed latency.
+// Sample time mode reports p50 and p99 per configuration.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageLoadingBenchmark {
+    private static final int SUBTASKS = 5;
+
+    @Param({"false", "true"})
+    public boolean concurrent;
+
+    @Param({"3"})
+    public long queryLatencyMillis;
+
+    private PageLoadingService pageLoadingService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pageLoadingService = new PageLoadingService(concurrent);
+    }
+
+    private <T> Supplier<T> query(T result) {
+        return () -> {
+            try {
+                Thread.sleep(queryLatencyMillis);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            return result;
+        };
+    }
+
+    @Benchmark
+    public List<Double> loadTaskPage() {
+        Map<String, Supplier<?>> fragments = new LinkedHashMap<>();
+        fragments.put("task", query("task"));
+        fragments.put("subtasks", query(IntStream.range(0, SUBTASKS).boxed().toList()));
+        fragments.put("assignees", query(List.of()));
+        fragments.put("timeSpent", query(0.0));
+        fragments.put("artifacts", query(List.of()));
+        fragments.put("dependencies", query(List.of()));
+        pageLoadingService.loadAll(fragments);
+
+        pageLoadingService.loadEach(IntStream.range(0, SUBTASKS).mapToObj(i -> query(List.of())).toList());
+        return pageLoadingService.loadEach(IntStream.range(0, SUBTASKS).mapToObj(i -> query(0.0)).toList());
+    }
+}
@@ -0,0 +1,33 @@
+package com.plannex.Benchmark;
+
+import com.plannex.Service.PasswordHasher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Logins per second one core can verify at each cost, to pick plannex.password.hash-iterations.
+// A wrong password costs the same as a right one, so only the successful check is measured.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordHashingBenchmark {
+    @Param({"100000", "310000", "600000"})
+    public int iterations;
+
+    private PasswordHasher passwordHasher;
+    private String storedHash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        passwordHasher = new PasswordHasher(iterations);
+        storedHash = passwordHasher.hash("fAbc#21Y");
+    }
+
+    @Benchmark
+    public boolean verifyPassword() {
+        return passwordHasher.matches("fAbc#21Y", storedHash);
+    }
+}
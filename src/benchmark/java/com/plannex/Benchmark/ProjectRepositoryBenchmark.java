@@ -0,0 +1,17 @@
+package com.plannex.Benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectRepositoryBenchmark {
+    @Benchmark
+    public float getTotalTimeSpent(BenchmarkDatabase db) {
+        return db.projectRepository.getTotalTimeSpent(db.randomProjectID());
+    }
+}
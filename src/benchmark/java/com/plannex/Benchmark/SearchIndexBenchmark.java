@@ -0,0 +1,59 @@
+package com.plannex.Benchmark;
+
+import com.plannex.Dataset.DatasetSpec;
+import com.plannex.Dataset.SyntheticDataset;
+import com.plannex.Search.SearchIndex;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Search latency at DOCUMENTS tasks. The synthetic dataset has some 50 000 tasks, so its rows are indexed over and over
+// under new IDs until there are DOCUMENTS of them. Its vocabulary is a few dozen words, which puts most words in most
+// documents: the common-word queries are the worst case, where every posting list is about as long as the index.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchIndexBenchmark {
+    private static final int DOCUMENTS = 1_000_000;
+    private static final int LIMIT = 50;
+
+    @Param({ "GANTT chart", "customer", "customer deadline", "re", "draft review sprint" })
+    public String query;
+
+    private SearchIndex searchIndex;
+
+    private record Row(int projectID, String title, String description) { }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:search-index;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        new ResourceDatabasePopulator(new ClassPathResource("schemah2.sql")).execute(dataSource);
+        SyntheticDataset.generate(dataSource, DatasetSpec.forProjects(1000).withPasswordHashIterations(1000));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Row> rows = jdbcTemplate.query("SELECT ProjectID, TaskTitle, TaskDescription FROM Tasks",
+                (rs, rowNum) -> new Row(rs.getInt("ProjectID"), rs.getString("TaskTitle"), rs.getString("TaskDescription")));
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.close();
+
+        searchIndex = new SearchIndex(null);
+        for (int taskID = 1; taskID <= DOCUMENTS; taskID++) {
+            Row row = rows.get(taskID % rows.size());
+            searchIndex.indexTask(taskID, row.projectID(), 0, row.title(), row.description());
+        }
+    }
+
+    @Benchmark
+    public Object search() {
+        return searchIndex.search(query, LIMIT);
+    }
+}
@@ -0,0 +1,43 @@
+package com.plannex.Benchmark;
+
+import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Model.ProjectEmployee;
+import com.plannex.Model.Task;
+import com.plannex.Repository.TaskRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskRepositoryBenchmark {
+    @Benchmark
+    public List<TaskRepository.ConstPair<String, String>> getAllArtifactsForTask(BenchmarkDatabase db) {
+        return db.taskRepository.getAllArtifactsForTask(db.randomTaskID());
+    }
+
+    @Benchmark
+    public List<ProjectEmployee> getAllAssigneesForTask(BenchmarkDatabase db) {
+        return db.taskRepository.getAllAssigneesForTask(db.randomTaskID());
+    }
+
+    // What a bot probing IDs that do not exist costs us per request
+    @Benchmark
+    public Object getMissingTaskOrThrow(BenchmarkDatabase db) {
+        try {
+            return db.taskRepository.getTaskByIDOrThrow(-db.randomTaskID());
+        } catch (EntityDoesNotExistException edne) {
+            return edne;
+        }
+    }
+
+    @Benchmark
+    public Optional<Task> findMissingTask(BenchmarkDatabase db) {
+        return db.taskRepository.findTaskByID(-db.randomTaskID());
+    }
+}
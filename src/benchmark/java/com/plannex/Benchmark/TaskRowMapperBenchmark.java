@@ -0,0 +1,57 @@
+package com.plannex.Benchmark;
+
+import com.plannex.RowMapper.TaskRowMapper;
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Mapping cost alone: rows come from an in-memory result set, so no driver or network is involved.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskRowMapperBenchmark {
+    private static final int ROWS = 1000;
+
+    private final TaskRowMapper taskRowMapper = new TaskRowMapper();
+    private SimpleResultSet resultSet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        resultSet = new SimpleResultSet();
+        resultSet.setAutoClose(false); // Allows beforeFirst() between invocations
+        resultSet.addColumn("TaskID", Types.INTEGER, 10, 0);
+        resultSet.addColumn("ProjectID", Types.INTEGER, 10, 0);
+        resultSet.addColumn("ParentTaskID", Types.INTEGER, 10, 0);
+        resultSet.addColumn("TaskTitle", Types.VARCHAR, 255, 0);
+        resultSet.addColumn("TaskDescription", Types.VARCHAR, 65535, 0);
+        resultSet.addColumn("TaskStart", Types.DATE, 10, 0);
+        resultSet.addColumn("TaskEnd", Types.DATE, 10, 0);
+        resultSet.addColumn("TaskDurationHours", Types.REAL, 10, 0);
+        resultSet.addColumn("Version", Types.INTEGER, 10, 0);
+
+        for (int i = 1; i <= ROWS; i++) {
+            resultSet.addRow(i, 1 + i / 48, i % 7 == 0 ? 0 : i / 7, "Subtask " + i,
+                    "Synthetic description of " + i + ".\\nIt spans two lines,\\nor three.",
+                    Date.valueOf(LocalDate.of(2025, 1, 1).plusDays(i % 365)), Date.valueOf(LocalDate.of(2025, 2, 1).plusDays(i % 365)), 4.5f, 0);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void mapRow(Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        int rowNum = 0;
+        while (resultSet.next()) {
+            blackhole.consume(taskRowMapper.mapRow(resultSet, rowNum++));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.plannex.Benchmark;
+
+import com.plannex.Dataset.SyntheticDataset;
+import com.plannex.Model.ProjectSummary;
+import com.plannex.Model.TaskSummary;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.web.IWebExchange;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Thymeleaf rendering alone. The models are loaded once from the benchmark database, shaped the way the controllers shape them.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateRenderingBenchmark {
+    private SpringTemplateEngine templateEngine;
+    private IWebExchange exchange;
+    private Map<String, Object> projectsWindowModel;
+    private Map<String, Object> taskWindowModel;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase db) {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        MockServletContext servletContext = new MockServletContext();
+        exchange = JakartaServletWebApplication.buildApplication(servletContext)
+                .buildExchange(new MockHttpServletRequest(servletContext), new MockHttpServletResponse());
+
+        List<ProjectSummary> allProjects = db.projectRepository.getAllProjectSummaries();
+        projectsWindowModel = new HashMap<>();
+        projectsWindowModel.put("allProjects", allProjects);
+        projectsWindowModel.put("employeesInvolved", allProjects.stream().map(p -> db.projectRepository.getAllInvolved(p.ID())).toList());
+        projectsWindowModel.put("startDates", allProjects.stream().map(p -> p.projectStart().toString()).toList());
+        projectsWindowModel.put("timeSpents", allProjects.stream().map(p -> db.projectRepository.getTotalTimeSpent(p.ID())).toList());
+        projectsWindowModel.put("endDates", allProjects.stream().map(p -> p.projectEnd().toString()).toList());
+        projectsWindowModel.put("isManager", true);
+        projectsWindowModel.put("sessionUser", SyntheticDataset.username(0));
+
+        int taskID = 1;
+        List<TaskSummary> subtasks = db.taskRepository.getAllSubtaskSummariesForParentTask(taskID);
+        taskWindowModel = new HashMap<>();
+        taskWindowModel.put("task", db.taskRepository.getTaskByIDOrThrow(taskID));
+        taskWindowModel.put("subtasks", subtasks);
+        taskWindowModel.put("assignees", db.taskRepository.getAllAssigneesForTask(taskID));
+        taskWindowModel.put("timeSpent", db.taskRepository.getAllTimeContributionsForTask(taskID).stream().mapToDouble(f -> f).sum());
+        taskWindowModel.put("artifacts", db.taskRepository.getAllArtifactsForTask(taskID));
+        taskWindowModel.put("dependencies", db.taskRepository.getAllDependenciesForTask(taskID));
+        taskWindowModel.put("subtaskAssignees", subtasks.stream().map(s -> db.taskRepository.getAllAssigneesForSubtask(s.ID())).toList());
+        taskWindowModel.put("subtaskTimeSpents", subtasks.stream().map(s -> db.taskRepository.getAllTimeContributionsForSubtask(s.ID()).stream().mapToDouble(f -> f).sum()).toList());
+        taskWindowModel.put("isManager", true);
+        taskWindowModel.put("sessionUser", SyntheticDataset.username(0));
+    }
+
+    @Benchmark
+    public String projectsWindow() {
+        return templateEngine.process("projects_window", new WebContext(exchange, Locale.ENGLISH, projectsWindowModel));
+    }
+
+    @Benchmark
+    public String taskWindow() {
+        return templateEngine.process("task_window", new WebContext(exchange, Locale.ENGLISH, taskWindowModel));
+    }
+}
@@ -0,0 +1,49 @@
+package com.plannex.Benchmark;
+
+import com.plannex.Model.HoursQuery;
+import com.plannex.Model.HoursReport;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.plannex.Model.HoursQuery.Dimension.*;
+
+// Hours by project and employee, and by skill level and month, summed from the analytics snapshot and with a GROUP BY
+// in the database; and the snapshot loaded again from scratch. Rows scanned per second are the snapshot's rows over
+// the time per query.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeAnalyticsBenchmark {
+    @Benchmark
+    public HoursReport byProjectAndEmployee(BenchmarkDatabase db) {
+        return db.timeAnalytics.sumHours(HoursQuery.groupedBy(PROJECT, EMPLOYEE));
+    }
+
+    @Benchmark
+    public HoursReport bySkillLevelAndMonth(BenchmarkDatabase db) {
+        return db.timeAnalytics.sumHours(HoursQuery.groupedBy(SKILL_LEVEL, MONTH));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> byProjectAndEmployeeInTheDatabase(BenchmarkDatabase db) {
+        return db.jdbcTemplate.queryForList("""
+                SELECT t.ProjectID, ts.ByEmployee, SUM(ts.HoursSpent) AS Hours, COUNT(*) AS Entries
+                FROM TimeSpent AS ts
+                JOIN Tasks AS t ON t.TaskID = ts.OnTaskID
+                JOIN Projects AS p ON p.ProjectID = t.ProjectID
+                WHERE t.DeletedAt IS NULL AND p.DeletedAt IS NULL
+                GROUP BY t.ProjectID, ts.ByEmployee;""");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public HoursReport loaded(BenchmarkDatabase db) {
+        db.timeAnalytics.changed();
+        return db.timeAnalytics.sumHours(HoursQuery.groupedBy());
+    }
+}
@@ -0,0 +1,99 @@
+package com.plannex.Benchmark;
+
+import com.plannex.Audit.AuditLog;
+import com.plannex.Dataset.DatasetSpec;
+import com.plannex.Dataset.SyntheticDataset;
+import com.plannex.Live.ProjectEventBus;
+import com.plannex.Purge.Purger;
+import com.plannex.Repository.TaskRepository;
+import com.plannex.RowMapper.ProjectEmployeeRowMapper;
+import com.plannex.RowMapper.TaskRowMapper;
+import com.plannex.RowMapper.TaskSummaryRowMapper;
+import com.plannex.Search.SearchIndex;
+import com.plannex.TimeLog.TimeLog;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Contributing time with the time log off (inserted in the caller) and on (appended to the write-ahead log).
+// contributeTime is what a request waits for; contributeAndInsert also waits for the database to have every entry,
+// so it measures what the whole pipeline sustains: with 4 threads, 400 us per entry is 10 000 entries a second.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TimeLogBenchmark {
+    private static final int ENTRIES = 1000;
+
+    @Param({ "off", "on" })
+    public String timeLog;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private AuditLog auditLog;
+    private ProjectEventBus projectEventBus;
+    private TimeLog log;
+    private TaskRepository taskRepository;
+    private int[] subtaskIDs;
+    private String[] usernames;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:time-log-" + timeLog + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        new ResourceDatabasePopulator(new ClassPathResource("schemah2.sql")).execute(dataSource);
+        SyntheticDataset.generate(dataSource, DatasetSpec.forProjects(100).withPasswordHashIterations(1000));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        auditLog = new AuditLog(jdbcTemplate, true, 8192, 256, Duration.ofMillis(200), AuditLog.WhenFull.BLOCK, Duration.ofSeconds(1));
+        projectEventBus = new ProjectEventBus(false, 64, 0, Duration.ofSeconds(25), Duration.ofMinutes(10));
+        boolean on = timeLog.equals("on");
+        log = new TimeLog(jdbcTemplate, projectEventBus, auditLog, event -> { }, on, on ? Files.createTempDirectory("plannex-time-log-benchmark") : Path.of("time-log"), DataSize.ofMegabytes(8), 65536, 500);
+        taskRepository = new TaskRepository(jdbcTemplate, new TaskRowMapper(), new ProjectEmployeeRowMapper(), new TaskSummaryRowMapper(), new SearchIndex(jdbcTemplate),
+                projectEventBus, log, new Purger(jdbcTemplate, false, Duration.ofHours(24), 500, Duration.ofMillis(50), Duration.ofMinutes(5)), event -> { }, auditLog);
+        subtaskIDs = jdbcTemplate.queryForList("SELECT TaskID FROM Tasks WHERE ParentTaskID IS NOT NULL", Integer.class).stream().mapToInt(Integer::intValue).toArray();
+        usernames = jdbcTemplate.queryForList("SELECT EmployeeUsername FROM ProjectEmployees", String.class).toArray(new String[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        log.destroy();
+        auditLog.destroy();
+        projectEventBus.destroy();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.close();
+    }
+
+    private int contribute() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return taskRepository.contributeTime(usernames[random.nextInt(usernames.length)], subtaskIDs[random.nextInt(subtaskIDs.length)], 0.5f);
+    }
+
+    @Benchmark
+    public int contributeTime() {
+        return contribute();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public boolean contributeAndInsert() throws InterruptedException {
+        for (int i = 0; i < ENTRIES; i++) {
+            contribute();
+        }
+        return log.awaitInserted(Duration.ofMinutes(1));
+    }
+}
@@ -0,0 +1,35 @@
+package com.plannex.Benchmark;
+
+import com.plannex.Model.Timesheet;
+import com.plannex.Model.TimesheetPage;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// A random week of the synthetic timeline: one employee's timesheet, and a manager's page of up to 500 (every
+// employee, at 1000 projects)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimesheetBenchmark {
+    private static final LocalDate FIRST_WEEK = LocalDate.of(2022, 1, 3);
+    private static final int WEEKS = 4 * 52;
+
+    private static LocalDate randomWeek() {
+        return FIRST_WEEK.plusWeeks(ThreadLocalRandom.current().nextInt(WEEKS));
+    }
+
+    @Benchmark
+    public Timesheet oneEmployee(BenchmarkDatabase db) {
+        return db.timesheetService.getTimesheet(db.randomUsername(), randomWeek());
+    }
+
+    @Benchmark
+    public TimesheetPage pageOfEmployees(BenchmarkDatabase db) {
+        return db.timesheetService.getTimesheets(randomWeek(), 0);
+    }
+}
@@ -0,0 +1,60 @@
+package com.plannex.Benchmark;
+
+import com.plannex.Dataset.DatasetSpec;
+import com.plannex.Dataset.SyntheticDataset;
+import com.plannex.Search.Typeahead;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.concurrent.TimeUnit;
+
+// Suggestions at EMPLOYEES employees and SKILLS skills, ten per call as the forms ask for.
+// Synthetic names repeat (some 200 first/last name pairs), so a name prefix has thousands of matches to choose ten from.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeaheadBenchmark {
+    private static final int EMPLOYEES = 20_000;
+    private static final int SKILLS = 2_000;
+    private static final int LIMIT = 10;
+
+    @Param({ "e", "emp1234", "anna", "nielsen" })
+    public String employeePrefix;
+
+    private Typeahead typeahead;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:typeahead;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        new ResourceDatabasePopulator(new ClassPathResource("schemah2.sql")).execute(dataSource);
+        SyntheticDataset.generate(dataSource, DatasetSpec.forProjects(10).withEmployees(EMPLOYEES, SKILLS, 3).withPasswordHashIterations(1000));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        typeahead = new Typeahead(jdbcTemplate);
+        typeahead.rebuild();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.close();
+    }
+
+    @Benchmark
+    public Object employees() {
+        return typeahead.suggestEmployees(employeePrefix, LIMIT, false);
+    }
+
+    @Benchmark
+    public Object workers() {
+        return typeahead.suggestEmployees(employeePrefix, LIMIT, true);
+    }
+
+    @Benchmark
+    public Object skills() {
+        return typeahead.suggestSkills("skill 1", LIMIT);
+    }
+}
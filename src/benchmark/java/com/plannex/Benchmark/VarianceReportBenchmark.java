@@ -0,0 +1,25 @@
+package com.plannex.Benchmark;
+
+import com.plannex.Model.VarianceReport;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// The whole variance report computed again (after a time entry) and read from the cache.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VarianceReportBenchmark {
+    @Benchmark
+    public VarianceReport computed(BenchmarkDatabase db) {
+        db.varianceReports.changed();
+        return db.varianceReports.getReport();
+    }
+
+    @Benchmark
+    public VarianceReport cached(BenchmarkDatabase db) {
+        return db.varianceReports.getReport();
+    }
+}
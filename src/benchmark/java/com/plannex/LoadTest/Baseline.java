@@ -0,0 +1,73 @@
+package com.plannex.LoadTest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+// Earlier results to compare a run against, stored as <route>.throughput, <route>.p95 and <route>.p99.
+// A route regresses when p95 or p99 grows, or throughput shrinks, by more than the tolerance.
+// Numbers are only comparable between runs with the same sessions and dataset size, which the file records too.
+public final class Baseline {
+    private final Properties values;
+
+    private Baseline(Properties values) {
+        this.values = values;
+    }
+
+    public static Baseline load(Path file) throws IOException {
+        Properties values = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            values.load(reader);
+        }
+        return new Baseline(values);
+    }
+
+    public static void save(Path file, String conditions, List<RouteStats> results) throws IOException {
+        Properties values = new Properties();
+        values.setProperty("conditions", conditions);
+        for (RouteStats stats : results) {
+            values.setProperty(stats.route().getKey() + ".throughput", String.format(Locale.ROOT, "%.1f", stats.throughput()));
+            values.setProperty(stats.route().getKey() + ".p95", String.format(Locale.ROOT, "%.2f", stats.p95()));
+            values.setProperty(stats.route().getKey() + ".p99", String.format(Locale.ROOT, "%.2f", stats.p99()));
+        }
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            values.store(writer, "Load test baseline. Regenerate with --write-baseline after an intended change.");
+        }
+    }
+
+    public String getConditions() {
+        return values.getProperty("conditions", "");
+    }
+
+    public List<String> findRegressions(List<RouteStats> results, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (RouteStats stats : results) {
+            String key = stats.route().getKey();
+            if (!values.containsKey(key + ".p95")) {
+                continue;
+            }
+
+            double baselineThroughput = Double.parseDouble(values.getProperty(key + ".throughput"));
+            double baselineP95 = Double.parseDouble(values.getProperty(key + ".p95"));
+            double baselineP99 = Double.parseDouble(values.getProperty(key + ".p99"));
+            if (stats.throughput() < baselineThroughput * (1 - tolerance)) {
+                regressions.add(String.format(Locale.ROOT, "%s: throughput %.1f req/s, baseline %.1f", stats.route().getLabel(), stats.throughput(), baselineThroughput));
+            }
+            if (stats.p95() > baselineP95 * (1 + tolerance)) {
+                regressions.add(String.format(Locale.ROOT, "%s: p95 %.2f ms, baseline %.2f", stats.route().getLabel(), stats.p95(), baselineP95));
+            }
+            if (stats.p99() > baselineP99 * (1 + tolerance)) {
+                regressions.add(String.format(Locale.ROOT, "%s: p99 %.2f ms, baseline %.2f", stats.route().getLabel(), stats.p99(), baselineP99));
+            }
+        }
+        return regressions;
+    }
+}
@@ -0,0 +1,62 @@
+package com.plannex.LoadTest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Every latency of one virtual user, kept whole so percentiles are exact rather than bucketed.
+// Each virtual user owns one recorder; they are only merged after the run, so nothing here is shared.
+public final class LatencyRecorder {
+    private final Map<Route, long[]> latencies = new EnumMap<>(Route.class);
+    private final Map<Route, Integer> counts = new EnumMap<>(Route.class);
+    private final Map<Route, Integer> errors = new EnumMap<>(Route.class);
+
+    public void record(Route route, long elapsedNanos, boolean succeeded) {
+        long[] recorded = latencies.computeIfAbsent(route, r -> new long[1024]);
+        int count = counts.getOrDefault(route, 0);
+        if (count == recorded.length) {
+            recorded = Arrays.copyOf(recorded, count * 2);
+            latencies.put(route, recorded);
+        }
+
+        recorded[count] = elapsedNanos;
+        counts.put(route, count + 1);
+        if (!succeeded) {
+            errors.merge(route, 1, Integer::sum);
+        }
+    }
+
+    public static RouteStats merge(Route route, List<LatencyRecorder> recorders, double seconds) {
+        int total = 0;
+        int failed = 0;
+        for (LatencyRecorder recorder : recorders) {
+            total += recorder.counts.getOrDefault(route, 0);
+            failed += recorder.errors.getOrDefault(route, 0);
+        }
+
+        long[] all = new long[total];
+        int offset = 0;
+        for (LatencyRecorder recorder : recorders) {
+            int count = recorder.counts.getOrDefault(route, 0);
+            if (count > 0) {
+                System.arraycopy(recorder.latencies.get(route), 0, all, offset, count);
+                offset += count;
+            }
+        }
+        Arrays.sort(all);
+
+        return new RouteStats(route, total, failed, total / seconds,
+                percentile(all, 0.50), percentile(all, 0.95), percentile(all, 0.99), total == 0 ? 0 : all[total - 1] / 1e6);
+    }
+
+    // Nearest-rank percentile in milliseconds
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+}
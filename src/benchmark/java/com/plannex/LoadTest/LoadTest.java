@@ -0,0 +1,159 @@
+package com.plannex.LoadTest;
+
+import com.plannex.Dataset.DatasetGenerator;
+import com.plannex.Dataset.DatasetSpec;
+import com.plannex.Dataset.SyntheticDataset;
+import com.plannex.PlannexApplication;
+import com.plannex.Service.PasswordHasher;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Boots Plannex on an embedded Tomcat with a private in-memory H2 database filled by SyntheticDataset, then drives it
+// with many concurrent logged-in sessions over real HTTP. Nothing outside the JVM is needed.
+// Prints throughput and p50/p95/p99 per route, compares them with a baseline file and exits with 1 on a regression.
+// A baseline only applies to runs with the same sessions, dataset size, duration, password hash cost and CPU count;
+// others skip the comparison.
+// mvn -Pbenchmark test-compile exec:exec@load-test -Dloadtest.args="--sessions=100 --duration=60"
+public final class LoadTest {
+    private LoadTest() { }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = DatasetGenerator.parse(args);
+        int sessions = Integer.parseInt(options.getOrDefault("sessions", "50"));
+        int projects = Integer.parseInt(options.getOrDefault("projects", "200"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int loginEvery = Integer.parseInt(options.getOrDefault("login-every", "1"));
+        double tolerance = Double.parseDouble(options.getOrDefault("tolerance", "0.25"));
+        double maxErrorRate = Double.parseDouble(options.getOrDefault("max-error-rate", "0.01"));
+        Path baselineFile = Path.of(options.getOrDefault("baseline", "src/benchmark/resources/load-test-baseline.properties"));
+        boolean writeBaseline = Boolean.parseBoolean(options.getOrDefault("write-baseline", "false"));
+        int passwordHashIterations = Integer.parseInt(options.getOrDefault("password-hash-iterations", String.valueOf(PasswordHasher.DEFAULT_ITERATIONS)));
+
+        DatasetSpec spec = DatasetSpec.forProjects(projects).withPasswordHashIterations(passwordHashIterations);
+        if (sessions > spec.employees()) {
+            throw new IllegalArgumentException("A dataset of " + projects + " projects has " + spec.employees() + " employees, too few for " + sessions + " sessions.");
+        }
+
+        ConfigurableApplicationContext app = SpringApplication.run(PlannexApplication.class,
+                "--spring.profiles.active=loadtest",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.sql.init.mode=never",
+                "--server.port=0",
+                "--plannex.password.hash-iterations=" + passwordHashIterations,
+                "--plannex.time-log.directory=" + Files.createTempDirectory("plannex-load-test-time-log"),
+                "--logging.level.root=WARN",
+                "--logging.level.com.plannex.Instrumentation.QueryBudgetFilter=ERROR");
+        int exitCode;
+        try {
+            DataSource dataSource = app.getBean(DataSource.class);
+            ResourceDatabasePopulator schema = new ResourceDatabasePopulator(new ClassPathResource("schemah2.sql"),
+                    new ClassPathResource("org/springframework/session/jdbc/schema-h2.sql"));
+            schema.execute(dataSource);
+            SyntheticDataset.Summary summary = SyntheticDataset.generate(dataSource, spec);
+            List<VirtualUser.Target> targets = new JdbcTemplate(dataSource).query(
+                    "SELECT ProjectID, ParentTaskID, TaskID FROM Tasks WHERE ParentTaskID IS NOT NULL",
+                    (rs, rowNum) -> new VirtualUser.Target(rs.getInt(1), rs.getInt(2), rs.getInt(3)));
+            System.out.printf("Dataset: %,d rows, %,d subtasks to work on. %d sessions, %d s warmup, %d s measured.%n",
+                    summary.totalRows(), targets.size(), sessions, warmupSeconds, durationSeconds);
+
+            URI baseUri = URI.create("http://localhost:" + app.getEnvironment().getProperty("local.server.port"));
+            List<RouteStats> results = run(baseUri, sessions, spec.employees(), targets, loginEvery, warmupSeconds, durationSeconds);
+            print(results);
+
+            String conditions = "sessions=" + sessions + ", projects=" + projects  + ", duration=" + durationSeconds + "s, password-hash-iterations=" + passwordHashIterations + ", cpus=" + Runtime.getRuntime().availableProcessors();
+            exitCode = compareWithBaseline(baselineFile, conditions, results, tolerance, maxErrorRate, writeBaseline);
+        } finally {
+            app.close();
+        }
+        System.exit(exitCode);
+    }
+
+    static List<RouteStats> run(URI baseUri, int sessions, int employees, List<VirtualUser.Target> targets, int loginEvery,
+                                int warmupSeconds, int durationSeconds) throws InterruptedException {
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        List<VirtualUser> users = new ArrayList<>();
+
+        try (HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .followRedirects(HttpClient.Redirect.NEVER)
+                     .connectTimeout(Duration.ofSeconds(5))
+                     .build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int employee = 0; employee < sessions; employee++) {
+                VirtualUser user = new VirtualUser(client, baseUri, employee, employees, targets, loginEvery, measureFrom, stopAt);
+                users.add(user);
+                executor.submit(user);
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(warmupSeconds + durationSeconds + 60L, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        }
+
+        List<LatencyRecorder> recorders = users.stream().map(VirtualUser::getRecorder).toList();
+        return Arrays.stream(Route.values()).map(route -> LatencyRecorder.merge(route, recorders, durationSeconds)).toList();
+    }
+
+    private static void print(List<RouteStats> results) {
+        System.out.printf("%-66s %8s %7s %9s %9s %9s %9s %9s%n", "Route", "Requests", "Errors", "Req/s", "p50 ms", "p95 ms", "p99 ms", "Max ms");
+        for (RouteStats stats : results) {
+            System.out.printf(Locale.ROOT, "%-66s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", stats.route().getLabel(),
+                    stats.requests(), stats.errors(), stats.throughput(), stats.p50(), stats.p95(), stats.p99(), stats.max());
+        }
+    }
+
+    // Concurrent reassignments of the same subtask can genuinely collide, so a few errors are tolerated
+    private static int compareWithBaseline(Path baselineFile, String conditions, List<RouteStats> results, double tolerance,
+                                           double maxErrorRate, boolean writeBaseline) throws IOException {
+        int exitCode = results.stream().anyMatch(stats -> stats.errors() > maxErrorRate * stats.requests()) ? 1 : 0;
+        if (exitCode != 0) {
+            System.out.printf("More than %.1f%% of the requests to a route failed; see the Errors column.%n", maxErrorRate * 100);
+        }
+
+        if (writeBaseline) {
+            Baseline.save(baselineFile, conditions, results);
+            System.out.println("Wrote baseline to " + baselineFile + ".");
+            return exitCode;
+        }
+
+        if (!Files.exists(baselineFile)) {
+            System.out.println("No baseline at " + baselineFile + ". Run with --write-baseline=true to create one.");
+            return exitCode;
+        }
+
+        Baseline baseline = Baseline.load(baselineFile);
+        if (!baseline.getConditions().equals(conditions)) {
+            System.out.println("Baseline was taken with " + baseline.getConditions() + ", this run used " + conditions + "; skipping the comparison.");
+            return exitCode;
+        }
+
+        List<String> regressions = baseline.findRegressions(results, tolerance);
+        if (regressions.isEmpty()) {
+            System.out.printf("No regressions against %s (tolerance %.0f%%).%n", baselineFile, tolerance * 100);
+            return exitCode;
+        }
+
+        System.out.printf("Regressions against %s (tolerance %.0f%%):%n", baselineFile, tolerance * 100);
+        regressions.forEach(regression -> System.out.println("  " + regression));
+        return 1;
+    }
+}
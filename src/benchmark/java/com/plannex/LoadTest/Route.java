@@ -0,0 +1,33 @@
+package com.plannex.LoadTest;
+
+// The requests a virtual user makes. The key names the route in the baseline file.
+public enum Route {
+    LOGIN("login", "POST /login", 200),
+    PROJECTS("projects", "GET /projects", 200),
+    PROJECT("project", "GET /projects/{pid}", 200),
+    TASK("task", "GET /projects/{pid}/tasks/{tid}", 200),
+    CONTRIBUTE_TIME("contribute-time", "POST /projects/{pid}/tasks/{tid}/subtasks/{sid}/contribute-time", 302),
+    ASSIGN_WORKERS("assign-workers", "POST /projects/{pid}/tasks/{tid}/subtasks/{sid}/assign-workers", 302);
+
+    private final String key;
+    private final String label;
+    private final int expectedStatus;
+
+    Route(String key, String label, int expectedStatus) {
+        this.key = key;
+        this.label = label;
+        this.expectedStatus = expectedStatus;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getExpectedStatus() {
+        return expectedStatus;
+    }
+}
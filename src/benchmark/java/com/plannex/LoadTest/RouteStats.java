@@ -0,0 +1,4 @@
+package com.plannex.LoadTest;
+
+// One route's results. Latencies are in milliseconds, throughput in requests per second.
+public record RouteStats(Route route, int requests, int errors, double throughput, double p50, double p95, double p99, double max) { }
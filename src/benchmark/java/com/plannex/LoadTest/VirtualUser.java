@@ -0,0 +1,126 @@
+package com.plannex.LoadTest;
+
+import com.plannex.Dataset.SyntheticDataset;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+// One logged-in employee walking the main journey in a closed loop with no think time:
+// projects list, a project, one of its tasks, time on a subtask and a reassignment of that subtask.
+// Every loginEvery journeys the user starts over with a fresh login and session.
+// Only requests that start between measureFrom and stopAt are recorded, which leaves the warmup out.
+final class VirtualUser implements Runnable {
+    record Target(int projectID, int taskID, int subtaskID) { }
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final int employee;
+    private final int employees;
+    private final List<Target> targets;
+    private final int loginEvery;
+    private final long measureFrom;
+    private final long stopAt;
+    private final SplittableRandom random;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private String sessionCookie;
+
+    VirtualUser(HttpClient client, URI baseUri, int employee, int employees, List<Target> targets, int loginEvery, long measureFrom, long stopAt) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.employee = employee;
+        this.employees = employees;
+        this.targets = targets;
+        this.loginEvery = loginEvery;
+        this.measureFrom = measureFrom;
+        this.stopAt = stopAt;
+        this.random = new SplittableRandom(employee);
+    }
+
+    LatencyRecorder getRecorder() {
+        return recorder;
+    }
+
+    @Override
+    public void run() {
+        for (int journey = 0; System.nanoTime() < stopAt && !Thread.currentThread().isInterrupted(); journey++) {
+            if (sessionCookie == null || journey % loginEvery == 0) {
+                login();
+            }
+            if (sessionCookie == null) {
+                pauseAfterFailedLogin();
+                continue;
+            }
+
+            Target target = targets.get(random.nextInt(targets.size()));
+            String project = "/projects/" + target.projectID();
+            String subtask = project + "/tasks/" + target.taskID() + "/subtasks/" + target.subtaskID();
+            send(Route.PROJECTS, get("/projects"));
+            send(Route.PROJECT, get(project));
+            send(Route.TASK, get(project + "/tasks/" + target.taskID()));
+            send(Route.CONTRIBUTE_TIME, post(subtask + "/contribute-time", "timeSpent=" + (0.5 + random.nextInt(8) / 2.0)));
+            send(Route.ASSIGN_WORKERS, post(subtask + "/assign-workers",
+                    "usernames=" + SyntheticDataset.username(employee) + "&usernames=" + SyntheticDataset.username(random.nextInt(employees))));
+        }
+    }
+
+    private void login() {
+        String username = SyntheticDataset.username(employee);
+        sessionCookie = null;
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=" + username + "&password=" + SyntheticDataset.PASSWORD))
+                .build();
+
+        send(Route.LOGIN, request).ifPresent(response -> sessionCookie = response.headers().allValues("Set-Cookie").stream()
+                .filter(cookie -> cookie.startsWith("SESSION="))
+                .map(cookie -> cookie.substring(0, cookie.indexOf(';') < 0 ? cookie.length() : cookie.indexOf(';')))
+                .findFirst()
+                .orElse(null));
+    }
+
+    // A failed login is recorded as an error; retrying without a pause would only flood the results with more of them
+    private void pauseAfterFailedLogin() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).header("Cookie", sessionCookie).GET().build();
+    }
+
+    private HttpRequest post(String path, String form) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Cookie", sessionCookie)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+    }
+
+    private Optional<HttpResponse<Void>> send(Route route, HttpRequest request) {
+        long started = System.nanoTime();
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (started >= measureFrom && started < stopAt) {
+                recorder.record(route, System.nanoTime() - started, response.statusCode() == route.getExpectedStatus());
+            }
+            return Optional.of(response);
+        } catch (IOException ioe) {
+            if (started >= measureFrom && started < stopAt) {
+                recorder.record(route, System.nanoTime() - started, false);
+            }
+            return Optional.empty();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+}
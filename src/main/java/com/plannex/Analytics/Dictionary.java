@@ -0,0 +1,35 @@
+package com.plannex.Analytics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Dense codes from 0 for the values seen, in the order they were first seen. Values are only ever written past the
+// codes handed out, and the array is copied when outgrown, so values() read up to an earlier size() stays as it was.
+final class Dictionary<K> {
+    private final Map<K, Integer> codes = new HashMap<>();
+    private Object[] values = new Object[16];
+
+    int encode(K value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+
+        int next = codes.size();
+        if (next == values.length) {
+            values = Arrays.copyOf(values, next * 2);
+        }
+        values[next] = value;
+        codes.put(value, next);
+        return next;
+    }
+
+    int size() {
+        return codes.size();
+    }
+
+    Object[] values() {
+        return values;
+    }
+}
@@ -0,0 +1,68 @@
+package com.plannex.Analytics;
+
+import java.util.Arrays;
+
+// Hours and entries by group key, for group keys too many to give each a slot: open addressing over primitive arrays,
+// grown at half full, so a sum is a hash and a probe or two rather than a boxed key in a HashMap. A slot's hours and
+// entries sit side by side, so adding to them is one cache line.
+final class GroupSums {
+    private static final long EMPTY = -1;
+
+    private long[] keys = new long[1024];
+    private double[] sums = new double[2 * 1024]; // Hours and entries of slot i at 2i and 2i + 1
+    private int size;
+
+    GroupSums() {
+        Arrays.fill(keys, EMPTY);
+    }
+
+    void add(long key, double hoursToAdd, int entriesToAdd) {
+        int slot = slotOf(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            if (++size * 2 > keys.length) {
+                grow();
+                slot = slotOf(key);
+            }
+        }
+        sums[2 * slot] += hoursToAdd;
+        sums[2 * slot + 1] += entriesToAdd;
+    }
+
+    private int slotOf(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) (key * 0x9E3779B97F4A7C15L >>> 32) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        double[] oldSums = sums;
+        keys = new long[oldKeys.length * 2];
+        sums = new double[2 * keys.length];
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                sums[2 * slot] = oldSums[2 * i];
+                sums[2 * slot + 1] = oldSums[2 * i + 1];
+            }
+        }
+    }
+
+    interface Visitor {
+        void visit(long key, double hours, int entries);
+    }
+
+    void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                visitor.visit(keys[i], sums[2 * i], (int) sums[2 * i + 1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,530 @@
+package com.plannex.Analytics;
+
+import com.plannex.Event.EmployeeChanged;
+import com.plannex.Event.TimeContributed;
+import com.plannex.Event.TimeSpentChanged;
+import com.plannex.Exception.InvalidValueException;
+import com.plannex.Model.HoursQuery;
+import com.plannex.Model.HoursQuery.Dimension;
+import com.plannex.Model.HoursReport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Portfolio-wide sums of the hours logged, from a columnar snapshot of TimeSpent rather than a GROUP BY in the
+// database. Every entry on a visible subtask is a row across primitive arrays: its employee, project and task as
+// dictionary codes (dense ints from 0), its day as an epoch day and its hours. Skills are kept apart, as each
+// employee's skill and level codes, so an entry is not repeated for each of its employee's skills.
+// A query refreshes the snapshot if it is older than plannex.analytics.refresh-interval. Only entries logged after the
+// latest one read are loaded, going back plannex.analytics.overlap for entries committed after later ones; those
+// already read are skipped by their primary key. The time log sets _When on append but inserts later, after retrying
+// while the database is down or replaying after a restart, so a TimeContributed from before the next refresh's window
+// loads everything again. Skills are read whole every time. An entry changed or deleted, a task
+// moved, deleted or undeleted, a project deleted or undeleted (a TimeSpentChanged), or an employee renamed or deleted
+// (an EmployeeChanged) can't be told from _When, so once it is committed the next refresh loads everything again.
+// Rows are only written past the end of the published snapshot, and arrays outgrown are copied, so queries scan their
+// snapshot without locking while the next one is loaded.
+@Component
+public class TimeAnalytics {
+    static final int BLOCK = 1024;
+    static final int DENSE_GROUPS = 1 << 16; // Beyond this many possible groups, sums are hashed: slots for them all would no longer fit in cache
+
+    private static final String ENTRIES = """
+            SELECT ts.ByEmployee, ts._When, ts.HoursSpent, t.ProjectID, COALESCE(t.ParentTaskID, t.TaskID) AS TaskID
+            FROM TimeSpent AS ts
+            JOIN Tasks AS t ON t.TaskID = ts.OnTaskID
+            JOIN Projects AS p ON p.ProjectID = t.ProjectID
+            WHERE t.DeletedAt IS NULL AND p.DeletedAt IS NULL AND ts._When <= ?""";
+
+    private record EntryKey(String username, LocalDateTime when) { }
+
+    // Everything read so far, only touched while refreshing
+    private static final class Columns {
+        final long changes;
+        final Dictionary<String> employees = new Dictionary<>();
+        final Dictionary<Integer> projects = new Dictionary<>();
+        final Dictionary<Integer> tasks = new Dictionary<>();
+        int rows;
+        int[] employee = new int[BLOCK];
+        int[] project = new int[BLOCK];
+        int[] task = new int[BLOCK];
+        int[] day = new int[BLOCK];
+        float[] hours = new float[BLOCK];
+        int firstDay = Integer.MAX_VALUE;
+        int lastDay = Integer.MIN_VALUE;
+        int[] monthOfDay = new int[0]; // Month of day firstDay + i, counted from firstDay's month
+        LocalDateTime highWater;
+        Set<EntryKey> recent = new HashSet<>(); // The entries read logged within the overlap before highWater
+
+        Columns(long changes) {
+            this.changes = changes;
+        }
+
+        void add(String username, int projectID, int taskID, int epochDay, float entryHours) {
+            if (rows == hours.length) {
+                int capacity = rows * 2;
+                employee = Arrays.copyOf(employee, capacity);
+                project = Arrays.copyOf(project, capacity);
+                task = Arrays.copyOf(task, capacity);
+                day = Arrays.copyOf(day, capacity);
+                hours = Arrays.copyOf(hours, capacity);
+            }
+            employee[rows] = employees.encode(username);
+            project[rows] = projects.encode(projectID);
+            task[rows] = tasks.encode(taskID);
+            day[rows] = epochDay;
+            hours[rows] = entryHours;
+            rows++;
+            firstDay = Math.min(firstDay, epochDay);
+            lastDay = Math.max(lastDay, epochDay);
+        }
+
+        // A new table only when the days span further, as a published snapshot may be reading the old one
+        void coverDays() {
+            if (rows == 0 || monthOfDay.length == lastDay - firstDay + 1) {
+                return;
+            }
+
+            monthOfDay = new int[lastDay - firstDay + 1];
+            int firstMonth = monthIndex(LocalDate.ofEpochDay(firstDay));
+            for (int i = 0; i < monthOfDay.length; i++) {
+                monthOfDay[i] = monthIndex(LocalDate.ofEpochDay(firstDay + i)) - firstMonth;
+            }
+        }
+    }
+
+    // Each employee's skills are skill[first[e] .. first[e + 1]) and level[first[e] .. first[e + 1])
+    private record Skills(String[] titles, String[] levels, int[] first, int[] skill, int[] level) {
+        boolean matches(int entry, HoursQuery query) {
+            return (query.skillTitle() == null || titles[skill[entry]].equalsIgnoreCase(query.skillTitle()))
+                    && (query.skillLevel() == null || levels[level[entry]].equalsIgnoreCase(query.skillLevel()));
+        }
+    }
+
+    // What a query scans: the columns up to rows, and the dictionaries and month table as they were at the refresh
+    private static final class Snapshot {
+        final long changes;
+        final long refreshedNanos = System.nanoTime();
+        final LocalDateTime refreshedAt = LocalDateTime.now();
+        final int rows;
+        final int[] employee;
+        final int[] project;
+        final int[] task;
+        final int[] day;
+        final float[] hours;
+        final Object[] usernames;
+        final int employeeCount;
+        final Object[] projectIDs;
+        final int projectCount;
+        final Object[] taskIDs;
+        final int taskCount;
+        final int firstDay;
+        final int firstMonth;
+        final int[] monthOfDay;
+        final String[] months; // As yyyy-MM, from firstDay's month
+        final Skills skills;
+
+        Snapshot(Columns columns, Skills skills) {
+            this.changes = columns.changes;
+            this.rows = columns.rows;
+            this.employee = columns.employee;
+            this.project = columns.project;
+            this.task = columns.task;
+            this.day = columns.day;
+            this.hours = columns.hours;
+            this.usernames = columns.employees.values();
+            this.employeeCount = columns.employees.size();
+            this.projectIDs = columns.projects.values();
+            this.projectCount = columns.projects.size();
+            this.taskIDs = columns.tasks.values();
+            this.taskCount = columns.tasks.size();
+            this.firstDay = columns.firstDay;
+            this.firstMonth = rows == 0 ? 0 : monthIndex(LocalDate.ofEpochDay(columns.firstDay));
+            this.monthOfDay = columns.monthOfDay;
+            this.months = new String[monthOfDay.length == 0 ? 0 : monthOfDay[monthOfDay.length - 1] + 1];
+            for (int m = 0; m < months.length; m++) {
+                months[m] = YearMonth.of((firstMonth + m) / 12, (firstMonth + m) % 12 + 1).toString();
+            }
+            this.skills = skills;
+        }
+
+        int cardinality(Dimension dimension) {
+            int cardinality = switch (dimension) {
+                case PROJECT -> projectCount;
+                case TASK -> taskCount;
+                case EMPLOYEE -> employeeCount;
+                case MONTH -> months.length;
+                case SKILL -> skills.titles().length;
+                case SKILL_LEVEL -> skills.levels().length;
+            };
+            return Math.max(1, cardinality);
+        }
+
+        int[] column(Dimension dimension) {
+            return switch (dimension) {
+                case PROJECT -> project;
+                case TASK -> task;
+                case EMPLOYEE -> employee;
+                case MONTH -> day;
+                case SKILL, SKILL_LEVEL -> throw new IllegalArgumentException(dimension + " is not a column.");
+            };
+        }
+
+        // What each code of the dimension stands for
+        Object[] values(Dimension dimension) {
+            return switch (dimension) {
+                case PROJECT -> projectIDs;
+                case TASK -> taskIDs;
+                case EMPLOYEE -> usernames;
+                case MONTH -> months;
+                case SKILL -> skills.titles();
+                case SKILL_LEVEL -> skills.levels();
+            };
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long refreshIntervalNanos;
+    private final Duration overlap;
+    private final AtomicLong changes = new AtomicLong();
+    private final Object refreshing = new Object();
+    private Columns columns; // Guarded by refreshing
+    private volatile LocalDateTime readSince; // Where the next refresh starts reading, at the latest
+    private volatile Snapshot snapshot;
+
+    public TimeAnalytics(JdbcTemplate jdbcTemplate,
+                         @Value("${plannex.analytics.refresh-interval:10s}") Duration refreshInterval,
+                         @Value("${plannex.analytics.overlap:5m}") Duration overlap) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        this.overlap = overlap;
+    }
+
+    private static int monthIndex(LocalDate day) {
+        return day.getYear() * 12 + day.getMonthValue() - 1;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(TimeContributed contribution) {
+        LocalDateTime since = readSince;
+        if (since != null && !contribution.when().isAfter(since)) {
+            changed();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(TimeSpentChanged change) {
+        changed();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(EmployeeChanged change) {
+        changed();
+    }
+
+    public void changed() {
+        changes.incrementAndGet();
+    }
+
+    private boolean isFresh(Snapshot current) {
+        return current != null && current.changes == changes.get() && System.nanoTime() - current.refreshedNanos < refreshIntervalNanos;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+
+        synchronized (refreshing) {
+            current = snapshot;
+            if (isFresh(current)) {
+                return current; // Refreshed while this waited
+            }
+
+            long changesBefore = changes.get();
+            if (columns == null || columns.changes != changesBefore) {
+                columns = new Columns(changesBefore);
+            }
+            readEntries(columns);
+            current = new Snapshot(columns, readSkills(columns.employees));
+            snapshot = current;
+            return current;
+        }
+    }
+
+    // Up to the latest _When when this starts, so the overlap is counted back from a time every entry before it is read by
+    private void readEntries(Columns columns) {
+        LocalDateTime upTo = jdbcTemplate.queryForObject("SELECT MAX(_When) FROM TimeSpent;", LocalDateTime.class);
+        if (upTo == null) {
+            return;
+        }
+
+        LocalDateTime since = columns.highWater == null ? null : columns.highWater.minus(overlap);
+        LocalDateTime recentAfter = upTo.minus(overlap);
+        // Moved on before reading, so an entry inserted meanwhile is either read now or compared with the next start
+        readSince = columns.highWater == null || upTo.isAfter(columns.highWater) ? recentAfter : since;
+        Set<EntryKey> seen = columns.recent;
+        Set<EntryKey> recent = new HashSet<>();
+        jdbcTemplate.query(since == null ? ENTRIES + ";" : ENTRIES + " AND ts._When > ?;", rs -> {
+            String username = rs.getString("ByEmployee");
+            LocalDateTime when = rs.getObject("_When", LocalDateTime.class);
+            EntryKey key = null;
+            if (when.isAfter(recentAfter)) {
+                key = new EntryKey(username, when);
+                recent.add(key);
+            }
+            if (since != null && seen.contains(key != null ? key : new EntryKey(username, when))) {
+                return;
+            }
+
+            columns.add(username, rs.getInt("ProjectID"), rs.getInt("TaskID"), (int) when.toLocalDate().toEpochDay(), rs.getFloat("HoursSpent"));
+        }, since == null ? new Object[] { upTo } : new Object[] { upTo, since });
+
+        columns.highWater = columns.highWater == null || upTo.isAfter(columns.highWater) ? upTo : columns.highWater;
+        columns.recent = recent;
+        columns.coverDays();
+    }
+
+    private Skills readSkills(Dictionary<String> employees) {
+        Dictionary<String> titles = new Dictionary<>();
+        Dictionary<String> levels = new Dictionary<>();
+        List<int[]> rows = new ArrayList<>();
+        jdbcTemplate.query("SELECT EmployeeUsername, SkillTitle, SkillLevel FROM EmployeeSkills;", rs -> {
+            rows.add(new int[] { employees.encode(rs.getString("EmployeeUsername")), titles.encode(rs.getString("SkillTitle")), levels.encode(rs.getString("SkillLevel")) });
+        });
+
+        int[] first = new int[employees.size() + 1];
+        rows.forEach(row -> first[row[0] + 1]++);
+        for (int e = 0; e < employees.size(); e++) {
+            first[e + 1] += first[e];
+        }
+        int[] filled = Arrays.copyOf(first, employees.size());
+        int[] skill = new int[rows.size()];
+        int[] level = new int[rows.size()];
+        for (int[] row : rows) {
+            skill[filled[row[0]]] = row[1];
+            level[filled[row[0]]++] = row[2];
+        }
+        return new Skills(Arrays.copyOf(titles.values(), titles.size(), String[].class),
+                Arrays.copyOf(levels.values(), levels.size(), String[].class), first, skill, level);
+    }
+
+    public HoursReport sumHours(HoursQuery query) {
+        List<Dimension> groupBy = query.groupBy();
+        if (new HashSet<>(groupBy).size() != groupBy.size()) {
+            throw new InvalidValueException("Each dimension may only be grouped by once.");
+        }
+
+        Snapshot s = current();
+        long started = System.nanoTime();
+
+        // Skills are not a column: the rows are grouped by employee too, and each employee's sums then go to their skills
+        boolean bySkill = groupBy.contains(Dimension.SKILL) || groupBy.contains(Dimension.SKILL_LEVEL);
+        List<Dimension> scanned = new ArrayList<>(groupBy.stream().filter(d -> d != Dimension.SKILL && d != Dimension.SKILL_LEVEL).toList());
+        if (bySkill && !scanned.contains(Dimension.EMPLOYEE)) {
+            scanned.add(Dimension.EMPLOYEE);
+        }
+        int[] scannedRadix = radix(s, scanned);
+        int[] radix = radix(s, groupBy);
+
+        Object[][] values = new Object[groupBy.size()][];
+        for (int d = 0; d < values.length; d++) {
+            values[d] = s.values(groupBy.get(d));
+        }
+        List<HoursReport.Group> groups = new ArrayList<>();
+        GroupSums.Visitor toGroup = (key, hours, entries) -> {
+            int[] codes = digits(key, radix);
+            Object[] keys = new Object[codes.length];
+            for (int d = 0; d < codes.length; d++) {
+                keys[d] = values[d][codes[d]];
+            }
+            groups.add(new HoursReport.Group(List.of(keys), hours, entries));
+        };
+
+        double[] totals = new double[2];
+        GroupSums bySkills = new GroupSums();
+        scan(s, query, scanned, scannedRadix, (key, hours, entries) -> {
+            totals[0] += hours;
+            totals[1] += entries;
+            if (!bySkill) {
+                toGroup.visit(key, hours, entries); // Already keyed by groupBy
+                return;
+            }
+
+            int[] codes = digits(key, scannedRadix);
+            Skills skills = s.skills;
+            int employee = codes[scanned.indexOf(Dimension.EMPLOYEE)];
+            for (int e = skills.first()[employee]; e < skills.first()[employee + 1]; e++) {
+                if (skills.matches(e, query)) {
+                    long groupKey = 0;
+                    for (int d = 0; d < groupBy.size(); d++) {
+                        int code = switch (groupBy.get(d)) {
+                            case SKILL -> skills.skill()[e];
+                            case SKILL_LEVEL -> skills.level()[e];
+                            default -> codes[scanned.indexOf(groupBy.get(d))];
+                        };
+                        groupKey = groupKey * radix[d] + code;
+                    }
+                    bySkills.add(groupKey, hours, entries);
+                }
+            }
+        });
+        bySkills.forEach(toGroup);
+        groups.sort((a, b) -> Double.compare(b.hours(), a.hours()));
+        return new HoursReport(groupBy, groups, totals[0], (int) totals[1], s.rows, s.refreshedAt, (System.nanoTime() - started) / 1000);
+    }
+
+    private static int[] radix(Snapshot s, List<Dimension> dimensions) {
+        int[] radix = new int[dimensions.size()];
+        long groups = 1;
+        for (int d = 0; d < radix.length; d++) {
+            radix[d] = s.cardinality(dimensions.get(d));
+            groups *= radix[d];
+            if (groups > Long.MAX_VALUE / Integer.MAX_VALUE) {
+                throw new InvalidValueException("Grouping by " + dimensions + " makes too many groups.");
+            }
+        }
+        return radix;
+    }
+
+    private static int[] digits(long key, int[] radix) {
+        int[] codes = new int[radix.length];
+        for (int d = radix.length - 1; d >= 0; d--) {
+            codes[d] = (int) (key % radix[d]);
+            key /= radix[d];
+        }
+        return codes;
+    }
+
+    // Sums the matching rows into their groups, BLOCK rows at a time: each group key is built one dimension at a time
+    // as mixed-radix digits, rows filtered out get the key groups, and the sums are then added in one pass. Each pass
+    // is a plain loop over arrays the JIT can unroll. Up to DENSE_GROUPS keys each get a slot, hours and entries side by
+    // side, more are hashed.
+    private static void scan(Snapshot s, HoursQuery query, List<Dimension> scanned, int[] radix, GroupSums.Visitor visitor) {
+        long groups = 1;
+        for (int digits : radix) {
+            groups *= digits;
+        }
+        int[][] columns = new int[scanned.size()][];
+        for (int d = 0; d < columns.length; d++) {
+            columns[d] = s.column(scanned.get(d));
+        }
+        int month = scanned.indexOf(Dimension.MONTH);
+        boolean[] projects = mask(query.projectIDs(), s.projectIDs, s.projectCount);
+        boolean[] employees = employeeMask(s, query);
+        int fromDay = query.from() == null ? Integer.MIN_VALUE : (int) query.from().toEpochDay();
+        int toDay = query.to() == null ? Integer.MAX_VALUE : (int) query.to().toEpochDay();
+        boolean dense = groups <= DENSE_GROUPS;
+        double[] slots = dense ? new double[2 * ((int) groups + 1)] : null; // Hours and entries of key k at 2k and 2k + 1; the last takes the rows filtered out
+        GroupSums sums = dense ? null : new GroupSums();
+
+        long[] keys = new long[BLOCK];
+        int[] day = s.day;
+        int[] monthOfDay = s.monthOfDay;
+        float[] hours = s.hours;
+        for (int first = 0; first < s.rows; first += BLOCK) {
+            int width = Math.min(BLOCK, s.rows - first);
+            Arrays.fill(keys, 0, width, 0);
+            for (int d = 0; d < columns.length; d++) {
+                int[] column = columns[d];
+                long digits = radix[d];
+                if (d == month) {
+                    for (int i = 0; i < width; i++) {
+                        keys[i] = keys[i] * digits + monthOfDay[day[first + i] - s.firstDay];
+                    }
+                } else {
+                    for (int i = 0; i < width; i++) {
+                        keys[i] = keys[i] * digits + column[first + i];
+                    }
+                }
+            }
+
+            if (fromDay != Integer.MIN_VALUE || toDay != Integer.MAX_VALUE) {
+                for (int i = 0; i < width; i++) {
+                    keys[i] = day[first + i] < fromDay || day[first + i] > toDay ? groups : keys[i];
+                }
+            }
+            if (projects != null) {
+                int[] project = s.project;
+                for (int i = 0; i < width; i++) {
+                    keys[i] = projects[project[first + i]] ? keys[i] : groups;
+                }
+            }
+            if (employees != null) {
+                int[] employee = s.employee;
+                for (int i = 0; i < width; i++) {
+                    keys[i] = employees[employee[first + i]] ? keys[i] : groups;
+                }
+            }
+
+            if (dense) {
+                for (int i = 0; i < width; i++) {
+                    int slot = 2 * (int) keys[i];
+                    slots[slot] += hours[first + i];
+                    slots[slot + 1]++;
+                }
+            } else {
+                for (int i = 0; i < width; i++) {
+                    if (keys[i] != groups) {
+                        sums.add(keys[i], hours[first + i], 1);
+                    }
+                }
+            }
+        }
+
+        if (dense) {
+            for (int key = 0; key < groups; key++) {
+                if (slots[2 * key + 1] != 0) {
+                    visitor.visit(key, slots[2 * key], (int) slots[2 * key + 1]);
+                }
+            }
+        } else {
+            sums.forEach(visitor);
+        }
+    }
+
+    private static boolean[] mask(Set<Integer> allowed, Object[] values, int count) {
+        if (allowed.isEmpty()) {
+            return null;
+        }
+
+        boolean[] mask = new boolean[count];
+        for (int code = 0; code < count; code++) {
+            mask[code] = allowed.contains(values[code]);
+        }
+        return mask;
+    }
+
+    private static boolean[] employeeMask(Snapshot s, HoursQuery query) {
+        if (query.usernames().isEmpty() && !query.filtersSkills()) {
+            return null;
+        }
+
+        Skills skills = s.skills;
+        boolean[] mask = new boolean[s.employeeCount];
+        for (int code = 0; code < s.employeeCount; code++) {
+            boolean allowed = query.usernames().isEmpty() || query.usernames().contains((String) s.usernames[code]);
+            if (allowed && query.filtersSkills()) {
+                allowed = false;
+                for (int e = skills.first()[code]; e < skills.first()[code + 1] && !allowed; e++) {
+                    allowed = skills.matches(e, query);
+                }
+            }
+            mask[code] = allowed;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,8 @@
+package com.plannex.Audit;
+
+import java.time.Instant;
+
+// One row of the AuditLog table. Before and after are JSON, null where there is nothing (before a create, after a delete).
+public record AuditEvent(Instant occurredAt, String actor, AuditEvent.Action action, String entity, String entityKey, String before, String after) {
+    public enum Action { CREATE, UPDATE, DELETE }
+}
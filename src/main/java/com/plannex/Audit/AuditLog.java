@@ -0,0 +1,285 @@
+package com.plannex.Audit;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.plannex.Concurrent.BoundedMpscQueue;
+import com.plannex.Model.ProjectEmployee;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Append-only trail of every create, update and delete the repositories make, in the AuditLog table.
+// record() only serialises the values and, once the current transaction (if any) commits, puts the event in a bounded
+// buffer, so a rolled-back write leaves no trace; a background writer inserts them in batches of up to
+// plannex.audit.batch-size, as soon as a batch is full or plannex.audit.flush-interval has passed.
+// What happens when the buffer is full is plannex.audit.when-full:
+//   BLOCK          the caller waits for room, at most plannex.audit.block-timeout, then the event is dropped
+//   DROP           the event is dropped straight away
+//   WRITE_THROUGH  the caller inserts the event itself
+// Dropped events are counted (plannex_audit_events_dropped_total) and logged. Shutting down writes out what is buffered.
+// The actor is the logged-in username of the current request, or "system" outside of one.
+@Component
+public class AuditLog implements DisposableBean, MeterBinder {
+    public enum WhenFull { BLOCK, DROP, WRITE_THROUGH }
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+    private static final String INSERT = "INSERT INTO AuditLog (OccurredAt, Actor, Action, Entity, EntityKey, BeforeValue, AfterValue) VALUES (?, ?, ?, ?, ?, ?, ?);";
+    static final String SYSTEM = "system";
+
+    // Password hashes stay out of the trail
+    @JsonIgnoreProperties({ "employeePassword" })
+    private abstract static class WithoutPassword { }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final WhenFull whenFull;
+    private final long blockTimeoutNanos;
+    private final JsonMapper jsonMapper = JsonMapper.builder().addMixIn(ProjectEmployee.class, WithoutPassword.class).build();
+    private final BoundedMpscQueue<AuditEvent> buffer;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public AuditLog(JdbcTemplate jdbcTemplate,
+                    @Value("${plannex.audit.enabled:true}") boolean enabled,
+                    @Value("${plannex.audit.capacity:8192}") int capacity,
+                    @Value("${plannex.audit.batch-size:256}") int batchSize,
+                    @Value("${plannex.audit.flush-interval:200ms}") Duration flushInterval,
+                    @Value("${plannex.audit.when-full:BLOCK}") WhenFull whenFull,
+                    @Value("${plannex.audit.block-timeout:1s}") Duration blockTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.whenFull = whenFull;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.buffer = new BoundedMpscQueue<>(capacity);
+        this.writer = Thread.ofPlatform().name("audit-writer").daemon().unstarted(this::writeUntilStopped);
+        if (enabled) {
+            writer.start();
+        }
+    }
+
+    public void created(String entity, Object key, Object after) {
+        record(AuditEvent.Action.CREATE, entity, key, null, after);
+    }
+
+    public void updated(String entity, Object key, Object before, Object after) {
+        record(AuditEvent.Action.UPDATE, entity, key, before, after);
+    }
+
+    public void deleted(String entity, Object key, Object before) {
+        record(AuditEvent.Action.DELETE, entity, key, before, null);
+    }
+
+    // For writes made outside the request they were asked for in, which would otherwise be put down to "system"
+    public void createdBy(String actor, String entity, Object key, Object after) {
+        record(actor, AuditEvent.Action.CREATE, entity, key, null, after);
+    }
+
+    public void record(AuditEvent.Action action, String entity, Object key, Object before, Object after) {
+        if (enabled) {
+            record(currentActor(), action, entity, key, before, after);
+        }
+    }
+
+    private void record(String actor, AuditEvent.Action action, String entity, Object key, Object before, Object after) {
+        if (!enabled) {
+            return;
+        }
+
+        // Serialised here rather than by the writer, so a caller changing the object afterwards cannot change the record
+        AuditEvent event = new AuditEvent(Instant.now(), actor, action, entity, String.valueOf(key), json(before), json(after));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(event);
+                }
+            });
+        } else {
+            offer(event);
+        }
+    }
+
+    private void offer(AuditEvent event) {
+        if (!running) {
+            writeThrough(event); // Shutting down: the writer may already have finished
+            return;
+        }
+
+        if (buffer.offer(event)) {
+            if (buffer.size() >= batchSize) {
+                LockSupport.unpark(writer); // A full batch is waiting; no need to sit out the flush interval
+            }
+            return;
+        }
+
+        switch (whenFull) {
+            case BLOCK -> {
+                long deadline = System.nanoTime() + blockTimeoutNanos;
+                while (!buffer.offer(event)) {
+                    if (System.nanoTime() - deadline > 0) {
+                        drop(event);
+                        return;
+                    }
+                    LockSupport.unpark(writer);
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                }
+            }
+            case DROP -> drop(event);
+            case WRITE_THROUGH -> writeThrough(event);
+        }
+    }
+
+    // For entities without a model class: values("taskID", 3, "employeeUsername", "marqs") is written as {"taskID":3,"employeeUsername":"marqs"}
+    public static Map<String, Object> values(Object... namesAndValues) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < namesAndValues.length; i += 2) {
+            values.put(String.valueOf(namesAndValues[i]), namesAndValues[i + 1]);
+        }
+        return values;
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public int getBufferedCount() {
+        return buffer.size();
+    }
+
+    private String currentActor() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        Object username = request == null ? null : request.getAttribute("username", RequestAttributes.SCOPE_SESSION);
+        return username == null ? SYSTEM : username.toString();
+    }
+
+    private String json(Object value) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return jsonMapper.writeValueAsString(value);
+        } catch (JacksonException je) {
+            return String.valueOf(value);
+        }
+    }
+
+    private void drop(AuditEvent event) {
+        if (dropped.incrementAndGet() % 1000 == 1) { // The first and then every thousandth, so a stuck database does not flood the log
+            log.warn("Audit buffer full, dropped {} event(s) so far, e.g. {} {} {}", dropped.get(), event.action(), event.entity(), event.entityKey());
+        }
+    }
+
+    private void writeThrough(AuditEvent event) {
+        write(List.of(event));
+    }
+
+    private void writeUntilStopped() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (buffer.drainTo(batch, batchSize) < batchSize) {
+                LockSupport.parkNanos(flushIntervalNanos); // Let a part batch grow, unless record() wakes us early
+                buffer.drainTo(batch, batchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (ps, event) -> {
+                ps.setTimestamp(1, Timestamp.from(event.occurredAt()));
+                ps.setString(2, event.actor());
+                ps.setString(3, event.action().name());
+                ps.setString(4, event.entity());
+                ps.setString(5, event.entityKey());
+                ps.setString(6, event.before());
+                ps.setString(7, event.after());
+            });
+            written.addAndGet(batch.size());
+        } catch (BadSqlGrammarException bsge) {
+            failed.addAndGet(batch.size());
+            log.debug("No audit table to write {} event(s) to: {}", batch.size(), bsge.getMessage());
+        } catch (DataAccessException dae) {
+            failed.addAndGet(batch.size());
+            log.warn("Could not write {} audit event(s)", batch.size(), dae);
+        }
+    }
+
+    // Waits for the writer to insert what is buffered; record() writes straight through from here on
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        if (writer.isAlive()) {
+            writer.join(Duration.ofSeconds(30));
+        }
+
+        // Anything offered while the writer was on its last drain; with the writer gone, this thread may consume
+        List<AuditEvent> rest = new ArrayList<>();
+        if (!writer.isAlive() && buffer.drainTo(rest, Integer.MAX_VALUE) > 0) {
+            write(rest);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("plannex.audit.buffered", buffer, BoundedMpscQueue::size)
+                .description("Audit events waiting to be written").register(registry);
+        FunctionCounter.builder("plannex.audit.events.written", written, AtomicLong::get)
+                .description("Audit events inserted").register(registry);
+        FunctionCounter.builder("plannex.audit.events.dropped", dropped, AtomicLong::get)
+                .description("Audit events dropped because the buffer was full").register(registry);
+        FunctionCounter.builder("plannex.audit.events.failed", failed, AtomicLong::get)
+                .description("Audit events the database refused").register(registry);
+    }
+}
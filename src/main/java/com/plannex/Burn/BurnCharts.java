@@ -0,0 +1,213 @@
+package com.plannex.Burn;
+
+import com.plannex.Event.TimeContributed;
+import com.plannex.Event.TimeSpentChanged;
+import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Exception.InvalidValueException;
+import com.plannex.Exception.NotSupportedException;
+import com.plannex.Model.BurnChart;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Burn-up and burn-down charts of projects and their tasks. The hours spent are summed by day in the database once per
+// project and kept as DailyTotals, for the project and for each task, so a chart over any range reads each day's
+// point straight off them. Each TimeContributed is added as the time log inserts it, which for time contributed today
+// only changes the last day; a TimeSpentChanged drops the project's totals once committed, to be summed again when next
+// asked for (a sum that raced the commit is not kept). The estimates and planned dates are read every time, so a
+// TaskPlanChanged needs nothing here.
+// Totals are kept for the plannex.burn.max-projects projects charted last. Each instance only sees its own writes,
+// like the search index.
+@Component
+public class BurnCharts {
+    // The project's totals, null while not built (or dropped); changes counts what came in since, so a build that
+    // raced a contribution is not kept
+    private static final class Slot {
+        ProjectTotals totals;
+        long changes;
+    }
+
+    private record ProjectTotals(DailyTotals project, Map<Integer, DailyTotals> byTask) { }
+
+    private record Plan(int projectID, LocalDate start, LocalDate end, float estimateHours) { }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxDays;
+    private final Map<Integer, Slot> slots;
+
+    public BurnCharts(JdbcTemplate jdbcTemplate,
+                      @Value("${plannex.burn.max-projects:256}") int maxProjects,
+                      @Value("${plannex.burn.max-days:3660}") int maxDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxDays = maxDays;
+        this.slots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Slot> eldest) {
+                return size() > maxProjects;
+            }
+        };
+    }
+
+    // From and to may be null, for the planned dates or the days with hours, whichever reach further
+    public BurnChart forProject(int projectID, LocalDate from, LocalDate to) {
+        Plan plan = jdbcTemplate.query("""
+                        SELECT p.ProjectStart, p.ProjectEnd, COALESCE(SUM(t.TaskDurationHours), 0) AS EstimateHours
+                        FROM VisibleProjects AS p LEFT JOIN VisibleTasks AS t ON t.ProjectID = p.ProjectID AND t.ParentTaskID IS NULL
+                        WHERE p.ProjectID = ? GROUP BY p.ProjectStart, p.ProjectEnd;""",
+                        (rs, rowNum) -> new Plan(projectID, rs.getObject("ProjectStart", LocalDate.class), rs.getObject("ProjectEnd", LocalDate.class), rs.getFloat("EstimateHours")),
+                        projectID)
+                .stream().findFirst().orElseThrow(() -> new EntityDoesNotExistException("No project with ID " + projectID + " exists."));
+        return chart(plan, 0, from, to);
+    }
+
+    public BurnChart forTask(int taskID, LocalDate from, LocalDate to) {
+        record TaskPlan(Plan plan, boolean ofSubtask) { }
+        TaskPlan taskPlan = jdbcTemplate.query("SELECT ProjectID, ParentTaskID, TaskStart, TaskEnd, TaskDurationHours FROM VisibleTasks WHERE TaskID = ?;",
+                        (rs, rowNum) -> new TaskPlan(new Plan(rs.getInt("ProjectID"), rs.getObject("TaskStart", LocalDate.class), rs.getObject("TaskEnd", LocalDate.class),
+                                rs.getFloat("TaskDurationHours")), rs.getInt("ParentTaskID") != 0), taskID)
+                .stream().findFirst().orElseThrow(() -> new EntityDoesNotExistException("No task with ID " + taskID + " exists."));
+        if (taskPlan.ofSubtask()) {
+            throw new NotSupportedException("Burn charts are for projects and tasks, not subtasks.");
+        }
+
+        return chart(taskPlan.plan(), taskID, from, to);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(TimeContributed contribution) {
+        timeContributed(contribution.projectID(), contribution.taskID(), contribution.when().toLocalDate(), contribution.hours());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(TimeSpentChanged change) {
+        invalidate(change.projectID());
+    }
+
+    public void timeContributed(int projectID, int taskID, LocalDate day, double hours) {
+        synchronized (slots) {
+            Slot slot = slots.get(projectID);
+            if (slot == null) {
+                return;
+            }
+
+            slot.changes++;
+            if (slot.totals != null && !(slot.totals.project().add(day, hours)
+                    && slot.totals.byTask().computeIfAbsent(taskID, id -> new DailyTotals()).add(day, hours))) {
+                slot.totals = null;
+            }
+        }
+    }
+
+    public void invalidate(int projectID) {
+        synchronized (slots) {
+            Slot slot = slots.get(projectID);
+            if (slot != null) {
+                slot.changes++;
+                slot.totals = null;
+            }
+        }
+    }
+
+    private BurnChart chart(Plan plan, int taskID, LocalDate from, LocalDate to) {
+        ProjectTotals totals = totalsFor(plan.projectID());
+        synchronized (slots) {
+            DailyTotals hours = taskID == 0 ? totals.project() : totals.byTask().getOrDefault(taskID, new DailyTotals());
+            if (from == null) {
+                from = earlier(plan.start(), hours.getFirstDay());
+            }
+            if (to == null) {
+                to = later(plan.end(), hours.getLastDay());
+            }
+            if (from == null || to == null) {
+                from = to = LocalDate.now(); // Neither planned dates nor hours
+            }
+            if (to.isBefore(from)) {
+                throw new InvalidValueException("The chart should end on or after the day it starts.");
+            }
+            if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+                throw new InvalidValueException("A chart may cover at most " + maxDays + " days.");
+            }
+
+            int days = Math.toIntExact(ChronoUnit.DAYS.between(from, to)) + 1;
+            List<LocalDate> dates = new ArrayList<>(days);
+            double[] spent = new double[days];
+            double[] remaining = new double[days];
+            double[] ideal = new double[days];
+            for (int i = 0; i < days; i++) {
+                LocalDate day = from.plusDays(i);
+                dates.add(day);
+                spent[i] = hours.through(day);
+                remaining[i] = Math.max(0, plan.estimateHours() - spent[i]);
+                ideal[i] = idealRemaining(plan, day);
+            }
+            return new BurnChart(plan.projectID(), taskID, plan.estimateHours(), plan.start(), plan.end(), from, to,
+                    hours.between(from, to), dates, spent, remaining, ideal);
+        }
+    }
+
+    // All of the estimate until the planned start, down to nothing on the planned end
+    private static double idealRemaining(Plan plan, LocalDate day) {
+        if (plan.start() == null || plan.end() == null || !day.isAfter(plan.start())) {
+            return plan.estimateHours();
+        }
+
+        long planned = ChronoUnit.DAYS.between(plan.start(), plan.end());
+        if (planned <= 0 || !day.isBefore(plan.end())) {
+            return 0;
+        }
+        return plan.estimateHours() * (1 - (double) ChronoUnit.DAYS.between(plan.start(), day) / planned);
+    }
+
+    private ProjectTotals totalsFor(int projectID) {
+        Slot slot;
+        long changes;
+        synchronized (slots) {
+            slot = slots.computeIfAbsent(projectID, id -> new Slot());
+            if (slot.totals != null) {
+                return slot.totals;
+            }
+            changes = slot.changes;
+        }
+
+        ProjectTotals built = build(projectID);
+        synchronized (slots) {
+            if (slots.get(projectID) == slot && slot.changes == changes) {
+                slot.totals = built;
+            }
+        }
+        return built;
+    }
+
+    // Only subtasks have hours, so ParentTaskID is the task they count towards
+    private ProjectTotals build(int projectID) {
+        DailyTotals project = new DailyTotals();
+        Map<Integer, DailyTotals> byTask = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT t.ParentTaskID, CAST(ts._When AS DATE) AS SpentOn, SUM(ts.HoursSpent) AS Hours
+                FROM TimeSpent AS ts JOIN VisibleTasks AS t ON t.TaskID = ts.OnTaskID
+                WHERE t.ProjectID = ? GROUP BY t.ParentTaskID, CAST(ts._When AS DATE) ORDER BY SpentOn;""", rs -> {
+            LocalDate day = rs.getObject("SpentOn", LocalDate.class);
+            double hours = rs.getDouble("Hours");
+            project.add(day, hours);
+            byTask.computeIfAbsent(rs.getInt("ParentTaskID"), id -> new DailyTotals()).add(day, hours);
+        }, projectID);
+        return new ProjectTotals(project, byTask);
+    }
+
+    private static LocalDate earlier(LocalDate a, LocalDate b) {
+        return a == null ? b : b == null || a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate later(LocalDate a, LocalDate b) {
+        return a == null ? b : b == null || a.isAfter(b) ? a : b;
+    }
+}
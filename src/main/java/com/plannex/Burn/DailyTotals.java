@@ -0,0 +1,63 @@
+package com.plannex.Burn;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+// Hours spent by day, kept as running totals from the first day with any: cumulative[i] is everything up to and
+// including the i-th day. The hours up to a day, or between two, are then one or two array reads however long the
+// range. Time is contributed now, so adding it touches the last day only; a day before the first does not fit.
+// Not thread-safe: BurnCharts guards it.
+public final class DailyTotals {
+    private LocalDate first; // Null until there are hours
+    private double[] cumulative = new double[16];
+    private int days;
+
+    // False for a day before the first, which takes building them again
+    public boolean add(LocalDate day, double hours) {
+        if (first == null) {
+            first = day;
+        }
+
+        long offset = ChronoUnit.DAYS.between(first, day);
+        if (offset < 0) {
+            return false;
+        }
+
+        int index = Math.toIntExact(offset);
+        if (index >= days) {
+            if (index >= cumulative.length) {
+                cumulative = Arrays.copyOf(cumulative, Math.max(index + 1, cumulative.length * 2));
+            }
+            Arrays.fill(cumulative, days, index + 1, days == 0 ? 0 : cumulative[days - 1]);
+            days = index + 1;
+        }
+        for (int i = index; i < days; i++) {
+            cumulative[i] += hours;
+        }
+        return true;
+    }
+
+    // Null without any hours
+    public LocalDate getFirstDay() {
+        return first;
+    }
+
+    public LocalDate getLastDay() {
+        return first == null ? null : first.plusDays(days - 1);
+    }
+
+    // Everything up to and including the day
+    public double through(LocalDate day) {
+        if (first == null || day.isBefore(first)) {
+            return 0;
+        }
+
+        return cumulative[(int) Math.min(ChronoUnit.DAYS.between(first, day), days - 1)];
+    }
+
+    // Both days included
+    public double between(LocalDate from, LocalDate to) {
+        return through(to) - through(from.minusDays(1));
+    }
+}
@@ -0,0 +1,83 @@
+package com.plannex.Concurrent;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// A bounded ring buffer for many producers and one consumer, without locks (after Dmitry Vyukov's bounded MPMC queue).
+// Each slot carries a sequence number: equal to a position when the slot is free for the producer claiming that
+// position, one past it once the item is in. Producers claim positions by compare-and-set on tail; the consumer
+// is the only one to move head. A full buffer refuses the item rather than waiting, and the caller decides what to do.
+// AuditLog queues its events in one, and ProjectEventBus one per live-page subscriber.
+public final class BoundedMpscQueue<E> {
+    private final Object[] items;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    public BoundedMpscQueue(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2, was " + capacity);
+        }
+
+        int slots = Integer.highestOneBit(capacity - 1) << 1; // Rounded up to a power of two
+        items = new Object[slots];
+        sequences = new AtomicLongArray(slots);
+        for (int slot = 0; slot < slots; slot++) {
+            sequences.set(slot, slot);
+        }
+        mask = slots - 1;
+    }
+
+    public boolean offer(E item) {
+        long position = tail.get();
+        while (true) {
+            int slot = (int) (position & mask);
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items[slot] = item;
+                    sequences.set(slot, position + 1); // Publishes the item to the consumer
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false; // The consumer has not freed this slot since the last lap: full
+            } else {
+                position = tail.get(); // Another producer took this position
+            }
+        }
+    }
+
+    // Consumer only. Moves up to max items into sink, oldest first, and returns how many
+    @SuppressWarnings("unchecked")
+    public int drainTo(List<? super E> sink, int max) {
+        long position = head.get();
+        int drained = 0;
+        while (drained < max) {
+            int slot = (int) (position & mask);
+            if (sequences.get(slot) != position + 1) {
+                break; // Empty, or claimed but not yet written
+            }
+
+            sink.add((E) items[slot]);
+            items[slot] = null;
+            sequences.set(slot, position + items.length); // Free for the producer one lap on
+            position++;
+            drained++;
+        }
+
+        head.set(position);
+        return drained;
+    }
+
+    // Approximate while producers are adding
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+}
@@ -0,0 +1,54 @@
+package com.plannex.Controller;
+
+import com.plannex.Model.BurnChart;
+import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.BurnChartService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+// Burn-up and burn-down series as JSON, by default from the planned start (or first hours) to the planned end (or
+// last hours); from and to, as yyyy-MM-dd, pick another range
+@RestController
+@RequestMapping("/projects/{pid}")
+public class BurnChartController {
+    private final BurnChartService burnChartService;
+    private final AuthAndPermissionsService authAndPermissionsService;
+
+    public BurnChartController(BurnChartService burnChartService, AuthAndPermissionsService authAndPermissionsService) {
+        this.burnChartService = burnChartService;
+        this.authAndPermissionsService = authAndPermissionsService;
+    }
+
+    @GetMapping("/burn")
+    public ResponseEntity<BurnChart> getProjectBurnChart(@PathVariable int pid,
+                                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                         HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return ResponseEntity.ok(burnChartService.getBurnChartForProject(pid, from, to));
+    }
+
+    @GetMapping("/tasks/{tid}/burn")
+    public ResponseEntity<BurnChart> getTaskBurnChart(@PathVariable int tid,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                      HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return ResponseEntity.ok(burnChartService.getBurnChartForTask(tid, from, to));
+    }
+}
@@ -0,0 +1,109 @@
+package com.plannex.Controller;
+
+import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Exception.InsufficientPermissionsException;
+import com.plannex.Model.Comment;
+import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.CommentService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+// Comments on a task (/projects/{pid}/tasks/{tid}/...) or a subtask (/projects/{pid}/tasks/{tid}/subtasks/{sid}/...).
+// Anyone logged in may comment; only the author or a manager may edit or delete a comment.
+@Controller
+@RequestMapping("/projects/{pid}/tasks/{tid}")
+public class CommentController {
+    private final CommentService commentService;
+    private final AuthAndPermissionsService authAndPermissionsService;
+
+    public CommentController(CommentService commentService, AuthAndPermissionsService authAndPermissionsService) {
+        this.commentService = commentService;
+        this.authAndPermissionsService = authAndPermissionsService;
+    }
+
+    private static String pageOf(int pid, int tid, Integer sid) {
+        return "/projects/" + pid + "/tasks/" + tid + (sid == null ? "" : "/subtasks/" + sid);
+    }
+
+    private Comment commentOnPage(int cid, int tid, Integer sid) {
+        Comment comment = commentService.getCommentByID(cid);
+        if (comment.getTaskID() != (sid == null ? tid : sid)) {
+            throw new EntityDoesNotExistException("No comment with ID " + cid + " exists on this page.");
+        }
+
+        return comment;
+    }
+
+    private void requireAuthorOrManager(Comment comment, HttpSession session, String action) {
+        if (!authAndPermissionsService.isManager(session) && !session.getAttribute("username").toString().equals(comment.getCommentAuthor())) {
+            throw new InsufficientPermissionsException("Managers may " + action + " all comments, workers may only " + action + " their own.");
+        }
+    }
+
+    @GetMapping({ "/add-comment", "/subtasks/{sid}/add-comment" })
+    public String showAddComment(@PathVariable int pid, @PathVariable int tid, @PathVariable(required = false) Integer sid, Model model, HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return "redirect:/login";
+        }
+
+        model.addAttribute("comment", new Comment());
+        model.addAttribute("whereToSubmit", pageOf(pid, tid, sid) + "/add-comment");
+        model.addAttribute("whereToGoOnCancel", pageOf(pid, tid, sid));
+        model.addAttribute("sessionUser", session.getAttribute("username").toString());
+        return "add_comment";
+    }
+
+    @PostMapping({ "/add-comment", "/subtasks/{sid}/add-comment" })
+    public String saveComment(@PathVariable int pid, @PathVariable int tid, @PathVariable(required = false) Integer sid, @ModelAttribute Comment comment, HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return "redirect:/login";
+        }
+
+        comment.setTaskID(sid == null ? tid : sid);
+        comment.setCommentAuthor(session.getAttribute("username").toString());
+        comment.setPostedAt(LocalDateTime.now());
+        commentService.addComment(comment);
+        return "redirect:" + pageOf(pid, tid, sid);
+    }
+
+    @GetMapping({ "/comments/{cid}/edit", "/subtasks/{sid}/comments/{cid}/edit" })
+    public String showEditComment(@PathVariable int pid, @PathVariable int tid, @PathVariable(required = false) Integer sid, @PathVariable int cid, Model model, HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return "redirect:/login";
+        }
+
+        Comment comment = commentOnPage(cid, tid, sid);
+        requireAuthorOrManager(comment, session, "edit");
+        model.addAttribute("comment", comment);
+        model.addAttribute("whereToSubmit", pageOf(pid, tid, sid) + "/comments/" + cid + "/edit");
+        model.addAttribute("whereToGoOnCancel", pageOf(pid, tid, sid));
+        model.addAttribute("sessionUser", session.getAttribute("username").toString());
+        return "edit_comment";
+    }
+
+    @PostMapping({ "/comments/{cid}/edit", "/subtasks/{sid}/comments/{cid}/edit" })
+    public String updateComment(@PathVariable int pid, @PathVariable int tid, @PathVariable(required = false) Integer sid, @PathVariable int cid, @ModelAttribute Comment comment, HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return "redirect:/login";
+        }
+
+        requireAuthorOrManager(commentOnPage(cid, tid, sid), session, "edit");
+        commentService.updateComment(comment, cid);
+        return "redirect:" + pageOf(pid, tid, sid);
+    }
+
+    @PostMapping({ "/comments/{cid}/delete", "/subtasks/{sid}/comments/{cid}/delete" })
+    public String deleteComment(@PathVariable int pid, @PathVariable int tid, @PathVariable(required = false) Integer sid, @PathVariable int cid, HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return "redirect:/login";
+        }
+
+        requireAuthorOrManager(commentOnPage(cid, tid, sid), session, "delete");
+        commentService.deleteComment(cid);
+        return "redirect:" + pageOf(pid, tid, sid);
+    }
+}
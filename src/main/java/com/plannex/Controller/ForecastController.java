@@ -0,0 +1,32 @@
+package com.plannex.Controller;
+
+import com.plannex.Model.CompletionForecast;
+import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.ForecastService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+// A project's probable completion dates as JSON, the same the project page shows
+@RestController
+public class ForecastController {
+    private final ForecastService forecastService;
+    private final AuthAndPermissionsService authAndPermissionsService;
+
+    public ForecastController(ForecastService forecastService, AuthAndPermissionsService authAndPermissionsService) {
+        this.forecastService = forecastService;
+        this.authAndPermissionsService = authAndPermissionsService;
+    }
+
+    @GetMapping("/projects/{pid}/forecast")
+    public ResponseEntity<CompletionForecast> getProjectForecast(@PathVariable int pid, HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return ResponseEntity.ok(forecastService.getForecastForProject(pid));
+    }
+}
@@ -31,6 +31,11 @@ public class GlobalExceptionHandler {
         return handleBody(model, HttpStatus.CONFLICT, "Duplicate Entry", ex.getMessage(), response);
     }
 
+    @ExceptionHandler(EditConflictException.class)
+    public String handleEditConflict(EditConflictException ex, Model model, HttpServletResponse response) {
+        return handleBody(model, HttpStatus.CONFLICT, "Edit conflict", ex.getMessage(), response);
+    }
+
     @ExceptionHandler(InvalidValueException.class)
     public String handleInvalidValue(InvalidValueException ex, Model model, HttpServletResponse response) {
         return handleBody(model, HttpStatus.BAD_REQUEST, "Invalid value", ex.getMessage(), response);
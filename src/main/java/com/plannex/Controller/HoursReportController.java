@@ -0,0 +1,64 @@
+package com.plannex.Controller;
+
+import com.plannex.Exception.InsufficientPermissionsException;
+import com.plannex.Exception.InvalidValueException;
+import com.plannex.Model.HoursQuery;
+import com.plannex.Model.HoursReport;
+import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.HoursReportService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+
+// Hours logged across the portfolio as JSON, for managers: ?groupBy= takes any of project, task, employee, skill,
+// skill-level and month, comma-separated; project, employee, skill, level, from and to (as yyyy-MM-dd) filter
+@RestController
+@RequestMapping("/reports/hours")
+public class HoursReportController {
+    private final HoursReportService hoursReportService;
+    private final AuthAndPermissionsService authAndPermissionsService;
+
+    public HoursReportController(HoursReportService hoursReportService, AuthAndPermissionsService authAndPermissionsService) {
+        this.hoursReportService = hoursReportService;
+        this.authAndPermissionsService = authAndPermissionsService;
+    }
+
+    private static HoursQuery.Dimension dimension(String name) {
+        try {
+            return HoursQuery.Dimension.valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException iae) {
+            throw new InvalidValueException("Hours can't be grouped by " + name + ".");
+        }
+    }
+
+    @GetMapping()
+    public ResponseEntity<HoursReport> getHoursReport(@RequestParam(defaultValue = "") List<String> groupBy,
+                                                      @RequestParam(name = "project", defaultValue = "") List<Integer> projectIDs,
+                                                      @RequestParam(name = "employee", defaultValue = "") List<String> usernames,
+                                                      @RequestParam(required = false) String skill,
+                                                      @RequestParam(required = false) String level,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                      HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        if (!authAndPermissionsService.isManager(session)) {
+            throw new InsufficientPermissionsException("Only managers may see the hours report.");
+        }
+        HoursQuery query = new HoursQuery(groupBy.stream().filter(name -> !name.isBlank()).map(HoursReportController::dimension).toList(),
+                new HashSet<>(projectIDs), new HashSet<>(usernames), skill, level, from, to);
+        return ResponseEntity.ok(hoursReportService.getHoursReport(query));
+    }
+}
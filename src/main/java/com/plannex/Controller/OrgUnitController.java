@@ -0,0 +1,123 @@
+package com.plannex.Controller;
+
+import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Exception.InsufficientPermissionsException;
+import com.plannex.Model.OrgUnit;
+import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.OrgUnitService;
+import com.plannex.Service.ProjectEmployeeService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+
+// Departments (/departments/...) and teams (/teams/...); both are listed on the employees page.
+// Only managers may create, edit or delete them.
+@Controller
+@RequestMapping("/{kinds:departments|teams}")
+public class OrgUnitController {
+    private final OrgUnitService orgUnitService;
+    private final ProjectEmployeeService projectEmployeeService;
+    private final AuthAndPermissionsService authAndPermissionsService;
+
+    public OrgUnitController(OrgUnitService orgUnitService, ProjectEmployeeService projectEmployeeService, AuthAndPermissionsService authAndPermissionsService) {
+        this.orgUnitService = orgUnitService;
+        this.projectEmployeeService = projectEmployeeService;
+        this.authAndPermissionsService = authAndPermissionsService;
+    }
+
+    private static String kindOf(String kinds) {
+        return kinds.equals("departments") ? OrgUnit.DEPARTMENT : OrgUnit.TEAM;
+    }
+
+    private static String templateFor(String kinds, String action) {
+        return action + (kinds.equals("departments") ? "_dept" : "_team");
+    }
+
+    private void requireManager(HttpSession session) {
+        if (!authAndPermissionsService.isManager(session)) {
+            throw new InsufficientPermissionsException("Only managers may create, edit or delete departments and teams.");
+        }
+    }
+
+    // A team asked for as a department, or the other way round, does not exist
+    private OrgUnit unitOfKind(int uid, String kinds) {
+        OrgUnit unit = orgUnitService.getOrgUnitByID(uid);
+        if (!unit.getKind().equals(kindOf(kinds))) {
+            throw new EntityDoesNotExistException("No " + kindOf(kinds).toLowerCase() + " with ID " + uid + " exists.");
+        }
+
+        return unit;
+    }
+
+    private void addFormAttributes(String kinds, int uid, Model model, HttpSession session) {
+        model.addAttribute("possibleParents", orgUnitService.getPossibleParents(kindOf(kinds), uid));
+        model.addAttribute("allEmployees", projectEmployeeService.getAllEmployees());
+        model.addAttribute("sessionUser", session.getAttribute("username").toString());
+    }
+
+    @GetMapping("/add")
+    public String showAddOrgUnit(@PathVariable String kinds, @RequestParam(required = false) Integer parent, Model model, HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return "redirect:/login";
+        }
+
+        requireManager(session);
+        OrgUnit unit = new OrgUnit();
+        unit.setKind(kindOf(kinds));
+        unit.setParentID(parent);
+        model.addAttribute("unit", unit);
+        addFormAttributes(kinds, 0, model, session);
+        return templateFor(kinds, "create");
+    }
+
+    @PostMapping("/add")
+    public String saveOrgUnit(@PathVariable String kinds, @ModelAttribute OrgUnit unit, HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return "redirect:/login";
+        }
+
+        requireManager(session);
+        unit.setKind(kindOf(kinds));
+        orgUnitService.addOrgUnit(unit);
+        return "redirect:/employees";
+    }
+
+    @GetMapping("/{uid}/edit")
+    public String showEditOrgUnit(@PathVariable String kinds, @PathVariable int uid, Model model, HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return "redirect:/login";
+        }
+
+        requireManager(session);
+        model.addAttribute("unit", unitOfKind(uid, kinds));
+        model.addAttribute("membersUnder", orgUnitService.getMembersUnder(uid));
+        model.addAttribute("rollup", orgUnitService.getRollup(uid));
+        addFormAttributes(kinds, uid, model, session);
+        return templateFor(kinds, "edit");
+    }
+
+    @PostMapping("/{uid}/edit")
+    public String updateOrgUnit(@PathVariable String kinds, @PathVariable int uid, @ModelAttribute OrgUnit unit, HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return "redirect:/login";
+        }
+
+        requireManager(session);
+        unitOfKind(uid, kinds);
+        orgUnitService.updateOrgUnit(unit, uid);
+        return "redirect:/employees";
+    }
+
+    @PostMapping("/{uid}/delete")
+    public String deleteOrgUnit(@PathVariable String kinds, @PathVariable int uid, HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return "redirect:/login";
+        }
+
+        requireManager(session);
+        unitOfKind(uid, kinds);
+        orgUnitService.deleteOrgUnit(uid);
+        return "redirect:/employees";
+    }
+}
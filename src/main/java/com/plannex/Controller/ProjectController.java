@@ -2,8 +2,10 @@ package com.plannex.Controller;
 
 import com.plannex.Exception.InsufficientPermissionsException;
 import com.plannex.Model.Project;
-import com.plannex.Model.Task;
+import com.plannex.Model.ProjectSummary;
+import com.plannex.Model.TaskSummary;
 import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.BurnChartService;
 import com.plannex.Service.ProjectService;
 import com.plannex.Service.TaskService;
 import jakarta.servlet.http.HttpSession;
@@ -20,12 +22,15 @@ public class ProjectController {
     private final ProjectService projectService;
     private final AuthAndPermissionsService authAndPermissionsService;
     private final TaskService taskService;
+    private final BurnChartService burnChartService;
 
     @Autowired
-    public ProjectController(ProjectService projectService, AuthAndPermissionsService authAndPermissionsService, TaskService taskService) {
+    public ProjectController(ProjectService projectService, AuthAndPermissionsService authAndPermissionsService, TaskService taskService,
+                             BurnChartService burnChartService) {
         this.projectService = projectService;
         this.authAndPermissionsService = authAndPermissionsService;
         this.taskService = taskService;
+        this.burnChartService = burnChartService;
     }
 
     @GetMapping()
@@ -34,13 +39,15 @@ public class ProjectController {
             return "redirect:/login";
         }
 
-        List<Project> allProjects = projectService.getAllProjects();
+        List<ProjectSummary> allProjects = projectService.getAllProjectSummaries();
         model.addAttribute("allProjects", allProjects);
-        model.addAttribute("employeesInvolved", allProjects.stream().map(project -> projectService.getAllInvolved(project.getID())).toList());
-        model.addAttribute("startDates", allProjects.stream().map(project -> project.getProjectStart().toString()).toList());
-        model.addAttribute("timeSpents", allProjects.stream().map(project -> projectService.getTotalTimeSpent(project.getID())).toList());
-        model.addAttribute("endDates", allProjects.stream().map(project -> project.getProjectEnd().toString()).toList());
-        model.addAttribute("isManager", authAndPermissionsService.isManager(session));
+        model.addAttribute("employeesInvolved", allProjects.stream().map(project -> projectService.getAllInvolved(project.ID())).toList());
+        model.addAttribute("startDates", allProjects.stream().map(project -> project.projectStart().toString()).toList());
+        model.addAttribute("timeSpents", allProjects.stream().map(project -> projectService.getTotalTimeSpent(project.ID())).toList());
+        model.addAttribute("endDates", allProjects.stream().map(project -> project.projectEnd().toString()).toList());
+        boolean isManager = authAndPermissionsService.isManager(session);
+        model.addAttribute("isManager", isManager);
+        model.addAttribute("deletedProjects", isManager ? projectService.getDeletedProjects() : List.of());
         model.addAttribute("sessionUser", session.getAttribute("username").toString());
         return "projects_window";
     }
@@ -51,13 +58,16 @@ public class ProjectController {
             return "redirect:/login";
         }
 
-        List<Task> allTasks = projectService.getAllTasksForProject(pid);
+        List<TaskSummary> allTasks = projectService.getAllTaskSummariesForProject(pid);
         model.addAttribute("project", projectService.getProjectByID(pid));
         model.addAttribute("allTasks", allTasks);
         model.addAttribute("timeSpent", projectService.getTotalTimeSpent(pid));
-        model.addAttribute("taskAssignees", allTasks.stream().map(task -> taskService.getAllAssigneesForTask(task.getID())).toList());
-        model.addAttribute("taskTimeContributions", allTasks.stream().map(task -> taskService.getAllTimeContributionsForTask(task.getID()).stream().mapToDouble(f -> f).sum()).toList());
-        model.addAttribute("isManager", authAndPermissionsService.isManager(session));
+        model.addAttribute("taskAssignees", allTasks.stream().map(task -> taskService.getAllAssigneesForTask(task.ID())).toList());
+        model.addAttribute("taskTimeContributions", allTasks.stream().map(task -> taskService.getAllTimeContributionsForTask(task.ID()).stream().mapToDouble(f -> f).sum()).toList());
+        model.addAttribute("burnChart", burnChartService.getBurnChartForProject(pid, null, null));
+        boolean isManager = authAndPermissionsService.isManager(session);
+        model.addAttribute("isManager", isManager);
+        model.addAttribute("deletedTasks", isManager ? taskService.getDeletedTasksForProject(pid) : List.of());
         model.addAttribute("sessionUser", session.getAttribute("username").toString());
         return "project_window";
     }
@@ -132,4 +142,18 @@ public class ProjectController {
         projectService.deleteProjectByID(pid);
         return "redirect:/projects";
     }
+
+    @PostMapping("/{pid}/undelete")
+    public String undeleteProject(@PathVariable int pid, HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return "redirect:/login";
+        }
+
+        if (!authAndPermissionsService.isManager(session)) {
+            throw new InsufficientPermissionsException("Only managers may undelete projects.");
+        }
+
+        projectService.undeleteProjectByID(pid);
+        return "redirect:/projects/" + pid;
+    }
 }
@@ -1,9 +1,11 @@
 package com.plannex.Controller;
 
 import com.plannex.Exception.InsufficientPermissionsException;
+import com.plannex.Model.EmployeePrincipal;
 import com.plannex.Model.EmployeeSkill;
 import com.plannex.Model.ProjectEmployee;
 import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.OrgUnitService;
 import com.plannex.Model.SkillDTO;
 import com.plannex.Service.ProjectEmployeeService;
 import jakarta.servlet.http.HttpSession;
@@ -18,10 +20,12 @@ import java.util.List;
 public class ProjectEmployeeController {
     private final ProjectEmployeeService projectEmployeeService;
     private final AuthAndPermissionsService authAndPermissionsService;
+    private final OrgUnitService orgUnitService;
 
-    public ProjectEmployeeController(ProjectEmployeeService projectEmployeeService, AuthAndPermissionsService authAndPermissionsService) {
+    public ProjectEmployeeController(ProjectEmployeeService projectEmployeeService, AuthAndPermissionsService authAndPermissionsService, OrgUnitService orgUnitService) {
         this.projectEmployeeService = projectEmployeeService;
         this.authAndPermissionsService = authAndPermissionsService;
+        this.orgUnitService = orgUnitService;
     }
 
     @GetMapping("/add-employee")
@@ -63,6 +67,8 @@ public class ProjectEmployeeController {
         }
 
         model.addAttribute("allUsers", projectEmployeeService.getAllEmployees());
+        model.addAttribute("orgUnits", orgUnitService.getAllOrgUnits());
+        model.addAttribute("rollups", orgUnitService.getAllRollups());
         model.addAttribute("sessionUser", session.getAttribute("username").toString());
         return "teams_users_depts";
     }
@@ -88,6 +94,7 @@ public class ProjectEmployeeController {
         projectEmployeeService.updateEmployee(updatedEmployee, oldUsername);
         if (session.getAttribute("username").toString().equals(oldUsername)) {
             session.setAttribute("username", updatedEmployee.getEmployeeUsername()); // Was a very confusing bug before this
+            session.setAttribute(EmployeePrincipal.SESSION_ATTRIBUTE, projectEmployeeService.getPrincipal(updatedEmployee.getEmployeeUsername()));
         }
         return "redirect:/employees/" + updatedEmployee.getEmployeeUsername();
     }
@@ -127,7 +134,6 @@ public class ProjectEmployeeController {
         SkillDTO skillDTO = new SkillDTO(empSkills);
         model.addAttribute("skillDTO", skillDTO);
         model.addAttribute("allLevels", List.of("Intermediate", "Expert"));
-        model.addAttribute("allUsers", projectEmployeeService.getAllEmployees());
         model.addAttribute("sessionUser", session.getAttribute("username").toString());
 
         return "add_skills";
@@ -0,0 +1,35 @@
+package com.plannex.Controller;
+
+import com.plannex.Live.ProjectEventBus;
+import com.plannex.Service.AuthAndPermissionsService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// The live changes to a project, for the project and subtask pages (see static/live.js)
+@RestController
+@RequestMapping("/projects")
+public class ProjectEventController {
+    private final ProjectEventBus projectEventBus;
+    private final AuthAndPermissionsService authAndPermissionsService;
+
+    public ProjectEventController(ProjectEventBus projectEventBus, AuthAndPermissionsService authAndPermissionsService) {
+        this.projectEventBus = projectEventBus;
+        this.authAndPermissionsService = authAndPermissionsService;
+    }
+
+    @GetMapping(value = "/{pid}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamProjectEvents(@PathVariable int pid, HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build(); // Browsers do not retry this
+        }
+
+        return ResponseEntity.ok(projectEventBus.stream(pid));
+    }
+}
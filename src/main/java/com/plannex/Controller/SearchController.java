@@ -0,0 +1,34 @@
+package com.plannex.Controller;
+
+import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.SearchService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@Controller
+@RequestMapping("/search")
+public class SearchController {
+    private final SearchService searchService;
+    private final AuthAndPermissionsService authAndPermissionsService;
+
+    public SearchController(SearchService searchService, AuthAndPermissionsService authAndPermissionsService) {
+        this.searchService = searchService;
+        this.authAndPermissionsService = authAndPermissionsService;
+    }
+
+    @GetMapping()
+    public String search(@RequestParam(name = "q", defaultValue = "") String query, Model model, HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return "redirect:/login";
+        }
+
+        model.addAttribute("query", query);
+        model.addAttribute("results", searchService.search(query));
+        model.addAttribute("sessionUser", session.getAttribute("username").toString());
+        return "search_results";
+    }
+}
@@ -1,5 +1,6 @@
 package com.plannex.Controller;
 
+import com.plannex.Model.EmployeePrincipal;
 import com.plannex.Service.ProjectEmployeeService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.stereotype.Controller;
@@ -8,6 +9,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.Optional;
+
 // This entire class is stolen from the sessions example
 // from week 41.
 // https://github.com/EK-DATA-2SEM-PROGSYSTEK/DATA-GBG-F25A-B/tree/master/Uge%2041/4.gang
@@ -30,12 +33,14 @@ public class SessionController {
                         HttpSession session,
                         Model model) {
 
-        if (projectEmployeeService.login(username, pw)) {
+        Optional<EmployeePrincipal> principal = projectEmployeeService.authenticate(username, pw);
+        if (principal.isPresent()) {
             session.setAttribute("username", username);
+            session.setAttribute(EmployeePrincipal.SESSION_ATTRIBUTE, principal.get());
 
-            model.addAttribute("employee", projectEmployeeService.getEmployeeByUsername(username));
+            model.addAttribute("employee", principal.get());
             model.addAttribute("username", username);
-            if (projectEmployeeService.getPermissions(username).equals("Manager")) {
+            if (principal.get().isManager()) {
                 return "project_leader_page";
             }
 
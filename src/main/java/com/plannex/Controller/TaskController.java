@@ -5,7 +5,10 @@ import com.plannex.Model.AssigneeFormDTO;
 import com.plannex.Model.EmployeeSkill;
 import com.plannex.Model.ProjectEmployee;
 import com.plannex.Model.Task;
+import com.plannex.Model.TaskSummary;
 import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.CommentService;
+import com.plannex.Service.PageLoadingService;
 import com.plannex.Service.ProjectEmployeeService;
 import com.plannex.Service.ProjectService;
 import com.plannex.Service.TaskService;
@@ -16,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Controller
@@ -25,12 +29,17 @@ public class TaskController {
     private final AuthAndPermissionsService authAndPermissionsService;
     private final ProjectService projectService;
     private final ProjectEmployeeService projectEmployeeService;
+    private final PageLoadingService pageLoadingService;
+    private final CommentService commentService;
 
-    public TaskController(TaskService taskService, AuthAndPermissionsService authAndPermissionsService, ProjectService projectService, ProjectEmployeeService projectEmployeeService) {
+    public TaskController(TaskService taskService, AuthAndPermissionsService authAndPermissionsService, ProjectService projectService, ProjectEmployeeService projectEmployeeService, PageLoadingService pageLoadingService,
+                          CommentService commentService) {
         this.taskService = taskService;
         this.authAndPermissionsService = authAndPermissionsService;
         this.projectEmployeeService = projectEmployeeService;
         this.projectService = projectService;
+        this.pageLoadingService = pageLoadingService;
+        this.commentService = commentService;
     }
 
     @GetMapping("/add-task")
@@ -94,7 +103,7 @@ public class TaskController {
 
         if (!authAndPermissionsService.isLoggedIn(session)) return "redirect:/login";
 
-        model.addAttribute("allTasks", taskService.getAllSubtasksForParentTask(tid));
+        model.addAttribute("allTasks", taskService.getAllSubtaskSummariesForParentTask(tid));
         model.addAttribute("existingDependencies", taskService.getAllDependenciesForTask(sid)
                 .stream()
                 .map(d -> d.second())
@@ -134,7 +143,7 @@ public class TaskController {
             return "redirect:/login";
         }
 
-        model.addAttribute("allTasks", projectService.getAllTasksForProject(pid));
+        model.addAttribute("allTasks", projectService.getAllTaskSummariesForProject(pid));
         model.addAttribute("sessionUser", session.getAttribute("username").toString());
         return "add_dependencies_task";
     }
@@ -168,9 +177,10 @@ public class TaskController {
             throw new InsufficientPermissionsException("Only managers may assign workers tasks.");
         }
 
+        List<ProjectEmployee> assignees = taskService.getAllAssigneesForSubtask(sid);
         AssigneeFormDTO formData = new AssigneeFormDTO();
-        formData.addUsernamesFromList(taskService.getAllAssigneesForSubtask(sid));
-        model.addAttribute("allWorkers", projectEmployeeService.getAllWorkers());
+        formData.addUsernamesFromList(assignees);
+        model.addAttribute("assignees", assignees); // Other workers are found through /typeahead/employees
         model.addAttribute("pid", pid);
         model.addAttribute("tid", tid);
         model.addAttribute("sid", sid);
@@ -272,46 +282,57 @@ public class TaskController {
 
 
     @GetMapping("/tasks/{tid}")
-    public String showTaskPage(@PathVariable String pid, @PathVariable int tid, Model model, HttpSession session) {
+    public String showTaskPage(@PathVariable String pid, @PathVariable int tid, @RequestParam(required = false) Integer commentsOlderThan, Model model, HttpSession session) {
         if (!authAndPermissionsService.isLoggedIn(session)) {
             return "redirect:/login";
         }
 
-        model.addAttribute("task", taskService.getTaskByID(tid));
-        model.addAttribute("subtasks", taskService.getAllSubtasksForParentTask(tid));
-        model.addAttribute("assignees", taskService.getAllAssigneesForTask(tid));
-        model.addAttribute("timeSpent", taskService.getAllTimeContributionsForTask(tid).stream().mapToDouble(f -> f).sum());
-        model.addAttribute("artifacts", taskService.getAllArtifactsForTask(tid));
-        model.addAttribute("dependencies", taskService.getAllDependenciesForTask(tid));
-        model.addAttribute("subtaskAssignees", taskService.getAllSubtasksForParentTask(tid).stream().map(task -> taskService.getAllAssigneesForSubtask(task.getID())).toList());
-        model.addAttribute("subtaskTimeSpents", taskService.getAllSubtasksForParentTask(tid).stream().map(task -> taskService.getAllTimeContributionsForSubtask(task.getID()).stream().mapToDouble(f -> f).sum()).toList());
+        Map<String, Supplier<?>> fragments = new LinkedHashMap<>();
+        fragments.put("task", () -> taskService.getTaskByID(tid));
+        fragments.put("subtasks", () -> taskService.getAllSubtaskSummariesForParentTask(tid));
+        fragments.put("assignees", () -> taskService.getAllAssigneesForTask(tid));
+        fragments.put("timeSpent", () -> taskService.getAllTimeContributionsForTask(tid).stream().mapToDouble(f -> f).sum());
+        fragments.put("artifacts", () -> taskService.getAllArtifactsForTask(tid));
+        fragments.put("dependencies", () -> taskService.getAllDependenciesForTask(tid));
+        fragments.put("comments", () -> commentService.getCommentsForTask(tid, commentsOlderThan));
+        Map<String, Object> loaded = pageLoadingService.loadAll(fragments);
+        model.addAllAttributes(loaded);
+
+        @SuppressWarnings("unchecked")
+        List<TaskSummary> subtasks = (List<TaskSummary>) loaded.get("subtasks");
+        model.addAttribute("subtaskAssignees", pageLoadingService.loadEach(subtasks.stream().<Supplier<List<ProjectEmployee>>>map(task -> () -> taskService.getAllAssigneesForSubtask(task.ID())).toList()));
+        model.addAttribute("subtaskTimeSpents", pageLoadingService.loadEach(subtasks.stream().<Supplier<Double>>map(task -> () -> taskService.getAllTimeContributionsForSubtask(task.ID()).stream().mapToDouble(f -> f).sum()).toList()));
         model.addAttribute("isManager", authAndPermissionsService.isManager(session));
         model.addAttribute("sessionUser", session.getAttribute("username").toString());
         return "task_window";
     }
 
     @GetMapping("/tasks/{tid}/subtasks/{sid}")
-    public String showSubtaskPage(@PathVariable String pid, @PathVariable String tid, @PathVariable int sid, Model model, HttpSession session) {
+    public String showSubtaskPage(@PathVariable String pid, @PathVariable String tid, @PathVariable int sid, @RequestParam(required = false) Integer commentsOlderThan, Model model, HttpSession session) {
         if (!authAndPermissionsService.isLoggedIn(session)) {
             return "redirect:/login";
         }
 
-        var assignees = taskService.getAllAssigneesForSubtask(sid);
+        Map<String, Supplier<?>> fragments = new LinkedHashMap<>();
+        fragments.put("subtask", () -> taskService.getTaskByID(sid));
+        fragments.put("artifacts", () -> taskService.getAllArtifactsForTask(sid));
+        fragments.put("dependencies", () -> taskService.getAllDependenciesForTask(sid));
+        fragments.put("assignees", () -> taskService.getAllAssigneesForSubtask(sid));
+        fragments.put("timeSpents", () -> taskService.getAllTimeContributionsForSubtask(sid).stream().mapToDouble(f -> f).sum());
+        fragments.put("comments", () -> commentService.getCommentsForTask(sid, commentsOlderThan));
+        Map<String, Object> loaded = pageLoadingService.loadAll(fragments);
+        model.addAllAttributes(loaded);
+
+        @SuppressWarnings("unchecked")
+        List<ProjectEmployee> assignees = (List<ProjectEmployee>) loaded.get("assignees");
+        List<List<EmployeeSkill>> skills = pageLoadingService.loadEach(assignees.stream().<Supplier<List<EmployeeSkill>>>map(e -> () -> projectEmployeeService.getSkillsForEmployee(e.getEmployeeUsername())).toList());
 
         Map<String, List<EmployeeSkill>> skillsPerEmployee = new HashMap<>();
-        for (ProjectEmployee e : assignees) {
-            skillsPerEmployee.put(
-                    e.getEmployeeUsername(),
-                    projectEmployeeService.getSkillsForEmployee(e.getEmployeeUsername())
-            );
+        for (int i = 0; i < assignees.size(); i++) {
+            skillsPerEmployee.put(assignees.get(i).getEmployeeUsername(), skills.get(i));
         }
 
-        model.addAttribute("subtask", taskService.getTaskByID(sid));
-        model.addAttribute("artifacts", taskService.getAllArtifactsForTask(sid));
-        model.addAttribute("dependencies", taskService.getAllDependenciesForTask(sid));
-        model.addAttribute("assignees", taskService.getAllAssigneesForSubtask(sid));
         model.addAttribute("skillsPerEmployee", skillsPerEmployee);
-        model.addAttribute("timeSpents", taskService.getAllTimeContributionsForSubtask(sid).stream().mapToDouble(f -> f).sum());
         model.addAttribute("sessionUser", session.getAttribute("username").toString());
         model.addAttribute("isManager", authAndPermissionsService.isManager(session));
         return "subtask_window";
@@ -367,6 +388,21 @@ public class TaskController {
         return "redirect:/projects/" + pid;
     }
 
+    // For a task or a subtask alike
+    @PostMapping("/tasks/{tid}/undelete")
+    public String undeleteTask(@PathVariable int pid, @PathVariable int tid, HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return "redirect:/login";
+        }
+
+        if (!authAndPermissionsService.isManager(session)) {
+            throw new InsufficientPermissionsException("Only managers may undelete tasks.");
+        }
+
+        taskService.undeleteTaskByID(tid);
+        return "redirect:/projects/" + pid;
+    }
+
     @GetMapping("/tasks/{tid}/subtasks/{sid}/delete")
     public String showDeleteSubtask(@PathVariable int pid, @PathVariable int tid, @PathVariable int sid, Model model, HttpSession session) {
         if (!authAndPermissionsService.isLoggedIn(session)) {
@@ -403,12 +439,18 @@ public class TaskController {
 
         model.addAttribute("subtaskTitle", taskService.getTaskByID(sid).getTaskTitle());
         model.addAttribute("sessionUser", session.getAttribute("username").toString());
+        model.addAttribute("idempotencyKey", UUID.randomUUID().toString()); // Sending the form again does not count the time twice
         return "add_time_contribution";
     }
 
     @PostMapping("/tasks/{tid}/subtasks/{sid}/contribute-time")
-    public String saveTimeContribution(@PathVariable int pid, @PathVariable int tid, @PathVariable int sid, HttpSession session, @RequestParam("timeSpent") float timeSpent) {
-        taskService.contributeTime(session.getAttribute("username").toString(), sid, timeSpent);
+    public String saveTimeContribution(@PathVariable int pid, @PathVariable int tid, @PathVariable int sid, HttpSession session, @RequestParam("timeSpent") float timeSpent,
+                                       @RequestParam(value = "idempotencyKey", required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            taskService.contributeTime(session.getAttribute("username").toString(), sid, timeSpent);
+        } else {
+            taskService.contributeTime(session.getAttribute("username").toString(), sid, timeSpent, idempotencyKey);
+        }
         return "redirect:/projects/" + pid + "/tasks/" + tid + "/subtasks/" + sid;
     }
 
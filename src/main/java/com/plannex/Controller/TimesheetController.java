@@ -0,0 +1,108 @@
+package com.plannex.Controller;
+
+import com.plannex.Exception.InsufficientPermissionsException;
+import com.plannex.Exception.InvalidValueException;
+import com.plannex.Model.TimeEdit;
+import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.TimesheetService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Weekly timesheets: an employee's own, which they may edit in place, and every employee's for managers, a page of
+// TimesheetService.PAGE_SIZE at a time. ?week= is any day of the week, this week by default.
+@Controller
+public class TimesheetController {
+    private final TimesheetService timesheetService;
+    private final AuthAndPermissionsService authAndPermissionsService;
+
+    public TimesheetController(TimesheetService timesheetService, AuthAndPermissionsService authAndPermissionsService) {
+        this.timesheetService = timesheetService;
+        this.authAndPermissionsService = authAndPermissionsService;
+    }
+
+    private static LocalDate weekOrToday(LocalDate week) {
+        return week == null ? LocalDate.now() : week;
+    }
+
+    @GetMapping("/employees/{username}/timesheet")
+    public String showTimesheet(@PathVariable String username,
+                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate week,
+                                Model model, HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return "redirect:/login";
+        }
+
+        boolean isOwner = authAndPermissionsService.isOwnerOfAccount(username, session);
+        if (!(isOwner || authAndPermissionsService.isManager(session))) {
+            throw new InsufficientPermissionsException("Only managers may see other employees' timesheets.");
+        }
+
+        model.addAttribute("timesheet", timesheetService.getTimesheet(username, weekOrToday(week)));
+        model.addAttribute("isOwner", isOwner);
+        model.addAttribute("sessionUser", session.getAttribute("username").toString());
+        return "timesheet";
+    }
+
+    // The editable cells as parallel lists; only the cells whose hours changed are saved, all in one transaction
+    @PostMapping("/employees/{username}/timesheet")
+    public String saveTimesheet(@PathVariable String username, @RequestParam("week") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate week,
+                                @RequestParam(value = "taskID", required = false) List<Integer> taskIDs,
+                                @RequestParam(value = "when", required = false) List<LocalDateTime> whens,
+                                @RequestParam(value = "hours", required = false) List<Float> hours,
+                                @RequestParam(value = "was", required = false) List<Float> was,
+                                HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return "redirect:/login";
+        }
+
+        if (!authAndPermissionsService.isOwnerOfAccount(username, session)) {
+            throw new InsufficientPermissionsException("Employees may only edit their own timesheets.");
+        }
+
+        if (taskIDs != null) {
+            if (whens == null || hours == null || was == null || whens.size() != taskIDs.size() || hours.size() != taskIDs.size() || was.size() != taskIDs.size()) {
+                throw new InvalidValueException("Every edited cell needs its subtask, time, hours and hours before.");
+            }
+
+            List<TimeEdit> edits = new ArrayList<>();
+            for (int i = 0; i < taskIDs.size(); i++) {
+                if (hours.get(i) == null) {
+                    throw new InvalidValueException("Every edited cell needs its hours.");
+                }
+                if (!hours.get(i).equals(was.get(i))) {
+                    edits.add(new TimeEdit(taskIDs.get(i), whens.get(i), hours.get(i)));
+                }
+            }
+            timesheetService.updateTimeContributions(username, edits);
+        }
+        return "redirect:/employees/" + username + "/timesheet?week=" + week;
+    }
+
+    @GetMapping("/timesheets")
+    public String showAllTimesheets(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate week,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    Model model, HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return "redirect:/login";
+        }
+
+        if (!authAndPermissionsService.isManager(session)) {
+            throw new InsufficientPermissionsException("Only managers may see every employee's timesheet.");
+        }
+
+        model.addAttribute("timesheetPage", timesheetService.getTimesheets(weekOrToday(week), page));
+        model.addAttribute("sessionUser", session.getAttribute("username").toString());
+        return "timesheets";
+    }
+}
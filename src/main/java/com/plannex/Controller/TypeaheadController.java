@@ -0,0 +1,50 @@
+package com.plannex.Controller;
+
+import com.plannex.Model.EmployeeSuggestion;
+import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.TypeaheadService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// JSON suggestions for the forms' typeahead fields (see static/typeahead.js)
+@RestController
+@RequestMapping("/typeahead")
+public class TypeaheadController {
+    private final TypeaheadService typeaheadService;
+    private final AuthAndPermissionsService authAndPermissionsService;
+
+    public TypeaheadController(TypeaheadService typeaheadService, AuthAndPermissionsService authAndPermissionsService) {
+        this.typeaheadService = typeaheadService;
+        this.authAndPermissionsService = authAndPermissionsService;
+    }
+
+    @GetMapping("/employees")
+    public ResponseEntity<List<EmployeeSuggestion>> suggestEmployees(@RequestParam(name = "q", defaultValue = "") String prefix,
+                                                                     @RequestParam(defaultValue = "" + TypeaheadService.DEFAULT_SUGGESTIONS) int limit,
+                                                                     @RequestParam(defaultValue = "false") boolean workersOnly,
+                                                                     HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return ResponseEntity.ok(typeaheadService.suggestEmployees(prefix, limit, workersOnly));
+    }
+
+    @GetMapping("/skills")
+    public ResponseEntity<List<String>> suggestSkills(@RequestParam(name = "q", defaultValue = "") String prefix,
+                                                      @RequestParam(defaultValue = "" + TypeaheadService.DEFAULT_SUGGESTIONS) int limit,
+                                                      HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return ResponseEntity.ok(typeaheadService.suggestSkills(prefix, limit));
+    }
+}
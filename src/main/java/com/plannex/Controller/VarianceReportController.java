@@ -0,0 +1,62 @@
+package com.plannex.Controller;
+
+import com.plannex.Exception.InsufficientPermissionsException;
+import com.plannex.Model.VarianceReport;
+import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.VarianceReportService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+// Estimates against logged hours, for managers. The whole report is computed at once and cached, so the pages only
+// pick the rows they show out of it.
+@Controller
+@RequestMapping("/reports/variance")
+public class VarianceReportController {
+    private static final int MAX_ROWS = 50;
+
+    private final VarianceReportService varianceReportService;
+    private final AuthAndPermissionsService authAndPermissionsService;
+
+    public VarianceReportController(VarianceReportService varianceReportService, AuthAndPermissionsService authAndPermissionsService) {
+        this.varianceReportService = varianceReportService;
+        this.authAndPermissionsService = authAndPermissionsService;
+    }
+
+    private void requireManager(HttpSession session) {
+        if (!authAndPermissionsService.isManager(session)) {
+            throw new InsufficientPermissionsException("Only managers may see the variance report.");
+        }
+    }
+
+    @GetMapping()
+    public String showReport(Model model, HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return "redirect:/login";
+        }
+
+        requireManager(session);
+        VarianceReport report = varianceReportService.getReport();
+        model.addAttribute("report", report);
+        model.addAttribute("projects", report.projects().subList(0, Math.min(MAX_ROWS, report.projects().size())));
+        model.addAttribute("employees", report.employees().subList(0, Math.min(MAX_ROWS, report.employees().size())));
+        model.addAttribute("sessionUser", session.getAttribute("username").toString());
+        return "variance_report";
+    }
+
+    @GetMapping("/{pid}")
+    public String showProjectReport(@PathVariable int pid, Model model, HttpSession session) {
+        if (!authAndPermissionsService.isLoggedIn(session)) {
+            return "redirect:/login";
+        }
+
+        requireManager(session);
+        model.addAttribute("tasks", varianceReportService.getTaskVariancesForProject(pid));
+        model.addAttribute("projectID", pid);
+        model.addAttribute("sessionUser", session.getAttribute("username").toString());
+        return "variance_report_project";
+    }
+}
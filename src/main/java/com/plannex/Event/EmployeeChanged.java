@@ -0,0 +1,4 @@
+package com.plannex.Event;
+
+// Published when an employee is renamed (username is the old name) or deleted, which TimeSpent follows by cascade
+public record EmployeeChanged(String username) { }
@@ -0,0 +1,5 @@
+package com.plannex.Event;
+
+// Published when the project's plan changes: its dates or title, or its tasks added, edited, deleted or undeleted,
+// assigned or made to depend on each other
+public record TaskPlanChanged(int projectID) { }
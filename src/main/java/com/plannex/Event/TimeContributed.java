@@ -0,0 +1,6 @@
+package com.plannex.Event;
+
+import java.time.LocalDateTime;
+
+// Published by the time log once an entry is in TimeSpent, hours added to a subtask (subtaskID) of taskID
+public record TimeContributed(int projectID, int taskID, int subtaskID, String username, float hours, LocalDateTime when) { }
@@ -0,0 +1,6 @@
+package com.plannex.Event;
+
+// Published when the project's hours change other than by the time log adding to them: an entry edited or deleted, or
+// which tasks and project the hours count towards, as tasks are moved, deleted or undeleted and the project deleted or
+// undeleted
+public record TimeSpentChanged(int projectID) { }
@@ -0,0 +1,8 @@
+package com.plannex.Exception;
+
+// Stackless, like EntityAlreadyExistsException: someone else saving first is an expected 409, not a bug to trace.
+public class EditConflictException extends RuntimeException {
+    public EditConflictException(String message) {
+        super(message, null, false, false);
+    }
+}
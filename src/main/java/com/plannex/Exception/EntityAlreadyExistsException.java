@@ -1,7 +1,8 @@
 package com.plannex.Exception;
 
+// Stackless, like EntityDoesNotExistException: a 409 is an expected answer to a duplicate, not a bug to trace.
 public class EntityAlreadyExistsException extends RuntimeException {
     public EntityAlreadyExistsException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -1,7 +1,8 @@
 package com.plannex.Exception;
 
+// Stackless: it ends in an expected 404 whose page shows only the message, so walking the stack would be wasted work.
 public class EntityDoesNotExistException extends RuntimeException {
     public EntityDoesNotExistException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
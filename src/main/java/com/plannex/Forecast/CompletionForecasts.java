@@ -0,0 +1,375 @@
+package com.plannex.Forecast;
+
+import com.plannex.Event.TaskPlanChanged;
+import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Model.CompletionForecast;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+// Probable completion dates of projects, from plannex.forecast.runs Monte Carlo runs of the project's schedule (see
+// Simulation) on a pool of plannex.forecast.parallelism threads, all cores for 0.
+// The schedule: every subtask, and every task without subtasks, takes its planned days and starts no earlier than its
+// planned start, nor before what it depends on in TaskDependencies has finished. A dependency on or of a task with
+// subtasks is one on or of all of them. Each run stretches every planned length by a ratio of actual to estimated hours
+// drawn from the finished subtasks (planned end passed, hours logged) of the team most of its assignees are in, or of
+// everyone while that team has fewer than plannex.forecast.min-team-samples of them. A subtask counts for the team that
+// logged most of its hours on it. The ratios are read at most every plannex.forecast.history-ttl.
+// A forecast is kept, for the plannex.forecast.max-projects projects forecast last, until a TaskPlanChanged for its
+// project is committed: an edit of the project's dates, tasks, dependencies or assignees. Reading
+// the ratios again renews every forecast, which is also when changes to the teams show. Each instance only sees its own
+// writes, like the search index.
+@Component
+public class CompletionForecasts implements DisposableBean {
+    static final double MIN_RATIO = 0.1;
+    static final double MAX_RATIO = 10;
+    private static final double[] AS_PLANNED = new double[0];
+
+    // The project's forecast, null while not computed (or dropped); changes counts the plan changes since, so a
+    // forecast that raced one is not kept
+    private static final class Slot {
+        CompletionForecast forecast;
+        int generation;
+        long changes;
+    }
+
+    private record History(int generation, long readAtNanos, double[] everyone, Map<Integer, double[]> byTeam) { }
+
+    private record PlannedTask(int taskID, int parentTaskID, LocalDate start, LocalDate end, int team) { }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int runs;
+    private final long seed;
+    private final int minTeamSamples;
+    private final long historyTtlNanos;
+    private final ForkJoinPool pool;
+    private final Map<Integer, Slot> slots;
+    private final Object readingHistory = new Object();
+    private volatile History history;
+
+    public CompletionForecasts(JdbcTemplate jdbcTemplate,
+                               @Value("${plannex.forecast.runs:100000}") int runs,
+                               @Value("${plannex.forecast.parallelism:0}") int parallelism,
+                               @Value("${plannex.forecast.seed:42}") long seed,
+                               @Value("${plannex.forecast.max-projects:256}") int maxProjects,
+                               @Value("${plannex.forecast.history-ttl:1h}") Duration historyTtl,
+                               @Value("${plannex.forecast.min-team-samples:5}") int minTeamSamples) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.runs = runs;
+        this.seed = seed;
+        this.minTeamSamples = minTeamSamples;
+        this.historyTtlNanos = historyTtl.toNanos();
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.slots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Slot> eldest) {
+                return size() > maxProjects;
+            }
+        };
+    }
+
+    public CompletionForecast forProject(int projectID) {
+        History history = history();
+        long changes;
+        synchronized (slots) {
+            Slot slot = slots.computeIfAbsent(projectID, id -> new Slot());
+            if (slot.forecast != null && slot.generation == history.generation()) {
+                return slot.forecast;
+            }
+            changes = slot.changes;
+        }
+
+        CompletionForecast forecast = compute(projectID, history);
+        synchronized (slots) {
+            Slot slot = slots.get(projectID);
+            if (slot != null && slot.changes == changes) {
+                slot.forecast = forecast;
+                slot.generation = history.generation();
+            }
+        }
+        return forecast;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(TaskPlanChanged change) {
+        planChanged(change.projectID());
+    }
+
+    public void planChanged(int projectID) {
+        synchronized (slots) {
+            Slot slot = slots.get(projectID);
+            if (slot != null) {
+                slot.changes++;
+                slot.forecast = null;
+            }
+        }
+    }
+
+    private History history() {
+        History current = history;
+        if (current != null && System.nanoTime() - current.readAtNanos() < historyTtlNanos) {
+            return current;
+        }
+
+        synchronized (readingHistory) {
+            current = history;
+            if (current != null && System.nanoTime() - current.readAtNanos() < historyTtlNanos) {
+                return current; // Read while this waited
+            }
+
+            History read = readHistory(current == null ? 1 : current.generation() + 1);
+            history = read;
+            return read;
+        }
+    }
+
+    // One ratio of actual to estimated hours per finished subtask, for everyone and for the team that logged most of it
+    private History readHistory(int generation) {
+        List<Double> everyone = new ArrayList<>();
+        Map<Integer, List<Double>> byTeam = new HashMap<>();
+        class Subtask {
+            int taskID;
+            float estimateHours;
+            double hours;
+            int team;
+            double teamHours = -1;
+
+            void add() {
+                double ratio = Math.clamp(hours / estimateHours, MIN_RATIO, MAX_RATIO);
+                everyone.add(ratio);
+                if (team != 0) {
+                    byTeam.computeIfAbsent(team, id -> new ArrayList<>()).add(ratio);
+                }
+            }
+        }
+        Subtask[] current = { null };
+
+        jdbcTemplate.query("""
+                SELECT t.TaskID, t.TaskDurationHours, m.OrgUnitID, SUM(ts.HoursSpent) AS Hours
+                FROM Tasks AS t JOIN Projects AS p ON p.ProjectID = t.ProjectID
+                JOIN TimeSpent AS ts ON ts.OnTaskID = t.TaskID
+                LEFT JOIN OrgUnitMembers AS m ON m.EmployeeUsername = ts.ByEmployee
+                WHERE t.ParentTaskID IS NOT NULL AND t.TaskDurationHours > 0 AND t.TaskEnd < ?
+                  AND t.DeletedAt IS NULL AND p.DeletedAt IS NULL
+                GROUP BY t.TaskID, t.TaskDurationHours, m.OrgUnitID
+                ORDER BY t.TaskID, m.OrgUnitID;""", rs -> {
+            int taskID = rs.getInt("TaskID");
+            Subtask subtask = current[0];
+            if (subtask == null || subtask.taskID != taskID) {
+                if (subtask != null) {
+                    subtask.add();
+                }
+                subtask = new Subtask();
+                subtask.taskID = taskID;
+                subtask.estimateHours = rs.getFloat("TaskDurationHours");
+                current[0] = subtask;
+            }
+
+            double hours = rs.getDouble("Hours");
+            int team = rs.getInt("OrgUnitID"); // 0 for hours of employees in no team
+            subtask.hours += hours;
+            if (team != 0 && hours > subtask.teamHours) {
+                subtask.team = team;
+                subtask.teamHours = hours;
+            }
+        }, LocalDate.now());
+        if (current[0] != null) {
+            current[0].add();
+        }
+
+        Map<Integer, double[]> teams = new HashMap<>();
+        byTeam.forEach((team, ratios) -> teams.put(team, toArray(ratios)));
+        return new History(generation, System.nanoTime(), toArray(everyone), teams);
+    }
+
+    private static double[] toArray(List<Double> values) {
+        return values.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    private CompletionForecast compute(int projectID, History history) {
+        long started = System.nanoTime();
+        LocalDate[] planned = jdbcTemplate.query("SELECT ProjectStart, ProjectEnd FROM VisibleProjects WHERE ProjectID = ?;",
+                        (rs, rowNum) -> new LocalDate[] { rs.getObject("ProjectStart", LocalDate.class), rs.getObject("ProjectEnd", LocalDate.class) }, projectID)
+                .stream().findFirst().orElseThrow(() -> new EntityDoesNotExistException("No project with ID " + projectID + " exists."));
+
+        // One row per task and team of its assignees, the team most are in first
+        List<PlannedTask> tasks = new ArrayList<>();
+        jdbcTemplate.query("""
+                SELECT t.TaskID, t.ParentTaskID, t.TaskStart, t.TaskEnd, m.OrgUnitID, COUNT(m.EmployeeUsername) AS Members
+                FROM Tasks AS t
+                LEFT JOIN TaskAssignees AS ta ON ta.TaskID = t.TaskID
+                LEFT JOIN OrgUnitMembers AS m ON m.EmployeeUsername = ta.EmployeeUsername
+                WHERE t.ProjectID = ? AND t.DeletedAt IS NULL
+                GROUP BY t.TaskID, t.ParentTaskID, t.TaskStart, t.TaskEnd, m.OrgUnitID
+                ORDER BY t.TaskID, Members DESC, m.OrgUnitID;""", rs -> {
+            int taskID = rs.getInt("TaskID");
+            if (tasks.isEmpty() || tasks.getLast().taskID() != taskID) {
+                tasks.add(new PlannedTask(taskID, rs.getInt("ParentTaskID"), rs.getObject("TaskStart", LocalDate.class),
+                        rs.getObject("TaskEnd", LocalDate.class), rs.getInt("OrgUnitID")));
+            }
+        }, projectID);
+
+        List<int[]> dependencies = jdbcTemplate.query("""
+                SELECT d.TaskIDFor, d.MustComeAfterTaskWithID FROM TaskDependencies AS d
+                JOIN Tasks AS t ON t.TaskID = d.TaskIDFor
+                WHERE t.ProjectID = ? AND t.DeletedAt IS NULL;""",
+                (rs, rowNum) -> new int[] { rs.getInt("TaskIDFor"), rs.getInt("MustComeAfterTaskWithID") }, projectID);
+
+        LocalDate origin = planned[0];
+        LocalDate plannedEnd = planned[1];
+        for (PlannedTask task : tasks) {
+            if (task.start() != null && (origin == null || task.start().isBefore(origin))) {
+                origin = task.start();
+            }
+            if (task.end() != null && (plannedEnd == null || task.end().isAfter(plannedEnd))) {
+                plannedEnd = task.end();
+            }
+        }
+        if (origin == null) {
+            origin = LocalDate.now();
+        }
+        if (plannedEnd == null) {
+            plannedEnd = origin;
+        }
+
+        Simulation simulation = schedule(tasks, dependencies, origin, history);
+        double[] finishes = simulation.run(runs, seed ^ (projectID * 0x9E3779B97F4A7C15L), pool);
+
+        int lastPlannedDay = (int) ChronoUnit.DAYS.between(origin, plannedEnd);
+        int onTime = upperBound(finishes, lastPlannedDay + 1);
+        boolean any = !tasks.isEmpty();
+        return new CompletionForecast(projectID, plannedEnd,
+                any ? percentile(finishes, 0.50, origin) : null,
+                any ? percentile(finishes, 0.80, origin) : null,
+                any ? percentile(finishes, 0.95, origin) : null,
+                finishes.length == 0 ? 0 : (double) onTime / finishes.length, finishes.length, tasks.size(),
+                history.everyone().length, LocalDateTime.now(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // A task with subtasks is a start node its subtasks come after and a finish node after them, both of no length
+    private Simulation schedule(List<PlannedTask> tasks, List<int[]> dependencies, LocalDate origin, History history) {
+        Map<Integer, Integer> subtasksOf = new HashMap<>();
+        Map<Integer, PlannedTask> byID = new HashMap<>();
+        for (PlannedTask task : tasks) {
+            byID.put(task.taskID(), task);
+            if (task.parentTaskID() != 0) {
+                subtasksOf.merge(task.parentTaskID(), 1, Integer::sum);
+            }
+        }
+
+        int[] earliestStart = new int[tasks.size() + 2 * subtasksOf.size()];
+        int[] plannedDays = new int[earliestStart.length];
+        double[][] samplesOf = new double[earliestStart.length][];
+        Map<Integer, Integer> startNode = new HashMap<>();
+        Map<Integer, Integer> finishNode = new HashMap<>();
+        IntPairs edges = new IntPairs();
+        int nodes = 0;
+        for (PlannedTask task : tasks) {
+            boolean grouping = subtasksOf.containsKey(task.taskID());
+            LocalDate start = task.start();
+            PlannedTask parent = byID.get(task.parentTaskID());
+            if (start == null && parent != null) {
+                start = parent.start();
+            }
+            int startDay = start == null ? 0 : (int) ChronoUnit.DAYS.between(origin, start);
+
+            int node = nodes++;
+            earliestStart[node] = startDay;
+            startNode.put(task.taskID(), node);
+            if (grouping) {
+                samplesOf[node] = AS_PLANNED;
+                int finish = nodes++;
+                samplesOf[finish] = AS_PLANNED;
+                finishNode.put(task.taskID(), finish);
+            } else {
+                plannedDays[node] = start == null || task.end() == null ? 1 : Math.max(1, (int) ChronoUnit.DAYS.between(start, task.end()) + 1);
+                samplesOf[node] = samplesFor(task.team(), history);
+                finishNode.put(task.taskID(), node);
+            }
+        }
+        for (PlannedTask task : tasks) {
+            if (task.parentTaskID() != 0 && startNode.containsKey(task.parentTaskID())) {
+                edges.add(startNode.get(task.parentTaskID()), startNode.get(task.taskID()));
+                edges.add(finishNode.get(task.taskID()), finishNode.get(task.parentTaskID()));
+            }
+        }
+        for (int[] dependency : dependencies) {
+            Integer after = finishNode.get(dependency[1]); // Null for a task outside the project, or deleted
+            Integer before = startNode.get(dependency[0]);
+            if (after != null && before != null) {
+                edges.add(after, before);
+            }
+        }
+
+        return new Simulation(Arrays.copyOf(earliestStart, nodes), Arrays.copyOf(plannedDays, nodes), edges.firsts(), edges.seconds(),
+                Arrays.copyOf(samplesOf, nodes));
+    }
+
+    private double[] samplesFor(int team, History history) {
+        double[] ofTeam = history.byTeam().get(team);
+        return ofTeam != null && ofTeam.length >= minTeamSamples ? ofTeam : history.everyone();
+    }
+
+    // The first day by which the share of runs had finished
+    private static LocalDate percentile(double[] finishes, double share, LocalDate origin) {
+        double finish = finishes[Math.max(0, (int) Math.ceil(share * finishes.length) - 1)];
+        return origin.plusDays(Math.max(0, (long) Math.ceil(finish) - 1));
+    }
+
+    // How many of the ascending values are at most limit
+    private static int upperBound(double[] ascending, double limit) {
+        int low = 0;
+        int high = ascending.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ascending[middle] <= limit) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static final class IntPairs {
+        private int[] firsts = new int[16];
+        private int[] seconds = new int[16];
+        private int size;
+
+        void add(int first, int second) {
+            if (size == firsts.length) {
+                firsts = Arrays.copyOf(firsts, size * 2);
+                seconds = Arrays.copyOf(seconds, size * 2);
+            }
+            firsts[size] = first;
+            seconds[size++] = second;
+        }
+
+        int[] firsts() {
+            return Arrays.copyOf(firsts, size);
+        }
+
+        int[] seconds() {
+            return Arrays.copyOf(seconds, size);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,245 @@
+package com.plannex.Forecast;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+// Monte Carlo runs of a schedule: nodes with an earliest start and a planned length in days, and edges saying a node
+// starts only once another has finished. Each run draws every node's length times a ratio of actual to estimated hours
+// from the node's samples and returns the day the last node finishes. Everything is in primitive arrays, the nodes
+// renumbered in topological order, so one run is a single pass with each node's predecessors already finished. Runs go
+// BATCH at a time, node by node, so each node's edges and samples are read once for all of them and the loops over the
+// runs are plain array passes. Times are whole ticks of 1/TICKS_PER_DAY day, as the JIT turns the int maximums, not
+// double ones, into vector instructions; that leaves room for schedules of some 500 000 days.
+// Nodes caught in a cycle go last, in the order given, without the edges that close the cycle.
+// Runs are split in chunks of CHUNK, each with its own generator split off the seeded one in order, so the results
+// only depend on the seed and the number of runs, never on how many threads the chunks ran on.
+public final class Simulation {
+    static final int CHUNK = 1024;
+    static final int BATCH = 128;
+    static final int TICKS_PER_DAY = 4096;
+
+    private final int nodes;
+    private final int[] earliestStart; // In ticks
+    private final int[] plannedDays;
+    private final int[] firstPredecessor; // The predecessors of node i are predecessors[firstPredecessor[i] .. firstPredecessor[i + 1])
+    private final int[] predecessors;
+    private final int[] firstSample; // The ratios of node i are samples[firstSample[i] .. firstSample[i] + sampleCount[i])
+    private final int[] sampleCount;
+    private final int[] samples; // Ratios in ticks per planned day
+    private final boolean[] last; // Whether nothing comes after node i, so its finish may be the run's
+
+    // edgeFrom[i] must finish before edgeTo[i] starts; samplesOf[i] are node i's ratios, none meaning it takes as planned
+    public Simulation(int[] earliestStart, int[] plannedDays, int[] edgeFrom, int[] edgeTo, double[][] samplesOf) {
+        this.nodes = earliestStart.length;
+        int[] order = topologicalOrder(nodes, edgeFrom, edgeTo);
+        int[] position = new int[nodes];
+        for (int i = 0; i < nodes; i++) {
+            position[order[i]] = i;
+        }
+
+        this.earliestStart = new int[nodes];
+        this.plannedDays = new int[nodes];
+        for (int i = 0; i < nodes; i++) {
+            this.earliestStart[i] = earliestStart[order[i]] * TICKS_PER_DAY;
+            this.plannedDays[i] = plannedDays[order[i]];
+        }
+
+        // Only edges from an earlier position are kept, which drops just the ones closing a cycle
+        this.firstPredecessor = new int[nodes + 1];
+        for (int e = 0; e < edgeFrom.length; e++) {
+            if (position[edgeFrom[e]] < position[edgeTo[e]]) {
+                firstPredecessor[position[edgeTo[e]] + 1]++;
+            }
+        }
+        for (int i = 0; i < nodes; i++) {
+            firstPredecessor[i + 1] += firstPredecessor[i];
+        }
+        this.predecessors = new int[firstPredecessor[nodes]];
+        int[] filled = Arrays.copyOf(firstPredecessor, nodes);
+        this.last = new boolean[nodes];
+        Arrays.fill(last, true);
+        for (int e = 0; e < edgeFrom.length; e++) {
+            int from = position[edgeFrom[e]];
+            int to = position[edgeTo[e]];
+            if (from < to) {
+                predecessors[filled[to]++] = from;
+                last[from] = false;
+            }
+        }
+
+        // Nodes sharing one array of ratios share its copy
+        this.firstSample = new int[nodes];
+        this.sampleCount = new int[nodes];
+        List<double[]> distinct = new ArrayList<>();
+        int[] offsets = new int[nodes];
+        int total = 0;
+        for (int i = 0; i < nodes; i++) {
+            double[] of = samplesOf[order[i]];
+            int index = indexOfIdentical(distinct, of);
+            if (index < 0) {
+                index = distinct.size();
+                distinct.add(of);
+                offsets[index] = total;
+                total += of.length;
+            }
+            firstSample[i] = offsets[index];
+            sampleCount[i] = of.length;
+        }
+        this.samples = new int[total];
+        for (int index = 0; index < distinct.size(); index++) {
+            double[] ratios = distinct.get(index);
+            for (int k = 0; k < ratios.length; k++) {
+                samples[offsets[index] + k] = (int) Math.round(ratios[k] * TICKS_PER_DAY);
+            }
+        }
+    }
+
+    private static int indexOfIdentical(List<double[]> arrays, double[] array) {
+        for (int i = 0; i < arrays.size(); i++) {
+            if (arrays.get(i) == array) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Kahn's algorithm, taking the lowest ready node first, then whatever a cycle left over
+    private static int[] topologicalOrder(int nodes, int[] edgeFrom, int[] edgeTo) {
+        int[] incoming = new int[nodes];
+        int[] firstSuccessor = new int[nodes + 1];
+        for (int e = 0; e < edgeFrom.length; e++) {
+            incoming[edgeTo[e]]++;
+            firstSuccessor[edgeFrom[e] + 1]++;
+        }
+        for (int i = 0; i < nodes; i++) {
+            firstSuccessor[i + 1] += firstSuccessor[i];
+        }
+        int[] successors = new int[edgeFrom.length];
+        int[] filled = Arrays.copyOf(firstSuccessor, nodes);
+        for (int e = 0; e < edgeFrom.length; e++) {
+            successors[filled[edgeFrom[e]]++] = edgeTo[e];
+        }
+
+        int[] order = new int[nodes];
+        int placed = 0;
+        for (int i = 0; i < nodes; i++) {
+            if (incoming[i] == 0) {
+                order[placed++] = i;
+            }
+        }
+        for (int next = 0; next < placed; next++) {
+            int node = order[next];
+            for (int s = firstSuccessor[node]; s < firstSuccessor[node + 1]; s++) {
+                if (--incoming[successors[s]] == 0) {
+                    order[placed++] = successors[s];
+                }
+            }
+        }
+        if (placed < nodes) {
+            for (int i = 0; i < nodes; i++) {
+                if (incoming[i] > 0) {
+                    order[placed++] = i;
+                }
+            }
+        }
+        return order;
+    }
+
+    // The day, counted from day 0, on which each run finished, in ascending order. A run finishing at 3.2 worked into
+    // day 3; a schedule without nodes finishes at 0.
+    public double[] run(int runs, long seed, ForkJoinPool pool) {
+        double[] finishes = new double[runs];
+        SplittableRandom root = new SplittableRandom(seed);
+        List<Callable<Void>> chunks = new ArrayList<>();
+        for (int first = 0; first < runs; first += CHUNK) {
+            int from = first;
+            int to = Math.min(runs, first + CHUNK);
+            SplittableRandom random = root.split();
+            chunks.add(() -> {
+                runChunk(finishes, from, to, random);
+                return null;
+            });
+        }
+        pool.invokeAll(chunks).forEach(chunk -> {
+            try {
+                chunk.get();
+            } catch (Exception e) {
+                throw new IllegalStateException("A forecast run failed.", e);
+            }
+        });
+
+        Arrays.sort(finishes);
+        return finishes;
+    }
+
+    private void runChunk(double[] finishes, int from, int to, SplittableRandom random) {
+        int[] finish = new int[nodes * BATCH]; // Node i's finish in run r of the batch at i * BATCH + r
+        int[] latest = new int[BATCH];
+        for (int first = from; first < to; first += BATCH) {
+            int width = Math.min(BATCH, to - first);
+            Arrays.fill(latest, 0);
+            for (int i = 0; i < nodes; i++) {
+                runNode(i, finish, latest, width, random);
+            }
+            for (int r = 0; r < width; r++) {
+                finishes[first + r] = (double) latest[r] / TICKS_PER_DAY;
+            }
+        }
+    }
+
+    // Kept apart from the loops above so the JIT compiles it on its own rather than only as part of them. The start,
+    // the latest of the node's own and its predecessors' finishes, and a length as planned take one pass for up to two
+    // predecessors, the usual case.
+    private void runNode(int i, int[] finish, int[] latest, int width, SplittableRandom random) {
+        int at = i * BATCH;
+        int earliest = earliestStart[i];
+        int p = firstPredecessor[i];
+        int end = firstPredecessor[i + 1];
+        int days = plannedDays[i];
+        int count = sampleCount[i];
+        int ticks = count == 0 ? days * TICKS_PER_DAY : 0; // Drawn below otherwise
+
+        if (p == end) {
+            Arrays.fill(finish, at, at + width, earliest + ticks);
+        } else if (p + 1 == end) {
+            int before = predecessors[p] * BATCH;
+            for (int r = 0; r < width; r++) {
+                finish[at + r] = Math.max(earliest, finish[before + r]) + ticks;
+            }
+        } else {
+            int before = predecessors[p] * BATCH;
+            int alsoBefore = predecessors[p + 1] * BATCH;
+            for (int r = 0; r < width; r++) {
+                finish[at + r] = Math.max(Math.max(earliest, finish[before + r]), finish[alsoBefore + r]) + ticks;
+            }
+            for (p += 2; p < end; p++) {
+                before = predecessors[p] * BATCH;
+                for (int r = 0; r < width; r++) {
+                    finish[at + r] = Math.max(finish[at + r], finish[before + r] + ticks);
+                }
+            }
+        }
+
+        if (days != 0 && count != 0) {
+            // Two 32-bit draws per long, each scaled to the count without a division
+            int offset = firstSample[i];
+            for (int r = 0; r < width; r += 2) {
+                long bits = random.nextLong();
+                finish[at + r] += days * samples[offset + (int) (((bits & 0xFFFFFFFFL) * count) >>> 32)];
+                if (r + 1 < width) {
+                    finish[at + r + 1] += days * samples[offset + (int) (((bits >>> 32) * count) >>> 32)];
+                }
+            }
+        }
+
+        if (last[i]) {
+            for (int r = 0; r < width; r++) {
+                latest[r] = Math.max(latest[r], finish[at + r]);
+            }
+        }
+    }
+}
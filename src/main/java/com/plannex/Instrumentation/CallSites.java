@@ -0,0 +1,48 @@
+package com.plannex.Instrumentation;
+
+import java.util.Iterator;
+
+public final class CallSites {
+    public static final String UNATTRIBUTED = "unattributed";
+
+    private static final String ROOT_PACKAGE = "com.plannex.";
+    private static final String REPOSITORY_PACKAGE = "com.plannex.Repository.";
+    private static final String INSTRUMENTATION_PACKAGE = "com.plannex.Instrumentation.";
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private CallSites() { }
+
+    // Innermost repository frame wins, since that is the method whose SQL is running.
+    // Statements issued outside the repositories (sessions, schema init) fall back to the innermost Plannex frame, if any.
+    public static String currentRepositoryMethod() {
+        return WALKER.walk(frames -> {
+            String firstPlannexFrame = null;
+            Iterator<StackWalker.StackFrame> it = frames.iterator();
+
+            while (it.hasNext()) {
+                StackWalker.StackFrame frame = it.next();
+                String className = frame.getClassName();
+
+                if (className.startsWith(REPOSITORY_PACKAGE)) {
+                    return describe(frame);
+                }
+
+                if (firstPlannexFrame == null && className.startsWith(ROOT_PACKAGE) && !className.startsWith(INSTRUMENTATION_PACKAGE)) {
+                    firstPlannexFrame = describe(frame);
+                }
+            }
+
+            return firstPlannexFrame != null ? firstPlannexFrame : UNATTRIBUTED;
+        });
+    }
+
+    public static String describe(StackWalker.StackFrame frame) {
+        return simpleName(frame.getClassName()) + "." + frame.getMethodName();
+    }
+
+    static String simpleName(String className) {
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        int proxySuffix = simpleName.indexOf('$'); // CGLIB proxies and inner classes
+        return proxySuffix < 0 ? simpleName : simpleName.substring(0, proxySuffix);
+    }
+}
@@ -0,0 +1,194 @@
+package com.plannex.Instrumentation;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.List;
+import java.util.Set;
+
+// Wraps every connection so that each executed statement is timed, its rows counted and the result handed
+// to all StatementListener beans. Query latency runs from execute until the result set is closed, so it includes fetching.
+// unwrap() still reaches the pool, which is what lets the actuator bind the Hikari pool metrics.
+public class InstrumentedDataSource extends DelegatingDataSource {
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    private final ObjectProvider<StatementListener> listenerProvider;
+    private volatile List<StatementListener> listeners;
+
+    public InstrumentedDataSource(DataSource target, ObjectProvider<StatementListener> listenerProvider) {
+        super(target);
+        this.listenerProvider = listenerProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return instrument(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return instrument(super.getConnection(username, password));
+    }
+
+    private List<StatementListener> listeners() {
+        List<StatementListener> resolved = listeners;
+        if (resolved == null) {
+            resolved = listenerProvider.orderedStream().toList();
+            listeners = resolved;
+        }
+        return resolved;
+    }
+
+    private void publish(String callSite, String sql, long elapsedNanos, long rows) {
+        for (StatementListener listener : listeners()) {
+            listener.onStatement(callSite, sql, elapsedNanos, rows);
+        }
+    }
+
+    private Connection instrument(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+
+            if (result instanceof Statement statement && STATEMENT_FACTORIES.contains(method.getName())) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return instrument(statement, sql);
+            }
+
+            return result;
+        });
+    }
+
+    private Statement instrument(Statement statement, String preparedSql) {
+        Class<? extends Statement> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+
+        return proxy(type, new StatementHandler(statement, preparedSql));
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String preparedSql;
+        private PendingQuery pendingQuery;
+
+        private StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (name.equals("close")) {
+                finishPendingQuery();
+                return InstrumentedDataSource.invoke(statement, method, args);
+            }
+
+            if (!name.startsWith("execute")) {
+                return InstrumentedDataSource.invoke(statement, method, args);
+            }
+
+            finishPendingQuery();
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            String callSite = CallSites.currentRepositoryMethod();
+            long started = System.nanoTime();
+            Object result = InstrumentedDataSource.invoke(statement, method, args);
+
+            switch (result) {
+                case ResultSet resultSet -> {
+                    pendingQuery = new PendingQuery(resultSet, callSite, sql, started);
+                    return proxy(ResultSet.class, pendingQuery);
+                }
+                case Integer updated -> publish(callSite, sql, System.nanoTime() - started, updated);
+                case Long updated -> publish(callSite, sql, System.nanoTime() - started, updated);
+                case int[] batch -> publish(callSite, sql, System.nanoTime() - started, sumOf(batch));
+                case long[] batch -> publish(callSite, sql, System.nanoTime() - started, sumOf(batch));
+                default -> publish(callSite, sql, System.nanoTime() - started, Math.max(statement.getUpdateCount(), 0));
+            }
+
+            return result;
+        }
+
+        private void finishPendingQuery() {
+            if (pendingQuery != null) {
+                pendingQuery.finish();
+                pendingQuery = null;
+            }
+        }
+    }
+
+    private final class PendingQuery implements InvocationHandler {
+        private final ResultSet resultSet;
+        private final String callSite;
+        private final String sql;
+        private final long started;
+        private long rows;
+        private boolean finished;
+
+        private PendingQuery(ResultSet resultSet, String callSite, String sql, long started) {
+            this.resultSet = resultSet;
+            this.callSite = callSite;
+            this.sql = sql;
+            this.started = started;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = InstrumentedDataSource.invoke(resultSet, method, args);
+
+            switch (method.getName()) {
+                case "next" -> {
+                    if (Boolean.TRUE.equals(result)) rows++;
+                }
+                case "close" -> finish();
+                default -> { }
+            }
+
+            return result;
+        }
+
+        private void finish() {
+            if (!finished) {
+                finished = true;
+                publish(callSite, sql, System.nanoTime() - started, rows);
+            }
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        InvocationHandler identityPreserving = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> handler.invoke(proxy, method, args);
+        };
+
+        return type.cast(Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[] { type }, identityPreserving));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ite) {
+            throw ite.getCause();
+        }
+    }
+
+    private static long sumOf(int[] counts) {
+        long sum = 0;
+        for (int count : counts) sum += Math.max(count, 0);
+        return sum;
+    }
+
+    private static long sumOf(long[] counts) {
+        long sum = 0;
+        for (long count : counts) sum += Math.max(count, 0);
+        return sum;
+    }
+}
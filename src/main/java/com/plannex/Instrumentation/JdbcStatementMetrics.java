@@ -0,0 +1,48 @@
+package com.plannex.Instrumentation;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Per repository method: a latency histogram (plannex_jdbc_statements_seconds_bucket/_count/_sum in Prometheus)
+// and the rows returned or affected (plannex_jdbc_rows). Pool wait and usage come from the actuator's hikaricp_* meters.
+@Component
+public class JdbcStatementMetrics implements StatementListener {
+    private final MeterRegistry registry;
+    private final Map<String, Timer> latencies = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> rows = new ConcurrentHashMap<>();
+
+    public JdbcStatementMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void onStatement(String callSite, String sql, long elapsedNanos, long rowCount) {
+        latencies.computeIfAbsent(callSite, this::latencyTimer).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        rows.computeIfAbsent(callSite, this::rowSummary).record(rowCount);
+    }
+
+    private Timer latencyTimer(String callSite) {
+        return Timer.builder("plannex.jdbc.statements")
+                .description("Time from executing a statement until its results have been read")
+                .tag("method", callSite)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(50_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+    }
+
+    private DistributionSummary rowSummary(String callSite) {
+        return DistributionSummary.builder("plannex.jdbc.rows")
+                .description("Rows returned or affected by a statement")
+                .baseUnit("rows")
+                .tag("method", callSite)
+                .register(registry);
+    }
+}
@@ -0,0 +1,75 @@
+package com.plannex.Instrumentation;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Outermost filter, so statements issued by the session filter are counted as well.
+// Requests running more statements than their budget are logged with their most repeated statement, which is usually
+// the N+1 culprit. The budget is plannex.query-budget.routes.<Controller>.<method> for the handler if set, so the pages
+// that need many statements do not warn on every view, and plannex.query-budget.max-statements otherwise.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final Environment environment;
+    private final int maxStatements;
+    private final Map<String, Integer> budgetsByHandler = new ConcurrentHashMap<>();
+
+    public QueryBudgetFilter(Environment environment, @Value("${plannex.query-budget.max-statements:25}") int maxStatements) {
+        this.environment = environment;
+        this.maxStatements = maxStatements;
+    }
+
+    public int budgetFor(HttpServletRequest request) {
+        return budgetsByHandler.computeIfAbsent(handlerName(request),
+                handler -> environment.getProperty("plannex.query-budget.routes." + handler, Integer.class, maxStatements));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.begin();
+        request.setAttribute(RequestQueryStats.ATTRIBUTE, stats);
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            stats.end();
+            int budget = budgetFor(request);
+            if (stats.getStatementCount() > budget) {
+                logOverBudget(request, stats, budget);
+            }
+        }
+    }
+
+    private void logOverBudget(HttpServletRequest request, RequestQueryStats stats, int budget) {
+        RequestQueryStats.RepeatedStatement worst = stats.getMostRepeatedStatement().orElseThrow();
+        log.warn("{} {} ran {} statements (budget {}) in {}. Most repeated, {} times from {}: {}",
+                request.getMethod(), request.getRequestURI(), stats.getStatementCount(), budget,
+                handlerName(request), worst.executions(), worst.callSite(), worst.sql().strip().replaceAll("\\s+", " "));
+    }
+
+    public static String handlerName(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+
+        return "no handler";
+    }
+}
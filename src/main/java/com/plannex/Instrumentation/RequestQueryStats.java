@@ -0,0 +1,62 @@
+package com.plannex.Instrumentation;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// The statements executed while serving one HTTP request. The holder is inheritable so that parts of a page
+// loaded on virtual threads by PageLoadingService still count towards the request that started them.
+public class RequestQueryStats {
+    public static final String ATTRIBUTE = RequestQueryStats.class.getName();
+    private static final InheritableThreadLocal<RequestQueryStats> CURRENT = new InheritableThreadLocal<>();
+
+    public record RepeatedStatement(String sql, String callSite, int executions) { }
+
+    private record StatementTally(String callSite, AtomicInteger executions) { }
+
+    private final AtomicInteger statementCount = new AtomicInteger();
+    private final AtomicLong databaseNanos = new AtomicLong();
+    private final Map<String, StatementTally> tallies = new ConcurrentHashMap<>();
+    private volatile boolean open = true;
+
+    public static RequestQueryStats begin() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static RequestQueryStats current() {
+        RequestQueryStats stats = CURRENT.get();
+        return stats != null && stats.open ? stats : null;
+    }
+
+    public void end() {
+        open = false;
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+    void record(String callSite, String sql, long elapsedNanos) {
+        statementCount.incrementAndGet();
+        databaseNanos.addAndGet(elapsedNanos);
+        tallies.computeIfAbsent(sql == null ? "?" : sql, s -> new StatementTally(callSite, new AtomicInteger())).executions().incrementAndGet();
+    }
+
+    public int getStatementCount() {
+        return statementCount.get();
+    }
+
+    public long getDatabaseNanos() {
+        return databaseNanos.get();
+    }
+
+    public Optional<RepeatedStatement> getMostRepeatedStatement() {
+        return tallies.entrySet().stream()
+                .max(Comparator.comparingInt(e -> e.getValue().executions().get()))
+                .map(e -> new RepeatedStatement(e.getKey(), e.getValue().callSite(), e.getValue().executions().get()));
+    }
+}
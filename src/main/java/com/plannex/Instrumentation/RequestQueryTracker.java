@@ -0,0 +1,14 @@
+package com.plannex.Instrumentation;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class RequestQueryTracker implements StatementListener {
+    @Override
+    public void onStatement(String callSite, String sql, long elapsedNanos, long rows) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.record(callSite, sql, elapsedNanos);
+        }
+    }
+}
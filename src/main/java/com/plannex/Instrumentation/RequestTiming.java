@@ -0,0 +1,71 @@
+package com.plannex.Instrumentation;
+
+import java.util.Locale;
+
+// Phase boundaries of one request, marked by ServerTimingInterceptor, with the database time read from
+// RequestQueryStats at each boundary. Controller and render time exclude the database time spent inside them.
+// Parts of a page loaded concurrently can overlap their database time, so phases are clamped at zero.
+public class RequestTiming {
+    public static final String ATTRIBUTE = RequestTiming.class.getName();
+
+    private final long startedAt;
+    private final RequestQueryStats stats;
+    private String handler;
+    private long handlerStartedAt;
+    private long handlerEndedAt;
+    private long databaseNanosAtHandlerStart;
+    private long databaseNanosAtHandlerEnd;
+
+    public RequestTiming(long startedAt, RequestQueryStats stats) {
+        this.startedAt = startedAt;
+        this.stats = stats;
+    }
+
+    void handlerStarted(String handler, long now) {
+        this.handler = handler;
+        this.handlerStartedAt = now;
+        this.databaseNanosAtHandlerStart = databaseNanos();
+    }
+
+    void handlerEnded(long now) {
+        this.handlerEndedAt = now;
+        this.databaseNanosAtHandlerEnd = databaseNanos();
+    }
+
+    public boolean reachedHandler() {
+        return handler != null;
+    }
+
+    public String getHandler() {
+        return handler == null ? "no handler" : handler;
+    }
+
+    public Phases phasesUntil(long now) {
+        long database = databaseNanos();
+        long handlerEnd = handlerEndedAt == 0 ? now : handlerEndedAt; // postHandle is skipped when the handler throws
+        long databaseAtHandlerEnd = handlerEndedAt == 0 ? database : databaseNanosAtHandlerEnd;
+        long controller = (handlerEnd - handlerStartedAt) - (databaseAtHandlerEnd - databaseNanosAtHandlerStart);
+        long render = handlerEndedAt == 0 ? 0 : (now - handlerEndedAt) - (database - databaseNanosAtHandlerEnd);
+
+        return new Phases(database, stats == null ? 0 : stats.getStatementCount(), Math.max(0, controller), Math.max(0, render), now - startedAt);
+    }
+
+    private long databaseNanos() {
+        return stats == null ? 0 : stats.getDatabaseNanos();
+    }
+
+    public record Phases(long databaseNanos, int queries, long controllerNanos, long renderNanos, long totalNanos) {
+        public String toServerTimingHeader() {
+            return String.format(Locale.ROOT, "db;dur=%.2f;desc=\"%d queries\", controller;dur=%.2f, render;dur=%.2f, total;dur=%.2f",
+                    millis(databaseNanos), queries, millis(controllerNanos), millis(renderNanos), millis(totalNanos));
+        }
+
+        public double totalMillis() {
+            return millis(totalNanos);
+        }
+
+        static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
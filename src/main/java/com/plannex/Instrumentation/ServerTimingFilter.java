@@ -0,0 +1,157 @@
+package com.plannex.Instrumentation;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Adds a Server-Timing header with database, controller and render time to every controller response.
+// The body is held back until the request is done, because a rendered page usually commits the response long
+// before rendering ends; redirects and errors commit right away, so they get the header just before.
+// An event stream is not held back but goes out as it is written, with the header as of when it started.
+// A sample of requests, and every request slower than the threshold, is also logged as one key=value line.
+// Runs right inside QueryBudgetFilter, whose RequestQueryStats it reads.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "plannex.server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    private final double logSampleRate;
+    private final long slowRequestMillis;
+
+    public ServerTimingFilter(@Value("${plannex.server-timing.log-sample-rate:0.01}") double logSampleRate,
+                              @Value("${plannex.server-timing.log-slow-requests-over-millis:500}") long slowRequestMillis) {
+        this.logSampleRate = logSampleRate;
+        this.slowRequestMillis = slowRequestMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        RequestTiming timing = new RequestTiming(System.nanoTime(), (RequestQueryStats) request.getAttribute(RequestQueryStats.ATTRIBUTE));
+        request.setAttribute(RequestTiming.ATTRIBUTE, timing);
+        TimedResponse timedResponse = new TimedResponse(response, timing);
+
+        try {
+            filterChain.doFilter(request, timedResponse);
+        } finally {
+            RequestTiming.Phases phases = timedResponse.addServerTimingHeader();
+            timedResponse.copyBodyToResponse();
+            if (phases != null && shouldLog(phases)) {
+                log.info(String.format(Locale.ROOT, "method=%s path=%s handler=%s status=%d total_ms=%.2f db_ms=%.2f queries=%d controller_ms=%.2f render_ms=%.2f",
+                        request.getMethod(), request.getRequestURI(), timing.getHandler(), timedResponse.getStatus(),
+                        phases.totalMillis(), RequestTiming.Phases.millis(phases.databaseNanos()), phases.queries(),
+                        RequestTiming.Phases.millis(phases.controllerNanos()), RequestTiming.Phases.millis(phases.renderNanos())));
+            }
+        }
+    }
+
+    private boolean shouldLog(RequestTiming.Phases phases) {
+        return phases.totalMillis() >= slowRequestMillis || ThreadLocalRandom.current().nextDouble() < logSampleRate;
+    }
+
+    private static final class TimedResponse extends ContentCachingResponseWrapper {
+        private final RequestTiming timing;
+        private RequestTiming.Phases phases;
+        private boolean streaming;
+
+        TimedResponse(HttpServletResponse response, RequestTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        RequestTiming.Phases addServerTimingHeader() {
+            if (phases == null && timing.reachedHandler()) {
+                phases = timing.phasesUntil(System.nanoTime());
+                if (!isCommitted()) {
+                    setHeader("Server-Timing", phases.toServerTimingHeader());
+                }
+            }
+            return phases;
+        }
+
+        // Set either way, depending on who writes the headers
+        private void streamIfEventStream(String contentType) {
+            if (!streaming && contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE)) {
+                addServerTimingHeader();
+                streaming = true;
+            }
+        }
+
+        @Override
+        public void setContentType(String type) {
+            streamIfEventStream(type);
+            super.setContentType(type);
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                streamIfEventStream(value);
+            }
+            super.setHeader(name, value);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                streamIfEventStream(value);
+            }
+            super.addHeader(name, value);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            return streaming ? getResponse().getOutputStream() : super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            return streaming ? getResponse().getWriter() : super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (streaming) {
+                getResponse().flushBuffer();
+            } else {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addServerTimingHeader();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTimingHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTimingHeader();
+            super.sendError(sc, msg);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.plannex.Instrumentation;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+// Marks where the controller starts and where it hands over to the view. Only controller methods are timed.
+public class ServerTimingInterceptor implements HandlerInterceptor {
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod && request.getAttribute(RequestTiming.ATTRIBUTE) instanceof RequestTiming timing) {
+            timing.handlerStarted(handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName(), System.nanoTime());
+        }
+
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) {
+        if (request.getAttribute(RequestTiming.ATTRIBUTE) instanceof RequestTiming timing && timing.reachedHandler()) {
+            timing.handlerEnded(System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.plannex.Instrumentation;
+
+// Notified by InstrumentedDataSource once per executed statement, on the thread that executed it.
+// callSite is the repository method that issued the statement, e.g. "TaskRepository.getAllAssigneesForTask".
+public interface StatementListener {
+    void onStatement(String callSite, String sql, long elapsedNanos, long rows);
+}
@@ -0,0 +1,19 @@
+package com.plannex.Live;
+
+// A change to something in a project, as pushed to the pages showing it: the SSE event name and its data as JSON.
+// The data is the change alone (who, which subtask, how much), for the page to apply without reloading.
+public record ProjectEvent(int projectID, String name, String data) {
+    public static final String TIME_CONTRIBUTED = "time-contributed";
+    public static final String WORKER_ASSIGNED = "worker-assigned";
+    public static final String WORKER_UNASSIGNED = "worker-unassigned";
+    public static final String ARTIFACT_ADDED = "artifact-added";
+    // Sent instead of the events a slow subscriber missed; the page reloads to catch up
+    public static final String RESYNC = "resync";
+
+    static final ProjectEvent HEARTBEAT = new ProjectEvent(0, null, null);
+    static final ProjectEvent MISSED_SOME = new ProjectEvent(0, RESYNC, "{}");
+
+    public boolean isHeartbeat() {
+        return name == null;
+    }
+}
@@ -0,0 +1,289 @@
+package com.plannex.Live;
+
+import com.plannex.Concurrent.BoundedMpscQueue;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-process publish/subscribe of project changes, streamed to the project and subtask pages as Server-Sent Events.
+// The repositories publish after each write they make; every page showing the project subscribes with stream().
+//
+// An idle subscriber holds no thread: the stream is an async servlet response. publish() only puts the event in each
+// subscriber's bounded buffer (lock-free) and, if nothing is delivering to that subscriber yet, starts a virtual thread
+// that writes out what is buffered and ends. A slow or stuck connection therefore only holds up its own virtual thread.
+// When a subscriber's buffer is full (plannex.live.subscriber-capacity) further events for it are dropped and counted,
+// and it gets one "resync" event once it catches up, upon which the page reloads.
+// Every plannex.live.heartbeat-interval each stream gets a comment, which keeps proxies from closing idle streams and
+// finds closed ones. Streams end after plannex.live.timeout; browsers reconnect by themselves.
+// Each instance only streams its own writes, like the search index.
+@Component
+public class ProjectEventBus implements DisposableBean, MeterBinder {
+    // Where a subscriber's events go; throwing closes the subscription
+    public interface Sink {
+        void send(ProjectEvent event) throws IOException;
+
+        default void close() { }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectEventBus.class);
+    private static final int DRAIN_BATCH = 32;
+
+    private final boolean enabled;
+    private final int subscriberCapacity;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final Map<Integer, Set<Subscription>> subscribersByProject = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService deliverers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("live-heartbeat").daemon().factory());
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public ProjectEventBus(@Value("${plannex.live.enabled:true}") boolean enabled,
+                           @Value("${plannex.live.subscriber-capacity:64}") int subscriberCapacity,
+                           @Value("${plannex.live.max-subscribers:10000}") int maxSubscribers,
+                           @Value("${plannex.live.heartbeat-interval:25s}") Duration heartbeatInterval,
+                           @Value("${plannex.live.timeout:10m}") Duration timeout) {
+        this.enabled = enabled;
+        this.subscriberCapacity = subscriberCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        if (enabled) {
+            long intervalMillis = heartbeatInterval.toMillis();
+            heartbeats.scheduleAtFixedRate(this::sendHeartbeats, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // For the pages: an event stream of the project's changes from now on
+    public SseEmitter stream(int projectID) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = subscribe(projectID, new Sink() {
+            @Override
+            public void send(ProjectEvent event) throws IOException {
+                if (event.isHeartbeat()) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    emitter.send(SseEmitter.event().name(event.name()).data(event.data(), MediaType.APPLICATION_JSON));
+                }
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        });
+
+        if (subscription == null) {
+            // Full or turned off: ask the browser to come back later rather than to give up
+            try {
+                emitter.send(SseEmitter.event().reconnectTime(TimeUnit.MINUTES.toMillis(1)).comment("busy"));
+            } catch (IOException ignored) {
+                // Gone already
+            }
+            emitter.complete();
+            return emitter;
+        }
+
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    // Null when turned off or at plannex.live.max-subscribers
+    public Subscription subscribe(int projectID, Sink sink) {
+        if (!enabled || subscriberCount.incrementAndGet() > maxSubscribers) {
+            if (enabled) {
+                subscriberCount.decrementAndGet();
+            }
+            return null;
+        }
+
+        Subscription subscription = new Subscription(projectID, sink);
+        subscribersByProject.compute(projectID, (id, subscribers) -> {
+            Set<Subscription> forProject = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+            forProject.add(subscription);
+            return forProject;
+        });
+        return subscription;
+    }
+
+    // The change is sent once the current transaction, if any, commits; data is serialised only if anyone listens
+    public void publish(int projectID, String name, Map<String, Object> data) {
+        if (!enabled || !subscribersByProject.containsKey(projectID)) {
+            return;
+        }
+
+        ProjectEvent event = new ProjectEvent(projectID, name, json(data));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    fanOut(event);
+                }
+            });
+        } else {
+            fanOut(event);
+        }
+    }
+
+    private void fanOut(ProjectEvent event) {
+        Set<Subscription> subscribers = subscribersByProject.get(event.projectID());
+        if (subscribers == null) {
+            return;
+        }
+
+        published.incrementAndGet();
+        for (Subscription subscription : subscribers) {
+            subscription.offer(event);
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Set<Subscription> subscribers : subscribersByProject.values()) {
+            for (Subscription subscription : subscribers) {
+                subscription.offer(ProjectEvent.HEARTBEAT);
+            }
+        }
+    }
+
+    private String json(Map<String, Object> data) {
+        try {
+            return jsonMapper.writeValueAsString(data);
+        } catch (JacksonException je) {
+            return "{}";
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public final class Subscription {
+        private final int projectID;
+        private final Sink sink;
+        private final BoundedMpscQueue<ProjectEvent> buffer = new BoundedMpscQueue<>(subscriberCapacity);
+        private final AtomicBoolean delivering = new AtomicBoolean();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private volatile boolean missedSome;
+
+        private Subscription(int projectID, Sink sink) {
+            this.projectID = projectID;
+            this.sink = sink;
+        }
+
+        private void offer(ProjectEvent event) {
+            if (!buffer.offer(event) && !event.isHeartbeat()) {
+                missedSome = true; // A heartbeat that does not fit is not missed: the stream is evidently not idle
+                dropped.incrementAndGet();
+            }
+            deliverLater();
+        }
+
+        private void deliverLater() {
+            if (!cancelled.get() && delivering.compareAndSet(false, true)) {
+                try {
+                    deliverers.execute(this::deliver);
+                } catch (RejectedExecutionException ree) {
+                    delivering.set(false); // Shutting down
+                }
+            }
+        }
+
+        // One deliverer at a time, which makes it the buffer's single consumer
+        private void deliver() {
+            List<ProjectEvent> batch = new ArrayList<>(DRAIN_BATCH);
+            try {
+                do {
+                    if (missedSome) {
+                        missedSome = false;
+                        sink.send(ProjectEvent.MISSED_SOME);
+                    }
+                    while (buffer.drainTo(batch, DRAIN_BATCH) > 0) {
+                        for (ProjectEvent event : batch) {
+                            sink.send(event);
+                        }
+                        delivered.addAndGet(batch.size());
+                        batch.clear();
+                    }
+                    delivering.set(false);
+                } while ((buffer.size() > 0 || missedSome) && !cancelled.get() && delivering.compareAndSet(false, true));
+            } catch (IOException | RuntimeException e) {
+                log.debug("Closing the event stream of project {}: {}", projectID, e.toString());
+                cancel();
+                sink.close();
+            }
+        }
+
+        public void cancel() {
+            if (!cancelled.compareAndSet(false, true)) {
+                return;
+            }
+
+            subscriberCount.decrementAndGet();
+            subscribersByProject.computeIfPresent(projectID, (id, subscribers) -> {
+                subscribers.remove(this);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+        for (Set<Subscription> subscribers : subscribersByProject.values()) {
+            for (Subscription subscription : subscribers) {
+                subscription.cancel();
+                subscription.sink.close();
+            }
+        }
+        deliverers.shutdown();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("plannex.live.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open project event streams").register(registry);
+        FunctionCounter.builder("plannex.live.events.published", published, AtomicLong::get)
+                .description("Project events published to at least one subscriber").register(registry);
+        FunctionCounter.builder("plannex.live.events.delivered", delivered, AtomicLong::get)
+                .description("Project events written to a stream").register(registry);
+        FunctionCounter.builder("plannex.live.events.dropped", dropped, AtomicLong::get)
+                .description("Project events dropped because a subscriber fell behind").register(registry);
+    }
+}
@@ -0,0 +1,43 @@
+package com.plannex.Model;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+// Burn-up and burn-down of a project, or of a task (task 0 for the project), one point a day from "from" to "to":
+// the hours spent up to each day, what is left of the estimate then, and what would be left on a straight line from
+// the estimate at the planned start to nothing at the planned end. spentInRange is what was spent within the range.
+public record BurnChart(int projectID, int taskID, float estimateHours, LocalDate plannedStart, LocalDate plannedEnd,
+                        LocalDate from, LocalDate to, double spentInRange,
+                        List<LocalDate> days, double[] spent, double[] remaining, double[] ideal) {
+    public static final int SVG_WIDTH = 600;
+    public static final int SVG_HEIGHT = 200;
+
+    // The series as <polyline points>, scaled to SVG_WIDTH by SVG_HEIGHT with the largest value at the top
+    public String spentPoints() {
+        return points(spent);
+    }
+
+    public String remainingPoints() {
+        return points(remaining);
+    }
+
+    public String idealPoints() {
+        return points(ideal);
+    }
+
+    private String points(double[] values) {
+        double top = Math.max(1, estimateHours);
+        for (double value : spent) {
+            top = Math.max(top, value);
+        }
+
+        StringBuilder points = new StringBuilder();
+        double step = values.length > 1 ? (double) SVG_WIDTH / (values.length - 1) : 0;
+        for (int i = 0; i < values.length; i++) {
+            double y = SVG_HEIGHT - Math.max(0, values[i]) / top * SVG_HEIGHT;
+            points.append(String.format(Locale.ROOT, "%s%.1f,%.1f", i == 0 ? "" : " ", i * step, y));
+        }
+        return points.toString();
+    }
+}
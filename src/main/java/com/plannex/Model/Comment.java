@@ -0,0 +1,85 @@
+package com.plannex.Model;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+public class Comment {
+    private int ID;
+    private int taskID;
+    private String commentAuthor;
+    private String title;
+    private String description;
+    private LocalDateTime postedAt;
+
+    public Comment(int ID, int taskID, String commentAuthor, String title, String description, LocalDateTime postedAt) {
+        this.ID = ID;
+        this.taskID = taskID;
+        this.commentAuthor = commentAuthor;
+        this.title = title;
+        this.description = description;
+        this.postedAt = postedAt;
+    }
+
+    public Comment() {}
+
+    public int getID() {
+        return ID;
+    }
+
+    public void setID(int ID) {
+        this.ID = ID;
+    }
+
+    public int getTaskID() {
+        return taskID;
+    }
+
+    public void setTaskID(int taskID) {
+        this.taskID = taskID;
+    }
+
+    // Null once the author's account is deleted
+    public String getCommentAuthor() {
+        return commentAuthor;
+    }
+
+    public void setCommentAuthor(String commentAuthor) {
+        this.commentAuthor = commentAuthor;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public LocalDateTime getPostedAt() {
+        return postedAt;
+    }
+
+    public void setPostedAt(LocalDateTime postedAt) {
+        this.postedAt = postedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        Comment comment = (Comment) o;
+        return ID == comment.ID && taskID == comment.taskID && Objects.equals(commentAuthor, comment.commentAuthor) && Objects.equals(title, comment.title) && Objects.equals(description, comment.description) && Objects.equals(postedAt, comment.postedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ID, taskID, commentAuthor, title, description, postedAt);
+    }
+}
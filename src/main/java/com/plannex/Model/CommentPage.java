@@ -0,0 +1,10 @@
+package com.plannex.Model;
+
+import java.util.List;
+
+// Comments newest first, and whether there are older ones: ask for those with olderThan() as the cursor
+public record CommentPage(List<Comment> comments, boolean hasOlder) {
+    public int olderThan() {
+        return comments.isEmpty() ? 0 : comments.getLast().getID();
+    }
+}
@@ -0,0 +1,19 @@
+package com.plannex.Model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// When a project is likely to be done: the day half, 80% and 95% of the simulated runs were done by, and the share
+// done by the planned end. The dates are null for a project without tasks. historySamples is how many finished
+// subtasks the ratios of actual to estimated hours came from.
+public record CompletionForecast(int projectID, LocalDate plannedEnd, LocalDate p50, LocalDate p80, LocalDate p95,
+                                 double onTimeProbability, int runs, int tasks, int historySamples,
+                                 LocalDateTime computedAt, long computeMillis) {
+    public boolean hasTasks() {
+        return tasks > 0;
+    }
+
+    public int onTimePercent() {
+        return (int) Math.round(onTimeProbability * 100);
+    }
+}
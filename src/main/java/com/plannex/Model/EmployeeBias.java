@@ -0,0 +1,10 @@
+package com.plannex.Model;
+
+// How an employee's hours compare with the estimates of the subtasks they logged them on. Each subtask's estimate is
+// shared out by the hours logged on it, so an employee logging a third of a subtask's hours is held to a third of its
+// estimate. A bias over 1 means their work takes longer than estimated.
+public record EmployeeBias(String username, int subtasks, double estimateHours, double actualHours) {
+    public double bias() {
+        return estimateHours == 0 ? 0 : actualHours / estimateHours;
+    }
+}
@@ -0,0 +1,20 @@
+package com.plannex.Model;
+
+// What a login needs, read in one query: the stored password hash and the principal to put in the session.
+public final class EmployeeCredentials {
+    private final String passwordHash;
+    private final EmployeePrincipal principal;
+
+    public EmployeeCredentials(String passwordHash, EmployeePrincipal principal) {
+        this.passwordHash = passwordHash;
+        this.principal = principal;
+    }
+
+    public String getPasswordHash() {
+        return passwordHash;
+    }
+
+    public EmployeePrincipal getPrincipal() {
+        return principal;
+    }
+}
@@ -0,0 +1,68 @@
+package com.plannex.Model;
+
+import java.io.Serializable;
+import java.time.LocalTime;
+import java.util.Objects;
+
+// The logged-in employee as kept in the session: profile summary and permissions, read once at login.
+// Immutable, so a copy held by the session cannot drift from what was checked; getters match ProjectEmployee's,
+// so the profile templates render either.
+public final class EmployeePrincipal implements Serializable {
+    public static final String SESSION_ATTRIBUTE = "principal";
+
+    private final String employeeUsername;
+    private final String employeeName;
+    private final String employeeEmail;
+    private final String permissions;
+    private final LocalTime workingHoursFrom;
+    private final LocalTime workingHoursTo;
+
+    public EmployeePrincipal(String username, String name, String email, String permissions, LocalTime worksFrom, LocalTime worksTo) {
+        this.employeeUsername = username;
+        this.employeeName = name;
+        this.employeeEmail = email;
+        this.permissions = permissions;
+        this.workingHoursFrom = worksFrom;
+        this.workingHoursTo = worksTo;
+    }
+
+    public String getEmployeeUsername() {
+        return employeeUsername;
+    }
+
+    public String getEmployeeName() {
+        return employeeName;
+    }
+
+    public String getEmployeeEmail() {
+        return employeeEmail;
+    }
+
+    public String getPermissions() {
+        return permissions;
+    }
+
+    public boolean isManager() {
+        return "Manager".equals(permissions);
+    }
+
+    public LocalTime getWorkingHoursFrom() {
+        return workingHoursFrom;
+    }
+
+    public LocalTime getWorkingHoursTo() {
+        return workingHoursTo;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        EmployeePrincipal that = (EmployeePrincipal) o;
+        return Objects.equals(employeeUsername, that.employeeUsername) && Objects.equals(employeeName, that.employeeName) && Objects.equals(employeeEmail, that.employeeEmail) && Objects.equals(permissions, that.permissions) && Objects.equals(workingHoursFrom, that.workingHoursFrom) && Objects.equals(workingHoursTo, that.workingHoursTo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(employeeUsername, employeeName, employeeEmail, permissions, workingHoursFrom, workingHoursTo);
+    }
+}
@@ -0,0 +1,5 @@
+package com.plannex.Model;
+
+// What a typeahead needs to show and submit an employee
+public record EmployeeSuggestion(String employeeUsername, String employeeName, boolean worker) {
+}
@@ -0,0 +1,46 @@
+package com.plannex.Model;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+// Which time entries to sum and what to group them by. An empty set or a null means any; from and to are inclusive.
+// An entry counts for every skill of its employee, so grouped by skill or skill level it may count more than once,
+// and not at all if its employee has no skills.
+public record HoursQuery(List<Dimension> groupBy, Set<Integer> projectIDs, Set<String> usernames,
+                         @Nullable String skillTitle, @Nullable String skillLevel,
+                         @Nullable LocalDate from, @Nullable LocalDate to) {
+    public enum Dimension { PROJECT, TASK, EMPLOYEE, SKILL, SKILL_LEVEL, MONTH }
+
+    public HoursQuery {
+        groupBy = List.copyOf(groupBy);
+        projectIDs = Set.copyOf(projectIDs);
+        usernames = Set.copyOf(usernames);
+    }
+
+    public static HoursQuery groupedBy(Dimension... groupBy) {
+        return new HoursQuery(List.of(groupBy), Set.of(), Set.of(), null, null, null, null);
+    }
+
+    public HoursQuery forProjects(Integer... projectIDs) {
+        return new HoursQuery(groupBy, Set.of(projectIDs), usernames, skillTitle, skillLevel, from, to);
+    }
+
+    public HoursQuery forEmployees(String... usernames) {
+        return new HoursQuery(groupBy, projectIDs, Set.of(usernames), skillTitle, skillLevel, from, to);
+    }
+
+    public HoursQuery withSkill(@Nullable String skillTitle, @Nullable String skillLevel) {
+        return new HoursQuery(groupBy, projectIDs, usernames, skillTitle, skillLevel, from, to);
+    }
+
+    public HoursQuery between(@Nullable LocalDate from, @Nullable LocalDate to) {
+        return new HoursQuery(groupBy, projectIDs, usernames, skillTitle, skillLevel, from, to);
+    }
+
+    public boolean filtersSkills() {
+        return skillTitle != null || skillLevel != null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.plannex.Model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// The hours of the entries a query matched, summed by group, most hours first. A group's keys follow groupBy: project
+// and task IDs, usernames, skill titles and levels, and months as yyyy-MM. totalHours and entries count each entry
+// once, however many skill groups it is in. rows is how many entries the snapshot held when it was scanned.
+public record HoursReport(List<HoursQuery.Dimension> groupBy, List<Group> groups, double totalHours, int entries,
+                          int rows, LocalDateTime refreshedAt, long scanMicros) {
+    public record Group(List<Object> keys, double hours, int entries) { }
+}
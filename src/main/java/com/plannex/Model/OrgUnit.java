@@ -0,0 +1,102 @@
+package com.plannex.Model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// A department or a team. Departments sit at the top or under other departments; teams under a department or a team.
+public class OrgUnit {
+    public static final String DEPARTMENT = "Department";
+    public static final String TEAM = "Team";
+
+    private int ID;
+    private String kind;
+    private String title;
+    private String description;
+    private Integer parentID;
+    private List<String> memberUsernames = new ArrayList<>(); // Its own members, not those of the teams under it
+    private int depth; // 0 at the top; only set when listing them all
+
+    public OrgUnit(int ID, String kind, String title, String description, Integer parentID) {
+        this.ID = ID;
+        this.kind = kind;
+        this.title = title;
+        this.description = description;
+        this.parentID = parentID;
+    }
+
+    public OrgUnit() {}
+
+    public int getID() {
+        return ID;
+    }
+
+    public void setID(int ID) {
+        this.ID = ID;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    public boolean isDepartment() {
+        return DEPARTMENT.equals(kind);
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Integer getParentID() {
+        return parentID;
+    }
+
+    public void setParentID(Integer parentID) {
+        this.parentID = parentID;
+    }
+
+    public List<String> getMemberUsernames() {
+        return memberUsernames;
+    }
+
+    public void setMemberUsernames(List<String> memberUsernames) {
+        this.memberUsernames = memberUsernames == null ? new ArrayList<>() : memberUsernames;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        OrgUnit orgUnit = (OrgUnit) o;
+        return ID == orgUnit.ID && Objects.equals(kind, orgUnit.kind) && Objects.equals(title, orgUnit.title)
+                && Objects.equals(description, orgUnit.description) && Objects.equals(parentID, orgUnit.parentID);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ID, kind, title, description, parentID);
+    }
+}
@@ -0,0 +1,7 @@
+package com.plannex.Model;
+
+// Totals for a department or team and everything under it: how many people, how many hours they work a day between
+// them, and how many hours they have logged on tasks
+public record OrgUnitRollup(int members, float dailyCapacityHours, float loggedHours) {
+    public static final OrgUnitRollup EMPTY = new OrgUnitRollup(0, 0, 0);
+}
@@ -9,6 +9,7 @@ public class Project {
     private String projectDescription;
     private LocalDate projectStart;
     private LocalDate projectEnd;
+    private int version; // Of the row it was read from; not part of equals(), which compares values
 
     public Project(int id, String title, String description, LocalDate start, LocalDate end) {
         ID = id;
@@ -62,6 +63,14 @@ public class Project {
         return this.ID;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
@@ -0,0 +1,7 @@
+package com.plannex.Model;
+
+import java.time.LocalDate;
+
+// A project as the project list shows it: everything but the description, which only the project's own page needs.
+public record ProjectSummary(int ID, String projectTitle, LocalDate projectStart, LocalDate projectEnd, int commentCount) {
+}
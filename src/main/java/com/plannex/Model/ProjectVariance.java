@@ -0,0 +1,9 @@
+package com.plannex.Model;
+
+// A project's estimate (its tasks' estimates summed) against the hours logged on it, and how many of its tasks and
+// subtasks took longer than estimated
+public record ProjectVariance(int projectID, String projectTitle, double estimateHours, double actualHours, int tasks, int overruns) {
+    public double hoursOver() {
+        return actualHours - estimateHours;
+    }
+}
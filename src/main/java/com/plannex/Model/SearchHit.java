@@ -0,0 +1,13 @@
+package com.plannex.Model;
+
+public record SearchHit(Kind kind, int ID, int projectID, int parentTaskID, String title, double score) {
+    public enum Kind { PROJECT, TASK, SUBTASK }
+
+    public String path() {
+        return switch (kind) {
+            case PROJECT -> "/projects/" + ID;
+            case TASK -> "/projects/" + projectID + "/tasks/" + ID;
+            case SUBTASK -> "/projects/" + projectID + "/tasks/" + parentTaskID + "/subtasks/" + ID;
+        };
+    }
+}
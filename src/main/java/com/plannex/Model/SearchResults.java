@@ -0,0 +1,8 @@
+package com.plannex.Model;
+
+import java.util.List;
+
+// The best hits, best first, and how many documents matched in all
+public record SearchResults(List<SearchHit> hits, int totalHits) {
+    public static final SearchResults NONE = new SearchResults(List.of(), 0);
+}
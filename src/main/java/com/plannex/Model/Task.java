@@ -12,6 +12,7 @@ public class Task {
     private LocalDate taskStart;
     private LocalDate taskEnd;
     private float taskDurationHours;
+    private int version; // Of the row it was read from; not part of equals(), which compares values
 
     public Task(int ID, int parentProjectID, int parentTaskID, String title, String description, LocalDate taskStart, LocalDate taskEnd, float durationHours) {
         this.ID = ID;
@@ -91,6 +92,14 @@ public class Task {
         return this.ID;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
@@ -0,0 +1,9 @@
+package com.plannex.Model;
+
+import java.time.LocalDate;
+
+// A task as list pages show it: everything but the description, which only the task's own page needs.
+// commentCount includes the comments on a task's subtasks.
+public record TaskSummary(int ID, int parentProjectID, int parentTaskID, String taskTitle,
+                          LocalDate taskStart, LocalDate taskEnd, float taskDurationHours, int commentCount) {
+}
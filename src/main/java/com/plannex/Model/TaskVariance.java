@@ -0,0 +1,16 @@
+package com.plannex.Model;
+
+// A task's or subtask's estimate against the hours logged on it (on its subtasks, for a task)
+public record TaskVariance(int projectID, int taskID, int parentTaskID, String taskTitle, float estimateHours, double actualHours) {
+    public double hoursOver() {
+        return actualHours - estimateHours;
+    }
+
+    public boolean isOverrun() {
+        return actualHours > estimateHours;
+    }
+
+    public boolean isSubtask() {
+        return parentTaskID != 0;
+    }
+}
@@ -0,0 +1,6 @@
+package com.plannex.Model;
+
+import java.time.LocalDateTime;
+
+// A time contribution, found by its subtask and when it was logged, to be set to hours
+public record TimeEdit(int taskID, LocalDateTime when, float hours) { }
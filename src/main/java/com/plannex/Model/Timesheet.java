@@ -0,0 +1,22 @@
+package com.plannex.Model;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// What an employee logged in the week starting weekStart (a Monday): a row for each subtask they logged hours on
+public record Timesheet(String username, LocalDate weekStart, List<TimesheetRow> rows) {
+    public static final int DAYS = 7;
+
+    public List<LocalDate> days() {
+        return IntStream.range(0, DAYS).mapToObj(weekStart::plusDays).toList();
+    }
+
+    public double dayTotal(int day) {
+        return rows.stream().mapToDouble(row -> row.cells().get(day).hours()).sum();
+    }
+
+    public double total() {
+        return rows.stream().mapToDouble(TimesheetRow::total).sum();
+    }
+}
@@ -0,0 +1,18 @@
+package com.plannex.Model;
+
+import java.time.LocalDateTime;
+
+// The hours an employee logged on a subtask on one day, and how many entries they are. A cell of a single entry can be
+// edited in place, so it keeps when that entry was logged; a cell of several is edited entry by entry on the subtask.
+public record TimesheetCell(double hours, int entries, LocalDateTime when) {
+    public static final TimesheetCell EMPTY = new TimesheetCell(0, 0, null);
+
+    public boolean isEditable() {
+        return entries == 1;
+    }
+
+    // As stored (HoursSpent is a FLOAT), so a cell sent back unchanged compares equal to what it was
+    public float storedHours() {
+        return (float) hours;
+    }
+}
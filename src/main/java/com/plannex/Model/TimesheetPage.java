@@ -0,0 +1,7 @@
+package com.plannex.Model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// One page of every employee's timesheets for a week, by username, and whether there is a next page
+public record TimesheetPage(LocalDate weekStart, int page, List<Timesheet> timesheets, boolean hasNext) { }
@@ -0,0 +1,10 @@
+package com.plannex.Model;
+
+import java.util.List;
+
+// A subtask on a timesheet, with a cell for each day of the week, Monday first
+public record TimesheetRow(int projectID, String projectTitle, int taskID, int subtaskID, String subtaskTitle, List<TimesheetCell> cells) {
+    public double total() {
+        return cells.stream().mapToDouble(TimesheetCell::hours).sum();
+    }
+}
@@ -0,0 +1,14 @@
+package com.plannex.Model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Estimates against logged hours for every project with tasks: the projects, most hours over their estimates first,
+// the tasks and subtasks of each, and every employee's bias, most biased first
+public record VarianceReport(List<ProjectVariance> projects, Map<Integer, List<TaskVariance>> tasksByProject,
+                             List<EmployeeBias> employees, LocalDateTime computedAt, long computeMillis) {
+    public int overruns() {
+        return projects.stream().mapToInt(ProjectVariance::overruns).sum();
+    }
+}
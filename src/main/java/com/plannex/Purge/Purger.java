@@ -0,0 +1,133 @@
+package com.plannex.Purge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+
+// Deleting a project or task only sets its DeletedAt, which hides it from the repositories straight away. Once
+// plannex.purge.grace-period has passed, this deletes it for good: the time spent, artifacts, assignees, dependencies
+// and comments of its subtasks and tasks, then the tasks, then the project. Every statement deletes at most
+// plannex.purge.batch-size rows, and plannex.purge.pause goes by between them, so no transaction holds its locks for
+// long and the requests in between get the database. Until then it can be undeleted; after the grace period the
+// repositories refuse to, so an undelete and a purge never meet halfway.
+// Every instance runs it, which is harmless: a batch another instance already deleted just deletes nothing.
+@Component
+public class Purger implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(Purger.class);
+
+    // By the column naming the task, what goes with a task before it does
+    private static final List<String> CHILDREN = List.of(
+            "TimeSpent WHERE OnTaskID", "Artifacts WHERE TaskID", "TaskAssignees WHERE TaskID",
+            "TaskDependencies WHERE TaskIDFor", "TaskDependencies WHERE MustComeAfterTaskWithID", "Comments WHERE TaskID");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration gracePeriod;
+    private final int batchSize;
+    private final Duration pause;
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+    public Purger(JdbcTemplate jdbcTemplate,
+                  @Value("${plannex.purge.enabled:true}") boolean enabled,
+                  @Value("${plannex.purge.grace-period:24h}") Duration gracePeriod,
+                  @Value("${plannex.purge.batch-size:500}") int batchSize,
+                  @Value("${plannex.purge.pause:50ms}") Duration pause,
+                  @Value("${plannex.purge.interval:5m}") Duration interval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.gracePeriod = gracePeriod;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        scheduler.setThreadNamePrefix("purger-");
+        scheduler.initialize();
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::purgeQuietly, Instant.now().plus(interval), interval);
+        }
+    }
+
+    // What DeletedAt is set to: to the second, which is all the column holds, rounded down rather than up as MySQL
+    // would, so a purge with no grace period sees it at once
+    public static LocalDateTime deletionTime() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    // What was deleted at or before this is past undeleting
+    public LocalDateTime getPurgeableUntil() {
+        return LocalDateTime.now().minus(gracePeriod);
+    }
+
+    // Everything deleted before the grace period; returns the rows deleted, projects and tasks included
+    public long purge() throws InterruptedException {
+        LocalDateTime until = getPurgeableUntil();
+        long deleted = 0;
+        for (int projectID : jdbcTemplate.queryForList("SELECT ProjectID FROM Projects WHERE DeletedAt <= ?;", Integer.class, until)) {
+            deleted += purgeTasks("ProjectID = ?", projectID);
+            deleted += jdbcTemplate.update("DELETE FROM Projects WHERE ProjectID = ?;", projectID);
+        }
+
+        deleted += purgeTasks("DeletedAt <= ?", until);
+        return deleted;
+    }
+
+    // Subtasks first, so a task has none left once its turn comes
+    private long purgeTasks(String condition, Object value) throws InterruptedException {
+        long deleted = 0;
+        for (String parent : List.of("ParentTaskID IS NOT NULL", "ParentTaskID IS NULL")) {
+            List<Integer> taskIDs;
+            while (!(taskIDs = jdbcTemplate.queryForList("SELECT TaskID FROM Tasks WHERE " + condition + " AND " + parent + " LIMIT ?;",
+                    Integer.class, value, batchSize)).isEmpty()) {
+                String in = " IN (" + String.join(", ", Collections.nCopies(taskIDs.size(), "?")) + ")";
+                for (String child : CHILDREN) {
+                    deleted += deleteInBatches("DELETE FROM " + child + in + " LIMIT ?;", taskIDs);
+                }
+                deleted += jdbcTemplate.update("DELETE FROM Tasks WHERE TaskID" + in + ";", taskIDs.toArray());
+                Thread.sleep(pause);
+            }
+        }
+        return deleted;
+    }
+
+    private long deleteInBatches(String sql, List<Integer> taskIDs) throws InterruptedException {
+        Object[] args = taskIDs.toArray(new Object[taskIDs.size() + 1]);
+        args[taskIDs.size()] = batchSize;
+        long deleted = 0;
+        int batch;
+        while ((batch = jdbcTemplate.update(sql, args)) == batchSize) {
+            deleted += batch;
+            Thread.sleep(pause);
+        }
+        return deleted + batch;
+    }
+
+    private void purgeQuietly() {
+        try {
+            long started = System.nanoTime();
+            long deleted = purge();
+            if (deleted > 0) {
+                log.info("Purged {} rows of deleted projects and tasks in {} ms", deleted, (System.nanoTime() - started) / 1_000_000);
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt(); // Shutting down; the rest is purged next time
+        } catch (BadSqlGrammarException bsge) {
+            log.debug("Tables are not there yet: {}", bsge.getMessage());
+        } catch (DataAccessException dae) {
+            log.warn("Could not purge deleted projects and tasks", dae);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+    }
+}
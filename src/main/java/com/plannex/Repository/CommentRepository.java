@@ -0,0 +1,105 @@
+package com.plannex.Repository;
+
+import com.plannex.Audit.AuditLog;
+import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Exception.InvalidValueException;
+import com.plannex.Model.Comment;
+import com.plannex.Model.CommentPage;
+import com.plannex.RowMapper.CommentRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+// Comments on tasks and subtasks. Every comment counts once on its own task, once on the task above a subtask and once
+// on the project, in the CommentCount columns the list pages read; adding or deleting one updates those counts in the
+// same transaction, so the lists never count rows. Deleting a task takes its comments off the counts above it (TaskRepository).
+@Repository
+public class CommentRepository {
+    private record Location(int projectID, int parentTaskID) { }
+
+    protected final JdbcTemplate jdbcTemplate;
+    protected final CommentRowMapper commentRowMapper;
+    protected final AuditLog auditLog;
+
+    public CommentRepository(JdbcTemplate jdbcTemplate, CommentRowMapper commentRowMapper, AuditLog auditLog) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.commentRowMapper = commentRowMapper;
+        this.auditLog = auditLog;
+    }
+
+    private Location locateTask(int taskID) {
+        return jdbcTemplate.query("SELECT ProjectID, ParentTaskID FROM VisibleTasks WHERE TaskID = ?;",
+                        (rs, rowNum) -> new Location(rs.getInt("ProjectID"), rs.getInt("ParentTaskID")), taskID)
+                .stream().findFirst().orElseThrow(() -> new EntityDoesNotExistException("No task with ID " + taskID + " exists."));
+    }
+
+    // By one on the task, the task above it if it is a subtask, and the project
+    private void countComment(int taskID, Location location, int by) {
+        jdbcTemplate.update("UPDATE Tasks SET CommentCount = CommentCount + ? WHERE TaskID IN (?, ?);",
+                by, taskID, location.parentTaskID() == 0 ? taskID : location.parentTaskID());
+        jdbcTemplate.update("UPDATE Projects SET CommentCount = CommentCount + ? WHERE ProjectID = ?;", by, location.projectID());
+    }
+
+    @Transactional
+    public int addComment(Comment comment) {
+        if (comment.getTitle() == null || comment.getTitle().isBlank() || comment.getDescription() == null || comment.getDescription().isBlank()) {
+            throw new InvalidValueException("A comment needs a title and a text.");
+        }
+
+        Location location = locateTask(comment.getTaskID());
+        int commentID = GeneratedKeys.insert(jdbcTemplate, "INSERT INTO Comments (TaskID, CommentAuthor, CommentTitle, CommentText, PostedAt) VALUES (?, ?, ?, ?, ?);",
+                comment.getTaskID(), comment.getCommentAuthor(), comment.getTitle(), comment.getDescription(), comment.getPostedAt());
+        if (commentID == 0) {
+            return 0;
+        }
+
+        countComment(comment.getTaskID(), location, 1);
+        comment.setID(commentID);
+        auditLog.created("Comment", commentID, comment);
+        return 1;
+    }
+
+    public Optional<Comment> findCommentByID(int commentID) {
+        return jdbcTemplate.query("SELECT c.* FROM Comments AS c JOIN VisibleTasks AS t ON t.TaskID = c.TaskID WHERE c.CommentID = ?;", commentRowMapper, commentID).stream().findFirst();
+    }
+
+    public Comment getCommentByIDOrThrow(int commentID) {
+        return findCommentByID(commentID).orElseThrow(() -> new EntityDoesNotExistException("No comment with ID " + commentID + " exists."));
+    }
+
+    // Up to limit comments on the task older than the comment with ID olderThan (0 for the newest), newest first.
+    // Keyset rather than OFFSET, so a page deep into a long thread costs the same as the first.
+    public CommentPage getCommentsForTask(int taskID, int olderThan, int limit) {
+        List<Comment> comments = jdbcTemplate.query("SELECT c.* FROM Comments AS c JOIN VisibleTasks AS t ON t.TaskID = c.TaskID WHERE c.TaskID = ? AND c.CommentID < ? ORDER BY c.CommentID DESC LIMIT ?;",
+                commentRowMapper, taskID, olderThan > 0 ? olderThan : Integer.MAX_VALUE, limit + 1);
+        boolean hasOlder = comments.size() > limit;
+        return new CommentPage(hasOlder ? comments.subList(0, limit) : comments, hasOlder);
+    }
+
+    public int updateComment(Comment modifiedComment, int commentID) {
+        Comment before = getCommentByIDOrThrow(commentID);
+
+        int rowsAffected = jdbcTemplate.update("UPDATE Comments SET CommentTitle = ?, CommentText = ? WHERE CommentID = ?;",
+                modifiedComment.getTitle(), modifiedComment.getDescription(), commentID);
+        if (rowsAffected != 0) {
+            auditLog.updated("Comment", commentID, before, modifiedComment);
+        }
+        return rowsAffected;
+    }
+
+    @Transactional
+    public int deleteComment(int commentID) {
+        Comment before = getCommentByIDOrThrow(commentID);
+        Location location = locateTask(before.getTaskID());
+
+        int rowsAffected = jdbcTemplate.update("DELETE FROM Comments WHERE CommentID = ?;", commentID);
+        if (rowsAffected != 0) {
+            countComment(before.getTaskID(), location, -1);
+            auditLog.deleted("Comment", commentID, before);
+        }
+        return rowsAffected;
+    }
+}
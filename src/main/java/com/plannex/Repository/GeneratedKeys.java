@@ -0,0 +1,28 @@
+package com.plannex.Repository;
+
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+// An INSERT that also reads back the AUTO_INCREMENT key it was given, in the same round trip
+final class GeneratedKeys {
+    private GeneratedKeys() {
+    }
+
+    // The generated key, or 0 if nothing was inserted
+    static int insert(JdbcTemplate jdbcTemplate, String sql, Object... args) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int rowsAffected = jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            new ArgumentPreparedStatementSetter(args).setValues(ps);
+            return ps;
+        }, keyHolder);
+
+        Number key = keyHolder.getKey();
+        return rowsAffected == 0 || key == null ? 0 : key.intValue();
+    }
+}
@@ -0,0 +1,219 @@
+package com.plannex.Repository;
+
+import com.plannex.Audit.AuditLog;
+import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Exception.InvalidValueException;
+import com.plannex.Model.OrgUnit;
+import com.plannex.Model.OrgUnitRollup;
+import com.plannex.Model.ProjectEmployee;
+import com.plannex.RowMapper.OrgUnitRowMapper;
+import com.plannex.RowMapper.ProjectEmployeeRowMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+// Departments and teams, kept as a tree in OrgUnits.ParentUnitID and, for reading, as a closure table: OrgUnitClosure
+// has a row for every unit and each of its ancestors, itself included at depth 0. Whatever is asked of a unit's whole
+// subtree (its members, their hours) is then a join on OrgUnitClosure.AncestorID, whichever depth it goes to.
+// Moving a unit rewrites the closure rows of its subtree in one batch.
+@Repository
+public class OrgUnitRepository {
+    // Every member under AncestorID with their working day and the hours they have logged, one row each
+    private static final String MEMBERS_UNDER = "SELECT c.AncestorID, "
+            + "HOUR(pe.EmployeeWorkingHoursTo) * 60 + MINUTE(pe.EmployeeWorkingHoursTo) - HOUR(pe.EmployeeWorkingHoursFrom) * 60 - MINUTE(pe.EmployeeWorkingHoursFrom) AS WorkingMinutes, "
+            + "(SELECT COALESCE(SUM(ts.HoursSpent), 0) FROM TimeSpent ts JOIN VisibleTasks t ON t.TaskID = ts.OnTaskID WHERE ts.ByEmployee = m.EmployeeUsername) AS LoggedHours "
+            + "FROM OrgUnitClosure c JOIN OrgUnitMembers m ON m.OrgUnitID = c.DescendantID JOIN ProjectEmployees pe ON pe.EmployeeUsername = m.EmployeeUsername";
+
+    protected final JdbcTemplate jdbcTemplate;
+    protected final OrgUnitRowMapper orgUnitRowMapper;
+    protected final ProjectEmployeeRowMapper projectEmployeeRowMapper;
+    protected final AuditLog auditLog;
+
+    public OrgUnitRepository(JdbcTemplate jdbcTemplate, OrgUnitRowMapper orgUnitRowMapper, ProjectEmployeeRowMapper projectEmployeeRowMapper, AuditLog auditLog) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.orgUnitRowMapper = orgUnitRowMapper;
+        this.projectEmployeeRowMapper = projectEmployeeRowMapper;
+        this.auditLog = auditLog;
+    }
+
+    private void validate(OrgUnit unit) {
+        if (unit.getTitle() == null || unit.getTitle().isBlank()) {
+            throw new InvalidValueException("A department or team needs a title.");
+        }
+
+        if (!OrgUnit.DEPARTMENT.equals(unit.getKind()) && !OrgUnit.TEAM.equals(unit.getKind())) {
+            throw new InvalidValueException("A unit is either a " + OrgUnit.DEPARTMENT + " or a " + OrgUnit.TEAM + ".");
+        }
+
+        if (unit.getParentID() == null) {
+            if (!unit.isDepartment()) {
+                throw new InvalidValueException("A team must belong to a department or another team.");
+            }
+            return;
+        }
+
+        OrgUnit parent = getOrgUnitByIDOrThrow(unit.getParentID());
+        if (unit.isDepartment() && !parent.isDepartment()) {
+            throw new InvalidValueException("A department can only sit under another department.");
+        }
+    }
+
+    // Replaces the unit's own members; anyone who was in another unit leaves it
+    private void setMembers(int orgUnitID, List<String> usernames) {
+        List<String> members = usernames.stream().distinct().toList();
+        List<Object> args = new ArrayList<>(members.size() + 1);
+        args.add(orgUnitID);
+        args.addAll(members);
+        jdbcTemplate.update("DELETE FROM OrgUnitMembers WHERE OrgUnitID = ?" + " OR EmployeeUsername = ?".repeat(members.size()) + ";", args.toArray());
+        if (members.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate("INSERT INTO OrgUnitMembers (EmployeeUsername, OrgUnitID) VALUES (?, ?);",
+                    members.stream().map(username -> new Object[] { username, orgUnitID }).toList());
+        } catch (DataIntegrityViolationException dive) {
+            throw new EntityDoesNotExistException("Every member must be an existing employee.");
+        }
+    }
+
+    @Transactional
+    public int addOrgUnit(OrgUnit unit) {
+        validate(unit);
+        int orgUnitID = GeneratedKeys.insert(jdbcTemplate, "INSERT INTO OrgUnits (UnitKind, UnitTitle, UnitDescription, ParentUnitID) VALUES (?, ?, ?, ?);",
+                unit.getKind(), unit.getTitle(), unit.getDescription(), unit.getParentID());
+        if (orgUnitID == 0) {
+            return 0;
+        }
+
+        jdbcTemplate.update("INSERT INTO OrgUnitClosure (AncestorID, DescendantID, Depth) VALUES (?, ?, 0);", orgUnitID, orgUnitID);
+        if (unit.getParentID() != null) {
+            jdbcTemplate.update("INSERT INTO OrgUnitClosure (AncestorID, DescendantID, Depth) SELECT AncestorID, ?, Depth + 1 FROM OrgUnitClosure WHERE DescendantID = ?;",
+                    orgUnitID, unit.getParentID());
+        }
+
+        setMembers(orgUnitID, unit.getMemberUsernames());
+        unit.setID(orgUnitID);
+        auditLog.created("OrgUnit", orgUnitID, unit);
+        return 1;
+    }
+
+    // With its own members
+    public Optional<OrgUnit> findOrgUnitByID(int orgUnitID) {
+        Optional<OrgUnit> unit = jdbcTemplate.query("SELECT * FROM OrgUnits WHERE OrgUnitID = ?;", orgUnitRowMapper, orgUnitID).stream().findFirst();
+        unit.ifPresent(u -> u.setMemberUsernames(jdbcTemplate.queryForList("SELECT EmployeeUsername FROM OrgUnitMembers WHERE OrgUnitID = ? ORDER BY EmployeeUsername;", String.class, orgUnitID)));
+        return unit;
+    }
+
+    public OrgUnit getOrgUnitByIDOrThrow(int orgUnitID) {
+        return findOrgUnitByID(orgUnitID).orElseThrow(() -> new EntityDoesNotExistException("No department or team with ID " + orgUnitID + " exists."));
+    }
+
+    // All of them as the tree reads from the top: each unit followed by those under it, siblings by title, with their depth
+    public List<OrgUnit> getAllOrgUnits() {
+        List<OrgUnit> units = jdbcTemplate.query("SELECT u.*, COUNT(*) - 1 AS Depth FROM OrgUnits u JOIN OrgUnitClosure c ON c.DescendantID = u.OrgUnitID "
+                        + "GROUP BY u.OrgUnitID, u.UnitKind, u.UnitTitle, u.UnitDescription, u.ParentUnitID ORDER BY u.UnitTitle, u.OrgUnitID;",
+                (rs, rowNum) -> {
+                    OrgUnit unit = orgUnitRowMapper.mapRow(rs, rowNum);
+                    unit.setDepth(rs.getInt("Depth"));
+                    return unit;
+                });
+
+        Map<Integer, List<OrgUnit>> byParent = new HashMap<>();
+        for (OrgUnit unit : units) {
+            byParent.computeIfAbsent(unit.getParentID() == null ? 0 : unit.getParentID(), parentID -> new ArrayList<>()).add(unit);
+        }
+
+        List<OrgUnit> inTreeOrder = new ArrayList<>(units.size());
+        Deque<OrgUnit> toVisit = new ArrayDeque<>(byParent.getOrDefault(0, List.of()));
+        while (!toVisit.isEmpty()) {
+            OrgUnit unit = toVisit.pop();
+            inTreeOrder.add(unit);
+            byParent.getOrDefault(unit.getID(), List.of()).reversed().forEach(toVisit::push);
+        }
+        return inTreeOrder;
+    }
+
+    // Everyone in the unit and in every unit under it, in one join
+    public List<ProjectEmployee> getMembersUnder(int orgUnitID) {
+        return jdbcTemplate.query("SELECT pe.* FROM OrgUnitClosure c JOIN OrgUnitMembers m ON m.OrgUnitID = c.DescendantID "
+                + "JOIN ProjectEmployees pe ON pe.EmployeeUsername = m.EmployeeUsername WHERE c.AncestorID = ? ORDER BY pe.EmployeeUsername;", projectEmployeeRowMapper, orgUnitID);
+    }
+
+    public OrgUnitRollup getRollup(int orgUnitID) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) AS Members, COALESCE(SUM(WorkingMinutes), 0) / 60.0 AS CapacityHours, COALESCE(SUM(LoggedHours), 0) AS LoggedHours "
+                        + "FROM (" + MEMBERS_UNDER + " WHERE c.AncestorID = ?) subtree;",
+                (rs, rowNum) -> new OrgUnitRollup(rs.getInt("Members"), rs.getFloat("CapacityHours"), rs.getFloat("LoggedHours")), orgUnitID);
+    }
+
+    // The rollup of every unit, in one query. Units without anyone under them are left out.
+    public Map<Integer, OrgUnitRollup> getAllRollups() {
+        Map<Integer, OrgUnitRollup> rollups = new HashMap<>();
+        jdbcTemplate.query("SELECT AncestorID, COUNT(*) AS Members, COALESCE(SUM(WorkingMinutes), 0) / 60.0 AS CapacityHours, COALESCE(SUM(LoggedHours), 0) AS LoggedHours "
+                        + "FROM (" + MEMBERS_UNDER + ") subtree GROUP BY AncestorID;",
+                rs -> {
+                    rollups.put(rs.getInt("AncestorID"), new OrgUnitRollup(rs.getInt("Members"), rs.getFloat("CapacityHours"), rs.getFloat("LoggedHours")));
+                });
+        return rollups;
+    }
+
+    // Its title, description, parent and own members. A department stays a department and a team a team.
+    @Transactional
+    public int updateOrgUnit(OrgUnit modifiedUnit, int orgUnitID) {
+        OrgUnit before = getOrgUnitByIDOrThrow(orgUnitID);
+        modifiedUnit.setID(orgUnitID);
+        modifiedUnit.setKind(before.getKind());
+        validate(modifiedUnit);
+
+        int rowsAffected = jdbcTemplate.update("UPDATE OrgUnits SET UnitTitle = ?, UnitDescription = ? WHERE OrgUnitID = ?;",
+                modifiedUnit.getTitle(), modifiedUnit.getDescription(), orgUnitID);
+        if (!Objects.equals(before.getParentID(), modifiedUnit.getParentID())) {
+            moveOrgUnit(orgUnitID, modifiedUnit.getParentID());
+        }
+
+        setMembers(orgUnitID, modifiedUnit.getMemberUsernames());
+        auditLog.updated("OrgUnit", orgUnitID, before, modifiedUnit);
+        return rowsAffected;
+    }
+
+    // Puts the unit, and everything under it, under newParentID (null for the top). The subtree keeps its own closure
+    // rows; it loses those to its old ancestors and gets one to each new ancestor for each of its units, all in one
+    // round trip of three statements however large the subtree is.
+    private void moveOrgUnit(int orgUnitID, Integer newParentID) {
+        if (newParentID != null && jdbcTemplate.queryForObject("SELECT COUNT(*) FROM OrgUnitClosure WHERE AncestorID = ? AND DescendantID = ?;", Integer.class, orgUnitID, newParentID) > 0) {
+            throw new InvalidValueException("A department or team cannot be moved under itself or anything under it.");
+        }
+
+        // Only ints go into these, so formatting them in is safe. The derived tables let MySQL read the table it deletes from.
+        List<String> batch = new ArrayList<>(3);
+        batch.add(("DELETE FROM OrgUnitClosure WHERE DescendantID IN (SELECT DescendantID FROM (SELECT DescendantID FROM OrgUnitClosure WHERE AncestorID = %d) subtree) "
+                + "AND AncestorID IN (SELECT AncestorID FROM (SELECT AncestorID FROM OrgUnitClosure WHERE DescendantID = %d AND AncestorID <> %d) above)").formatted(orgUnitID, orgUnitID, orgUnitID));
+        if (newParentID != null) {
+            batch.add(("INSERT INTO OrgUnitClosure (AncestorID, DescendantID, Depth) SELECT above.AncestorID, below.DescendantID, above.Depth + below.Depth + 1 "
+                    + "FROM OrgUnitClosure above JOIN OrgUnitClosure below ON below.AncestorID = %d WHERE above.DescendantID = %d").formatted(orgUnitID, newParentID));
+        }
+        batch.add("UPDATE OrgUnits SET ParentUnitID = %s WHERE OrgUnitID = %d".formatted(newParentID == null ? "NULL" : newParentID, orgUnitID));
+        jdbcTemplate.batchUpdate(batch.toArray(String[]::new));
+    }
+
+    // With every unit under it; their members are left without a unit
+    public int deleteOrgUnit(int orgUnitID) {
+        OrgUnit before = getOrgUnitByIDOrThrow(orgUnitID);
+
+        int rowsAffected = jdbcTemplate.update("DELETE FROM OrgUnits WHERE OrgUnitID = ?;", orgUnitID);
+        if (rowsAffected != 0) {
+            auditLog.deleted("OrgUnit", orgUnitID, before);
+        }
+        return rowsAffected;
+    }
+}
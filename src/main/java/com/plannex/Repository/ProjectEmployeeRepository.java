@@ -1,20 +1,26 @@
 package com.plannex.Repository;
 
+import com.plannex.Audit.AuditLog;
+import com.plannex.Event.EmployeeChanged;
 import com.plannex.Exception.EntityAlreadyExistsException;
 import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Model.EmployeeCredentials;
 import com.plannex.Model.EmployeeSkill;
 import com.plannex.Model.ProjectEmployee;
 import com.plannex.Model.Skill;
+import com.plannex.RowMapper.EmployeeCredentialsRowMapper;
 import com.plannex.RowMapper.EmployeeSkillRowMapper;
 import com.plannex.RowMapper.ProjectEmployeeRowMapper;
 import com.plannex.RowMapper.SkillRowMapper;
+import com.plannex.Search.Typeahead;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public class ProjectEmployeeRepository {
@@ -22,13 +28,21 @@ public class ProjectEmployeeRepository {
     protected final ProjectEmployeeRowMapper projectEmployeeRowMapper;
     protected final EmployeeSkillRowMapper employeeSkillRowMapper;
     protected final SkillRowMapper skillRowMapper;
+    protected final EmployeeCredentialsRowMapper employeeCredentialsRowMapper;
+    protected final Typeahead typeahead;
+    protected final ApplicationEventPublisher events;
+    protected final AuditLog auditLog;
 
-    public ProjectEmployeeRepository(JdbcTemplate jdbcTemplate, ProjectEmployeeRowMapper projectEmployeeRowMapper, EmployeeSkillRowMapper employeeSkillRowMapper, SkillRowMapper skillRowMapper) {
+    public ProjectEmployeeRepository(JdbcTemplate jdbcTemplate, ProjectEmployeeRowMapper projectEmployeeRowMapper, EmployeeSkillRowMapper employeeSkillRowMapper, SkillRowMapper skillRowMapper, EmployeeCredentialsRowMapper employeeCredentialsRowMapper,
+                                     Typeahead typeahead, ApplicationEventPublisher events, AuditLog auditLog) {
         this.jdbcTemplate = jdbcTemplate;
         this.projectEmployeeRowMapper = projectEmployeeRowMapper;
         this.employeeSkillRowMapper = employeeSkillRowMapper;
         this.skillRowMapper = skillRowMapper;
-
+        this.employeeCredentialsRowMapper = employeeCredentialsRowMapper;
+        this.typeahead = typeahead;
+        this.events = events;
+        this.auditLog = auditLog;
     }
 
     @Transactional
@@ -42,54 +56,86 @@ public class ProjectEmployeeRepository {
             throw new EntityAlreadyExistsException("An employee with username " + employee.getEmployeeUsername() + " already exists.");
         }
 
-        return rowsAffectedTotal + jdbcTemplate.update("INSERT INTO Permissions (PermissionTitle, PermissionHolder) VALUES (?, ?);",
+        rowsAffectedTotal += jdbcTemplate.update("INSERT INTO Permissions (PermissionTitle, PermissionHolder) VALUES (?, ?);",
                     permissions, employee.getEmployeeUsername());
+        typeahead.putEmployee(employee.getEmployeeUsername(), employee.getEmployeeName(), permissions);
+        auditLog.created("Employee", employee.getEmployeeUsername(), employee);
+        auditLog.created("Permission", employee.getEmployeeUsername(), AuditLog.values("permissionTitle", permissions));
+        return rowsAffectedTotal;
+    }
+
+    public Optional<ProjectEmployee> findEmployeeByUsername(String username) {
+        return jdbcTemplate.query("SELECT * FROM ProjectEmployees WHERE EmployeeUsername = ?;", projectEmployeeRowMapper, username).stream().findFirst();
     }
 
     public ProjectEmployee getEmployeeByUsername(String username) {
-        try {
-            return jdbcTemplate.queryForObject("SELECT * FROM ProjectEmployees WHERE EmployeeUsername = ?;", projectEmployeeRowMapper, username);
-        } catch (EmptyResultDataAccessException erdae) {
-            throw new EntityDoesNotExistException("No employee with username " + username + " exists.");
-        }
+        return findEmployeeByUsername(username).orElseThrow(() -> noEmployeeWithUsername(username));
+    }
+
+    private static EntityDoesNotExistException noEmployeeWithUsername(String username) {
+        return new EntityDoesNotExistException("No employee with username " + username + " exists.");
     }
 
     public List<ProjectEmployee> getAllEmployees() {
         return jdbcTemplate.query("SELECT * FROM ProjectEmployees;", projectEmployeeRowMapper);
     }
 
+    public Optional<String> findEmployeePermissions(String username) {
+        return jdbcTemplate.queryForList("SELECT PermissionTitle FROM Permissions WHERE PermissionHolder = ?;", String.class, username).stream().findFirst();
+    }
+
     public String getEmployeePermissions(String username) {
-        try {
-            return jdbcTemplate.queryForObject("SELECT PermissionTitle FROM Permissions WHERE PermissionHolder = ?;", String.class, username);
-        } catch (EmptyResultDataAccessException erdae) {
-            throw new EntityDoesNotExistException("No permissions registered for user with username " + username + ".");
-        }
+        return findEmployeePermissions(username).orElseThrow(() -> new EntityDoesNotExistException("No permissions registered for user with username " + username + "."));
     }
 
     public int updateEmployee(ProjectEmployee updatedProjectEmployee, String targetUsername) {
-        getEmployeeByUsername(targetUsername);
+        ProjectEmployee before = getEmployeeByUsername(targetUsername);
 
+        int rowsAffected;
         try {
-            return jdbcTemplate.update("UPDATE ProjectEmployees" +
+            rowsAffected = jdbcTemplate.update("UPDATE ProjectEmployees" +
                     " SET EmployeeUsername = ?, EmployeeName = ?, EmployeeEmail = ?, EmployeePassword = ?, EmployeeWorkingHoursFrom = ?, EmployeeWorkingHoursTo = ?" +
                     " WHERE EmployeeUsername = ?;", updatedProjectEmployee.getEmployeeUsername(), updatedProjectEmployee.getEmployeeName(),
                                                    updatedProjectEmployee.getEmployeeEmail(), updatedProjectEmployee.getEmployeePassword(),
-                                                   updatedProjectEmployee.getWorkingHoursFrom(), updatedProjectEmployee.getWorkingHoursTo(), targetUsername); // rowsAffected
+                                                   updatedProjectEmployee.getWorkingHoursFrom(), updatedProjectEmployee.getWorkingHoursTo(), targetUsername);
         } catch (DataIntegrityViolationException dive) {
             throw new EntityAlreadyExistsException("A different employee with username " + updatedProjectEmployee.getEmployeeUsername() + " already exists.");
         }
+
+        if (rowsAffected != 0) {
+            typeahead.updateEmployee(targetUsername, updatedProjectEmployee.getEmployeeUsername(), updatedProjectEmployee.getEmployeeName());
+            if (!updatedProjectEmployee.getEmployeeUsername().equals(targetUsername)) {
+                events.publishEvent(new EmployeeChanged(targetUsername)); // Renamed in TimeSpent by the cascade
+            }
+            auditLog.updated("Employee", targetUsername, before, updatedProjectEmployee);
+        }
+        return rowsAffected;
     }
 
     public int deleteEmployeeByUsername(String targetUsername) {
-        getEmployeeByUsername(targetUsername);
+        ProjectEmployee before = getEmployeeByUsername(targetUsername);
+
+        int rowsAffected = jdbcTemplate.update("DELETE FROM ProjectEmployees WHERE EmployeeUsername = ?;", targetUsername);
+        if (rowsAffected != 0) {
+            typeahead.removeEmployee(targetUsername);
+            events.publishEvent(new EmployeeChanged(targetUsername));
+            auditLog.deleted("Employee", targetUsername, before);
+        }
+        return rowsAffected;
+    }
 
-        return jdbcTemplate.update("DELETE FROM ProjectEmployees WHERE EmployeeUsername = ?;", targetUsername); // rowsAffected
+    // Password hash, permissions and profile in one round trip, for logging in
+    public Optional<EmployeeCredentials> findCredentials(String username) {
+        return jdbcTemplate.query("SELECT pe.*, p.PermissionTitle FROM ProjectEmployees pe LEFT JOIN Permissions p ON p.PermissionHolder = pe.EmployeeUsername WHERE pe.EmployeeUsername = ?;",
+                employeeCredentialsRowMapper, username).stream().findFirst();
     }
 
-    public boolean login(String username, String pw) {
-        ProjectEmployee employee = getEmployeeByUsername(username);
-        // Why no username check? Because the above would throw if no such employee existed.
-        return employee.getEmployeePassword().equals(pw);
+    public int updatePasswordHash(String username, String passwordHash) {
+        int rowsAffected = jdbcTemplate.update("UPDATE ProjectEmployees SET EmployeePassword = ? WHERE EmployeeUsername = ?;", passwordHash, username);
+        if (rowsAffected != 0) {
+            auditLog.updated("EmployeePassword", username, null, null); // That it changed, never what to
+        }
+        return rowsAffected;
     }
 
     public List<ProjectEmployee> getAllWorkers() {
@@ -114,12 +160,16 @@ public class ProjectEmployeeRepository {
         );
     }
 
+    public Optional<Skill> findSkillByTitle(String skillTitle) {
+        return jdbcTemplate.query("SELECT * FROM Skills WHERE SkillTitle = ?;", skillRowMapper, skillTitle).stream().findFirst();
+    }
+
     public Skill getSkillByTitle(String skillTitle) {
-        try {
-            return jdbcTemplate.queryForObject("SELECT * FROM Skills WHERE SkillTitle = ?;", skillRowMapper, skillTitle);
-        } catch (EmptyResultDataAccessException erdae) {
-            throw new EntityDoesNotExistException("No skill with title " + skillTitle + " exists.");
-        }
+        return findSkillByTitle(skillTitle).orElseThrow(() -> noSkillWithTitle(skillTitle));
+    }
+
+    private static EntityDoesNotExistException noSkillWithTitle(String skillTitle) {
+        return new EntityDoesNotExistException("No skill with title " + skillTitle + " exists.");
     }
 
     public boolean skillWithTitleExists(String skillTitle) {
@@ -127,33 +177,51 @@ public class ProjectEmployeeRepository {
     }
 
     public int assignSkillToEmployee(String skillTitle, String employeeUsername, String skillLevel) {
-        getSkillByTitle(skillTitle); // or throw...
+        if (!skillWithTitleExists(skillTitle)) {
+            throw noSkillWithTitle(skillTitle);
+        }
 
+        int rowsAffected;
         try {
-            return jdbcTemplate.update("INSERT INTO EmployeeSkills (EmployeeUsername, SkillTitle, SkillLevel) VALUES (?, ?, ?);",
+            rowsAffected = jdbcTemplate.update("INSERT INTO EmployeeSkills (EmployeeUsername, SkillTitle, SkillLevel) VALUES (?, ?, ?);",
                     employeeUsername, skillTitle, skillLevel);
         } catch (DataIntegrityViolationException dive) {
             throw new EntityAlreadyExistsException("The employee with username " + employeeUsername + " is already assigned the skill with title " + skillTitle + ".");
         }
+
+        auditLog.created("EmployeeSkill", employeeUsername + ":" + skillTitle, employeeSkill(employeeUsername, skillTitle, skillLevel));
+        return rowsAffected;
     }
 
     public int unassignSkillFromEmployee(String skillTitle, String employeeUsername, String skillLevel) {
-        getSkillByTitle(skillTitle); // or throw...
+        if (!skillWithTitleExists(skillTitle)) {
+            throw noSkillWithTitle(skillTitle);
+        }
 
         int rowsDeleted = jdbcTemplate.update("DELETE FROM EmployeeSkills WHERE EmployeeUsername = ? AND SkillTitle = ? AND SkillLevel = ?;",
                 employeeUsername, skillTitle, skillLevel);
 
         if (rowsDeleted != 1) throw new EntityDoesNotExistException("The employee with username " + employeeUsername + " is not assigned the skill with title " + skillTitle + ".");
+        auditLog.deleted("EmployeeSkill", employeeUsername + ":" + skillTitle, employeeSkill(employeeUsername, skillTitle, skillLevel));
         return rowsDeleted;
     }
 
+    private static Object employeeSkill(String employeeUsername, String skillTitle, String skillLevel) {
+        return AuditLog.values("employeeUsername", employeeUsername, "skillTitle", skillTitle, "skillLevel", skillLevel);
+    }
+
 
     public int addSkillUnlessItAlreadyExists(String skillTitle) {
         if (skillWithTitleExists(skillTitle)) {
             return 0;
         }
 
-        return jdbcTemplate.update("INSERT INTO Skills (SkillTitle) VALUES (?);", skillTitle);
+        int rowsAffected = jdbcTemplate.update("INSERT INTO Skills (SkillTitle) VALUES (?);", skillTitle);
+        if (rowsAffected != 0) {
+            typeahead.putSkill(skillTitle);
+            auditLog.created("Skill", skillTitle, AuditLog.values("skillTitle", skillTitle));
+        }
+        return rowsAffected;
     }
 
     public int removeSkillIfExists(String skillTitle) {
@@ -161,7 +229,12 @@ public class ProjectEmployeeRepository {
             return 0;
         }
 
-        return jdbcTemplate.update("DELETE FROM Skills WHERE SkillTitle = ?;", skillTitle);
+        int rowsAffected = jdbcTemplate.update("DELETE FROM Skills WHERE SkillTitle = ?;", skillTitle);
+        if (rowsAffected != 0) {
+            typeahead.removeSkill(skillTitle);
+            auditLog.deleted("Skill", skillTitle, AuditLog.values("skillTitle", skillTitle));
+        }
+        return rowsAffected;
     }
 
 
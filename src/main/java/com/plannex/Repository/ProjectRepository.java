@@ -1,80 +1,182 @@
 package com.plannex.Repository;
 
+import com.plannex.Audit.AuditLog;
+import com.plannex.Event.TaskPlanChanged;
+import com.plannex.Event.TimeSpentChanged;
+import com.plannex.Exception.EditConflictException;
 import com.plannex.Exception.EntityDoesNotExistException;
 import com.plannex.Model.Project;
+import com.plannex.Model.ProjectSummary;
 import com.plannex.Model.Task;
+import com.plannex.Model.TaskSummary;
+import com.plannex.Purge.Purger;
 import com.plannex.RowMapper.ProjectRowMapper;
+import com.plannex.RowMapper.ProjectSummaryRowMapper;
 import com.plannex.RowMapper.TaskRowMapper;
-import org.springframework.dao.EmptyResultDataAccessException;
+import com.plannex.RowMapper.TaskSummaryRowMapper;
+import com.plannex.Search.SearchIndex;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public class ProjectRepository {
     protected final JdbcTemplate jdbcTemplate;
     protected final ProjectRowMapper projectRowMapper;
     protected final TaskRowMapper taskRowMapper;
+    protected final ProjectSummaryRowMapper projectSummaryRowMapper;
+    protected final TaskSummaryRowMapper taskSummaryRowMapper;
+    protected final SearchIndex searchIndex;
+    protected final Purger purger;
+    protected final ApplicationEventPublisher events;
+    protected final AuditLog auditLog;
 
-    public ProjectRepository(JdbcTemplate jdbcTemplate, ProjectRowMapper projectRowMapper, TaskRowMapper taskRowMapper) {
+    public ProjectRepository(JdbcTemplate jdbcTemplate, ProjectRowMapper projectRowMapper, TaskRowMapper taskRowMapper,
+                             ProjectSummaryRowMapper projectSummaryRowMapper, TaskSummaryRowMapper taskSummaryRowMapper, SearchIndex searchIndex,
+                             Purger purger, ApplicationEventPublisher events, AuditLog auditLog) {
         this.jdbcTemplate = jdbcTemplate;
         this.projectRowMapper = projectRowMapper;
         this.taskRowMapper = taskRowMapper;
+        this.projectSummaryRowMapper = projectSummaryRowMapper;
+        this.taskSummaryRowMapper = taskSummaryRowMapper;
+        this.searchIndex = searchIndex;
+        this.purger = purger;
+        this.events = events;
+        this.auditLog = auditLog;
     }
 
     public int addProject(Project project) {
-            return jdbcTemplate.update("INSERT INTO Projects (ProjectTitle, ProjectDescription, ProjectStart, ProjectEnd) VALUES (?, ?, ?, ?);",
-                    project.getProjectTitle(), project.getProjectDescription(), project.getProjectStart(), project.getProjectEnd());
+        int projectID = GeneratedKeys.insert(jdbcTemplate, "INSERT INTO Projects (ProjectTitle, ProjectDescription, ProjectStart, ProjectEnd) VALUES (?, ?, ?, ?);",
+                project.getProjectTitle(), project.getProjectDescription(), project.getProjectStart(), project.getProjectEnd());
+        if (projectID == 0) {
+            return 0;
+        }
+
+        searchIndex.indexProject(projectID, project.getProjectTitle(), project.getProjectDescription());
+        auditLog.created("Project", projectID, project);
+        return 1;
+    }
+
+    public Optional<Project> findProjectByID(int projectID) {
+        return jdbcTemplate.query("SELECT * FROM VisibleProjects WHERE ProjectID = ?;", projectRowMapper, projectID).stream().findFirst();
     }
 
     public Project getProjectByIDOrThrow(int projectID) {
-        try {
-            return jdbcTemplate.queryForObject("SELECT * FROM Projects WHERE ProjectID = ?;", projectRowMapper, projectID);
-        } catch (EmptyResultDataAccessException erdae) {
-            throw new EntityDoesNotExistException("No project with ID " + projectID + " exists.");
+        return findProjectByID(projectID).orElseThrow(() -> noProjectWithID(projectID));
+    }
+
+    private static EntityDoesNotExistException noProjectWithID(int projectID) {
+        return new EntityDoesNotExistException("No project with ID " + projectID + " exists.");
+    }
+
+    private void requireProject(int projectID) {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT COUNT(*) > 0 FROM VisibleProjects WHERE ProjectID = ?;", Boolean.class, projectID))) {
+            throw noProjectWithID(projectID);
         }
     }
 
     public List<Project> getAllProjects() {
-        return jdbcTemplate.query("SELECT * FROM Projects;", projectRowMapper);
+        return jdbcTemplate.query("SELECT * FROM VisibleProjects;", projectRowMapper);
+    }
+
+    public List<ProjectSummary> getAllProjectSummaries() {
+        return jdbcTemplate.query("SELECT " + ProjectSummaryRowMapper.COLUMNS + " FROM VisibleProjects;", projectSummaryRowMapper);
     }
 
     public List<Task> getAllTasksForProject(int projectID) {
-        getProjectByIDOrThrow(projectID);
-        return jdbcTemplate.query("SELECT * FROM Tasks WHERE ProjectID = ? AND ParentTaskID IS NULL;", taskRowMapper, projectID);
+        requireProject(projectID);
+        return jdbcTemplate.query("SELECT * FROM VisibleTasks WHERE ProjectID = ? AND ParentTaskID IS NULL;", taskRowMapper, projectID);
+    }
+
+    public List<TaskSummary> getAllTaskSummariesForProject(int projectID) {
+        requireProject(projectID);
+        return jdbcTemplate.query("SELECT " + TaskSummaryRowMapper.COLUMNS + " FROM VisibleTasks WHERE ProjectID = ? AND ParentTaskID IS NULL;", taskSummaryRowMapper, projectID);
     }
 
     public Integer getAllInvolved(int projectID) {
-        getProjectByIDOrThrow(projectID);
+        requireProject(projectID);
         return jdbcTemplate.queryForObject("""
                 SELECT COUNT(DISTINCT ta.EmployeeUsername) FROM TaskAssignees AS ta
-                JOIN Tasks AS t ON ta.TaskID = t.TaskID
+                JOIN VisibleTasks AS t ON ta.TaskID = t.TaskID
                 WHERE t.ProjectID = ?""", Integer.class, projectID);
     }
 
+    private static EditConflictException editedMeanwhile(int projectID) {
+        return new EditConflictException("Someone else saved changes to the project with ID " + projectID + " while you were editing it. Open it again to see them, then make your changes again.");
+    }
+
+    // Only if the project is still at the version modifiedProject was read at, as for TaskRepository.updateTask()
     public int updateProject(Project modifiedProject, int targetProjectID) {
-        getProjectByIDOrThrow(targetProjectID);
-        return jdbcTemplate.update(
+        Project before = getProjectByIDOrThrow(targetProjectID);
+        if (before.getVersion() != modifiedProject.getVersion()) {
+            throw editedMeanwhile(targetProjectID);
+        }
+
+        int rowsAffected = jdbcTemplate.update(
                 "UPDATE Projects " +
-                        "SET ProjectTitle = ?, ProjectDescription = ?, ProjectStart = ?, ProjectEnd = ?" +
-                "WHERE ProjectID = ?;",
+                        "SET ProjectTitle = ?, ProjectDescription = ?, ProjectStart = ?, ProjectEnd = ?, Version = Version + 1 " +
+                "WHERE ProjectID = ? AND Version = ?;",
                 modifiedProject.getProjectTitle(), modifiedProject.getProjectDescription(), modifiedProject.getProjectStart(),
-                modifiedProject.getProjectEnd(), targetProjectID
+                modifiedProject.getProjectEnd(), targetProjectID, modifiedProject.getVersion()
         );
+        if (rowsAffected == 0) {
+            throw editedMeanwhile(targetProjectID); // Between the read above and the update
+        }
+
+        modifiedProject.setVersion(modifiedProject.getVersion() + 1);
+        searchIndex.indexProject(targetProjectID, modifiedProject.getProjectTitle(), modifiedProject.getProjectDescription());
+        events.publishEvent(new TaskPlanChanged(targetProjectID));
+        auditLog.updated("Project", targetProjectID, before, modifiedProject);
+        return rowsAffected;
     }
 
+    // Only marks the project deleted, which hides it and its tasks at once, whatever their number. Purger deletes
+    // them for good after the grace period, until when undeleteProjectByID() brings them back.
     public int deleteProjectByID(int projectID) {
-        getProjectByIDOrThrow(projectID);
-        return jdbcTemplate.update("DELETE FROM Projects WHERE ProjectID = ?;", projectID);
+        Project before = getProjectByIDOrThrow(projectID);
+        int rowsAffected = jdbcTemplate.update("UPDATE Projects SET DeletedAt = ? WHERE ProjectID = ? AND DeletedAt IS NULL;",
+                Purger.deletionTime(), projectID);
+        if (rowsAffected != 0) {
+            searchIndex.removeProject(projectID);
+            events.publishEvent(new TimeSpentChanged(projectID));
+            auditLog.deleted("Project", projectID, before);
+        }
+
+        return rowsAffected;
+    }
+
+    // The deleted projects not yet past undeleting, most recently deleted first
+    public List<Project> getDeletedProjects() {
+        return jdbcTemplate.query("SELECT * FROM Projects WHERE DeletedAt > ? ORDER BY DeletedAt DESC;", projectRowMapper, purger.getPurgeableUntil());
+    }
+
+    // Brings the project back with its tasks as they were, the ones deleted before it staying deleted
+    public int undeleteProjectByID(int projectID) {
+        int rowsAffected = jdbcTemplate.update("UPDATE Projects SET DeletedAt = NULL WHERE ProjectID = ? AND DeletedAt > ?;",
+                projectID, purger.getPurgeableUntil());
+        if (rowsAffected == 0) {
+            throw new EntityDoesNotExistException("No deleted project with ID " + projectID + " can be undeleted.");
+        }
+
+        Project project = getProjectByIDOrThrow(projectID);
+        searchIndex.indexProject(projectID, project.getProjectTitle(), project.getProjectDescription());
+        jdbcTemplate.query("SELECT TaskID, ParentTaskID, TaskTitle, TaskDescription FROM VisibleTasks WHERE ProjectID = ?;",
+                rs -> { searchIndex.indexTask(rs.getInt("TaskID"), projectID, rs.getInt("ParentTaskID"), rs.getString("TaskTitle"), rs.getString("TaskDescription")); },
+                projectID);
+        events.publishEvent(new TimeSpentChanged(projectID));
+        auditLog.created("Project", projectID, project);
+        return rowsAffected;
     }
 
     public float getTotalTimeSpent(int projectID) {
-        getProjectByIDOrThrow(projectID);
+        requireProject(projectID);
         Float result = jdbcTemplate.queryForObject("""
                 
                     SELECT SUM(HoursSpent) FROM TimeSpent AS tc
-                JOIN Tasks AS t ON tc.OnTaskID = t.TaskID
+                JOIN VisibleTasks AS t ON tc.OnTaskID = t.TaskID
                 WHERE t.ProjectID = ?""", Float.class, projectID);
 
         return result != null ? result : 0;
@@ -1,21 +1,36 @@
 package com.plannex.Repository;
 
+import com.plannex.Audit.AuditLog;
+import com.plannex.Event.TaskPlanChanged;
+import com.plannex.Event.TimeSpentChanged;
+import com.plannex.Exception.EditConflictException;
 import com.plannex.Exception.EntityAlreadyExistsException;
 import com.plannex.Exception.EntityDoesNotExistException;
 import com.plannex.Exception.InvalidValueException;
 import com.plannex.Exception.NotSupportedException;
+import com.plannex.Live.ProjectEvent;
+import com.plannex.Live.ProjectEventBus;
 import com.plannex.Model.ProjectEmployee;
 import com.plannex.Model.Task;
+import com.plannex.Model.TaskSummary;
+import com.plannex.Model.TimeEdit;
+import com.plannex.Purge.Purger;
 import com.plannex.RowMapper.ProjectEmployeeRowMapper;
 import com.plannex.RowMapper.TaskRowMapper;
+import com.plannex.RowMapper.TaskSummaryRowMapper;
+import com.plannex.Search.SearchIndex;
+import com.plannex.TimeLog.TimeLog;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.dao.DuplicateKeyException;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Repository
@@ -25,26 +40,71 @@ public class TaskRepository {
     protected final JdbcTemplate jdbcTemplate;
     protected final TaskRowMapper taskRowMapper;
     protected final ProjectEmployeeRowMapper projectEmployeeRowMapper;
-
-    public TaskRepository(JdbcTemplate jdbcTemplate, TaskRowMapper taskRowMapper, ProjectEmployeeRowMapper projectEmployeeRowMapper) {
+    protected final TaskSummaryRowMapper taskSummaryRowMapper;
+    protected final SearchIndex searchIndex;
+    protected final ProjectEventBus projectEventBus;
+    protected final TimeLog timeLog;
+    protected final Purger purger;
+    protected final ApplicationEventPublisher events;
+    protected final AuditLog auditLog;
+
+    public TaskRepository(JdbcTemplate jdbcTemplate, TaskRowMapper taskRowMapper, ProjectEmployeeRowMapper projectEmployeeRowMapper,
+                          TaskSummaryRowMapper taskSummaryRowMapper, SearchIndex searchIndex, ProjectEventBus projectEventBus, TimeLog timeLog,
+                          Purger purger, ApplicationEventPublisher events, AuditLog auditLog) {
         this.jdbcTemplate = jdbcTemplate;
         this.taskRowMapper = taskRowMapper;
         this.projectEmployeeRowMapper = projectEmployeeRowMapper;
+        this.taskSummaryRowMapper = taskSummaryRowMapper;
+        this.searchIndex = searchIndex;
+        this.projectEventBus = projectEventBus;
+        this.timeLog = timeLog;
+        this.purger = purger;
+        this.events = events;
+        this.auditLog = auditLog;
     }
 
     private boolean isSubtask(Task t) { // Parameter may need changing to ID
         return t.getParentTaskID() != 0;
     }
 
+    private static EntityDoesNotExistException noTaskWithID(int taskID) {
+        return new EntityDoesNotExistException("No task with ID " + taskID + " exists.");
+    }
+
+    // Existence and task-or-subtask checks need only the parents (parent task 0 for a task), not the whole row.
+    // The project comes along for the live pages.
+    private record Parents(int projectID, int parentTaskID) {
+        boolean ofSubtask() {
+            return parentTaskID != 0;
+        }
+    }
+
+    private Parents parentsOrThrow(int taskID) {
+        return jdbcTemplate.query("SELECT ProjectID, ParentTaskID FROM VisibleTasks WHERE TaskID = ?;",
+                        (rs, rowNum) -> new Parents(rs.getInt("ProjectID"), rs.getInt("ParentTaskID")), taskID)
+                .stream().findFirst().orElseThrow(() -> noTaskWithID(taskID));
+    }
+
+    private boolean isSubtaskOrThrow(int taskID) {
+        return parentsOrThrow(taskID).ofSubtask();
+    }
+
+    private void requireTask(int taskID) {
+        isSubtaskOrThrow(taskID);
+    }
+
     public int addTask(Task t) {
         if (isSubtask(t)) {
             throw new NotSupportedException("You may not use addTask for adding subtasks.");
         }
 
+        // The foreign key only knows of projects not yet purged
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT COUNT(*) > 0 FROM VisibleProjects WHERE ProjectID = ?;", Boolean.class, t.getParentProjectID()))) {
+            throw new EntityDoesNotExistException("No project with ID " + t.getParentProjectID() + " exists.");
+        }
+
         try {
-            return jdbcTemplate.update("INSERT INTO Tasks (ProjectID, ParentTaskID, TaskTitle, TaskDescription, TaskStart, TaskEnd, TaskDurationHours)" +
-                            "VALUES (?, ?, ?, ?, ?, ?, ?);",
-                    t.getParentProjectID(), t.getParentTaskID() == 0 ? null : t.getParentTaskID(), t.getTaskTitle(), t.getTaskDescription(), t.getTaskStart(), t.getTaskEnd(), t.getTaskDurationHours());
+            return insertAndIndex(t, t.getParentTaskID() == 0 ? null : t.getParentTaskID());
         } catch (DataIntegrityViolationException dive) {
             throw new EntityDoesNotExistException("No project with ID " + t.getParentProjectID() + " exists.");
         }
@@ -55,42 +115,61 @@ public class TaskRepository {
             throw new NotSupportedException("You may not add tasks with addSubtask.");
         }
 
-        Task target = getTaskByIDOrThrow(t.getParentTaskID());
-
-        if (target.getParentTaskID() != 0) {
+        if (isSubtaskOrThrow(t.getParentTaskID())) {
             throw new NotSupportedException("Only tasks can have subtasks, not subtasks.");
         }
 
         try {
-            return jdbcTemplate.update("INSERT INTO Tasks (ProjectID, ParentTaskID, TaskTitle, TaskDescription, TaskStart, TaskEnd, TaskDurationHours)" +
-                            "VALUES (?, ?, ?, ?, ?, ?, ?);",
-                    t.getParentProjectID(), t.getParentTaskID(), t.getTaskTitle(), t.getTaskDescription(), t.getTaskStart(), t.getTaskEnd(), t.getTaskDurationHours());
+            return insertAndIndex(t, t.getParentTaskID());
         } catch (DataIntegrityViolationException dive) {
             throw new EntityDoesNotExistException("No project with ID " + t.getParentProjectID() + " exists.");
         }
     }
 
+    private int insertAndIndex(Task t, Integer parentTaskID) {
+        int taskID = GeneratedKeys.insert(jdbcTemplate, "INSERT INTO Tasks (ProjectID, ParentTaskID, TaskTitle, TaskDescription, TaskStart, TaskEnd, TaskDurationHours)" +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?);",
+                t.getParentProjectID(), parentTaskID, t.getTaskTitle(), t.getTaskDescription(), t.getTaskStart(), t.getTaskEnd(), t.getTaskDurationHours());
+        if (taskID == 0) {
+            return 0;
+        }
+
+        searchIndex.indexTask(taskID, t.getParentProjectID(), t.getParentTaskID(), t.getTaskTitle(), t.getTaskDescription());
+        events.publishEvent(new TaskPlanChanged(t.getParentProjectID()));
+        auditLog.created("Task", taskID, t);
+        return 1;
+    }
+
     public int addFollowsDependency(int forTaskID, int blockedByID) {
         if (forTaskID == blockedByID) {
             throw new NotSupportedException("You may not set a task as blocking itself.");
         }
 
-        getTaskByIDOrThrow(forTaskID);
-        getTaskByIDOrThrow(blockedByID);
+        Parents parents = parentsOrThrow(forTaskID);
+        requireTask(blockedByID);
 
         // Possibly add isSubtask() call here if dependencies get cluttered by allowing both tasks and subtasks to have them.
 
+        int rowsAffected;
         try {
-            return jdbcTemplate.update("INSERT INTO TaskDependencies (TaskIDFor, MustComeAfterTaskWithID) VALUES (?, ?);",
+            rowsAffected = jdbcTemplate.update("INSERT INTO TaskDependencies (TaskIDFor, MustComeAfterTaskWithID) VALUES (?, ?);",
                     forTaskID, blockedByID);
         } catch (DataIntegrityViolationException dive) {
             throw new EntityAlreadyExistsException("The task with ID " + forTaskID + " is already marked as blocked by the task with ID " + blockedByID + ".");
         }
+
+        events.publishEvent(new TaskPlanChanged(parents.projectID()));
+        auditLog.created("TaskDependency", forTaskID + "->" + blockedByID, dependency(forTaskID, blockedByID));
+        return rowsAffected;
+    }
+
+    private static Object dependency(int forTaskID, int blockedByID) {
+        return AuditLog.values("taskIDFor", forTaskID, "mustComeAfterTaskWithID", blockedByID);
     }
 
     public int deleteFollowsDependency(int forTaskID, int blockedByID) {
-        getTaskByIDOrThrow(forTaskID);
-        getTaskByIDOrThrow(blockedByID);
+        Parents parents = parentsOrThrow(forTaskID);
+        requireTask(blockedByID);
 
         int rowsAffected = jdbcTemplate.update("DELETE FROM TaskDependencies WHERE TaskIDFor = ? AND MustComeAfterTaskWithID = ?;",
                     forTaskID, blockedByID);
@@ -99,65 +178,90 @@ public class TaskRepository {
             throw new EntityDoesNotExistException("The task with ID " + forTaskID + " is not marked as blocked by the task with ID " + blockedByID + ".");
         }
 
+        events.publishEvent(new TaskPlanChanged(parents.projectID()));
+        auditLog.deleted("TaskDependency", forTaskID + "->" + blockedByID, dependency(forTaskID, blockedByID));
         return rowsAffected;
     }
 
     public int assignTaskToEmployee(int taskID, String employeeUsername) {
-        Task t = getTaskByIDOrThrow(taskID);
-
-        if (!isSubtask(t)) {
+        Parents parents = parentsOrThrow(taskID);
+        if (!parents.ofSubtask()) {
             throw new NotSupportedException("You may only assign workers to subtasks.");
         }
 
+        int rowsAffected;
         try {
-            return jdbcTemplate.update("INSERT INTO TaskAssignees (EmployeeUsername, TaskID) VALUES (?, ?);",
+            rowsAffected = jdbcTemplate.update("INSERT INTO TaskAssignees (EmployeeUsername, TaskID) VALUES (?, ?);",
                     employeeUsername, taskID);
         } catch (DataIntegrityViolationException dive) {
             throw new EntityAlreadyExistsException("The employee with username " + employeeUsername + " is already assigned the task with ID " + taskID + ".");
         }
+
+        events.publishEvent(new TaskPlanChanged(parents.projectID()));
+        auditLog.created("TaskAssignee", taskID + ":" + employeeUsername, assignee(taskID, employeeUsername));
+        projectEventBus.publish(parents.projectID(), ProjectEvent.WORKER_ASSIGNED, change(parents, taskID, "username", employeeUsername));
+        return rowsAffected;
+    }
+
+    private static Object assignee(int taskID, String employeeUsername) {
+        return AuditLog.values("taskID", taskID, "employeeUsername", employeeUsername);
+    }
+
+    // What the live pages get: which subtask of which task, and what changed
+    private static Map<String, Object> change(Parents parents, int subtaskID, Object... namesAndValues) {
+        Map<String, Object> change = AuditLog.values("taskID", parents.parentTaskID(), "subtaskID", subtaskID);
+        change.putAll(AuditLog.values(namesAndValues));
+        return change;
     }
 
     public int unassignTaskFromEmployee(int taskID, String employeeUsername) {
-        getTaskByIDOrThrow(taskID);
+        Parents parents = parentsOrThrow(taskID);
 
         int rowsDeleted = jdbcTemplate.update("DELETE FROM TaskAssignees WHERE EmployeeUsername = ? AND TaskID = ?;",
                     employeeUsername, taskID);
 
         if (rowsDeleted != 1) throw new EntityDoesNotExistException("The employee with username " + employeeUsername + " is not assigned the task with ID " + taskID + ".");
+        events.publishEvent(new TaskPlanChanged(parents.projectID()));
+        auditLog.deleted("TaskAssignee", taskID + ":" + employeeUsername, assignee(taskID, employeeUsername));
+        projectEventBus.publish(parents.projectID(), ProjectEvent.WORKER_UNASSIGNED, change(parents, taskID, "username", employeeUsername));
         return rowsDeleted;
     }
 
-    public Task getTaskByIDOrThrow(int taskID) {
-        try {
-            return jdbcTemplate.queryForObject("SELECT * FROM Tasks WHERE TaskID = ?;", taskRowMapper, taskID);
-        } catch (EmptyResultDataAccessException erdae) {
-            throw new EntityDoesNotExistException("No task with ID " + taskID + " exists.");
-        }
+    public Optional<Task> findTaskByID(int taskID) {
+        return jdbcTemplate.query("SELECT * FROM VisibleTasks WHERE TaskID = ?;", taskRowMapper, taskID).stream().findFirst();
     }
 
-    public List<Task> getAllSubtasksForParentTask(int parentTaskID) {
-        Task parentTask = getTaskByIDOrThrow(parentTaskID);
+    public Task getTaskByIDOrThrow(int taskID) {
+        return findTaskByID(taskID).orElseThrow(() -> noTaskWithID(taskID));
+    }
 
-        if (parentTask.getParentTaskID() != 0) {
+    private void requireParentTask(int parentTaskID) {
+        if (isSubtaskOrThrow(parentTaskID)) {
             throw new NotSupportedException("A subtask must have no subtasks.");
         }
+    }
 
-        return jdbcTemplate.query("SELECT * FROM Tasks WHERE ParentTaskID = ?;", taskRowMapper, parentTaskID);
+    public List<Task> getAllSubtasksForParentTask(int parentTaskID) {
+        requireParentTask(parentTaskID);
+        return jdbcTemplate.query("SELECT * FROM VisibleTasks WHERE ParentTaskID = ?;", taskRowMapper, parentTaskID);
     }
 
-    public List<ConstPair<String, String>> getAllArtifactsForTask(int taskID) {
-        Task t = getTaskByIDOrThrow(taskID);
+    public List<TaskSummary> getAllSubtaskSummariesForParentTask(int parentTaskID) {
+        requireParentTask(parentTaskID);
+        return jdbcTemplate.query("SELECT " + TaskSummaryRowMapper.COLUMNS + " FROM VisibleTasks WHERE ParentTaskID = ?;", taskSummaryRowMapper, parentTaskID);
+    }
 
-        if (isSubtask(t)) {
+    public List<ConstPair<String, String>> getAllArtifactsForTask(int taskID) {
+        if (isSubtaskOrThrow(taskID)) {
             return jdbcTemplate.query("SELECT * FROM Artifacts WHERE TaskID = ?", (rs, rowNum) -> new ConstPair<>(rs.getString("ArtifactAuthor"), rs.getString("PathToArtifact")), taskID);
         }
 
-        return getAllSubtasksForParentTask(taskID).stream().map(tt -> getAllArtifactsForTask(tt.getID())).flatMap(List::stream).collect(Collectors.toList());
+        return getAllSubtaskSummariesForParentTask(taskID).stream().map(tt -> getAllArtifactsForTask(tt.ID())).flatMap(List::stream).collect(Collectors.toList());
     }
 
     public List<ConstPair<Integer, Integer>> getAllDependenciesForTask(int taskID) {
-        getTaskByIDOrThrow(taskID);
-        return jdbcTemplate.query("SELECT * FROM TaskDependencies WHERE TaskIDFor = ?", (resultSet, rowNum) -> new ConstPair<>(resultSet.getInt("TaskIDFor"), resultSet.getInt("MustComeAfterTaskWithID")), taskID);
+        requireTask(taskID);
+        return jdbcTemplate.query("SELECT d.* FROM TaskDependencies AS d JOIN VisibleTasks AS t ON t.TaskID = d.MustComeAfterTaskWithID WHERE d.TaskIDFor = ?", (resultSet, rowNum) -> new ConstPair<>(resultSet.getInt("TaskIDFor"), resultSet.getInt("MustComeAfterTaskWithID")), taskID);
     }
 
     public List<ProjectEmployee> getAllAssigneesForSubtask(int subtaskID) {
@@ -165,6 +269,7 @@ public class TaskRepository {
         SELECT DISTINCT pe.*
         FROM ProjectEmployees pe
         LEFT JOIN TaskAssignees ta ON ta.EmployeeUsername = pe.EmployeeUsername
+        JOIN VisibleTasks t ON t.TaskID = ta.TaskID
         WHERE ta.TaskID=?;""", projectEmployeeRowMapper, subtaskID);
     }
 
@@ -172,8 +277,8 @@ public class TaskRepository {
         return jdbcTemplate.query(
                 """
                    SELECT DISTINCT pe.*
-                           FROM Tasks p
-                   JOIN Tasks s     ON s.ParentTaskID = p.TaskID
+                           FROM VisibleTasks p
+                   JOIN VisibleTasks s     ON s.ParentTaskID = p.TaskID
                    JOIN TaskAssignees ta  ON ta.TaskID = s.TaskID
                    JOIN ProjectEmployees pe  ON pe.EmployeeUsername = ta.EmployeeUsername
                    WHERE p.TaskID = ?;""",
@@ -184,13 +289,13 @@ public class TaskRepository {
 
 
     private boolean artifactWithValuesExists(int taskID, String username, String pathToArtifact) {
-        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT COUNT(*) > 0 FROM Artifacts WHERE TaskID = ? AND ArtifactAuthor = ? AND PathToArtifact = ?;",
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT COUNT(*) > 0 FROM Artifacts AS a JOIN VisibleTasks AS t ON t.TaskID = a.TaskID WHERE a.TaskID = ? AND a.ArtifactAuthor = ? AND a.PathToArtifact = ?;",
                 Boolean.class, taskID, username, pathToArtifact));
     }
 
     public int addArtifact(int taskID, String username, String pathToArtifact) {
-        Task t = getTaskByIDOrThrow(taskID);
-        if (!isSubtask(t)) {
+        Parents parents = parentsOrThrow(taskID);
+        if (!parents.ofSubtask()) {
             throw new NotSupportedException("You may only add artifacts to subtasks.");
         }
 
@@ -198,8 +303,15 @@ public class TaskRepository {
             throw new EntityAlreadyExistsException("Employee " + username + " has already uploaded this artifact to this task. Update it if you want to change it.");
         }
 
-        return jdbcTemplate.update("INSERT INTO Artifacts (TaskID, ArtifactAuthor, PathToArtifact) VALUES (?, ?, ?);",
+        int rowsAffected = jdbcTemplate.update("INSERT INTO Artifacts (TaskID, ArtifactAuthor, PathToArtifact) VALUES (?, ?, ?);",
                     taskID, username, pathToArtifact);
+        auditLog.created("Artifact", taskID + ":" + username, artifact(taskID, username, pathToArtifact));
+        projectEventBus.publish(parents.projectID(), ProjectEvent.ARTIFACT_ADDED, change(parents, taskID, "username", username, "path", pathToArtifact));
+        return rowsAffected;
+    }
+
+    private static Object artifact(int taskID, String username, String pathToArtifact) {
+        return AuditLog.values("taskID", taskID, "artifactAuthor", username, "pathToArtifact", pathToArtifact);
     }
 
     public int updateArtifact(int taskID, String username, String pathToArtifact, String newPath) {
@@ -211,7 +323,11 @@ public class TaskRepository {
             throw new EntityAlreadyExistsException("The artifact with path " + newPath + " already exists. Change its name or delete and replace it.");
         }
 
-        return jdbcTemplate.update("UPDATE Artifacts SET PathToArtifact = ? WHERE PathToArtifact = ?;", newPath, pathToArtifact);
+        int rowsAffected = jdbcTemplate.update("UPDATE Artifacts SET PathToArtifact = ? WHERE PathToArtifact = ?;", newPath, pathToArtifact);
+        if (rowsAffected != 0) {
+            auditLog.updated("Artifact", taskID + ":" + username, artifact(taskID, username, pathToArtifact), artifact(taskID, username, newPath));
+        }
+        return rowsAffected;
     }
 
     public int deleteArtifact(int taskID, String username, String path) {
@@ -219,29 +335,51 @@ public class TaskRepository {
             throw new EntityDoesNotExistException("The artifact with path " + path + " does not exist, uploaded by " + username + " for task with ID " + taskID + ".");
         }
 
-        return jdbcTemplate.update("DELETE FROM Artifacts WHERE TaskID = ? AND ArtifactAuthor = ? AND PathToArtifact = ?;", taskID, username, path);
+        int rowsAffected = jdbcTemplate.update("DELETE FROM Artifacts WHERE TaskID = ? AND ArtifactAuthor = ? AND PathToArtifact = ?;", taskID, username, path);
+        if (rowsAffected != 0) {
+            auditLog.deleted("Artifact", taskID + ":" + username, artifact(taskID, username, path));
+        }
+        return rowsAffected;
+    }
+
+    private record HoursSpent(float hours, int projectID) { }
+
+    // The hours, which the audit trail wants as the value before, rather than just whether the row exists, and the
+    // project, whose burn charts change with them
+    private Optional<HoursSpent> findHoursSpent(String username, int taskID, LocalDateTime when) {
+        return jdbcTemplate.query("SELECT ts.HoursSpent, t.ProjectID FROM TimeSpent AS ts JOIN VisibleTasks AS t ON t.TaskID = ts.OnTaskID WHERE ts.OnTaskID = ? AND ts.ByEmployee = ? AND ts._When = ?;",
+                (rs, rowNum) -> new HoursSpent(rs.getFloat("HoursSpent"), rs.getInt("ProjectID")), taskID, username, when).stream().findFirst();
     }
 
-    private boolean timeContributionWithValuesDoesNotExist(String username, int taskID, LocalDateTime when) {
-        return !Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT COUNT(*) > 0 FROM TimeSpent WHERE OnTaskID = ? AND ByEmployee = ? AND _When = ?;",
-                Boolean.class, taskID, username, when));
+    private static EntityDoesNotExistException noTimeContribution(String username, int taskID, LocalDateTime when) {
+        return new EntityDoesNotExistException("No time contribution by " + username + " on task with ID " + taskID + " at " + when + " exists.");
+    }
+
+    private static Object timeContribution(String username, int taskID, float hoursSpent, LocalDateTime when) {
+        return AuditLog.values("onTaskID", taskID, "byEmployee", username, "hoursSpent", hoursSpent, "when", when);
     }
 
     public int contributeTime(String username, int taskID, float howManyHours) {
+        return contributeTime(username, taskID, howManyHours, UUID.randomUUID().toString());
+    }
+
+    // Returns once the time log has the contribution, which is in TimeSpent moments later. A contribution with the
+    // idempotency key of an earlier one (the same form sent twice) is only counted once; 0 if that one is still queued.
+    public int contributeTime(String username, int taskID, float howManyHours, String idempotencyKey) {
         if (howManyHours <= 0.0) {
             throw new InvalidValueException("Hours spent should be more than zero.");
         }
 
-        if (!isSubtask(getTaskByIDOrThrow(taskID))) {
-            throw new NotSupportedException("You may only add time spent to subtasks.");
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > TimeLog.MAX_KEY_LENGTH) {
+            throw new InvalidValueException("The idempotency key should be 1 to " + TimeLog.MAX_KEY_LENGTH + " characters.");
         }
 
-        try {
-            return jdbcTemplate.update("INSERT INTO TimeSpent (OnTaskID, ByEmployee, HoursSpent, _When) VALUES (?, ?, ?, ?);",
-                    taskID, username, howManyHours, LocalDateTime.now());
-        } catch (DuplicateKeyException dpe) {
-            throw new EntityAlreadyExistsException("You just added a similar time contribution. If this is intentional, wait a couple of seconds before trying again.");
+        Parents parents = parentsOrThrow(taskID);
+        if (!parents.ofSubtask()) {
+            throw new NotSupportedException("You may only add time spent to subtasks.");
         }
+
+        return timeLog.append(idempotencyKey, parents.projectID(), parents.parentTaskID(), taskID, username, howManyHours) ? 1 : 0;
     }
 
     public int updateTimeContribution(String username, int taskID, float howManyHours, LocalDateTime when) {
@@ -249,26 +387,41 @@ public class TaskRepository {
             throw new InvalidValueException("Hours spent should be zero or more.");
         }
 
-        if (timeContributionWithValuesDoesNotExist(username, taskID, when)) {
-            throw new EntityDoesNotExistException("No time contribution by " + username + " on task with ID " + taskID + " at " + when + " exists.");
-        }
+        HoursSpent before = findHoursSpent(username, taskID, when).orElseThrow(() -> noTimeContribution(username, taskID, when));
         // For update, delete, no check of isSubtask since made impossible by check in contributeTime(), also reinforced by UI.
-        return jdbcTemplate.update("UPDATE TimeSpent SET HoursSpent = ? WHERE OnTaskID = ? AND ByEmployee = ? AND _When = ?;",
+        int rowsAffected = jdbcTemplate.update("UPDATE TimeSpent SET HoursSpent = ? WHERE OnTaskID = ? AND ByEmployee = ? AND _When = ?;",
                 howManyHours, taskID, username, when);
+        if (rowsAffected != 0) {
+            events.publishEvent(new TimeSpentChanged(before.projectID()));
+            auditLog.updated("TimeSpent", taskID + ":" + username + ":" + when,
+                    timeContribution(username, taskID, before.hours(), when), timeContribution(username, taskID, howManyHours, when));
+        }
+        return rowsAffected;
     }
 
-    public int deleteTimeContribution(String username, int taskID, LocalDateTime when) {
-        if (timeContributionWithValuesDoesNotExist(username, taskID, when)) {
-            throw new EntityDoesNotExistException("No time contribution by " + username + " on task with ID " + taskID + " at " + when + " exists.");
+    // A timesheet's inline edits, all or none: one that finds no contribution rolls back those before it
+    @Transactional
+    public int updateTimeContributions(String username, List<TimeEdit> edits) {
+        int rowsAffected = 0;
+        for (TimeEdit edit : edits) {
+            rowsAffected += updateTimeContribution(username, edit.taskID(), edit.hours(), edit.when());
         }
+        return rowsAffected;
+    }
+
+    public int deleteTimeContribution(String username, int taskID, LocalDateTime when) {
+        HoursSpent before = findHoursSpent(username, taskID, when).orElseThrow(() -> noTimeContribution(username, taskID, when));
 
-        return jdbcTemplate.update("DELETE FROM TimeSpent WHERE ByEmployee = ? AND _When = ?;", username, when);
+        int rowsAffected = jdbcTemplate.update("DELETE FROM TimeSpent WHERE ByEmployee = ? AND _When = ?;", username, when);
+        if (rowsAffected != 0) {
+            events.publishEvent(new TimeSpentChanged(before.projectID()));
+            auditLog.deleted("TimeSpent", taskID + ":" + username + ":" + when, timeContribution(username, taskID, before.hours(), when));
+        }
+        return rowsAffected;
     }
 
     public List<Float> getAllTimeContributionsForSubtask(int subtaskID) {
-        Task task = getTaskByIDOrThrow(subtaskID);
-
-        if (!isSubtask(task)) {
+        if (!isSubtaskOrThrow(subtaskID)) {
             throw new NotSupportedException("You may not get time contributions for a task with the subtask version of this method.");
         }
 
@@ -277,33 +430,134 @@ public class TaskRepository {
     }
 
     public List<Float> getAllTimeContributionsForTask(int taskID) {
-        if (isSubtask(getTaskByIDOrThrow(taskID))) {
+        if (isSubtaskOrThrow(taskID)) {
             throw new NotSupportedException("You may not get time contributions for a subtask with the task version of this method.");
         }
 
-        return getAllSubtasksForParentTask(taskID).stream().map(
-                        s -> getAllTimeContributionsForSubtask(s.getID()))
+        return getAllSubtaskSummariesForParentTask(taskID).stream().map(
+                        s -> getAllTimeContributionsForSubtask(s.ID()))
                 .flatMap(List::stream)
                 .collect(Collectors.toList());
     }
 
+    private static EditConflictException editedMeanwhile(String entity, int ID) {
+        return new EditConflictException("Someone else saved changes to the " + entity + " with ID " + ID + " while you were editing it. Open it again to see them, then make your changes again.");
+    }
+
+    // Only if the task is still at the version modifiedTask was read at, which it then gets one past. No lock is held:
+    // of two edits to the same version, the second finds the version moved on and throws EditConflictException.
     public int updateTask(Task modifiedTask, int targetTaskID) {
-        getTaskByIDOrThrow(targetTaskID);
+        Task before = getTaskByIDOrThrow(targetTaskID);
+        if (before.getVersion() != modifiedTask.getVersion()) {
+            throw editedMeanwhile("task", targetTaskID);
+        }
 
-        return jdbcTemplate.update("UPDATE Tasks " +
+        int rowsAffected = jdbcTemplate.update("UPDATE Tasks " +
                 "SET ProjectID = ?, ParentTaskID = ?, TaskTitle = ?, TaskDescription = ?, TaskStart = ?," +
-                        " TaskEnd = ?, TaskDurationHours = ? WHERE TaskID = ?;",
+                        " TaskEnd = ?, TaskDurationHours = ?, Version = Version + 1 WHERE TaskID = ? AND Version = ?;",
                 modifiedTask.getParentProjectID(),
                 modifiedTask.getParentTaskID() == 0 ? null : modifiedTask.getParentTaskID(),
                 modifiedTask.getTaskTitle(), modifiedTask.getTaskDescription(), modifiedTask.getTaskStart(),
-                modifiedTask.getTaskEnd(), modifiedTask.getTaskDurationHours(), targetTaskID
+                modifiedTask.getTaskEnd(), modifiedTask.getTaskDurationHours(), targetTaskID, modifiedTask.getVersion()
         );
+        if (rowsAffected == 0) {
+            throw editedMeanwhile("task", targetTaskID); // Between the read above and the update
+        }
+
+        modifiedTask.setVersion(modifiedTask.getVersion() + 1);
+        searchIndex.indexTask(targetTaskID, modifiedTask.getParentProjectID(), modifiedTask.getParentTaskID(),
+                modifiedTask.getTaskTitle(), modifiedTask.getTaskDescription());
+        events.publishEvent(new TaskPlanChanged(before.getParentProjectID()));
+        if (modifiedTask.getParentProjectID() != before.getParentProjectID()) {
+            events.publishEvent(new TaskPlanChanged(modifiedTask.getParentProjectID()));
+        }
+        if (modifiedTask.getParentProjectID() != before.getParentProjectID() || modifiedTask.getParentTaskID() != before.getParentTaskID()) {
+            events.publishEvent(new TimeSpentChanged(before.getParentProjectID())); // Its hours moved with it
+            if (modifiedTask.getParentProjectID() != before.getParentProjectID()) {
+                events.publishEvent(new TimeSpentChanged(modifiedTask.getParentProjectID()));
+            }
+        }
+        auditLog.updated("Task", targetTaskID, before, modifiedTask);
+        return rowsAffected;
+    }
+
+    // The comments on a task and, for a task, its subtasks, which come off or go back on the counts above it
+    // (see CommentRepository) as it is deleted or undeleted
+    private void countComments(Task task, int comments) {
+        if (comments != 0) {
+            if (isSubtask(task)) {
+                jdbcTemplate.update("UPDATE Tasks SET CommentCount = CommentCount + ? WHERE TaskID = ?;", comments, task.getParentTaskID());
+            }
+            jdbcTemplate.update("UPDATE Projects SET CommentCount = CommentCount + ? WHERE ProjectID = ?;", comments, task.getParentProjectID());
+        }
     }
 
+    // Only marks the task, and for a task its subtasks, deleted, which hides them at once. Purger deletes them and their
+    // time spent, artifacts and so on for good after the grace period, until when undeleteTaskByID() brings them back.
+    @Transactional
     public int deleteTaskByID(int taskID) {
-        getTaskByIDOrThrow(taskID);
-        return jdbcTemplate.update("DELETE FROM Tasks WHERE TaskID = ?;", taskID);
+        ConstPair<Task, Integer> before = jdbcTemplate.query("SELECT * FROM VisibleTasks WHERE TaskID = ?;",
+                (rs, rowNum) -> new ConstPair<>(taskRowMapper.mapRow(rs, rowNum), rs.getInt("CommentCount")), taskID)
+                .stream().findFirst().orElseThrow(() -> noTaskWithID(taskID));
+        Task task = before.first();
+
+        LocalDateTime deletedAt = Purger.deletionTime();
+        int rowsAffected = jdbcTemplate.update("UPDATE Tasks SET DeletedAt = ? WHERE TaskID = ? AND DeletedAt IS NULL;", deletedAt, taskID);
+        if (rowsAffected != 0) {
+            if (!isSubtask(task)) {
+                jdbcTemplate.update("UPDATE Tasks SET DeletedAt = ? WHERE ParentTaskID = ? AND DeletedAt IS NULL;", deletedAt, taskID);
+            }
+            countComments(task, -before.second());
+            events.publishEvent(new TaskPlanChanged(task.getParentProjectID()));
+            events.publishEvent(new TimeSpentChanged(task.getParentProjectID()));
+            searchIndex.removeTask(taskID);
+            auditLog.deleted("Task", taskID, task);
+        }
+
+        return rowsAffected;
+    }
+
+    // The deleted tasks and subtasks of the project not yet past undeleting, most recently deleted first. A subtask
+    // deleted with its task comes back with it, so is not among them.
+    public List<Task> getDeletedTasksForProject(int projectID) {
+        return jdbcTemplate.query("""
+                SELECT t.* FROM Tasks AS t
+                LEFT JOIN Tasks AS parent ON parent.TaskID = t.ParentTaskID
+                WHERE t.ProjectID = ? AND t.DeletedAt > ? AND parent.DeletedAt IS NULL
+                ORDER BY t.DeletedAt DESC;""", taskRowMapper, projectID, purger.getPurgeableUntil());
     }
 
+    // Brings the task back with the subtasks deleted along with it, but not into a deleted project or under a deleted task
+    @Transactional
+    public int undeleteTaskByID(int taskID) {
+        record Deleted(Task task, int comments, LocalDateTime deletedAt) { }
+        Deleted deleted = jdbcTemplate.query("""
+                        SELECT t.* FROM Tasks AS t
+                        JOIN VisibleProjects AS p ON p.ProjectID = t.ProjectID
+                        LEFT JOIN Tasks AS parent ON parent.TaskID = t.ParentTaskID
+                        WHERE t.TaskID = ? AND t.DeletedAt > ? AND parent.DeletedAt IS NULL;""",
+                        (rs, rowNum) -> new Deleted(taskRowMapper.mapRow(rs, rowNum), rs.getInt("CommentCount"), rs.getObject("DeletedAt", LocalDateTime.class)),
+                        taskID, purger.getPurgeableUntil())
+                .stream().findFirst().orElseThrow(() -> new EntityDoesNotExistException("No deleted task with ID " + taskID + " can be undeleted."));
+        Task task = deleted.task();
+
+        // Checked again in the update, in case the grace period ran out meanwhile
+        int rowsAffected = jdbcTemplate.update("UPDATE Tasks SET DeletedAt = NULL WHERE TaskID = ? AND DeletedAt = ? AND DeletedAt > ?;",
+                taskID, deleted.deletedAt(), purger.getPurgeableUntil());
+        if (rowsAffected == 0) {
+            throw new EntityDoesNotExistException("No deleted task with ID " + taskID + " can be undeleted.");
+        }
 
+        if (!isSubtask(task)) {
+            jdbcTemplate.update("UPDATE Tasks SET DeletedAt = NULL WHERE ParentTaskID = ? AND DeletedAt = ?;", taskID, deleted.deletedAt());
+        }
+        countComments(task, deleted.comments());
+        events.publishEvent(new TaskPlanChanged(task.getParentProjectID()));
+        events.publishEvent(new TimeSpentChanged(task.getParentProjectID()));
+        jdbcTemplate.query("SELECT TaskID, ParentTaskID, TaskTitle, TaskDescription FROM VisibleTasks WHERE TaskID = ? OR ParentTaskID = ?;",
+                rs -> { searchIndex.indexTask(rs.getInt("TaskID"), task.getParentProjectID(), rs.getInt("ParentTaskID"), rs.getString("TaskTitle"), rs.getString("TaskDescription")); },
+                taskID, taskID);
+        auditLog.created("Task", taskID, task);
+        return rowsAffected;
+    }
 }
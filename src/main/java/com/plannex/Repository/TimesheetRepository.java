@@ -0,0 +1,94 @@
+package com.plannex.Repository;
+
+import com.plannex.Model.Timesheet;
+import com.plannex.Model.TimesheetCell;
+import com.plannex.Model.TimesheetRow;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Weekly timesheets, read with one grouped query over TimeSpent however many employees they are for. The employees are
+// a derived table joined to TimeSpent, so each one's week is a range of the (ByEmployee, _When) primary key; an IN list
+// of usernames instead made H2 scan the whole table. Deleted tasks and projects are left out in the WHERE clause rather
+// than through VisibleTasks, which H2 otherwise joins by scanning Projects for every entry.
+@Repository
+public class TimesheetRepository {
+    protected final JdbcTemplate jdbcTemplate;
+
+    public TimesheetRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static LocalDate weekStartOf(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    // Empty if they logged nothing that week
+    public Timesheet getTimesheet(String username, LocalDate weekStart) {
+        return read("SELECT EmployeeUsername FROM ProjectEmployees WHERE EmployeeUsername = ?", List.of(username), weekStart, username).getFirst();
+    }
+
+    // A page of every employee's timesheets, by username; two queries however long the page
+    public List<Timesheet> getTimesheets(int offset, int limit, LocalDate weekStart) {
+        return read("SELECT EmployeeUsername FROM ProjectEmployees ORDER BY EmployeeUsername LIMIT ? OFFSET ?", getUsernames(offset, limit), weekStart, limit, offset);
+    }
+
+    // One timesheet for each of the usernames, in their order; employees is the derived table they come from
+    private List<Timesheet> read(String employees, List<String> usernames, LocalDate weekStart, Object... employeeArgs) {
+        if (usernames.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Map<Integer, TimesheetRow>> rowsByEmployee = new LinkedHashMap<>();
+        for (String username : usernames) {
+            rowsByEmployee.put(username, new LinkedHashMap<>());
+        }
+
+        List<Object> args = new ArrayList<>(List.of(employeeArgs));
+        args.add(weekStart.atStartOfDay());
+        args.add(weekStart.plusDays(Timesheet.DAYS).atStartOfDay());
+        jdbcTemplate.query("SELECT ts.ByEmployee, t.ProjectID, p.ProjectTitle, t.ParentTaskID, t.TaskID, t.TaskTitle, CAST(ts._When AS DATE) AS SpentOn, " +
+                "SUM(ts.HoursSpent) AS Hours, COUNT(*) AS Entries, MAX(ts._When) AS LastWhen " +
+                "FROM (" + employees + ") AS e JOIN TimeSpent AS ts ON ts.ByEmployee = e.EmployeeUsername AND ts._When >= ? AND ts._When < ? " +
+                "JOIN Tasks AS t ON t.TaskID = ts.OnTaskID JOIN Projects AS p ON p.ProjectID = t.ProjectID " +
+                "WHERE t.DeletedAt IS NULL AND p.DeletedAt IS NULL " +
+                "GROUP BY ts.ByEmployee, t.ProjectID, p.ProjectTitle, t.ParentTaskID, t.TaskID, t.TaskTitle, CAST(ts._When AS DATE) " +
+                "ORDER BY t.ProjectID, t.ParentTaskID, t.TaskID;", rs -> {
+            Map<Integer, TimesheetRow> rows = rowsByEmployee.get(rs.getString("ByEmployee"));
+            if (rows == null) {
+                return; // Joined to the page after it was read
+            }
+
+            int subtaskID = rs.getInt("TaskID");
+            TimesheetRow row = rows.get(subtaskID);
+            if (row == null) {
+                row = new TimesheetRow(rs.getInt("ProjectID"), rs.getString("ProjectTitle"), rs.getInt("ParentTaskID"), subtaskID,
+                        rs.getString("TaskTitle"), new ArrayList<>(Collections.nCopies(Timesheet.DAYS, TimesheetCell.EMPTY)));
+                rows.put(subtaskID, row);
+            }
+            int day = (int) ChronoUnit.DAYS.between(weekStart, rs.getObject("SpentOn", LocalDate.class));
+            int entries = rs.getInt("Entries");
+            row.cells().set(day, new TimesheetCell(rs.getDouble("Hours"), entries, entries == 1 ? rs.getObject("LastWhen", LocalDateTime.class) : null));
+        }, args.toArray());
+
+        List<Timesheet> timesheets = new ArrayList<>(usernames.size());
+        rowsByEmployee.forEach((username, rows) -> timesheets.add(new Timesheet(username, weekStart, List.copyOf(rows.values()))));
+        return timesheets;
+    }
+
+    // A page of every employee's username, in order
+    public List<String> getUsernames(int offset, int limit) {
+        return jdbcTemplate.queryForList("SELECT EmployeeUsername FROM ProjectEmployees ORDER BY EmployeeUsername LIMIT ? OFFSET ?;",
+                String.class, limit, offset);
+    }
+}
@@ -0,0 +1,25 @@
+package com.plannex.RowMapper;
+
+import com.plannex.Model.Comment;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+@Component
+public class CommentRowMapper implements RowMapper<Comment> {
+    @Override
+    public Comment mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp postedAt = rs.getTimestamp("PostedAt");
+        return new Comment(
+                rs.getInt("CommentID"),
+                rs.getInt("TaskID"),
+                rs.getString("CommentAuthor"),
+                rs.getString("CommentTitle"),
+                rs.getString("CommentText"),
+                postedAt == null ? null : postedAt.toLocalDateTime()
+        );
+    }
+}
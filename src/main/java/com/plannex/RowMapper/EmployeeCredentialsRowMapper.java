@@ -0,0 +1,31 @@
+package com.plannex.RowMapper;
+
+import com.plannex.Model.EmployeeCredentials;
+import com.plannex.Model.EmployeePrincipal;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+
+@Component
+public class EmployeeCredentialsRowMapper implements RowMapper<EmployeeCredentials> {
+
+    @Override
+    public EmployeeCredentials mapRow(ResultSet rs, int rowNum) throws SQLException {
+
+        Time from = rs.getTime("EmployeeWorkingHoursFrom");
+        Time to = rs.getTime("EmployeeWorkingHoursTo");
+
+        return new EmployeeCredentials(rs.getString("EmployeePassword"), new EmployeePrincipal(
+                rs.getString("EmployeeUsername"),
+                rs.getString("EmployeeName"),
+                rs.getString("EmployeeEmail"),
+                rs.getString("PermissionTitle"),
+
+                from != null ? from.toLocalTime() : null,
+                to != null ? to.toLocalTime() : null
+        ));
+    }
+}
@@ -0,0 +1,22 @@
+package com.plannex.RowMapper;
+
+import com.plannex.Model.OrgUnit;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@Component
+public class OrgUnitRowMapper implements RowMapper<OrgUnit> {
+    @Override
+    public OrgUnit mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new OrgUnit(
+                rs.getInt("OrgUnitID"),
+                rs.getString("UnitKind"),
+                rs.getString("UnitTitle"),
+                rs.getString("UnitDescription"),
+                rs.getObject("ParentUnitID", Integer.class)
+        );
+    }
+}
@@ -11,12 +11,14 @@ import java.sql.SQLException;
 public class ProjectRowMapper implements RowMapper<Project> {
     @Override
     public Project mapRow(ResultSet rs, int rowNum) throws SQLException {
-        return new Project(
+        Project project = new Project(
                 rs.getInt("ProjectID"),
                 rs.getString("ProjectTitle"),
                 rs.getString("ProjectDescription").replace("\\n", "\n"), // Shouldn't have added linebreaks manually
                 rs.getDate("ProjectStart").toLocalDate(),
                 rs.getDate("ProjectEnd").toLocalDate()
         );
+        project.setVersion(rs.getInt("Version"));
+        return project;
     }
 }
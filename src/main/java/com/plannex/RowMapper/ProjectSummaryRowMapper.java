@@ -0,0 +1,25 @@
+package com.plannex.RowMapper;
+
+import com.plannex.Model.ProjectSummary;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@Component
+public class ProjectSummaryRowMapper implements RowMapper<ProjectSummary> {
+    // Select only these, not *, so the TEXT description never leaves the database
+    public static final String COLUMNS = "ProjectID, ProjectTitle, ProjectStart, ProjectEnd, CommentCount";
+
+    @Override
+    public ProjectSummary mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new ProjectSummary(
+                rs.getInt("ProjectID"),
+                rs.getString("ProjectTitle"),
+                rs.getDate("ProjectStart").toLocalDate(),
+                rs.getDate("ProjectEnd").toLocalDate(),
+                rs.getInt("CommentCount")
+        );
+    }
+}
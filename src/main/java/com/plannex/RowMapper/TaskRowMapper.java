@@ -11,7 +11,7 @@ import java.sql.SQLException;
 public class TaskRowMapper implements RowMapper<Task> {
     @Override
     public Task mapRow(ResultSet rs, int rowNum) throws SQLException {
-        return new Task(
+        Task task = new Task(
                 rs.getInt("TaskID"),
                 rs.getInt("ProjectID"),
                 rs.getInt("ParentTaskID"),
@@ -21,5 +21,7 @@ public class TaskRowMapper implements RowMapper<Task> {
                 rs.getDate("TaskEnd").toLocalDate(),
                 rs.getFloat("TaskDurationHours")
         );
+        task.setVersion(rs.getInt("Version"));
+        return task;
     }
 }
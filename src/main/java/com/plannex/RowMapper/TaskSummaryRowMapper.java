@@ -0,0 +1,28 @@
+package com.plannex.RowMapper;
+
+import com.plannex.Model.TaskSummary;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@Component
+public class TaskSummaryRowMapper implements RowMapper<TaskSummary> {
+    // Select only these, not *, so the TEXT description never leaves the database
+    public static final String COLUMNS = "TaskID, ProjectID, ParentTaskID, TaskTitle, TaskStart, TaskEnd, TaskDurationHours, CommentCount";
+
+    @Override
+    public TaskSummary mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new TaskSummary(
+                rs.getInt("TaskID"),
+                rs.getInt("ProjectID"),
+                rs.getInt("ParentTaskID"),
+                rs.getString("TaskTitle"),
+                rs.getDate("TaskStart").toLocalDate(),
+                rs.getDate("TaskEnd").toLocalDate(),
+                rs.getFloat("TaskDurationHours"),
+                rs.getInt("CommentCount")
+        );
+    }
+}
@@ -0,0 +1,68 @@
+package com.plannex.Search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+// The documents one term occurs in, in increasing document order, with the term's (weighted) frequency in each.
+final class Postings {
+    int[] documents = new int[4];
+    byte[] frequencies = new byte[4];
+    int size;
+
+    void add(int document, int frequency) {
+        if (size == documents.length) {
+            documents = Arrays.copyOf(documents, size * 2);
+            frequencies = Arrays.copyOf(frequencies, size * 2);
+        }
+
+        documents[size] = document;
+        frequencies[size] = (byte) Math.min(frequency, 255);
+        size++;
+    }
+
+    int frequency(int position) {
+        return frequencies[position] & 0xFF;
+    }
+
+    // First position at or after from whose document is at least target, or size. Gallops, then bisects.
+    int advance(int from, int target) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < size && documents[high] < target) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+
+        high = Math.min(high, size);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (documents[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    // Drops deleted documents and renumbers the rest; renumbering keeps the order, so the list stays sorted
+    void compact(BitSet deleted, int[] renumbered) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!deleted.get(documents[i])) {
+                documents[kept] = renumbered[documents[i]];
+                frequencies[kept] = frequencies[i];
+                kept++;
+            }
+        }
+
+        size = kept;
+        if (kept < documents.length / 4) {
+            documents = Arrays.copyOf(documents, Math.max(4, kept));
+            frequencies = Arrays.copyOf(frequencies, Math.max(4, kept));
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.plannex.Search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+// A compressed (radix) trie from keys to values: each edge holds a whole run of characters, so a lookup takes one step
+// per branch point rather than per character. Children are kept sorted, so complete() walks the keys in order and can
+// stop as soon as it has enough. One key may hold several values and one value may sit under several keys.
+// Not thread-safe; Typeahead guards it.
+public final class PrefixTrie<V> {
+    private static final char[] NO_FIRSTS = new char[0];
+
+    private static final class Node<V> {
+        String edge;
+        char[] firsts = NO_FIRSTS; // First character of each child's edge, sorted
+        Node<V>[] children = newNodes(0);
+        List<V> values;
+
+        Node(String edge) {
+            this.edge = edge;
+        }
+
+        int child(char first) {
+            return Arrays.binarySearch(firsts, first);
+        }
+
+        void addChild(Node<V> child) {
+            int at = -child(child.edge.charAt(0)) - 1;
+            char[] newFirsts = new char[firsts.length + 1];
+            Node<V>[] newChildren = newNodes(children.length + 1);
+            System.arraycopy(firsts, 0, newFirsts, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newFirsts[at] = child.edge.charAt(0);
+            newChildren[at] = child;
+            System.arraycopy(firsts, at, newFirsts, at + 1, firsts.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            firsts = newFirsts;
+            children = newChildren;
+        }
+
+        void removeChild(int at) {
+            char[] newFirsts = new char[firsts.length - 1];
+            Node<V>[] newChildren = newNodes(children.length - 1);
+            System.arraycopy(firsts, 0, newFirsts, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            System.arraycopy(firsts, at + 1, newFirsts, at, firsts.length - at - 1);
+            System.arraycopy(children, at + 1, newChildren, at, children.length - at - 1);
+            firsts = newFirsts;
+            children = newChildren;
+        }
+
+        boolean hasValues() {
+            return values != null && !values.isEmpty();
+        }
+
+        @SuppressWarnings("unchecked")
+        static <V> Node<V>[] newNodes(int length) {
+            return (Node<V>[]) new Node[length];
+        }
+    }
+
+    private final Node<V> root = new Node<>("");
+    private int size;
+
+    public void put(String key, V value) {
+        Node<V> node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int at = node.child(key.charAt(i));
+            if (at < 0) {
+                Node<V> leaf = new Node<>(key.substring(i));
+                node.addChild(leaf);
+                node = leaf;
+                break;
+            }
+
+            Node<V> child = node.children[at];
+            int common = commonPrefixLength(child.edge, key, i);
+            if (common < child.edge.length()) { // The key leaves this edge part way: split it there
+                Node<V> split = new Node<>(child.edge.substring(0, common));
+                child.edge = child.edge.substring(common);
+                split.addChild(child);
+                node.children[at] = split;
+                child = split;
+            }
+            node = child;
+            i += common;
+        }
+
+        if (node.values == null) {
+            node.values = new ArrayList<>(1);
+        }
+        if (!node.values.contains(value)) {
+            node.values.add(value);
+            size++;
+        }
+    }
+
+    public boolean remove(String key, V value) {
+        List<Node<V>> path = new ArrayList<>();
+        Node<V> node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int at = node.child(key.charAt(i));
+            if (at < 0) {
+                return false;
+            }
+
+            Node<V> child = node.children[at];
+            if (!key.startsWith(child.edge, i)) {
+                return false;
+            }
+            path.add(node);
+            node = child;
+            i += child.edge.length();
+        }
+
+        if (node.values == null || !node.values.remove(value)) {
+            return false;
+        }
+
+        size--;
+        prune(node, path.isEmpty() ? null : path.getLast());
+        if (path.size() > 1) {
+            prune(path.getLast(), path.get(path.size() - 2));
+        }
+        return true;
+    }
+
+    // Drops a node left without values or children, and merges one left with a single child into that child
+    private void prune(Node<V> node, Node<V> parent) {
+        if (parent == null || node.hasValues()) {
+            return;
+        }
+
+        int at = parent.child(node.edge.charAt(0));
+        if (node.children.length == 0) {
+            parent.removeChild(at);
+        } else if (node.children.length == 1) {
+            Node<V> only = node.children[0];
+            only.edge = node.edge + only.edge;
+            parent.children[at] = only;
+        }
+    }
+
+    // Up to limit distinct values accepted by filter whose keys start with prefix, in key order
+    public List<V> complete(String prefix, int limit, Predicate<? super V> filter) {
+        List<V> found = new ArrayList<>(Math.min(limit, 16));
+        if (limit < 1) {
+            return found;
+        }
+
+        Node<V> node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int at = node.child(prefix.charAt(i));
+            if (at < 0) {
+                return found;
+            }
+
+            node = node.children[at];
+            int compared = Math.min(node.edge.length(), prefix.length() - i);
+            if (!node.edge.regionMatches(0, prefix, i, compared)) {
+                return found;
+            }
+            i += compared;
+        }
+
+        collect(node, limit, filter, found);
+        return found;
+    }
+
+    private static <V> boolean collect(Node<V> node, int limit, Predicate<? super V> filter, List<V> found) {
+        if (node.values != null) {
+            for (V value : node.values) {
+                if (filter.test(value) && !found.contains(value)) { // found holds at most limit values, a short scan
+                    found.add(value);
+                    if (found.size() == limit) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        for (Node<V> child : node.children) {
+            if (collect(child, limit, filter, found)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Key-value pairs held
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        root.firsts = NO_FIRSTS;
+        root.children = Node.newNodes(0);
+        root.values = null;
+        size = 0;
+    }
+
+    private static int commonPrefixLength(String edge, String key, int from) {
+        int max = Math.min(edge.length(), key.length() - from);
+        int length = 0;
+        while (length < max && edge.charAt(length) == key.charAt(from + length)) {
+            length++;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,553 @@
+package com.plannex.Search;
+
+import com.plannex.Model.SearchHit;
+import com.plannex.Model.SearchResults;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// An in-memory inverted index over the titles and descriptions of projects, tasks and subtasks, ranked with BM25.
+// It is filled from the database once the application is ready and then kept current by ProjectRepository and
+// TaskRepository, which call it after every write. Each instance has its own index, so with several instances
+// a change shows up in the others' search results only after their next restart (or rebuild()).
+//
+// A query matches documents containing every word; the last word also matches as a prefix, so results follow typing.
+// Title words count TITLE_WEIGHT times, which makes a title match outrank a description match.
+// Removed documents are only marked until they make up a quarter of the index, then the postings are compacted.
+@Component
+public class SearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(SearchIndex.class);
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    static final int TITLE_WEIGHT = 3;
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_DELETED_TO_COMPACT = 1024;
+    static final int MAX_QUERY_WORDS = 16;
+    private static final int DENSE_FRACTION = 16;
+    private static final SearchHit.Kind[] KINDS = SearchHit.Kind.values();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+
+    // Per document, by document number
+    private byte[] kinds = new byte[16];
+    private int[] entityIDs = new int[16];
+    private int[] projectIDs = new int[16];
+    private int[] parentTaskIDs = new int[16];
+    private int[] lengths = new int[16];
+    private String[] titles = new String[16];
+    private int documentCount;
+    private final BitSet deleted = new BitSet();
+    private int deletedCount;
+    private long totalLength;
+    private int maxLength;
+
+    // Document number + 1 by project and by task ID, 0 when not indexed. Tasks and subtasks share the Tasks IDs.
+    private int[] projectDocuments = new int[16];
+    private int[] taskDocuments = new int[16];
+
+    public SearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            rebuild();
+        } catch (BadSqlGrammarException bsge) {
+            log.debug("Nothing to index yet: {}", bsge.getMessage());
+        }
+    }
+
+    // Holds the write lock while reading, so a write that lands meanwhile is applied after the reload, not lost
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            long started = System.nanoTime();
+            jdbcTemplate.query("SELECT ProjectID, ProjectTitle, ProjectDescription FROM VisibleProjects;",
+                    rs -> { add(SearchHit.Kind.PROJECT, rs.getInt("ProjectID"), rs.getInt("ProjectID"), 0, rs.getString("ProjectTitle"), rs.getString("ProjectDescription")); });
+            jdbcTemplate.query("SELECT TaskID, ProjectID, ParentTaskID, TaskTitle, TaskDescription FROM VisibleTasks;",
+                    rs -> {
+                        int parentTaskID = rs.getInt("ParentTaskID");
+                        add(parentTaskID == 0 ? SearchHit.Kind.TASK : SearchHit.Kind.SUBTASK, rs.getInt("TaskID"), rs.getInt("ProjectID"), parentTaskID,
+                                rs.getString("TaskTitle"), rs.getString("TaskDescription"));
+                    });
+            log.info("Indexed {} projects, tasks and subtasks ({} terms) in {} ms", documentCount, terms.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexProject(int projectID, String title, String description) {
+        lock.writeLock().lock();
+        try {
+            remove(document(projectDocuments, projectID));
+            add(SearchHit.Kind.PROJECT, projectID, projectID, 0, title, description);
+            compactIfWorthIt(); // Every edit leaves the old text behind as a deleted document
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexTask(int taskID, int projectID, int parentTaskID, String title, String description) {
+        lock.writeLock().lock();
+        try {
+            remove(document(taskDocuments, taskID));
+            add(parentTaskID == 0 ? SearchHit.Kind.TASK : SearchHit.Kind.SUBTASK, taskID, projectID, parentTaskID, title, description);
+            compactIfWorthIt();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Also removes the project's tasks and subtasks, which are hidden with it
+    public void removeProject(int projectID) {
+        lock.writeLock().lock();
+        try {
+            remove(document(projectDocuments, projectID));
+            for (int document = 0; document < documentCount; document++) {
+                if (!deleted.get(document) && kinds[document] != SearchHit.Kind.PROJECT.ordinal() && projectIDs[document] == projectID) {
+                    remove(document);
+                }
+            }
+            compactIfWorthIt();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Also removes the task's subtasks, which are hidden with it
+    public void removeTask(int taskID) {
+        lock.writeLock().lock();
+        try {
+            remove(document(taskDocuments, taskID));
+            for (int document = 0; document < documentCount; document++) {
+                if (!deleted.get(document) && kinds[document] == SearchHit.Kind.SUBTASK.ordinal() && parentTaskIDs[document] == taskID) {
+                    remove(document);
+                }
+            }
+            compactIfWorthIt();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentCount - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Documents removed or replaced but still in the postings until the next compaction
+    public int getDeletedCount() {
+        lock.readLock().lock();
+        try {
+            return deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SearchResults search(String query, int limit) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+        if (words.size() > MAX_QUERY_WORDS) {
+            words = words.subList(words.size() - MAX_QUERY_WORDS, words.size()); // Keep the last, the one being typed
+        }
+        if (words.isEmpty() || limit < 1) {
+            return SearchResults.NONE;
+        }
+
+        lock.readLock().lock();
+        try {
+            int live = documentCount - deletedCount;
+            if (live == 0) {
+                return SearchResults.NONE;
+            }
+
+            Clause[] clauses = new Clause[words.size()];
+            for (int i = 0; i < clauses.length; i++) {
+                List<Postings> matching = i == clauses.length - 1 ? prefixMatches(words.get(i)) : exactMatch(words.get(i));
+                if (matching.isEmpty()) {
+                    return SearchResults.NONE;
+                }
+                clauses[i] = new Clause(matching, live);
+            }
+            Arrays.sort(clauses, Comparator.comparingLong(Clause::cost)); // Lead with the rarest word
+
+            float[] norms = norms((double) totalLength / live);
+            boolean oneTerm = clauses.length == 1 && clauses[0].postings.length == 1;
+            return oneTerm || clauses[0].cost() * DENSE_FRACTION < documentCount
+                    ? collectSparse(clauses, norms, limit)
+                    : collectDense(clauses, norms, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Postings> exactMatch(String word) {
+        Postings postings = terms.get(word);
+        return postings == null ? List.of() : List.of(postings);
+    }
+
+    // Every term starting with prefix, or the MAX_PREFIX_EXPANSIONS most frequent of them for a short prefix
+    private List<Postings> prefixMatches(String prefix) {
+        List<Postings> matching = new ArrayList<>(terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values());
+        if (matching.size() > MAX_PREFIX_EXPANSIONS) {
+            matching.sort(Comparator.comparingInt((Postings p) -> p.size).reversed());
+            return matching.subList(0, MAX_PREFIX_EXPANSIONS);
+        }
+
+        return matching;
+    }
+
+    // Leapfrogs the clauses to the documents they all contain, scoring each and keeping the best limit.
+    // Quick when the rarest word is rare: only its documents are visited, and the others are skipped over.
+    private SearchResults collectSparse(Clause[] clauses, float[] norms, int limit) {
+        TopDocuments top = new TopDocuments(limit);
+        int totalHits = 0;
+        int candidate = clauses[0].advance(0);
+        outer:
+        while (candidate != Clause.NO_MORE) {
+            for (int i = 1; i < clauses.length; i++) {
+                int document = clauses[i].advance(candidate);
+                if (document != candidate) {
+                    candidate = document == Clause.NO_MORE ? Clause.NO_MORE : clauses[0].advance(document);
+                    continue outer;
+                }
+            }
+
+            if (!deleted.get(candidate)) {
+                totalHits++;
+                double score = 0;
+                for (Clause clause : clauses) {
+                    score += clause.score(candidate, norms[lengths[candidate]]);
+                }
+                top.offer(candidate, score);
+            }
+            candidate = clauses[0].advance(candidate + 1);
+        }
+
+        return results(top, totalHits);
+    }
+
+    // Adds up the scores one posting list at a time, counting in matched how many words each document has had so far.
+    // When every word is common, reading the lists straight through beats leapfrogging them, which would visit
+    // nearly every document anyway and pay a merge over the prefix's terms at each one.
+    private SearchResults collectDense(Clause[] clauses, float[] norms, int limit) {
+        float[] scores = new float[documentCount];
+        byte[] matched = new byte[documentCount];
+        for (int c = 0; c < clauses.length; c++) {
+            Clause clause = clauses[c];
+            for (int t = 0; t < clause.postings.length; t++) {
+                Postings p = clause.postings[t];
+                float weight = (float) (clause.idf[t] * (K1 + 1));
+                for (int position = 0; position < p.size; position++) {
+                    int document = p.documents[position];
+                    int words = matched[document];
+                    if (words == c) {
+                        matched[document] = (byte) (c + 1);
+                    } else if (words != c + 1) {
+                        continue; // Missed an earlier word
+                    }
+
+                    int tf = p.frequency(position);
+                    scores[document] += weight * tf / (tf + norms[lengths[document]]);
+                }
+            }
+        }
+
+        TopDocuments top = new TopDocuments(limit);
+        int totalHits = 0;
+        for (int document = 0; document < documentCount; document++) {
+            if (matched[document] == clauses.length && !deleted.get(document)) {
+                totalHits++;
+                top.offer(document, scores[document]);
+            }
+        }
+        return results(top, totalHits);
+    }
+
+    private SearchResults results(TopDocuments top, int totalHits) {
+        SearchHit[] hits = new SearchHit[top.size()];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            hits[i] = hit(top.worstDocument(), top.worstScore());
+            top.removeWorst();
+        }
+        return new SearchResults(List.of(hits), totalHits);
+    }
+
+    // BM25's length normalisation for each document length, which saves a division per posting
+    private float[] norms(double averageLength) {
+        float[] norms = new float[maxLength + 1];
+        for (int length = 0; length <= maxLength; length++) {
+            norms[length] = (float) (K1 * (1 - B + B * length / averageLength));
+        }
+        return norms;
+    }
+
+    private SearchHit hit(int document, double score) {
+        return new SearchHit(KINDS[kinds[document]], entityIDs[document], projectIDs[document], parentTaskIDs[document], titles[document], score);
+    }
+
+    private void add(SearchHit.Kind kind, int entityID, int projectID, int parentTaskID, String title, String description) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (String word : Tokenizer.tokenize(title)) {
+            frequencies.merge(word, TITLE_WEIGHT, Integer::sum);
+            length += TITLE_WEIGHT;
+        }
+        for (String word : Tokenizer.tokenize(description)) {
+            frequencies.merge(word, 1, Integer::sum);
+            length++;
+        }
+
+        int document = documentCount++;
+        if (document == kinds.length) {
+            int capacity = document * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            entityIDs = Arrays.copyOf(entityIDs, capacity);
+            projectIDs = Arrays.copyOf(projectIDs, capacity);
+            parentTaskIDs = Arrays.copyOf(parentTaskIDs, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+        }
+        kinds[document] = (byte) kind.ordinal();
+        entityIDs[document] = entityID;
+        projectIDs[document] = projectID;
+        parentTaskIDs[document] = parentTaskID;
+        lengths[document] = length;
+        maxLength = Math.max(maxLength, length);
+        titles[document] = title;
+        totalLength += length;
+        if (kind == SearchHit.Kind.PROJECT) {
+            projectDocuments = map(projectDocuments, entityID, document);
+        } else {
+            taskDocuments = map(taskDocuments, entityID, document);
+        }
+
+        frequencies.forEach((word, frequency) -> terms.computeIfAbsent(word, w -> new Postings()).add(document, frequency));
+    }
+
+    private void remove(int document) {
+        if (document < 0 || deleted.get(document)) {
+            return;
+        }
+
+        deleted.set(document);
+        deletedCount++;
+        totalLength -= lengths[document];
+        titles[document] = null;
+        if (kinds[document] == SearchHit.Kind.PROJECT.ordinal()) {
+            projectDocuments[entityIDs[document]] = 0;
+        } else {
+            taskDocuments[entityIDs[document]] = 0;
+        }
+    }
+
+    private void compactIfWorthIt() {
+        if (deletedCount < MIN_DELETED_TO_COMPACT || deletedCount * 4 < documentCount) {
+            return;
+        }
+
+        int[] renumbered = new int[documentCount];
+        int kept = 0;
+        for (int document = 0; document < documentCount; document++) {
+            if (deleted.get(document)) {
+                continue;
+            }
+
+            renumbered[document] = kept;
+            kinds[kept] = kinds[document];
+            entityIDs[kept] = entityIDs[document];
+            projectIDs[kept] = projectIDs[document];
+            parentTaskIDs[kept] = parentTaskIDs[document];
+            lengths[kept] = lengths[document];
+            titles[kept] = titles[document];
+            if (kinds[kept] == SearchHit.Kind.PROJECT.ordinal()) {
+                projectDocuments[entityIDs[kept]] = kept + 1;
+            } else {
+                taskDocuments[entityIDs[kept]] = kept + 1;
+            }
+            kept++;
+        }
+        Arrays.fill(titles, kept, documentCount, null);
+
+        Iterator<Postings> postings = terms.values().iterator();
+        while (postings.hasNext()) {
+            Postings p = postings.next();
+            p.compact(deleted, renumbered);
+            if (p.size == 0) {
+                postings.remove();
+            }
+        }
+
+        documentCount = kept;
+        deleted.clear();
+        deletedCount = 0;
+    }
+
+    private void clear() {
+        terms.clear();
+        documentCount = 0;
+        deleted.clear();
+        deletedCount = 0;
+        totalLength = 0;
+        maxLength = 0;
+        Arrays.fill(titles, null);
+        Arrays.fill(projectDocuments, 0);
+        Arrays.fill(taskDocuments, 0);
+    }
+
+    private static int document(int[] documents, int ID) {
+        return ID >= 0 && ID < documents.length ? documents[ID] - 1 : -1;
+    }
+
+    private static int[] map(int[] documents, int ID, int document) {
+        if (ID >= documents.length) {
+            documents = Arrays.copyOf(documents, Math.max(ID + 1, documents.length * 2));
+        }
+
+        documents[ID] = document + 1;
+        return documents;
+    }
+
+    // One query word: the postings of every term it matches, each with its own IDF and read position
+    private static final class Clause {
+        static final int NO_MORE = Integer.MAX_VALUE;
+
+        private final Postings[] postings;
+        private final double[] idf;
+        private final int[] positions;
+
+        Clause(List<Postings> matching, int documents) {
+            postings = matching.toArray(Postings[]::new);
+            idf = new double[postings.length];
+            positions = new int[postings.length];
+            for (int i = 0; i < postings.length; i++) {
+                int df = postings[i].size; // Includes removed documents until the next compaction, as Lucene's does
+                idf[i] = Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+            }
+        }
+
+        long cost() {
+            long cost = 0;
+            for (Postings p : postings) {
+                cost += p.size;
+            }
+            return cost;
+        }
+
+        // The first document at or after target that any of the terms occurs in
+        int advance(int target) {
+            int next = NO_MORE;
+            for (int i = 0; i < postings.length; i++) {
+                Postings p = postings[i];
+                int position = positions[i] = p.advance(positions[i], target);
+                if (position < p.size) {
+                    next = Math.min(next, p.documents[position]);
+                }
+            }
+            return next;
+        }
+
+        // Only valid for the document the clause was last advanced to
+        double score(int document, float norm) {
+            double score = 0;
+            for (int i = 0; i < postings.length; i++) {
+                Postings p = postings[i];
+                int position = positions[i];
+                if (position < p.size && p.documents[position] == document) {
+                    int tf = p.frequency(position);
+                    score += idf[i] * tf * (K1 + 1) / (tf + norm);
+                }
+            }
+            return score;
+        }
+    }
+
+    // A min-heap of the best documents seen, worst on top; ties go to the older document
+    private static final class TopDocuments {
+        private final int[] documents;
+        private final double[] scores;
+        private int size;
+
+        TopDocuments(int limit) {
+            documents = new int[limit];
+            scores = new double[limit];
+        }
+
+        void offer(int document, double score) {
+            if (size < documents.length) {
+                documents[size] = document;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (score > scores[0]) {
+                documents[0] = document;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        int worstDocument() {
+            return documents[0];
+        }
+
+        double worstScore() {
+            return scores[0];
+        }
+
+        void removeWorst() {
+            swap(0, --size);
+            siftDown(0);
+        }
+
+        private boolean worse(int a, int b) {
+            return scores[a] < scores[b] || (scores[a] == scores[b] && documents[a] > documents[b]);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0 && worse(i, (i - 1) / 2)) {
+                swap(i, (i - 1) / 2);
+                i = (i - 1) / 2;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int worst = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && worse(left, worst)) worst = left;
+                if (right < size && worse(right, worst)) worst = right;
+                if (worst == i) return;
+                swap(i, worst);
+                i = worst;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int document = documents[a];
+            documents[a] = documents[b];
+            documents[b] = document;
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.plannex.Search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Splits text into lower-cased runs of letters and digits. There is no stemming; prefix matching covers most of what it would.
+public final class Tokenizer {
+    static final int MAX_TOKEN_LENGTH = 32;
+
+    private Tokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (start < 0) {
+                    start = i;
+                }
+                continue;
+            }
+
+            if (start >= 0) {
+                tokens.add(text.substring(start, Math.min(i, start + MAX_TOKEN_LENGTH)).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+
+            if (c == '\\' && i + 1 < text.length() && text.charAt(i + 1) == 'n') {
+                i++; // A line break as the database stores it (see TaskRowMapper), not the start of a word
+            }
+        }
+
+        return tokens;
+    }
+}
@@ -0,0 +1,164 @@
+package com.plannex.Search;
+
+import com.plannex.Model.EmployeeSuggestion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Prefix completion of employees (by username, full name or any word of it) and skill titles (by title or any word of it),
+// so forms can suggest as the user types instead of listing everyone. Case-insensitive; results come in key order.
+// Filled once the application is ready and kept current by ProjectEmployeeRepository; like SearchIndex, each instance
+// sees only its own writes until it restarts.
+@Component
+public class Typeahead {
+    private static final Logger log = LoggerFactory.getLogger(Typeahead.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final PrefixTrie<EmployeeSuggestion> employees = new PrefixTrie<>();
+    private final Map<String, EmployeeSuggestion> employeesByUsername = new HashMap<>();
+    private final PrefixTrie<String> skills = new PrefixTrie<>();
+
+    public Typeahead(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            rebuild();
+        } catch (BadSqlGrammarException bsge) {
+            log.debug("Nothing to suggest yet: {}", bsge.getMessage());
+        }
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            employees.clear();
+            employeesByUsername.clear();
+            skills.clear();
+            jdbcTemplate.query("SELECT pe.EmployeeUsername, pe.EmployeeName, p.PermissionTitle FROM ProjectEmployees pe LEFT JOIN Permissions p ON p.PermissionHolder = pe.EmployeeUsername;",
+                    rs -> { add(new EmployeeSuggestion(rs.getString("EmployeeUsername"), rs.getString("EmployeeName"), "Worker".equals(rs.getString("PermissionTitle")))); });
+            jdbcTemplate.query("SELECT SkillTitle FROM Skills;", rs -> { addSkill(rs.getString("SkillTitle")); });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putEmployee(String username, String name, String permissions) {
+        lock.writeLock().lock();
+        try {
+            remove(username);
+            add(new EmployeeSuggestion(username, name, "Worker".equals(permissions)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Username and name may both have changed; permissions are kept
+    public void updateEmployee(String oldUsername, String username, String name) {
+        lock.writeLock().lock();
+        try {
+            EmployeeSuggestion old = remove(oldUsername);
+            add(new EmployeeSuggestion(username, name, old != null && old.worker()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeEmployee(String username) {
+        lock.writeLock().lock();
+        try {
+            remove(username);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putSkill(String skillTitle) {
+        lock.writeLock().lock();
+        try {
+            addSkill(skillTitle);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeSkill(String skillTitle) {
+        lock.writeLock().lock();
+        try {
+            for (String key : keys(skillTitle)) {
+                skills.remove(key, skillTitle);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<EmployeeSuggestion> suggestEmployees(String prefix, int limit, boolean workersOnly) {
+        lock.readLock().lock();
+        try {
+            return employees.complete(normalise(prefix), limit, e -> !workersOnly || e.worker());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<String> suggestSkills(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            return skills.complete(normalise(prefix), limit, s -> true);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(EmployeeSuggestion employee) {
+        employeesByUsername.put(employee.employeeUsername(), employee);
+        for (String key : keys(employee.employeeUsername(), employee.employeeName())) {
+            employees.put(key, employee);
+        }
+    }
+
+    private EmployeeSuggestion remove(String username) {
+        EmployeeSuggestion employee = employeesByUsername.remove(username);
+        if (employee != null) {
+            for (String key : keys(employee.employeeUsername(), employee.employeeName())) {
+                employees.remove(key, employee);
+            }
+        }
+        return employee;
+    }
+
+    private void addSkill(String skillTitle) {
+        for (String key : keys(skillTitle)) {
+            skills.put(key, skillTitle);
+        }
+    }
+
+    // Each text whole and each word in it, so both "ma" and "em" find Max-Emil
+    private static Set<String> keys(String... texts) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+
+            keys.add(normalise(text));
+            keys.addAll(Tokenizer.tokenize(text));
+        }
+        return keys;
+    }
+
+    private static String normalise(String text) {
+        return text == null ? "" : text.strip().toLowerCase(Locale.ROOT);
+    }
+}
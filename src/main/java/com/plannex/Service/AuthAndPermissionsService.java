@@ -1,5 +1,6 @@
 package com.plannex.Service;
 
+import com.plannex.Model.EmployeePrincipal;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.stereotype.Service;
 
@@ -16,6 +17,10 @@ public class AuthAndPermissionsService {
     }
 
     public boolean isManager(HttpSession session) {
+        if (session.getAttribute(EmployeePrincipal.SESSION_ATTRIBUTE) instanceof EmployeePrincipal principal) {
+            return principal.isManager();
+        }
+
         String username = session.getAttribute("username").toString();
         return projectEmployeeService.getPermissions(username).equals("Manager");
     }
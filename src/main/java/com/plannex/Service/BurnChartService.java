@@ -0,0 +1,25 @@
+package com.plannex.Service;
+
+import com.plannex.Burn.BurnCharts;
+import com.plannex.Model.BurnChart;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+@Service
+public class BurnChartService {
+    private final BurnCharts burnCharts;
+
+    public BurnChartService(BurnCharts burnCharts) {
+        this.burnCharts = burnCharts;
+    }
+
+    public BurnChart getBurnChartForProject(int projectID, @Nullable LocalDate from, @Nullable LocalDate to) {
+        return burnCharts.forProject(projectID, from, to);
+    }
+
+    public BurnChart getBurnChartForTask(int taskID, @Nullable LocalDate from, @Nullable LocalDate to) {
+        return burnCharts.forTask(taskID, from, to);
+    }
+}
@@ -0,0 +1,38 @@
+package com.plannex.Service;
+
+import com.plannex.Model.Comment;
+import com.plannex.Model.CommentPage;
+import com.plannex.Repository.CommentRepository;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CommentService {
+    public static final int PAGE_SIZE = 20;
+
+    private final CommentRepository commentRepository;
+
+    public CommentService(CommentRepository commentRepository) {
+        this.commentRepository = commentRepository;
+    }
+
+    public int addComment(Comment comment) {
+        return commentRepository.addComment(comment);
+    }
+
+    public Comment getCommentByID(int commentID) {
+        return commentRepository.getCommentByIDOrThrow(commentID);
+    }
+
+    // olderThan is the cursor from the previous page, or null for the newest comments
+    public CommentPage getCommentsForTask(int taskID, Integer olderThan) {
+        return commentRepository.getCommentsForTask(taskID, olderThan == null ? 0 : olderThan, PAGE_SIZE);
+    }
+
+    public int updateComment(Comment modifiedComment, int commentID) {
+        return commentRepository.updateComment(modifiedComment, commentID);
+    }
+
+    public int deleteComment(int commentID) {
+        return commentRepository.deleteComment(commentID);
+    }
+}
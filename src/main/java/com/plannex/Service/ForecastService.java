@@ -0,0 +1,18 @@
+package com.plannex.Service;
+
+import com.plannex.Forecast.CompletionForecasts;
+import com.plannex.Model.CompletionForecast;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ForecastService {
+    private final CompletionForecasts completionForecasts;
+
+    public ForecastService(CompletionForecasts completionForecasts) {
+        this.completionForecasts = completionForecasts;
+    }
+
+    public CompletionForecast getForecastForProject(int projectID) {
+        return completionForecasts.forProject(projectID);
+    }
+}
@@ -0,0 +1,19 @@
+package com.plannex.Service;
+
+import com.plannex.Analytics.TimeAnalytics;
+import com.plannex.Model.HoursQuery;
+import com.plannex.Model.HoursReport;
+import org.springframework.stereotype.Service;
+
+@Service
+public class HoursReportService {
+    private final TimeAnalytics timeAnalytics;
+
+    public HoursReportService(TimeAnalytics timeAnalytics) {
+        this.timeAnalytics = timeAnalytics;
+    }
+
+    public HoursReport getHoursReport(HoursQuery query) {
+        return timeAnalytics.sumHours(query);
+    }
+}
@@ -0,0 +1,72 @@
+package com.plannex.Service;
+
+import com.plannex.Model.OrgUnit;
+import com.plannex.Model.OrgUnitRollup;
+import com.plannex.Model.ProjectEmployee;
+import com.plannex.Repository.OrgUnitRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class OrgUnitService {
+    private final OrgUnitRepository orgUnitRepository;
+
+    public OrgUnitService(OrgUnitRepository orgUnitRepository) {
+        this.orgUnitRepository = orgUnitRepository;
+    }
+
+    public int addOrgUnit(OrgUnit unit) {
+        return orgUnitRepository.addOrgUnit(unit);
+    }
+
+    public OrgUnit getOrgUnitByID(int orgUnitID) {
+        return orgUnitRepository.getOrgUnitByIDOrThrow(orgUnitID);
+    }
+
+    public List<OrgUnit> getAllOrgUnits() {
+        return orgUnitRepository.getAllOrgUnits();
+    }
+
+    // The units a unit of the given kind may be put under: for a department only departments, for a team any unit.
+    // Never the unit itself (unitID, 0 for a new one) or anything under it.
+    public List<OrgUnit> getPossibleParents(String kind, int unitID) {
+        List<OrgUnit> possibleParents = new ArrayList<>();
+        int skipBelowDepth = -1; // While inside unitID's subtree, the depth of unitID
+        for (OrgUnit unit : orgUnitRepository.getAllOrgUnits()) {
+            if (skipBelowDepth >= 0 && unit.getDepth() > skipBelowDepth) {
+                continue;
+            }
+            skipBelowDepth = -1;
+
+            if (unit.getID() == unitID) {
+                skipBelowDepth = unit.getDepth();
+            } else if (!OrgUnit.DEPARTMENT.equals(kind) || unit.isDepartment()) {
+                possibleParents.add(unit);
+            }
+        }
+        return possibleParents;
+    }
+
+    public List<ProjectEmployee> getMembersUnder(int orgUnitID) {
+        return orgUnitRepository.getMembersUnder(orgUnitID);
+    }
+
+    public OrgUnitRollup getRollup(int orgUnitID) {
+        return orgUnitRepository.getRollup(orgUnitID);
+    }
+
+    public Map<Integer, OrgUnitRollup> getAllRollups() {
+        return orgUnitRepository.getAllRollups();
+    }
+
+    public int updateOrgUnit(OrgUnit modifiedUnit, int orgUnitID) {
+        return orgUnitRepository.updateOrgUnit(modifiedUnit, orgUnitID);
+    }
+
+    public int deleteOrgUnit(int orgUnitID) {
+        return orgUnitRepository.deleteOrgUnit(orgUnitID);
+    }
+}
@@ -0,0 +1,85 @@
+package com.plannex.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+// Loads the independent parts of a page. With plannex.page-loading.concurrent=true every part runs on its own
+// virtual thread in an executor that lives only as long as the call, so nothing outlives the request.
+// The first failure cancels the remaining parts and is rethrown as-is, which keeps GlobalExceptionHandler in charge.
+@Service
+public class PageLoadingService {
+    private final boolean concurrent;
+
+    public PageLoadingService(@Value("${plannex.page-loading.concurrent:false}") boolean concurrent) {
+        this.concurrent = concurrent;
+    }
+
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    public Map<String, Object> loadAll(Map<String, Supplier<?>> fragments) {
+        List<String> names = new ArrayList<>(fragments.keySet());
+        List<Object> values = loadEach(names.stream().<Supplier<?>>map(fragments::get).toList());
+
+        Map<String, Object> loaded = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            loaded.put(names.get(i), values.get(i));
+        }
+
+        return loaded;
+    }
+
+    public <T> List<T> loadEach(List<? extends Supplier<? extends T>> suppliers) {
+        if (!concurrent || suppliers.size() < 2) {
+            List<T> results = new ArrayList<>(suppliers.size());
+            for (Supplier<? extends T> supplier : suppliers) {
+                results.add(supplier.get());
+            }
+            return results;
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+            List<Future<T>> futures = new ArrayList<>(suppliers.size());
+            for (Supplier<? extends T> supplier : suppliers) {
+                futures.add(completionService.submit(supplier::get));
+            }
+
+            try {
+                for (int i = 0; i < futures.size(); i++) {
+                    completionService.take().get(); // Fail fast on whichever part fails first
+                }
+            } catch (ExecutionException ee) {
+                futures.forEach(f -> f.cancel(true));
+                throw rethrowable(ee.getCause());
+            } catch (InterruptedException ie) {
+                futures.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while loading page.", ie);
+            }
+
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.resultNow());
+            }
+            return results;
+        }
+    }
+
+    private static RuntimeException rethrowable(Throwable cause) {
+        if (cause instanceof RuntimeException re) {
+            return re;
+        }
+
+        if (cause instanceof Error e) {
+            throw e;
+        }
+
+        return new IllegalStateException(cause);
+    }
+}
@@ -0,0 +1,77 @@
+package com.plannex.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+// PBKDF2-HMAC-SHA256 stored as pbkdf2-sha256$<iterations>$<salt>$<hash>, so each hash carries its own cost.
+// Raising plannex.password.hash-iterations rehashes a password at its next login (see needsRehash).
+// Passwords stored before hashing was introduced are plain text; they are still accepted and rehashed the same way.
+@Component
+public class PasswordHasher {
+    public static final int DEFAULT_ITERATIONS = 600_000; // OWASP's recommendation for PBKDF2-HMAC-SHA256
+    private static final String ALGORITHM = "pbkdf2-sha256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private final int iterations;
+    private final SecureRandom random = new SecureRandom();
+    private final String unknownUserHash;
+
+    public PasswordHasher(@Value("${plannex.password.hash-iterations:" + DEFAULT_ITERATIONS + "}") int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("plannex.password.hash-iterations must be positive, was " + iterations);
+        }
+
+        this.iterations = iterations;
+        this.unknownUserHash = hash("");
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return ALGORITHM + "$" + iterations + "$" + base64.encodeToString(salt) + "$" + base64.encodeToString(pbkdf2(password, salt, iterations));
+    }
+
+    public boolean matches(String password, String storedHash) {
+        String[] parts = storedHash.split("\\$");
+        if (parts.length != 4 || !parts[0].equals(ALGORITHM)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), storedHash.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Base64.Decoder base64 = Base64.getDecoder();
+        return MessageDigest.isEqual(pbkdf2(password, base64.decode(parts[2]), Integer.parseInt(parts[1])), base64.decode(parts[3]));
+    }
+
+    public boolean needsRehash(String storedHash) {
+        return !storedHash.startsWith(ALGORITHM + "$" + iterations + "$");
+    }
+
+    // Takes as long as checking a real password, so a failed login does not tell whether the username exists
+    public void matchUnknownUser(String password) {
+        matches(password, unknownUserHash);
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException gse) {
+            throw new IllegalStateException("PBKDF2WithHmacSHA256 is not available", gse);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -1,24 +1,31 @@
 package com.plannex.Service;
 
+import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Model.EmployeeCredentials;
+import com.plannex.Model.EmployeePrincipal;
 import com.plannex.Model.EmployeeSkill;
 import com.plannex.Model.ProjectEmployee;
 import com.plannex.Repository.ProjectEmployeeRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class ProjectEmployeeService {
 
     private final ProjectEmployeeRepository projectEmployeeRepository;
+    private final PasswordHasher passwordHasher;
 
-    public ProjectEmployeeService(ProjectEmployeeRepository projectEmployeeRepository) {
+    public ProjectEmployeeService(ProjectEmployeeRepository projectEmployeeRepository, PasswordHasher passwordHasher) {
         this.projectEmployeeRepository = projectEmployeeRepository;
+        this.passwordHasher = passwordHasher;
     }
 
 
 
     public int addEmployee(ProjectEmployee employee, String permissions) {
+        employee.setEmployeePassword(passwordHasher.hash(employee.getEmployeePassword()));
         return projectEmployeeRepository.addEmployee(employee, permissions);
     }
 
@@ -39,6 +46,7 @@ public class ProjectEmployeeService {
     }
 
     public int updateEmployee(ProjectEmployee updatedEmployee, String targetUsername) {
+        updatedEmployee.setEmployeePassword(passwordHasher.hash(updatedEmployee.getEmployeePassword()));
         return projectEmployeeRepository.updateEmployee(updatedEmployee, targetUsername);
     }
 
@@ -46,8 +54,30 @@ public class ProjectEmployeeService {
         return projectEmployeeRepository.deleteEmployeeByUsername(username);
     }
 
-    public boolean login(String username, String pw) {
-        return projectEmployeeRepository.login(username, pw);
+    // Empty on a wrong username or password, without telling which. A password hashed with an older
+    // cost, or stored before hashing, is rehashed with the current cost once it has been verified.
+    public Optional<EmployeePrincipal> authenticate(String username, String pw) {
+        Optional<EmployeeCredentials> credentials = projectEmployeeRepository.findCredentials(username);
+        if (credentials.isEmpty()) {
+            passwordHasher.matchUnknownUser(pw);
+            return Optional.empty();
+        }
+
+        String passwordHash = credentials.get().getPasswordHash();
+        if (!passwordHasher.matches(pw, passwordHash)) {
+            return Optional.empty();
+        }
+
+        if (passwordHasher.needsRehash(passwordHash)) {
+            projectEmployeeRepository.updatePasswordHash(username, passwordHasher.hash(pw));
+        }
+
+        return Optional.of(credentials.get().getPrincipal());
+    }
+
+    public EmployeePrincipal getPrincipal(String username) {
+        return projectEmployeeRepository.findCredentials(username).map(EmployeeCredentials::getPrincipal)
+                .orElseThrow(() -> new EntityDoesNotExistException("No employee with username " + username + " exists."));
     }
 
     public List<EmployeeSkill> getSkillsForEmployee(String username) {
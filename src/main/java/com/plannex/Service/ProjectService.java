@@ -3,7 +3,9 @@ package com.plannex.Service;
 import com.plannex.Exception.EntityDoesNotExistException;
 import com.plannex.Model.Project;
 import com.plannex.Model.ProjectEmployee;
+import com.plannex.Model.ProjectSummary;
 import com.plannex.Model.Task;
+import com.plannex.Model.TaskSummary;
 import com.plannex.Repository.ProjectRepository;
 import org.jspecify.annotations.Nullable;
 import org.springframework.stereotype.Service;
@@ -32,6 +34,10 @@ public class ProjectService {
         return projectRepository.getAllProjects();
     }
 
+    public List<ProjectSummary> getAllProjectSummaries() {
+        return projectRepository.getAllProjectSummaries();
+    }
+
     public int updateProject(Project modifiedProject, int targetProjectID) {
         return projectRepository.updateProject(modifiedProject, targetProjectID);
     }
@@ -40,10 +46,22 @@ public class ProjectService {
         return projectRepository.deleteProjectByID(projectID);
     }
 
+    public List<Project> getDeletedProjects() {
+        return projectRepository.getDeletedProjects();
+    }
+
+    public int undeleteProjectByID(int projectID) {
+        return projectRepository.undeleteProjectByID(projectID);
+    }
+
     public List<Task> getAllTasksForProject(int projectID) {
         return projectRepository.getAllTasksForProject(projectID);
     }
 
+    public List<TaskSummary> getAllTaskSummariesForProject(int projectID) {
+        return projectRepository.getAllTaskSummariesForProject(projectID);
+    }
+
     public Integer getAllInvolved(int projectID) {
         return projectRepository.getAllInvolved(projectID);
     }
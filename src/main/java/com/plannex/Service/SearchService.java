@@ -0,0 +1,20 @@
+package com.plannex.Service;
+
+import com.plannex.Model.SearchResults;
+import com.plannex.Search.SearchIndex;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SearchService {
+    public static final int MAX_HITS = 50;
+
+    private final SearchIndex searchIndex;
+
+    public SearchService(SearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    public SearchResults search(String query) {
+        return searchIndex.search(query, MAX_HITS);
+    }
+}
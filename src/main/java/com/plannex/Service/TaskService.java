@@ -3,6 +3,7 @@ package com.plannex.Service;
 import com.plannex.Exception.EntityDoesNotExistException;
 import com.plannex.Model.ProjectEmployee;
 import com.plannex.Model.Task;
+import com.plannex.Model.TaskSummary;
 import com.plannex.Repository.TaskRepository;
 import org.springframework.stereotype.Service;
 
@@ -50,6 +51,10 @@ public class TaskService {
         return taskRepository.getAllSubtasksForParentTask(parentTaskID);
     }
 
+    public List<TaskSummary> getAllSubtaskSummariesForParentTask(int parentTaskID) {
+        return taskRepository.getAllSubtaskSummariesForParentTask(parentTaskID);
+    }
+
     public List<TaskRepository.ConstPair<String, String>> getAllArtifactsForTask(int taskID) {
         return taskRepository.getAllArtifactsForTask(taskID);
     }
@@ -67,7 +72,7 @@ public class TaskService {
     }
 
     public int updateTask(Task modifiedTask, int targetTaskID) {
-        if (taskRepository.getTaskByIDOrThrow(targetTaskID) == null) {
+        if (taskRepository.findTaskByID(targetTaskID).isEmpty()) {
             throw new EntityDoesNotExistException("No task with ID " + targetTaskID + " exists.");
         }
 
@@ -75,13 +80,21 @@ public class TaskService {
     }
 
     public int deleteTaskByID(int taskID) {
-        if (taskRepository.getTaskByIDOrThrow(taskID) == null) {
+        if (taskRepository.findTaskByID(taskID).isEmpty()) {
             throw new EntityDoesNotExistException("No task with ID " + taskID + " exists.");
         }
 
         return taskRepository.deleteTaskByID(taskID);
     }
 
+    public List<Task> getDeletedTasksForProject(int projectID) {
+        return taskRepository.getDeletedTasksForProject(projectID);
+    }
+
+    public int undeleteTaskByID(int taskID) {
+        return taskRepository.undeleteTaskByID(taskID);
+    }
+
     public int addArtifact(int taskID, String username, String pathToArtifact) {
         return taskRepository.addArtifact(taskID, username, pathToArtifact);
     }
@@ -98,6 +111,10 @@ public class TaskService {
         return taskRepository.contributeTime(username, taskID, hours);
     }
 
+    public int contributeTime(String username, int taskID, float hours, String idempotencyKey) {
+        return taskRepository.contributeTime(username, taskID, hours, idempotencyKey);
+    }
+
     public int updateTimeContribution(String username, int taskID, float hours, LocalDateTime when) {
         return taskRepository.updateTimeContribution(username, taskID, hours, when);
     }
@@ -0,0 +1,46 @@
+package com.plannex.Service;
+
+import com.plannex.Exception.InvalidValueException;
+import com.plannex.Model.TimeEdit;
+import com.plannex.Model.Timesheet;
+import com.plannex.Model.TimesheetPage;
+import com.plannex.Repository.TaskRepository;
+import com.plannex.Repository.TimesheetRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+public class TimesheetService {
+    public static final int PAGE_SIZE = 500;
+
+    private final TimesheetRepository timesheetRepository;
+    private final TaskRepository taskRepository;
+
+    public TimesheetService(TimesheetRepository timesheetRepository, TaskRepository taskRepository) {
+        this.timesheetRepository = timesheetRepository;
+        this.taskRepository = taskRepository;
+    }
+
+    // The week of any day in it
+    public Timesheet getTimesheet(String username, LocalDate day) {
+        return timesheetRepository.getTimesheet(username, TimesheetRepository.weekStartOf(day));
+    }
+
+    // Pages count from 0; one more timesheet than shown is read to know whether there is a next page
+    public TimesheetPage getTimesheets(LocalDate day, int page) {
+        if (page < 0) {
+            throw new InvalidValueException("The page should be 0 or more.");
+        }
+
+        LocalDate weekStart = TimesheetRepository.weekStartOf(day);
+        List<Timesheet> timesheets = timesheetRepository.getTimesheets(page * PAGE_SIZE, PAGE_SIZE + 1, weekStart);
+        boolean hasNext = timesheets.size() > PAGE_SIZE;
+        return new TimesheetPage(weekStart, page, hasNext ? timesheets.subList(0, PAGE_SIZE) : timesheets, hasNext);
+    }
+
+    public int updateTimeContributions(String username, List<TimeEdit> edits) {
+        return taskRepository.updateTimeContributions(username, edits);
+    }
+}
@@ -0,0 +1,27 @@
+package com.plannex.Service;
+
+import com.plannex.Model.EmployeeSuggestion;
+import com.plannex.Search.Typeahead;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class TypeaheadService {
+    public static final int DEFAULT_SUGGESTIONS = 10;
+    public static final int MAX_SUGGESTIONS = 50;
+
+    private final Typeahead typeahead;
+
+    public TypeaheadService(Typeahead typeahead) {
+        this.typeahead = typeahead;
+    }
+
+    public List<EmployeeSuggestion> suggestEmployees(String prefix, int limit, boolean workersOnly) {
+        return typeahead.suggestEmployees(prefix, Math.min(limit, MAX_SUGGESTIONS), workersOnly);
+    }
+
+    public List<String> suggestSkills(String prefix, int limit) {
+        return typeahead.suggestSkills(prefix, Math.min(limit, MAX_SUGGESTIONS));
+    }
+}
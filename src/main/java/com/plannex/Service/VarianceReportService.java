@@ -0,0 +1,31 @@
+package com.plannex.Service;
+
+import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Model.TaskVariance;
+import com.plannex.Model.VarianceReport;
+import com.plannex.Variance.VarianceReports;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class VarianceReportService {
+    private final VarianceReports varianceReports;
+
+    public VarianceReportService(VarianceReports varianceReports) {
+        this.varianceReports = varianceReports;
+    }
+
+    public VarianceReport getReport() {
+        return varianceReports.getReport();
+    }
+
+    public List<TaskVariance> getTaskVariancesForProject(int projectID) {
+        List<TaskVariance> tasks = varianceReports.getReport().tasksByProject().get(projectID);
+        if (tasks == null) {
+            throw new EntityDoesNotExistException("No project with ID " + projectID + " has tasks in the report.");
+        }
+
+        return tasks;
+    }
+}
@@ -0,0 +1,135 @@
+package com.plannex.Session;
+
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+// One request's copy of a cached session. Tracks what the request changed, so the repository can tell
+// whether the session has to be written back or only its last access time moved.
+final class CachedSession implements Session {
+    private final MapSession session;
+    private final String originalId;
+    private final Instant persistedLastAccess;
+    private final Function<String, Session> storedSessionLoader;
+    private final Set<String> changedAttributes = new HashSet<>();
+    private boolean maxInactiveIntervalChanged;
+    private Session storedSession;
+
+    CachedSession(MapSession session, Instant persistedLastAccess, Function<String, Session> storedSessionLoader) {
+        this.session = session;
+        this.originalId = session.getId();
+        this.persistedLastAccess = persistedLastAccess;
+        this.storedSessionLoader = storedSessionLoader;
+    }
+
+    String getOriginalId() {
+        return originalId;
+    }
+
+    Instant getPersistedLastAccess() {
+        return persistedLastAccess;
+    }
+
+    Set<String> getChangedAttributes() {
+        return changedAttributes;
+    }
+
+    boolean isMaxInactiveIntervalChanged() {
+        return maxInactiveIntervalChanged;
+    }
+
+    boolean isChanged() {
+        return !changedAttributes.isEmpty() || maxInactiveIntervalChanged || storedSession != null;
+    }
+
+    // The stored session is only loaded when there is something to write, or the id has to change
+    Session getStoredSession() {
+        if (storedSession == null) {
+            storedSession = storedSessionLoader.apply(originalId);
+        }
+
+        return storedSession;
+    }
+
+    MapSession copy() {
+        return new MapSession(session);
+    }
+
+    @Override
+    public String getId() {
+        return session.getId();
+    }
+
+    @Override
+    public String changeSessionId() {
+        Session stored = getStoredSession();
+        if (stored == null) {
+            throw new IllegalStateException("Session " + originalId + " no longer exists");
+        }
+
+        String newId = stored.changeSessionId();
+        session.setId(newId);
+        return newId;
+    }
+
+    @Override
+    public <T> T getAttribute(String attributeName) {
+        return session.getAttribute(attributeName);
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+        return session.getAttributeNames();
+    }
+
+    @Override
+    public void setAttribute(String attributeName, Object attributeValue) {
+        session.setAttribute(attributeName, attributeValue);
+        changedAttributes.add(attributeName);
+    }
+
+    @Override
+    public void removeAttribute(String attributeName) {
+        session.removeAttribute(attributeName);
+        changedAttributes.add(attributeName);
+    }
+
+    @Override
+    public Instant getCreationTime() {
+        return session.getCreationTime();
+    }
+
+    @Override
+    public void setLastAccessedTime(Instant lastAccessedTime) {
+        session.setLastAccessedTime(lastAccessedTime);
+    }
+
+    @Override
+    public Instant getLastAccessedTime() {
+        return session.getLastAccessedTime();
+    }
+
+    @Override
+    public void setMaxInactiveInterval(Duration interval) {
+        if (!interval.equals(session.getMaxInactiveInterval())) {
+            maxInactiveIntervalChanged = true;
+        }
+
+        session.setMaxInactiveInterval(interval);
+    }
+
+    @Override
+    public Duration getMaxInactiveInterval() {
+        return session.getMaxInactiveInterval();
+    }
+
+    @Override
+    public boolean isExpired() {
+        return session.isExpired();
+    }
+}
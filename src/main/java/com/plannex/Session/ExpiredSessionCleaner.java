@@ -0,0 +1,70 @@
+package com.plannex.Session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// Replaces Spring Session's cleanup (spring.session.jdbc.cleanup-cron=-), which deletes every expired
+// session in one statement and so holds its locks for as long as that takes after a quiet night.
+// Deleting a batch at a time keeps each transaction short; attributes go with their session by ON DELETE CASCADE.
+// Every instance runs it, which is harmless: a batch another instance already deleted just deletes nothing.
+@Component
+public class ExpiredSessionCleaner implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ExpiredSessionCleaner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String deleteExpiredQuery;
+    private final int batchSize;
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+    public ExpiredSessionCleaner(JdbcTemplate jdbcTemplate,
+                                 @Value("${spring.session.jdbc.table-name:SPRING_SESSION}") String tableName,
+                                 @Value("${plannex.session.cleanup-batch-size:500}") int batchSize,
+                                 @Value("${plannex.session.cleanup-interval:60s}") Duration interval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.deleteExpiredQuery = "DELETE FROM " + tableName + " WHERE EXPIRY_TIME < ? LIMIT ?";
+        this.batchSize = batchSize;
+        scheduler.setThreadNamePrefix("expired-session-cleaner-");
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::cleanUpQuietly, Instant.now().plus(interval), interval);
+    }
+
+    public int cleanUpExpiredSessions() {
+        long now = System.currentTimeMillis();
+        int deleted = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update(deleteExpiredQuery, now, batchSize);
+            deleted += batch;
+        } while (batch == batchSize);
+
+        return deleted;
+    }
+
+    private void cleanUpQuietly() {
+        try {
+            int deleted = cleanUpExpiredSessions();
+            if (deleted > 0) {
+                log.debug("Deleted {} expired sessions", deleted);
+            }
+        } catch (BadSqlGrammarException bsge) {
+            log.debug("Session table is not there yet: {}", bsge.getMessage());
+        } catch (DataAccessException dae) {
+            log.warn("Could not delete expired sessions", dae);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+    }
+}
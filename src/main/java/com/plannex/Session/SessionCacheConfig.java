@@ -0,0 +1,37 @@
+package com.plannex.Session;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "plannex.session.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class SessionCacheConfig {
+    @Bean
+    @SuppressWarnings("unchecked")
+    public static BeanPostProcessor writeMinimisingSessionRepositoryPostProcessor(ObjectProvider<JdbcTemplate> jdbcTemplate,
+                                                                                  @Value("${spring.session.jdbc.table-name:SPRING_SESSION}") String tableName,
+                                                                                  @Value("${plannex.session.cache.max-entries:10000}") int maxEntries,
+                                                                                  @Value("${plannex.session.last-access-write-interval:60s}") Duration lastAccessWriteInterval) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof JdbcIndexedSessionRepository sessionRepository) {
+                    return new WriteMinimisingSessionRepository((FindByIndexNameSessionRepository<Session>) (FindByIndexNameSessionRepository<?>) sessionRepository,
+                            jdbcTemplate.getObject(), tableName, maxEntries, lastAccessWriteInterval);
+                }
+
+                return bean;
+            }
+        };
+    }
+}
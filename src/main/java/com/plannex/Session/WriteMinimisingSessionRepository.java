@@ -0,0 +1,176 @@
+package com.plannex.Session;
+
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Keeps recently used sessions in a bounded in-memory map in front of the JDBC session repository.
+// The JDBC repository writes the session row back on every request just to move its last access time;
+// this one writes only when the request changed the session or the last write is lastAccessWriteInterval old.
+// The database stays the source of truth: a cached session is only used while its row still exists, has not
+// expired and still carries the last access time this instance wrote, so logouts and changes made by other
+// instances are seen on their next request. The price is that the stored expiry time lags by up to
+// lastAccessWriteInterval, so a session may expire that much earlier than its timeout.
+public class WriteMinimisingSessionRepository implements FindByIndexNameSessionRepository<Session> {
+    private final FindByIndexNameSessionRepository<Session> delegate;
+    private final JdbcOperations jdbcOperations;
+    private final String validateSessionQuery;
+    private final Duration lastAccessWriteInterval;
+    private final Map<String, Entry> entries;
+
+    private record Entry(MapSession session, Instant persistedLastAccess) { }
+
+    private record StoredTimes(long lastAccessTime, long expiryTime) { }
+
+    public WriteMinimisingSessionRepository(FindByIndexNameSessionRepository<Session> delegate, JdbcOperations jdbcOperations,
+                                            String tableName, int maxEntries, Duration lastAccessWriteInterval) {
+        this.delegate = delegate;
+        this.jdbcOperations = jdbcOperations;
+        this.validateSessionQuery = "SELECT LAST_ACCESS_TIME, EXPIRY_TIME FROM " + tableName + " WHERE SESSION_ID = ?";
+        this.lastAccessWriteInterval = lastAccessWriteInterval;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Session createSession() {
+        return delegate.createSession();
+    }
+
+    @Override
+    public void save(Session session) {
+        if (!(session instanceof CachedSession cachedSession)) {
+            delegate.save(session);
+            remember(session);
+            return;
+        }
+
+        if (!cachedSession.isChanged() && !lastAccessWriteDue(cachedSession)) {
+            touch(cachedSession);
+            return;
+        }
+
+        Session stored = cachedSession.getStoredSession();
+        if (stored == null) { // Deleted or expired since this request read it
+            evict(cachedSession.getOriginalId());
+            return;
+        }
+
+        for (String attributeName : cachedSession.getChangedAttributes()) {
+            Object value = cachedSession.getAttribute(attributeName);
+            if (value == null) {
+                stored.removeAttribute(attributeName);
+            } else {
+                stored.setAttribute(attributeName, value);
+            }
+        }
+        if (cachedSession.isMaxInactiveIntervalChanged()) {
+            stored.setMaxInactiveInterval(cachedSession.getMaxInactiveInterval());
+        }
+        stored.setLastAccessedTime(newerThanPersisted(cachedSession));
+
+        delegate.save(stored);
+        evict(cachedSession.getOriginalId());
+        remember(stored);
+    }
+
+    @Override
+    public Session findById(String id) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(id);
+        }
+        if (entry == null) {
+            return load(id);
+        }
+
+        List<StoredTimes> stored = jdbcOperations.query(validateSessionQuery,
+                (rs, rowNum) -> new StoredTimes(rs.getLong("LAST_ACCESS_TIME"), rs.getLong("EXPIRY_TIME")), id);
+        if (stored.isEmpty() || stored.getFirst().expiryTime() < System.currentTimeMillis()) {
+            evict(id);
+            return null;
+        }
+        if (stored.getFirst().lastAccessTime() != entry.persistedLastAccess().toEpochMilli()) {
+            return load(id); // Written by another instance
+        }
+
+        return new CachedSession(new MapSession(entry.session()), entry.persistedLastAccess(), delegate::findById);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        evict(id);
+        delegate.deleteById(id);
+    }
+
+    @Override
+    public Map<String, Session> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+        return delegate.findByIndexNameAndIndexValue(indexName, indexValue);
+    }
+
+    public int getCachedSessionCount() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Session load(String id) {
+        Session session = delegate.findById(id);
+        if (session == null) {
+            evict(id);
+            return null;
+        }
+
+        Entry entry = remember(session);
+        return new CachedSession(new MapSession(entry.session()), entry.persistedLastAccess(), delegate::findById);
+    }
+
+    private boolean lastAccessWriteDue(CachedSession session) {
+        return Duration.between(session.getPersistedLastAccess(), session.getLastAccessedTime()).compareTo(lastAccessWriteInterval) >= 0;
+    }
+
+    // Other instances notice a write by the changed last access time, so a write must always move it
+    private static Instant newerThanPersisted(CachedSession session) {
+        Instant earliest = session.getPersistedLastAccess().plusMillis(1);
+        return session.getLastAccessedTime().isBefore(earliest) ? earliest : session.getLastAccessedTime();
+    }
+
+    private Entry remember(Session session) {
+        MapSession copy = new MapSession(session);
+        Entry entry = new Entry(copy, Instant.ofEpochMilli(copy.getLastAccessedTime().toEpochMilli()));
+        synchronized (entries) {
+            entries.put(session.getId(), entry);
+        }
+
+        return entry;
+    }
+
+    // Concurrent requests of the same session can finish in any order; the latest access wins
+    private void touch(CachedSession session) {
+        MapSession copy = session.copy();
+        synchronized (entries) {
+            Entry current = entries.get(session.getId());
+            if (current != null && current.persistedLastAccess().equals(session.getPersistedLastAccess())
+                    && current.session().getLastAccessedTime().isBefore(copy.getLastAccessedTime())) {
+                entries.put(session.getId(), new Entry(copy, current.persistedLastAccess()));
+            }
+        }
+    }
+
+    private void evict(String id) {
+        synchronized (entries) {
+            entries.remove(id);
+        }
+    }
+}
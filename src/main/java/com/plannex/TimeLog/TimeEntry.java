@@ -0,0 +1,11 @@
+package com.plannex.TimeLog;
+
+import java.time.LocalDateTime;
+
+// One contribution of time on its way to the TimeSpent table. The sequence is its place in the write-ahead log;
+// the project and task come along for the live pages.
+public record TimeEntry(long sequence, String idempotencyKey, int projectID, int taskID, int subtaskID, String username, float hours, LocalDateTime when) {
+    public TimeEntry withSequence(long sequence) {
+        return new TimeEntry(sequence, idempotencyKey, projectID, taskID, subtaskID, username, hours, when);
+    }
+}
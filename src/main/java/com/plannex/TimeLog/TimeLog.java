@@ -0,0 +1,407 @@
+package com.plannex.TimeLog;
+
+import com.plannex.Audit.AuditLog;
+import com.plannex.Event.TimeContributed;
+import com.plannex.Live.ProjectEvent;
+import com.plannex.Live.ProjectEventBus;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+// The way contributed time gets into TimeSpent. append() writes the entry to a memory-mapped write-ahead log in
+// plannex.time-log.directory and returns; one background writer inserts what has been appended, in order, in batches
+// of up to plannex.time-log.batch-size, and then moves the log's checkpoint past them. After a crash or restart, the
+// entries after the checkpoint are inserted again first.
+// Every entry carries an idempotency key, unique in TimeSpent, so an entry inserted twice (a resubmitted form, or a
+// crash between inserting and checkpointing) is skipped the second time. An employee's entries get strictly increasing
+// times, to the microsecond, so two in the same instant no longer collide on TimeSpent's (ByEmployee, _When) key.
+// While the database is unreachable the writer tries the batch again every second; an entry it refuses (its subtask or
+// employee deleted since) is logged and counted. Entries are audited, sent to the live pages and published as a
+// TimeContributed once inserted.
+// plannex.time-log.capacity bounds the entries waiting for the database; append() waits for room beyond that.
+// With plannex.time-log.enabled=false, append() inserts the entry itself.
+// The log is forced to disk at most every second, on append, after inserting and on every retry while the database is
+// unreachable, so a power cut loses at most the last second not yet inserted.
+@Component
+public class TimeLog implements DisposableBean, MeterBinder {
+    public static final int MAX_KEY_LENGTH = 36;
+
+    private static final Logger log = LoggerFactory.getLogger(TimeLog.class);
+    // A plain INSERT, so a subtask or employee deleted since fails it (INSERT IGNORE would skip it as if a duplicate).
+    // Entries whose key is in already are looked up first and left out of the batch.
+    private static final String INSERT = "INSERT INTO TimeSpent (OnTaskID, ByEmployee, HoursSpent, _When, IdempotencyKey) VALUES (?, ?, ?, ?, ?);";
+    private static final String EXISTING_KEYS = "SELECT IdempotencyKey FROM TimeSpent WHERE IdempotencyKey IN (%s);";
+    private static final long FORCE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long RETRY_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProjectEventBus projectEventBus;
+    private final AuditLog auditLog;
+    private final ApplicationEventPublisher events;
+    private final int capacity;
+    private final int batchSize;
+    private final WriteAheadLog writeAheadLog;
+    private final Thread writer;
+
+    // The lock guards the write-ahead log and everything below it
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition inserted = lock.newCondition();
+    private final ArrayDeque<TimeEntry> queue = new ArrayDeque<>();
+    private final Set<String> queuedKeys = new HashSet<>();
+    private final Map<String, LocalDateTime> lastWhenByEmployee = new HashMap<>();
+    private long insertedSequence;
+    private long lastForced = System.nanoTime();
+    private volatile int queued;
+    private volatile boolean running = true;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public TimeLog(JdbcTemplate jdbcTemplate, ProjectEventBus projectEventBus, AuditLog auditLog, ApplicationEventPublisher events,
+                   @Value("${plannex.time-log.enabled:true}") boolean enabled,
+                   @Value("${plannex.time-log.directory:time-log}") Path directory,
+                   @Value("${plannex.time-log.segment-size:8MB}") DataSize segmentSize,
+                   @Value("${plannex.time-log.capacity:65536}") int capacity,
+                   @Value("${plannex.time-log.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        this.projectEventBus = projectEventBus;
+        this.auditLog = auditLog;
+        this.events = events;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.writer = Thread.ofPlatform().name("time-log-writer").daemon().unstarted(this::writeUntilStopped);
+        if (!enabled) {
+            writeAheadLog = null;
+            running = false;
+            return;
+        }
+
+        writeAheadLog = new WriteAheadLog(directory, Math.toIntExact(segmentSize.toBytes()));
+        insertedSequence = writeAheadLog.getCheckpoint();
+        for (TimeEntry entry : writeAheadLog.recovered()) {
+            enqueue(entry);
+            lastWhenByEmployee.merge(entry.username(), entry.when(), (a, b) -> a.isAfter(b) ? a : b);
+        }
+        if (!queue.isEmpty()) {
+            log.info("Inserting {} time entries left in {} from before the restart", queue.size(), directory);
+        }
+        writer.start();
+    }
+
+    // True once the entry is in the log, or inserted if the log is turned off. False if an entry with the same key is
+    // still waiting to be inserted; one with the key of an entry inserted already is skipped by the database.
+    public boolean append(String idempotencyKey, int projectID, int taskID, int subtaskID, String username, float hours) {
+        TimeEntry entry;
+        lock.lock();
+        try {
+            if (queuedKeys.contains(idempotencyKey)) {
+                duplicates.incrementAndGet();
+                return false;
+            }
+
+            while (running && queue.size() >= capacity) {
+                notFull.awaitUninterruptibly();
+            }
+
+            entry = new TimeEntry(0, idempotencyKey, projectID, taskID, subtaskID, username, hours, nextWhen(username));
+            accepted.incrementAndGet();
+            if (running) {
+                enqueue(writeAheadLog.append(entry));
+                forceIfDue();
+                notEmpty.signal();
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        insertNow(entry); // Turned off or shutting down
+        return true;
+    }
+
+    // Waits until what has been appended so far is inserted; false if that took longer than the timeout
+    public boolean awaitInserted(Duration timeout) throws InterruptedException {
+        if (writeAheadLog == null) {
+            return true;
+        }
+
+        lock.lock();
+        try {
+            long target = writeAheadLog.getNextSequence() - 1;
+            long nanos = timeout.toNanos();
+            while (insertedSequence < target) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = inserted.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Every entry up to this sequence is on disk
+    public long getForcedSequence() {
+        lock.lock();
+        try {
+            return writeAheadLog.getForcedSequence();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueuedCount() {
+        return queued;
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDuplicateCount() {
+        return duplicates.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    private void enqueue(TimeEntry entry) {
+        queue.add(entry);
+        queuedKeys.add(entry.idempotencyKey());
+        queued = queue.size();
+    }
+
+    // Now, or a microsecond after the employee's last entry if that is not before now
+    private LocalDateTime nextWhen(String username) {
+        LocalDateTime when = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        LocalDateTime last = lastWhenByEmployee.get(username);
+        if (last != null && !when.isAfter(last)) {
+            when = last.plus(1, ChronoUnit.MICROS);
+        }
+        lastWhenByEmployee.put(username, when);
+        return when;
+    }
+
+    private void writeUntilStopped() {
+        List<TimeEntry> batch = new ArrayList<>(batchSize);
+        while (true) {
+            lock.lock();
+            try {
+                while (running && queue.isEmpty()) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (queue.isEmpty()) {
+                    return; // Stopped, and everything is in
+                }
+
+                while (batch.size() < batchSize && !queue.isEmpty()) {
+                    batch.add(queue.poll());
+                }
+                queued = queue.size();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            // Entries arriving meanwhile make up the next batch, so the batches grow with the load
+            if (!insertRetrying(batch)) {
+                return; // Stopped while the database was unreachable: the batch stays in the log for the next start
+            }
+
+            lock.lock();
+            try {
+                insertedSequence = batch.getLast().sequence();
+                writeAheadLog.checkpoint(insertedSequence);
+                batch.forEach(entry -> queuedKeys.remove(entry.idempotencyKey()));
+                forceIfDue();
+                inserted.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            batch.clear();
+        }
+    }
+
+    // Until the database takes the batch, or stopped
+    private boolean insertRetrying(List<TimeEntry> batch) {
+        while (true) {
+            try {
+                insert(batch);
+                return true;
+            } catch (DataAccessException dae) {
+                if (!running) {
+                    log.warn("Leaving {} time entries in the log, the database is unreachable", batch.size(), dae);
+                    return false;
+                }
+                log.warn("Could not insert {} time entries, trying again in a second: {}", batch.size(), dae.getMessage());
+                forceUnforced(); // Appends may stop coming, and entries stay unforced for as long as the database is down
+                LockSupport.parkNanos(RETRY_INTERVAL_NANOS); // Entries inserted meanwhile are skipped next time
+            }
+        }
+    }
+
+    // Under the lock
+    private void forceIfDue() {
+        if (System.nanoTime() - lastForced > FORCE_INTERVAL_NANOS) {
+            force();
+        }
+    }
+
+    private void forceUnforced() {
+        lock.lock();
+        try {
+            if (writeAheadLog.getForcedSequence() < writeAheadLog.getNextSequence() - 1) {
+                force();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void force() {
+        writeAheadLog.force();
+        lastForced = System.nanoTime();
+    }
+
+    private void insert(List<TimeEntry> batch) {
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(EXISTING_KEYS.formatted(String.join(", ", Collections.nCopies(batch.size(), "?"))),
+                String.class, batch.stream().map(TimeEntry::idempotencyKey).toArray()));
+        List<TimeEntry> fresh = new ArrayList<>(batch.size());
+        for (TimeEntry entry : batch) {
+            if (existing.contains(entry.idempotencyKey())) {
+                duplicates.incrementAndGet(); // Inserted before a crash, or by a resubmitted form
+            } else {
+                fresh.add(entry);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        try {
+            // In a transaction, so a batch the database refuses part of leaves none of it behind
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, fresh, fresh.size(), TimeLog::setValues));
+        } catch (DataIntegrityViolationException dive) {
+            // An entry the database refuses (e.g. by someone deleted since) fails the batch: the rest go in one at a time
+            for (TimeEntry entry : fresh) {
+                try {
+                    insertNow(entry);
+                } catch (DataIntegrityViolationException entryException) {
+                    failed.incrementAndGet();
+                    log.warn("Could not insert {} hours by {} on subtask {} at {}: {}", entry.hours(), entry.username(), entry.subtaskID(), entry.when(), entryException.getMessage());
+                }
+            }
+            return;
+        }
+
+        fresh.forEach(this::inserted);
+    }
+
+    private void insertNow(TimeEntry entry) {
+        try {
+            jdbcTemplate.update(INSERT, ps -> setValues(ps, entry));
+        } catch (DuplicateKeyException dke) {
+            duplicates.incrementAndGet();
+            return;
+        }
+        inserted(entry);
+    }
+
+    private void inserted(TimeEntry entry) {
+        written.incrementAndGet();
+        auditLog.createdBy(entry.username(), "TimeSpent", entry.subtaskID() + ":" + entry.username() + ":" + entry.when(),
+                AuditLog.values("onTaskID", entry.subtaskID(), "byEmployee", entry.username(), "hoursSpent", entry.hours(), "when", entry.when()));
+        projectEventBus.publish(entry.projectID(), ProjectEvent.TIME_CONTRIBUTED,
+                AuditLog.values("taskID", entry.taskID(), "subtaskID", entry.subtaskID(), "username", entry.username(), "hours", entry.hours()));
+        events.publishEvent(new TimeContributed(entry.projectID(), entry.taskID(), entry.subtaskID(), entry.username(), entry.hours(), entry.when()));
+    }
+
+    private static void setValues(PreparedStatement ps, TimeEntry entry) throws SQLException {
+        ps.setInt(1, entry.subtaskID());
+        ps.setString(2, entry.username());
+        ps.setFloat(3, entry.hours());
+        ps.setObject(4, entry.when());
+        ps.setString(5, entry.idempotencyKey());
+    }
+
+    // Lets the writer insert what is queued; append() inserts straight away from here on
+    @Override
+    public void destroy() throws InterruptedException {
+        if (writeAheadLog == null) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            running = false;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        writer.join(Duration.ofSeconds(30));
+        lock.lock();
+        try {
+            writeAheadLog.close(); // Kept for the next start if the writer did not get everything in
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("plannex.time-log.queued", this, TimeLog::getQueuedCount)
+                .description("Time entries in the log, waiting to be inserted").register(registry);
+        FunctionCounter.builder("plannex.time-log.entries.accepted", accepted, AtomicLong::get)
+                .description("Time entries appended").register(registry);
+        FunctionCounter.builder("plannex.time-log.entries.written", written, AtomicLong::get)
+                .description("Time entries inserted").register(registry);
+        FunctionCounter.builder("plannex.time-log.entries.duplicate", duplicates, AtomicLong::get)
+                .description("Time entries skipped because their idempotency key was in already").register(registry);
+        FunctionCounter.builder("plannex.time-log.entries.failed", failed, AtomicLong::get)
+                .description("Time entries the database refused").register(registry);
+    }
+}
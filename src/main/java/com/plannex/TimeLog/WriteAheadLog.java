@@ -0,0 +1,257 @@
+package com.plannex.TimeLog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Time entries not yet known to be in the database, in memory-mapped segment files in one directory.
+// A segment is named after the sequence of its first entry and holds records of
+//   int length | int CRC32C of the body | body: sequence, idempotency key, project, task, subtask, username, hours, when
+// one after another; the length is written last, so a record cut short reads as the end. The file "checkpoint" holds
+// the last sequence in the database: opening the log returns the entries after it, and segments wholly before it are
+// deleted. Appending to mapped memory survives the process crashing; force() also gets it past a power cut, and so does
+// starting a new segment for the one it follows.
+// Not thread-safe: TimeLog appends under its lock and its writer is the only one to checkpoint.
+public final class WriteAheadLog implements Closeable {
+    private static final String SUFFIX = ".wal";
+    private static final String CHECKPOINT = "checkpoint";
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_BODY_BYTES = 1024; // Keys and usernames are short
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final MappedByteBuffer checkpointFile;
+    private final TreeMap<Long, Path> segments = new TreeMap<>(); // By first sequence
+    private final List<TimeEntry> recovered = new ArrayList<>();
+    private final ByteBuffer body;
+    private MappedByteBuffer segment;
+    private long nextSequence;
+    private long checkpoint;
+    private long forcedSequence;
+
+    public WriteAheadLog(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.body = ByteBuffer.allocate(MAX_BODY_BYTES);
+        try {
+            Files.createDirectories(directory);
+            try (FileChannel channel = FileChannel.open(directory.resolve(CHECKPOINT), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                checkpointFile = channel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+            }
+            checkpoint = checkpointFile.getLong(0);
+            nextSequence = checkpoint + 1;
+            recover();
+            forcedSequence = nextSequence - 1; // Recovered from disk
+            startSegment(); // Appends never go into a recovered segment, whose end may be torn
+        } catch (IOException ioe) {
+            throw new UncheckedIOException("Could not open the time log in " + directory, ioe);
+        }
+    }
+
+    // The entries after the checkpoint, as they were when the log was opened, oldest first
+    public List<TimeEntry> recovered() {
+        return recovered;
+    }
+
+    // Gives the entry the next sequence, writes it and returns it with that sequence
+    public TimeEntry append(TimeEntry entry) {
+        TimeEntry sequenced = entry.withSequence(nextSequence);
+        body.clear();
+        encode(sequenced, body);
+        body.flip();
+        if (segment.remaining() < HEADER_BYTES + body.remaining()) {
+            startSegment();
+        }
+
+        int start = segment.position();
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        segment.position(start + HEADER_BYTES);
+        segment.put(body);
+        segment.putInt(start + Integer.BYTES, (int) crc.getValue());
+        segment.putInt(start, segment.position() - start - HEADER_BYTES);
+        nextSequence++;
+        return sequenced;
+    }
+
+    // Everything up to and including the sequence is in the database
+    public void checkpoint(long sequence) {
+        checkpoint = sequence;
+        checkpointFile.putLong(0, sequence);
+
+        // A segment is done with once the next one starts at or before the sequence after the checkpoint
+        Map.Entry<Long, Path> next;
+        while (segments.size() > 1 && (next = segments.higherEntry(segments.firstKey())).getKey() <= sequence + 1) {
+            delete(segments.pollFirstEntry().getValue());
+        }
+    }
+
+    public void force() {
+        segment.force();
+        checkpointFile.force();
+        forcedSequence = nextSequence - 1;
+    }
+
+    // Every entry up to and including this sequence is on disk
+    public long getForcedSequence() {
+        return forcedSequence;
+    }
+
+    public long getCheckpoint() {
+        return checkpoint;
+    }
+
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    // Once everything is in the database the files are of no more use, and go, and so does the directory if empty
+    @Override
+    public void close() {
+        if (checkpoint == nextSequence - 1) {
+            segments.values().forEach(WriteAheadLog::delete);
+            segments.clear();
+            delete(directory.resolve(CHECKPOINT));
+            delete(directory);
+        } else {
+            force();
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+
+        for (Path file : files) {
+            long firstSequence = Long.parseLong(file.getFileName().toString().replace(SUFFIX, ""));
+            List<TimeEntry> entries = read(file);
+            if (entries.isEmpty() || entries.getLast().sequence() <= checkpoint) {
+                delete(file);
+                continue;
+            }
+
+            segments.put(firstSequence, file);
+            for (TimeEntry entry : entries) {
+                if (entry.sequence() > checkpoint) {
+                    recovered.add(entry);
+                }
+            }
+            nextSequence = Math.max(nextSequence, entries.getLast().sequence() + 1);
+        }
+    }
+
+    // The intact records in order, stopping at the end, at a torn record or at one out of sequence
+    private static List<TimeEntry> read(Path file) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        List<TimeEntry> entries = new ArrayList<>();
+        while (mapped.remaining() >= HEADER_BYTES) {
+            int length = mapped.getInt();
+            int expectedCrc = mapped.getInt();
+            if (length <= 0 || length > mapped.remaining()) {
+                break;
+            }
+
+            ByteBuffer record = mapped.slice(mapped.position(), length);
+            CRC32C crc = new CRC32C();
+            crc.update(record.duplicate());
+            if ((int) crc.getValue() != expectedCrc) {
+                break;
+            }
+
+            TimeEntry entry;
+            try {
+                entry = decode(record);
+            } catch (BufferUnderflowException bue) {
+                break;
+            }
+            if (!entries.isEmpty() && entry.sequence() != entries.getLast().sequence() + 1) {
+                break;
+            }
+            entries.add(entry);
+            mapped.position(mapped.position() + length);
+        }
+        return entries;
+    }
+
+    private void startSegment() {
+        if (segment != null) {
+            segment.force(); // Never forced again once replaced
+            forcedSequence = nextSequence - 1;
+        }
+
+        Path file = directory.resolve(String.format("%020d", nextSequence) + SUFFIX);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes); // Stays mapped after the channel closes
+        } catch (IOException ioe) {
+            throw new UncheckedIOException("Could not start a time log segment in " + directory, ioe);
+        }
+        segments.put(nextSequence, file);
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Still mapped on some systems, or the directory is not empty; opening the log again cleans up
+        }
+    }
+
+    private static void encode(TimeEntry entry, ByteBuffer buffer) {
+        buffer.putLong(entry.sequence());
+        putString(buffer, entry.idempotencyKey());
+        buffer.putInt(entry.projectID());
+        buffer.putInt(entry.taskID());
+        buffer.putInt(entry.subtaskID());
+        putString(buffer, entry.username());
+        buffer.putFloat(entry.hours());
+        LocalDateTime when = entry.when();
+        buffer.putLong(ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), when));
+    }
+
+    private static TimeEntry decode(ByteBuffer buffer) {
+        long sequence = buffer.getLong();
+        String idempotencyKey = getString(buffer);
+        int projectID = buffer.getInt();
+        int taskID = buffer.getInt();
+        int subtaskID = buffer.getInt();
+        String username = getString(buffer);
+        float hours = buffer.getFloat();
+        LocalDateTime when = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC).plus(buffer.getLong(), ChronoUnit.MICROS);
+        return new TimeEntry(sequence, idempotencyKey, projectID, taskID, subtaskID, username, hours, when);
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
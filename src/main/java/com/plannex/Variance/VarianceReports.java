@@ -0,0 +1,252 @@
+package com.plannex.Variance;
+
+import com.plannex.Event.EmployeeChanged;
+import com.plannex.Event.TaskPlanChanged;
+import com.plannex.Event.TimeContributed;
+import com.plannex.Event.TimeSpentChanged;
+import com.plannex.Model.EmployeeBias;
+import com.plannex.Model.ProjectVariance;
+import com.plannex.Model.TaskVariance;
+import com.plannex.Model.VarianceReport;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+// The estimate-versus-actual report over every project. The visible project IDs are split in chunks of
+// plannex.variance.partition-size, each read with one grouped query from its first to its last ID (the hours of every
+// task and subtask by employee) and turned into its projects' variances and its share of the employees' biases. The
+// chunks run on a ForkJoin pool of plannex.variance.parallelism threads, which also bounds the connections taken, and
+// the halves are merged on the way back up.
+// The report is kept until something it depends on changes: hours logged or changed, the plan edited or an employee
+// renamed, each counted once committed, so a report computed meanwhile without the change is not kept. Only one report
+// is computed at a time; who asks meanwhile waits for it.
+@Component
+public class VarianceReports implements DisposableBean {
+    private record Cached(long changes, VarianceReport report) { }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int partitionSize;
+    private final ForkJoinPool pool;
+    private final AtomicLong changes = new AtomicLong();
+    private final Object computing = new Object();
+    private volatile Cached cached;
+
+    public VarianceReports(JdbcTemplate jdbcTemplate,
+                           @Value("${plannex.variance.partition-size:250}") int partitionSize,
+                           @Value("${plannex.variance.parallelism:4}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionSize = partitionSize;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public VarianceReport getReport() {
+        Cached current = cached;
+        if (current != null && current.changes() == changes.get()) {
+            return current.report();
+        }
+
+        synchronized (computing) {
+            current = cached;
+            long changesBefore = changes.get();
+            if (current != null && current.changes() == changesBefore) {
+                return current.report(); // Computed while this waited
+            }
+
+            VarianceReport report = compute();
+            cached = new Cached(changesBefore, report); // Computed again next time if anything changed meanwhile
+            return report;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(TimeContributed contribution) {
+        changed();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(TimeSpentChanged change) {
+        changed();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(TaskPlanChanged change) {
+        changed();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(EmployeeChanged change) {
+        changed();
+    }
+
+    public void changed() {
+        changes.incrementAndGet();
+    }
+
+    private VarianceReport compute() {
+        long started = System.nanoTime();
+        // The IDs themselves rather than MIN..MAX, whose gaps (purged and deleted projects) would make empty chunks
+        int[] projectIDs = jdbcTemplate.queryForList("SELECT ProjectID FROM VisibleProjects ORDER BY ProjectID;", Integer.class)
+                .stream().mapToInt(Integer::intValue).toArray();
+        int chunks = (projectIDs.length + partitionSize - 1) / partitionSize;
+        Partial all = chunks == 0 ? new Partial() : pool.invoke(new Chunks(projectIDs, 0, chunks - 1));
+
+        all.projects.sort(Comparator.comparingDouble(ProjectVariance::hoursOver).reversed());
+        List<EmployeeBias> employees = new ArrayList<>(all.biases.size());
+        all.biases.forEach((username, bias) -> employees.add(new EmployeeBias(username, bias.subtasks, bias.estimateHours, bias.actualHours)));
+        employees.sort(Comparator.comparingDouble((EmployeeBias bias) -> Math.abs(Math.log(bias.bias()))).reversed());
+        return new VarianceReport(all.projects, all.tasksByProject, employees, LocalDateTime.now(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // What one chunk of projects adds up to
+    private static final class Partial {
+        final List<ProjectVariance> projects = new ArrayList<>();
+        final Map<Integer, List<TaskVariance>> tasksByProject = new HashMap<>();
+        final Map<String, Bias> biases = new HashMap<>();
+
+        Partial merge(Partial other) {
+            projects.addAll(other.projects);
+            tasksByProject.putAll(other.tasksByProject);
+            other.biases.forEach((username, bias) -> biases.merge(username, bias, Bias::add));
+            return this;
+        }
+    }
+
+    private static final class Bias {
+        int subtasks;
+        double estimateHours;
+        double actualHours;
+
+        Bias add(Bias other) {
+            subtasks += other.subtasks;
+            estimateHours += other.estimateHours;
+            actualHours += other.actualHours;
+            return this;
+        }
+    }
+
+    // A task or subtask while its rows come in
+    private static final class TaskHours {
+        final int projectID;
+        final String projectTitle;
+        final int taskID;
+        final int parentTaskID;
+        final String taskTitle;
+        final float estimateHours;
+        double actualHours;
+        final Map<String, Double> byEmployee = new HashMap<>();
+
+        TaskHours(int projectID, String projectTitle, int taskID, int parentTaskID, String taskTitle, float estimateHours) {
+            this.projectID = projectID;
+            this.projectTitle = projectTitle;
+            this.taskID = taskID;
+            this.parentTaskID = parentTaskID;
+            this.taskTitle = taskTitle;
+            this.estimateHours = estimateHours;
+        }
+
+        TaskVariance toVariance() {
+            return new TaskVariance(projectID, taskID, parentTaskID, taskTitle, estimateHours, actualHours);
+        }
+    }
+
+    // Chunks first to last of the sorted project IDs, partitionSize IDs each but the last
+    private final class Chunks extends RecursiveTask<Partial> {
+        private final int[] projectIDs;
+        private final int first;
+        private final int last;
+
+        Chunks(int[] projectIDs, int first, int last) {
+            this.projectIDs = projectIDs;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (first == last) {
+                int end = Math.min((first + 1) * partitionSize, projectIDs.length);
+                return read(projectIDs[first * partitionSize], projectIDs[end - 1]);
+            }
+
+            int middle = (first + last) >>> 1;
+            Chunks upper = new Chunks(projectIDs, middle + 1, last);
+            upper.fork();
+            return new Chunks(projectIDs, first, middle).compute().merge(upper.join());
+        }
+    }
+
+    private Partial read(int firstProjectID, int lastProjectID) {
+        Map<Integer, TaskHours> tasks = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+                SELECT t.ProjectID, p.ProjectTitle, t.TaskID, t.ParentTaskID, t.TaskTitle, t.TaskDurationHours, ts.ByEmployee, SUM(ts.HoursSpent) AS Hours
+                FROM VisibleTasks AS t JOIN Projects AS p ON p.ProjectID = t.ProjectID
+                LEFT JOIN TimeSpent AS ts ON ts.OnTaskID = t.TaskID
+                WHERE t.ProjectID BETWEEN ? AND ?
+                GROUP BY t.ProjectID, p.ProjectTitle, t.TaskID, t.ParentTaskID, t.TaskTitle, t.TaskDurationHours, ts.ByEmployee
+                ORDER BY t.TaskID;""", rs -> {
+            int taskID = rs.getInt("TaskID");
+            TaskHours task = tasks.get(taskID);
+            if (task == null) {
+                task = new TaskHours(rs.getInt("ProjectID"), rs.getString("ProjectTitle"), taskID, rs.getInt("ParentTaskID"),
+                        rs.getString("TaskTitle"), rs.getFloat("TaskDurationHours"));
+                tasks.put(taskID, task);
+            }
+            String username = rs.getString("ByEmployee"); // Null for a task or subtask without hours
+            if (username != null) {
+                double hours = rs.getDouble("Hours");
+                task.actualHours += hours;
+                task.byEmployee.merge(username, hours, Double::sum);
+            }
+        }, firstProjectID, lastProjectID);
+
+        // Only subtasks have hours; a task's are its subtasks'
+        Partial partial = new Partial();
+        for (TaskHours subtask : tasks.values()) {
+            if (subtask.parentTaskID == 0) {
+                continue;
+            }
+
+            TaskHours task = tasks.get(subtask.parentTaskID);
+            if (task != null) {
+                task.actualHours += subtask.actualHours;
+            }
+            if (subtask.estimateHours > 0 && subtask.actualHours > 0) {
+                subtask.byEmployee.forEach((username, hours) -> {
+                    Bias bias = partial.biases.computeIfAbsent(username, name -> new Bias());
+                    bias.subtasks++;
+                    bias.estimateHours += subtask.estimateHours * hours / subtask.actualHours;
+                    bias.actualHours += hours;
+                });
+            }
+        }
+
+        Map<Integer, String> projectTitles = new HashMap<>();
+        for (TaskHours task : tasks.values()) {
+            partial.tasksByProject.computeIfAbsent(task.projectID, id -> new ArrayList<>()).add(task.toVariance());
+            projectTitles.putIfAbsent(task.projectID, task.projectTitle);
+        }
+        partial.tasksByProject.forEach((projectID, variances) -> partial.projects.add(new ProjectVariance(projectID, projectTitles.get(projectID),
+                variances.stream().filter(task -> !task.isSubtask()).mapToDouble(TaskVariance::estimateHours).sum(),
+                variances.stream().filter(task -> !task.isSubtask()).mapToDouble(TaskVariance::actualHours).sum(),
+                variances.size(), (int) variances.stream().filter(TaskVariance::isOverrun).count())));
+        return partial;
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+}
@@ -6,10 +6,10 @@ INSERT INTO Projects (ProjectID, ProjectTitle, ProjectDescription, ProjectStart,
                                                                                                  (4, 'Calculator SaaS', 'Our customers desparately want a calculator stored in the cloud, this is our answer to their prayers.\nIn essence, it is an expression lexer, parser and evaluator. It is to support:\n* Parenthesized expressions\n* User-defined and built in functions\n* Testable components', '20260101', '20260108');
 
 INSERT INTO ProjectEmployees (EmployeeUsername, EmployeeName, EmployeeEmail, EmployeePassword, EmployeeWorkingHoursFrom, EmployeeWorkingHoursTo) VALUES
-                                                                                                                                                     ('lildawg', 'Max-Emil', 'MES@gmail.com', 'fAbc#21Y', '08:00:00', '16:00:00'),
-                                                                                                                                                     ('bigdawg', 'Max', 'MRK@gmail.com', '0uFF!nÆr','08:00:00', '16:00:00'),
-                                                                                                                                                     ('marqs', 'Markus', 'MBR@gmail.com', 'HhQEsN4t','08:00:00', '16:00:00'),
-                                                                                                                                                     ('RandomWorker', 'Random', 'RW@gmail.com', 'notSecure','08:00:00', '16:00:00');
+                                                                                                                                                     ('lildawg', 'Max-Emil', 'MES@gmail.com', 'pbkdf2-sha256$1000$WlP0+wq94qrRD1YSSsRCTw$Oqvqph7q9sX2fiMgF3ITVWXgzeunJ2cYKTwryngSTTY', '08:00:00', '16:00:00'),
+                                                                                                                                                     ('bigdawg', 'Max', 'MRK@gmail.com', 'pbkdf2-sha256$1000$oBhmFra16m5UNAXYIByHXw$ycklX1THCnrUtp8VLmQpqBhhBEESP065p0VJSDFToLE','08:00:00', '16:00:00'),
+                                                                                                                                                     ('marqs', 'Markus', 'MBR@gmail.com', 'pbkdf2-sha256$1000$RcsneDQsZ4+1iNSLxnEygw$8kJw1li55LJR0shg50sTl65fgNdnWl0PKGNksOBhCos','08:00:00', '16:00:00'),
+                                                                                                                                                     ('RandomWorker', 'Random', 'RW@gmail.com', 'pbkdf2-sha256$1000$SK3ZrgGigxDX2zaZjTeIXg$YASdiUtED961lmmm9/t9PGD/rtG5sPriySbrNB1sUaE','08:00:00', '16:00:00');
 
 INSERT INTO Permissions (PermissionTitle, PermissionHolder) VALUES
                                                                 ('Manager', 'lildawg'),
@@ -109,4 +109,20 @@ INSERT INTO EmployeeSkills (EmployeeUsername, SkillTitle, SkillLevel) VALUES
                                                                           ('marqs', 'Leadership', 'Intermediate'),
                                                                           ('bigdawg', 'Business Degree', 'Intermediate'),
                                                                           ('lildawg', 'Java-Coder', 'Expert'),
-                                                                          ('RandomWorker', 'C#-Coder', 'Intermediate');
\ No newline at end of file
+                                                                          ('RandomWorker', 'C#-Coder', 'Intermediate');
+
+INSERT INTO OrgUnits (OrgUnitID, UnitKind, UnitTitle, UnitDescription, ParentUnitID) VALUES
+                                                                                       (1, 'Department', 'Engineering', 'Builds and runs what we sell.', NULL),
+                                                                                       (2, 'Team', 'Backend', 'Services, the database and everything behind them.', 1),
+                                                                                       (3, 'Team', 'Frontend', 'What the customer sees.', 1),
+                                                                                       (4, 'Department', 'Management', 'Plans the projects and keeps them on track.', NULL);
+
+INSERT INTO OrgUnitClosure (AncestorID, DescendantID, Depth) VALUES
+                                                                 (1, 1, 0), (2, 2, 0), (3, 3, 0), (4, 4, 0),
+                                                                 (1, 2, 1), (1, 3, 1);
+
+INSERT INTO OrgUnitMembers (EmployeeUsername, OrgUnitID) VALUES
+                                                             ('marqs', 2),
+                                                             ('RandomWorker', 2),
+                                                             ('bigdawg', 3),
+                                                             ('lildawg', 4);
@@ -1,7 +1,13 @@
--- ensure DB is clean
-DROP ALL OBJECTS;
-
--- now create tables in default PUBLIC schema
+-- ensure DB is clean. Table by table rather than DROP ALL OBJECTS, which can leave the schema locked in H2 when another
+-- connection (the audit writer) runs an INSERT at the same moment
+DROP TABLE IF EXISTS SPRING_SESSION_ATTRIBUTES;
+DROP TABLE IF EXISTS SPRING_SESSION;
+DROP VIEW IF EXISTS VisibleTasks;
+DROP VIEW IF EXISTS VisibleProjects;
+DROP TABLE IF EXISTS OrgUnitMembers;
+DROP TABLE IF EXISTS OrgUnitClosure;
+DROP TABLE IF EXISTS OrgUnits;
+DROP TABLE IF EXISTS Comments;
 DROP TABLE IF EXISTS TaskDependencies;
 DROP TABLE IF EXISTS TaskAssignees;
 DROP TABLE IF EXISTS Artifacts;
@@ -12,13 +18,18 @@ DROP TABLE IF EXISTS Permissions;
 DROP TABLE IF EXISTS EmployeeSkills;
 DROP TABLE IF EXISTS Skills;
 DROP TABLE IF EXISTS ProjectEmployees;
+DROP TABLE IF EXISTS AuditLog;
 
 CREATE TABLE IF NOT EXISTS Projects (
                                         ProjectID INT PRIMARY KEY AUTO_INCREMENT,
                                         ProjectTitle TEXT,
                                         ProjectDescription TEXT,
                                         ProjectStart DATE,
-                                        ProjectEnd DATE
+                                        ProjectEnd DATE,
+                                        CommentCount INT NOT NULL DEFAULT 0, -- Comments on all its tasks and subtasks, kept by CommentRepository
+                                        Version INT NOT NULL DEFAULT 0, -- One up with every edit, which is only made to the version it was read at
+                                        DeletedAt DATETIME NULL, -- Hidden from then on, and purged once plannex.purge.grace-period has passed
+                                        INDEX ProjectsByDeletedAt (DeletedAt)
 );
 
 CREATE TABLE IF NOT EXISTS ProjectEmployees (
@@ -46,10 +57,25 @@ CREATE TABLE IF NOT EXISTS Tasks (
                                      TaskStart DATE,
                                      TaskEnd DATE,
                                      TaskDurationHours FLOAT,
+                                     CommentCount INT NOT NULL DEFAULT 0, -- Comments on it and, for a task, on its subtasks; kept by CommentRepository
+                                     Version INT NOT NULL DEFAULT 0, -- As for Projects
+                                     DeletedAt DATETIME NULL, -- As for Projects; a task's subtasks are deleted at the same time as it
+                                     INDEX TasksByDeletedAt (DeletedAt),
                                      FOREIGN KEY (ProjectID) REFERENCES Projects(ProjectID) ON DELETE CASCADE,
                                      FOREIGN KEY (ParentTaskID) REFERENCES Tasks(TaskID) ON DELETE CASCADE
 );
 
+-- What every repository reads instead of Projects and Tasks: deleting only sets DeletedAt, so a big project disappears
+-- at once, and Purger deletes it and everything under it later, in small batches. A task of a deleted project is hidden
+-- with it; a deleted task's subtasks are marked along with it.
+CREATE VIEW VisibleProjects AS
+    SELECT * FROM Projects WHERE DeletedAt IS NULL;
+
+CREATE VIEW VisibleTasks AS
+    SELECT t.* FROM Tasks AS t
+    JOIN Projects AS p ON p.ProjectID = t.ProjectID
+    WHERE t.DeletedAt IS NULL AND p.DeletedAt IS NULL;
+
 CREATE TABLE IF NOT EXISTS TaskDependencies (
                                                 TaskIDFor INT,
                                                 MustComeAfterTaskWithID INT,
@@ -66,12 +92,16 @@ CREATE TABLE IF NOT EXISTS TaskAssignees (
                                              FOREIGN KEY (TaskID) REFERENCES Tasks(TaskID) ON DELETE CASCADE
 );
 
+-- TimeSpentByWhen lets the analytics snapshot (com.plannex.Analytics) read only the entries logged since its last refresh.
 CREATE TABLE IF NOT EXISTS TimeSpent (
                                          OnTaskID INT,
                                          ByEmployee VARCHAR(16),
                                          HoursSpent FLOAT,
-                                         _When DATETIME,
+                                         _When DATETIME(6),
+                                         IdempotencyKey VARCHAR(36),
                                          PRIMARY KEY (ByEmployee, _When),
+                                         UNIQUE (IdempotencyKey),
+                                         INDEX TimeSpentByWhen (_When),
                                          FOREIGN KEY (OnTaskID) REFERENCES Tasks(TaskID) ON DELETE CASCADE,
                                          FOREIGN KEY (ByEmployee) REFERENCES ProjectEmployees(EmployeeUsername) ON DELETE CASCADE ON UPDATE CASCADE
 );
@@ -96,4 +126,61 @@ CREATE TABLE IF NOT EXISTS EmployeeSkills (
     PRIMARY KEY (EmployeeUsername, SkillTitle),
     FOREIGN KEY (EmployeeUsername) REFERENCES ProjectEmployees(EmployeeUsername) ON DELETE CASCADE ON UPDATE CASCADE,
     FOREIGN KEY (SkillTitle) REFERENCES Skills(SkillTitle) ON DELETE CASCADE ON UPDATE CASCADE
-    );
\ No newline at end of file
+    );
+
+-- Newest first by CommentID, so a page of a task's comments is one range scan of CommentsByTask.
+-- A deleted author leaves the comment behind, keeping the counts on Tasks and Projects true.
+CREATE TABLE IF NOT EXISTS Comments (
+    CommentID INT PRIMARY KEY AUTO_INCREMENT,
+    TaskID INT NOT NULL,
+    CommentAuthor VARCHAR(16) NULL,
+    CommentTitle VARCHAR(128),
+    CommentText TEXT,
+    PostedAt DATETIME,
+    INDEX CommentsByTask (TaskID, CommentID),
+    FOREIGN KEY (TaskID) REFERENCES Tasks(TaskID) ON DELETE CASCADE,
+    FOREIGN KEY (CommentAuthor) REFERENCES ProjectEmployees(EmployeeUsername) ON DELETE SET NULL ON UPDATE CASCADE
+);
+
+-- Departments and teams. OrgUnitClosure holds every (ancestor, descendant) pair, each unit being its own ancestor at
+-- depth 0, so everything under a unit is one lookup of its AncestorID, never a recursive query.
+CREATE TABLE IF NOT EXISTS OrgUnits (
+    OrgUnitID INT PRIMARY KEY AUTO_INCREMENT,
+    UnitKind ENUM('Department', 'Team') NOT NULL,
+    UnitTitle VARCHAR(64) NOT NULL,
+    UnitDescription TEXT,
+    ParentUnitID INT NULL,
+    FOREIGN KEY (ParentUnitID) REFERENCES OrgUnits(OrgUnitID) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS OrgUnitClosure (
+    AncestorID INT,
+    DescendantID INT,
+    Depth INT NOT NULL,
+    PRIMARY KEY (AncestorID, DescendantID),
+    INDEX OrgUnitClosureByDescendant (DescendantID, AncestorID),
+    FOREIGN KEY (AncestorID) REFERENCES OrgUnits(OrgUnitID) ON DELETE CASCADE,
+    FOREIGN KEY (DescendantID) REFERENCES OrgUnits(OrgUnitID) ON DELETE CASCADE
+);
+
+-- An employee is in at most one department or team
+CREATE TABLE IF NOT EXISTS OrgUnitMembers (
+    EmployeeUsername VARCHAR(16) PRIMARY KEY,
+    OrgUnitID INT NOT NULL,
+    INDEX OrgUnitMembersByUnit (OrgUnitID, EmployeeUsername),
+    FOREIGN KEY (EmployeeUsername) REFERENCES ProjectEmployees(EmployeeUsername) ON DELETE CASCADE ON UPDATE CASCADE,
+    FOREIGN KEY (OrgUnitID) REFERENCES OrgUnits(OrgUnitID) ON DELETE CASCADE
+);
+
+-- Append-only: no foreign keys, so the trail outlives what it describes. Written in batches by AuditLog.
+CREATE TABLE IF NOT EXISTS AuditLog (
+    AuditID BIGINT AUTO_INCREMENT PRIMARY KEY,
+    OccurredAt DATETIME(3) NOT NULL,
+    Actor VARCHAR(16) NOT NULL,
+    Action VARCHAR(6) NOT NULL,
+    Entity VARCHAR(32) NOT NULL,
+    EntityKey VARCHAR(255) NOT NULL,
+    BeforeValue TEXT,
+    AfterValue TEXT,
+    INDEX AuditLogByEntity (Entity, EntityKey)
+);
@@ -0,0 +1,30 @@
+// Fills in a project's completion forecast (from ForecastController) once the page has loaded, so the simulation
+// never holds up the page after an edit has dropped the cached forecast.
+//   <div data-forecast="/projects/3/forecast" hidden>  shown once filled in; stays hidden for a project without tasks
+//   <strong data-forecast-date="p80">                  the forecast's p50, p80, p95 or plannedEnd; forecast-late if after the planned end
+//   <p data-forecast-note>                            the chance of finishing on time and what it is based on
+(function () {
+    const forecastBox = document.querySelector("[data-forecast]");
+    if (!forecastBox) {
+        return;
+    }
+
+    fetch(forecastBox.dataset.forecast, { headers: { "Accept": "application/json" } })
+        .then(response => response.ok ? response.json() : null)
+        .then(forecast => {
+            if (!forecast || forecast.tasks === 0) {
+                return;
+            }
+
+            forecastBox.querySelectorAll("[data-forecast-date]").forEach(date => {
+                const day = forecast[date.dataset.forecastDate];
+                date.textContent = day;
+                date.classList.toggle("forecast-late", day > forecast.plannedEnd); // ISO dates compare as strings
+            });
+            forecastBox.querySelector("[data-forecast-note]").textContent = Math.round(forecast.onTimeProbability * 100)
+                + "% chance of finishing by the planned end, from " + forecast.runs + " simulated runs with the hours of "
+                + forecast.historySamples + " finished subtasks.";
+            forecastBox.hidden = false;
+        })
+        .catch(() => { }); // The page is whole without it
+})();
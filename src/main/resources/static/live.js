@@ -0,0 +1,86 @@
+// Applies the live changes to a project (from ProjectEventController) to the page showing it, so a change someone
+// else makes shows up without reloading.
+//   <body data-live="/projects/3/events">            subscribes to project 3's changes
+//   <body ... data-live-subtask="7">                 only changes to subtask 7 apply
+//   <span data-live-hours data-hours="1.5">          hours spent in all, shown rounded, followed by data-unit if any
+//   <span data-live-task-hours="5" data-hours="2">   hours spent on task 5 and its subtasks
+//   <span data-live-workers>                         how many workers the subtask has
+//   <div data-live-assignees>                        a line per worker (data-username), added and removed as they change
+//   <div data-live-artifacts>                        a line per artifact, added as they come
+// A page that fell behind gets a "resync" event and reloads.
+(function () {
+    const url = document.body.dataset.live;
+    if (!url || !window.EventSource) {
+        return;
+    }
+
+    const subtaskID = document.body.dataset.liveSubtask;
+    const events = new EventSource(url);
+
+    function on(name, apply) {
+        events.addEventListener(name, event => {
+            const change = JSON.parse(event.data);
+            if (!subtaskID || String(change.subtaskID) === subtaskID) {
+                apply(change);
+            }
+        });
+    }
+
+    function addHours(element, hours) {
+        const total = parseFloat(element.dataset.hours || "0") + hours;
+        element.dataset.hours = String(total);
+        element.textContent = Math.round(total) + (element.dataset.unit || "");
+    }
+
+    function line(list, icon, text) {
+        const empty = list.querySelector(".empty-text");
+        if (empty) {
+            empty.remove();
+        }
+
+        const item = document.createElement("p");
+        if (icon) {
+            const i = document.createElement("i");
+            i.className = "fa " + icon;
+            item.append(i, " ");
+        }
+        item.append(text);
+        list.append(item);
+        return item;
+    }
+
+    function countWorkers() {
+        const list = document.querySelector("[data-live-assignees]");
+        if (!list) {
+            return;
+        }
+        document.querySelectorAll("[data-live-workers]").forEach(count => {
+            count.textContent = list.querySelectorAll("[data-username]").length + " workers";
+        });
+    }
+
+    on("time-contributed", change => {
+        document.querySelectorAll("[data-live-hours]").forEach(element => addHours(element, change.hours));
+        document.querySelectorAll("[data-live-task-hours='" + change.taskID + "']").forEach(element => addHours(element, change.hours));
+    });
+
+    on("worker-assigned", change => {
+        document.querySelectorAll("[data-live-assignees]").forEach(list => {
+            if (!list.querySelector("[data-username='" + CSS.escape(change.username) + "']")) {
+                line(list, "fa-user", change.username).dataset.username = change.username;
+            }
+        });
+        countWorkers();
+    });
+
+    on("worker-unassigned", change => {
+        document.querySelectorAll("[data-live-assignees] [data-username='" + CSS.escape(change.username) + "']").forEach(item => item.remove());
+        countWorkers();
+    });
+
+    on("artifact-added", change => {
+        document.querySelectorAll("[data-live-artifacts]").forEach(list => line(list, null, change.path + " uploaded by " + change.username));
+    });
+
+    events.addEventListener("resync", () => location.reload());
+})();
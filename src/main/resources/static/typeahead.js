@@ -0,0 +1,73 @@
+// Suggestions while typing, from the /typeahead endpoints.
+//   <input data-typeahead="/typeahead/skills" list="skills">  fills the datalist with matching skill titles.
+//   <input data-typeahead="/typeahead/employees" data-pick-into="id">  lists matching employees under the field;
+//   picking one adds a ticked usernames checkbox to the element with that id.
+(function () {
+    const DELAY_MS = 120;
+
+    function suggest(input, render) {
+        let timer;
+        let latest = 0;
+        input.addEventListener("input", () => {
+            clearTimeout(timer);
+            timer = setTimeout(() => {
+                const request = ++latest;
+                const url = input.dataset.typeahead + (input.dataset.typeahead.includes("?") ? "&" : "?") + "q=" + encodeURIComponent(input.value);
+                fetch(url, { headers: { "Accept": "application/json" } })
+                    .then(response => response.ok ? response.json() : [])
+                    .then(suggestions => { if (request === latest) render(suggestions); }); // Drop answers overtaken by later typing
+            }, DELAY_MS);
+        });
+    }
+
+    function fillDatalist(input) {
+        const datalist = document.getElementById(input.getAttribute("list"));
+        suggest(input, titles => datalist.replaceChildren(...titles.map(title => new Option(title))));
+    }
+
+    function offerPicks(input) {
+        const target = document.getElementById(input.dataset.pickInto);
+        const list = document.createElement("ul");
+        list.className = "typeahead-picks";
+        input.after(list);
+
+        suggest(input, employees => list.replaceChildren(...employees.map(employee => {
+            const item = document.createElement("li");
+            const pick = document.createElement("button");
+            pick.type = "button";
+            pick.textContent = employee.employeeName + " (" + employee.employeeUsername + ")";
+            pick.addEventListener("click", () => {
+                addCheckbox(target, employee);
+                input.value = "";
+                list.replaceChildren();
+            });
+            item.append(pick);
+            return item;
+        })));
+    }
+
+    function addCheckbox(target, employee) {
+        const existing = [...target.querySelectorAll("input[name=usernames]")].find(box => box.value === employee.employeeUsername);
+        if (existing) {
+            existing.checked = true;
+            return;
+        }
+
+        const row = document.createElement("div");
+        row.className = "checkbox-column";
+        const label = document.createElement("label");
+        label.className = "checkbox-row";
+        const box = document.createElement("input");
+        box.type = "checkbox";
+        box.name = "usernames";
+        box.value = employee.employeeUsername;
+        box.checked = true;
+        const name = document.createElement("span");
+        name.textContent = employee.employeeName;
+        label.append(box, name);
+        row.append(label);
+        target.append(row);
+    }
+
+    document.querySelectorAll("input[data-typeahead]").forEach(input => input.dataset.pickInto ? offerPicks(input) : fillDatalist(input));
+})();
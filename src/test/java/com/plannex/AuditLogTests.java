@@ -0,0 +1,212 @@
+package com.plannex;
+
+import com.plannex.Audit.AuditLog;
+import com.plannex.Model.ProjectEmployee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuditLogTests {
+    private static final AtomicInteger databases = new AtomicInteger();
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate transactions;
+    private final List<AuditLog> auditLogs = new ArrayList<>();
+
+    @BeforeEach
+    void createDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:audit-" + databases.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schemah2.sql")).execute(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void stopWriters() throws InterruptedException {
+        RequestContextHolder.resetRequestAttributes();
+        for (AuditLog auditLog : auditLogs) {
+            auditLog.destroy();
+        }
+    }
+
+    private AuditLog auditLog(int capacity, int batchSize, Duration flushInterval, AuditLog.WhenFull whenFull) {
+        AuditLog auditLog = new AuditLog(jdbc, true, capacity, batchSize, flushInterval, whenFull, Duration.ofSeconds(10));
+        auditLogs.add(auditLog);
+        return auditLog;
+    }
+
+    private int rows() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM AuditLog", Integer.class);
+    }
+
+    private void awaitRows(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (rows() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, rows());
+    }
+
+    @Test
+    public void aFullBatchIsWrittenWithoutWaitingForTheFlushInterval() throws InterruptedException {
+        AuditLog auditLog = auditLog(64, 4, NEVER, AuditLog.WhenFull.BLOCK);
+        for (int i = 0; i < 8; i++) {
+            auditLog.created("Skill", "Skill " + i, AuditLog.values("skillTitle", "Skill " + i));
+        }
+
+        awaitRows(8);
+        assertEquals(8, auditLog.getWrittenCount());
+    }
+
+    @Test
+    public void aPartBatchIsWrittenAfterTheFlushInterval() throws InterruptedException {
+        AuditLog auditLog = auditLog(64, 100, Duration.ofMillis(20), AuditLog.WhenFull.BLOCK);
+        auditLog.deleted("Project", 3, AuditLog.values("projectTitle", "Old"));
+
+        awaitRows(1);
+        Map<String, Object> row = jdbc.queryForMap("SELECT * FROM AuditLog");
+        assertEquals("DELETE", row.get("Action"));
+        assertEquals("Project", row.get("Entity"));
+        assertEquals("3", row.get("EntityKey"));
+        assertEquals("{\"projectTitle\":\"Old\"}", row.get("BeforeValue"));
+        assertNull(row.get("AfterValue"));
+    }
+
+    @Test
+    public void shuttingDownWritesWhatIsBuffered() throws InterruptedException {
+        AuditLog auditLog = auditLog(64, 100, NEVER, AuditLog.WhenFull.BLOCK);
+        for (int i = 0; i < 10; i++) {
+            auditLog.updated("Task", i, AuditLog.values("taskTitle", "a"), AuditLog.values("taskTitle", "b"));
+        }
+
+        auditLog.destroy();
+        assertEquals(10, rows());
+        assertEquals(0, auditLog.getBufferedCount());
+
+        auditLog.created("Task", 11, AuditLog.values("taskTitle", "c")); // After shutdown: written straight through
+        assertEquals(11, rows());
+    }
+
+    @Test
+    public void dropWhenFullCountsWhatItDrops() throws InterruptedException {
+        AuditLog auditLog = auditLog(2, 100, NEVER, AuditLog.WhenFull.DROP);
+        for (int i = 0; i < 10; i++) {
+            auditLog.created("Skill", i, null);
+        }
+
+        auditLog.destroy();
+        assertTrue(auditLog.getDroppedCount() > 0);
+        assertEquals(10, auditLog.getWrittenCount() + auditLog.getDroppedCount());
+        assertEquals(auditLog.getWrittenCount(), rows());
+    }
+
+    @Test
+    public void writeThroughWhenFullLosesNothing() throws InterruptedException {
+        AuditLog auditLog = auditLog(2, 100, NEVER, AuditLog.WhenFull.WRITE_THROUGH);
+        for (int i = 0; i < 10; i++) {
+            auditLog.created("Skill", i, null);
+        }
+        assertTrue(rows() > 0); // Some went straight to the table while the writer was parked
+
+        auditLog.destroy();
+        assertEquals(0, auditLog.getDroppedCount());
+        assertEquals(10, rows());
+    }
+
+    @Test
+    public void blockWhenFullWaitsForTheWriter() throws InterruptedException {
+        AuditLog auditLog = auditLog(2, 100, NEVER, AuditLog.WhenFull.BLOCK);
+        for (int i = 0; i < 50; i++) {
+            auditLog.created("Skill", i, null);
+        }
+
+        auditLog.destroy();
+        assertEquals(0, auditLog.getDroppedCount());
+        assertEquals(50, rows());
+    }
+
+    @Test
+    public void aRolledBackWriteIsNotRecorded() throws InterruptedException {
+        AuditLog auditLog = auditLog(64, 100, NEVER, AuditLog.WhenFull.BLOCK);
+        assertThrows(IllegalStateException.class, () -> transactions.executeWithoutResult(status -> {
+            jdbc.update("INSERT INTO Skills (SkillTitle) VALUES ('Rolled back');");
+            auditLog.created("Skill", "Rolled back", AuditLog.values("skillTitle", "Rolled back"));
+            throw new IllegalStateException("The next write failed");
+        }));
+
+        auditLog.destroy();
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM Skills WHERE SkillTitle = 'Rolled back'", Integer.class));
+        assertEquals(0, rows());
+    }
+
+    @Test
+    public void aCommittedWriteIsRecordedOnceItCommits() throws InterruptedException {
+        AuditLog auditLog = auditLog(2, 100, NEVER, AuditLog.WhenFull.WRITE_THROUGH);
+        transactions.executeWithoutResult(status -> {
+            for (int i = 0; i < 10; i++) {
+                auditLog.created("Skill", i, null);
+            }
+            assertEquals(0, auditLog.getBufferedCount()); // Not before the commit
+        });
+
+        auditLog.destroy();
+        assertEquals(0, auditLog.getDroppedCount());
+        assertEquals(10, rows()); // Including those written straight through, after the transaction had committed
+    }
+
+    @Test
+    public void passwordHashesAreLeftOut() throws InterruptedException {
+        AuditLog auditLog = auditLog(64, 100, NEVER, AuditLog.WhenFull.BLOCK);
+        ProjectEmployee employee = new ProjectEmployee("newbie", "New Employee", "newbie@plannex.com", "pbkdf2-sha256$1000$salt$hash", LocalTime.of(8, 0), LocalTime.of(16, 0));
+        auditLog.created("Employee", employee.getEmployeeUsername(), employee);
+
+        auditLog.destroy();
+        String after = jdbc.queryForObject("SELECT AfterValue FROM AuditLog", String.class);
+        assertTrue(after.contains("\"employeeUsername\":\"newbie\""));
+        assertFalse(after.contains("employeePassword"));
+        assertFalse(after.contains("pbkdf2"));
+    }
+
+    @Test
+    public void actorIsTheLoggedInUserOrSystem() throws InterruptedException {
+        AuditLog auditLog = auditLog(64, 100, NEVER, AuditLog.WhenFull.BLOCK);
+        auditLog.created("Skill", "Outside a request", null);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.getSession().setAttribute("username", "marqs");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        auditLog.created("Skill", "Inside a request", null);
+
+        auditLog.destroy();
+        assertEquals(List.of("system", "marqs"), jdbc.queryForList("SELECT Actor FROM AuditLog ORDER BY AuditID", String.class));
+    }
+
+    @Test
+    public void disabledRecordsNothing() throws InterruptedException {
+        AuditLog auditLog = new AuditLog(jdbc, false, 64, 100, NEVER, AuditLog.WhenFull.BLOCK, Duration.ZERO);
+        auditLog.created("Skill", "Skill", null);
+
+        auditLog.destroy();
+        assertEquals(0, rows());
+        assertEquals(0, auditLog.getWrittenCount());
+    }
+}
@@ -0,0 +1,87 @@
+package com.plannex;
+
+import com.plannex.Concurrent.BoundedMpscQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedMpscQueueTests {
+    @Test
+    public void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(2, new BoundedMpscQueue<Integer>(2).capacity());
+        assertEquals(8, new BoundedMpscQueue<Integer>(5).capacity());
+        assertEquals(8192, new BoundedMpscQueue<Integer>(8192).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new BoundedMpscQueue<Integer>(1));
+    }
+
+    @Test
+    public void drainsOldestFirstAndRefusesWhenFull() {
+        BoundedMpscQueue<Integer> buffer = new BoundedMpscQueue<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(3, buffer.drainTo(drained, 3));
+        assertEquals(List.of(0, 1, 2), drained);
+        assertTrue(buffer.offer(5));
+        assertEquals(2, buffer.drainTo(drained, 10));
+        assertEquals(List.of(0, 1, 2, 3, 5), drained);
+        assertEquals(0, buffer.size());
+        assertEquals(0, buffer.drainTo(drained, 10));
+    }
+
+    @Test
+    public void noItemIsLostOrDuplicatedWithManyProducers() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        BoundedMpscQueue<Integer> buffer = new BoundedMpscQueue<>(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int first = p * perProducer;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                for (int i = first; i < first + perProducer; i++) {
+                    while (!buffer.offer(i)) {
+                        Thread.onSpinWait(); // Full; the consumer below frees room
+                    }
+                }
+            }));
+        }
+
+        start.countDown();
+        Set<Integer> seen = new HashSet<>();
+        List<Integer> batch = new ArrayList<>();
+        int[] lastFromProducer = new int[producers];
+        Arrays.fill(lastFromProducer, -1);
+        while (seen.size() < producers * perProducer) {
+            buffer.drainTo(batch, 32);
+            for (int item : batch) {
+                assertTrue(seen.add(item), "Drained twice: " + item);
+                int producer = item / perProducer;
+                assertTrue(item > lastFromProducer[producer], "Out of order for one producer: " + item);
+                lastFromProducer[producer] = item;
+            }
+            batch.clear();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, buffer.size());
+    }
+}
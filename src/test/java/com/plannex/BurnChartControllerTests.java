@@ -0,0 +1,75 @@
+package com.plannex;
+
+import com.plannex.Controller.BurnChartController;
+import com.plannex.Model.BurnChart;
+import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.BurnChartService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(BurnChartController.class)
+public class BurnChartControllerTests {
+    private static final LocalDate DAY = LocalDate.of(2025, 11, 12);
+
+    @Autowired
+    MockMvc mockMvc;
+    @MockitoBean
+    BurnChartService burnChartService;
+    @MockitoBean
+    AuthAndPermissionsService authAndPermissionsService;
+
+    private MockHttpSession sessionWithUser(String username) {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("username", username);
+        return session;
+    }
+
+    private static BurnChart chart(int taskID) {
+        return new BurnChart(1, taskID, 10, DAY, DAY.plusDays(1), DAY, DAY.plusDays(1), 4,
+                List.of(DAY, DAY.plusDays(1)), new double[] { 1, 4 }, new double[] { 9, 6 }, new double[] { 10, 0 });
+    }
+
+    @Test
+    void getProjectBurnChartReturnsTheSeriesAsJson() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(burnChartService.getBurnChartForProject(1, DAY, null)).thenReturn(chart(0));
+
+        mockMvc.perform(get("/projects/1/burn").param("from", "2025-11-12").session(sessionWithUser("marqs")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estimateHours").value(10.0))
+                .andExpect(jsonPath("$.days[0]").value("2025-11-12"))
+                .andExpect(jsonPath("$.spent[1]").value(4.0))
+                .andExpect(jsonPath("$.remaining[1]").value(6.0));
+
+        verify(burnChartService, times(1)).getBurnChartForProject(1, DAY, null);
+    }
+
+    @Test
+    void getTaskBurnChartReturnsTheTasksSeries() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(burnChartService.getBurnChartForTask(8, null, null)).thenReturn(chart(8));
+
+        mockMvc.perform(get("/projects/1/tasks/8/burn").session(sessionWithUser("marqs")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.taskID").value(8));
+    }
+
+    @Test
+    void burnChartsAreUnauthorizedWhenNotLoggedIn() throws Exception {
+        mockMvc.perform(get("/projects/1/burn"))
+                .andExpect(status().isUnauthorized());
+
+        verify(burnChartService, never()).getBurnChartForProject(anyInt(), any(), any());
+    }
+}
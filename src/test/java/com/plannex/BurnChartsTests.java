@@ -0,0 +1,160 @@
+package com.plannex;
+
+import com.plannex.Burn.BurnCharts;
+import com.plannex.Burn.DailyTotals;
+import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Exception.InvalidValueException;
+import com.plannex.Exception.NotSupportedException;
+import com.plannex.Model.BurnChart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BurnChartsTests {
+    private static final AtomicInteger databases = new AtomicInteger();
+    private static final double DELTA = 0.001;
+    private static final LocalDate NOV_12 = LocalDate.of(2025, 11, 12);
+
+    private JdbcTemplate jdbc;
+    private BurnCharts burnCharts;
+
+    @BeforeEach
+    void createDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:burn-" + databases.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schemah2.sql"), new ClassPathResource("datah2.sql")).execute(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        burnCharts = new BurnCharts(jdbc, 16, 3660);
+    }
+
+    // Straight into TimeSpent, which the charts only learn of when told
+    private void insertTime(int subtaskID, String username, double hours, String when) {
+        jdbc.update("INSERT INTO TimeSpent (OnTaskID, ByEmployee, HoursSpent, _When) VALUES (?, ?, ?, ?);", subtaskID, username, hours, when);
+    }
+
+    @Test
+    public void dailyTotalsAnswerAnyRangeFromTheRunningTotals() {
+        DailyTotals totals = new DailyTotals();
+        assertTrue(totals.add(NOV_12, 2));
+        assertTrue(totals.add(NOV_12.plusDays(3), 5));
+        assertTrue(totals.add(NOV_12.plusDays(3), 1));
+
+        assertEquals(0, totals.through(NOV_12.minusDays(1)));
+        assertEquals(2, totals.through(NOV_12.plusDays(2)));
+        assertEquals(8, totals.through(NOV_12.plusDays(30)));
+        assertEquals(6, totals.between(NOV_12.plusDays(1), NOV_12.plusDays(3)));
+        assertEquals(NOV_12.plusDays(3), totals.getLastDay());
+        assertFalse(totals.add(NOV_12.minusDays(1), 1));
+    }
+
+    @Test
+    public void dailyTotalsGrowPastTheirFirstCapacity() {
+        DailyTotals totals = new DailyTotals();
+        for (int day = 0; day < 400; day += 7) {
+            totals.add(NOV_12.plusDays(day), 1);
+        }
+
+        assertEquals(58, totals.through(NOV_12.plusDays(400)));
+        assertEquals(2, totals.between(NOV_12.plusDays(100), NOV_12.plusDays(112)));
+    }
+
+    @Test
+    public void aProjectChartRunsFromThePlannedStartToThePlannedEnd() {
+        BurnChart chart = burnCharts.forProject(1, null, null);
+
+        assertEquals(NOV_12, chart.from());
+        assertEquals(LocalDate.of(2025, 12, 17), chart.to());
+        assertEquals(36, chart.days().size());
+        assertEquals(37.334, chart.estimateHours(), DELTA);
+        assertEquals(3.6667, chart.spent()[0], DELTA);
+        assertEquals(40.3334, chart.spent()[chart.spent().length - 1], DELTA);
+        assertEquals(0, chart.remaining()[chart.remaining().length - 1], DELTA); // Over the estimate
+        assertEquals(37.334, chart.ideal()[0], DELTA);
+        assertEquals(0, chart.ideal()[chart.ideal().length - 1], DELTA);
+        assertEquals(40.3334, chart.spentInRange(), DELTA);
+    }
+
+    @Test
+    public void aRangeGetsWhatWasSpentWithinIt() {
+        BurnChart chart = burnCharts.forProject(1, LocalDate.of(2025, 11, 14), LocalDate.of(2025, 11, 17));
+
+        assertEquals(4, chart.days().size());
+        assertEquals(5 + 5 + 6.5, chart.spentInRange(), DELTA);
+        assertEquals(3.6667 + 7 + 5, chart.spent()[0], DELTA);
+    }
+
+    @Test
+    public void aTaskChartCountsItsSubtasksOnly() {
+        BurnChart chart = burnCharts.forTask(8, null, null);
+
+        assertEquals(14.667, chart.estimateHours(), DELTA);
+        assertEquals(17.6667, chart.spentInRange(), DELTA);
+        assertEquals(LocalDate.of(2025, 11, 21), chart.plannedStart());
+        assertEquals(LocalDate.of(2025, 11, 17), chart.from()); // Hours came before the planned start
+    }
+
+    @Test
+    public void contributionsExtendTheTotalsWithoutSummingThemAgain() {
+        burnCharts.forProject(1, null, null);
+        insertTime(2, "marqs", 100, "2025-11-20 09:00:00"); // Not told, so not counted while the totals are kept
+
+        burnCharts.timeContributed(1, 1, LocalDate.of(2025, 11, 20), 2);
+        BurnChart chart = burnCharts.forProject(1, null, null);
+
+        assertEquals(42.3334, chart.spentInRange(), DELTA);
+        assertEquals(24.6667, burnCharts.forTask(1, null, null).spentInRange(), DELTA);
+    }
+
+    @Test
+    public void invalidatingSumsTheTotalsAgain() {
+        burnCharts.forProject(1, null, null);
+        insertTime(2, "marqs", 100, "2025-11-20 09:00:00");
+
+        burnCharts.invalidate(1);
+
+        assertEquals(140.3334, burnCharts.forProject(1, null, null).spentInRange(), DELTA);
+    }
+
+    @Test
+    public void aContributionBeforeTheFirstDaySumsTheTotalsAgain() {
+        burnCharts.forProject(1, null, null);
+        insertTime(2, "marqs", 1, "2025-11-01 09:00:00");
+
+        burnCharts.timeContributed(1, 1, LocalDate.of(2025, 11, 1), 1);
+
+        assertEquals(41.3334, burnCharts.forProject(1, null, null).spentInRange(), DELTA);
+    }
+
+    @Test
+    public void deletedTasksDoNotCount() {
+        jdbc.update("UPDATE Tasks SET DeletedAt = NOW() WHERE TaskID = 8 OR ParentTaskID = 8;");
+
+        BurnChart chart = burnCharts.forProject(1, null, null);
+
+        assertEquals(22.667, chart.estimateHours(), DELTA);
+        assertEquals(22.6667, chart.spentInRange(), DELTA);
+    }
+
+    @Test
+    public void subtasksUnknownProjectsAndBackwardRangesAreRefused() {
+        assertThrows(NotSupportedException.class, () -> burnCharts.forTask(2, null, null));
+        assertThrows(EntityDoesNotExistException.class, () -> burnCharts.forProject(999, null, null));
+        assertThrows(InvalidValueException.class, () -> burnCharts.forProject(1, NOV_12, NOV_12.minusDays(1)));
+        assertThrows(InvalidValueException.class, () -> burnCharts.forProject(1, NOV_12, NOV_12.plusYears(20)));
+    }
+
+    @Test
+    public void theSvgPointsSpanTheWholeWidth() {
+        BurnChart chart = burnCharts.forProject(2, null, null);
+
+        assertTrue(chart.remainingPoints().startsWith("0.0,"));
+        assertTrue(chart.idealPoints().endsWith(BurnChart.SVG_WIDTH + ".0," + BurnChart.SVG_HEIGHT + ".0"));
+    }
+}
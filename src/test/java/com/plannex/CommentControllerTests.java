@@ -0,0 +1,155 @@
+package com.plannex;
+
+import com.plannex.Controller.CommentController;
+import com.plannex.Model.Comment;
+import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.CommentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CommentController.class)
+public class CommentControllerTests {
+    @Autowired
+    MockMvc mockMvc;
+    @MockitoBean
+    CommentService commentService;
+    @MockitoBean
+    AuthAndPermissionsService authAndPermissionsService;
+
+    private final Comment byMarqs = new Comment(7, 2, "marqs", "Question", "Which repository?", LocalDateTime.of(2025, 11, 20, 9, 30));
+
+    private MockHttpSession sessionWithUser(String username) {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("username", username);
+        return session;
+    }
+
+    @Test
+    void showAddCommentOnSubtaskRoutesCorrectly() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+
+        mockMvc.perform(get("/projects/1/tasks/1/subtasks/2/add-comment").session(sessionWithUser("marqs")))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("comment"))
+                .andExpect(model().attribute("whereToSubmit", "/projects/1/tasks/1/subtasks/2/add-comment"))
+                .andExpect(model().attribute("whereToGoOnCancel", "/projects/1/tasks/1/subtasks/2"))
+                .andExpect(view().name("add_comment"));
+    }
+
+    @Test
+    void showAddCommentRedirectsOnNotLoggedIn() throws Exception {
+        mockMvc.perform(get("/projects/1/tasks/1/add-comment"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/login"));
+    }
+
+    @Test
+    void saveCommentOnSubtaskSetsTaskAndAuthorAndRedirects() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+
+        mockMvc.perform(post("/projects/1/tasks/1/subtasks/2/add-comment").session(sessionWithUser("marqs"))
+                        .param("title", "Question")
+                        .param("description", "Which repository?"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/projects/1/tasks/1/subtasks/2"));
+
+        verify(commentService, times(1)).addComment(argThat(c -> c.getTaskID() == 2 && "marqs".equals(c.getCommentAuthor())
+                && "Question".equals(c.getTitle()) && "Which repository?".equals(c.getDescription()) && c.getPostedAt() != null));
+    }
+
+    @Test
+    void saveCommentOnTaskCommentsOnTheTask() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+
+        mockMvc.perform(post("/projects/1/tasks/1/add-comment").session(sessionWithUser("marqs"))
+                        .param("title", "Status")
+                        .param("description", "Halfway."))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/projects/1/tasks/1"));
+
+        verify(commentService, times(1)).addComment(argThat(c -> c.getTaskID() == 1));
+    }
+
+    @Test
+    void showEditCommentRoutesCorrectlyForTheAuthor() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(commentService.getCommentByID(7)).thenReturn(byMarqs);
+
+        mockMvc.perform(get("/projects/1/tasks/1/subtasks/2/comments/7/edit").session(sessionWithUser("marqs")))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("comment", byMarqs))
+                .andExpect(model().attribute("whereToSubmit", "/projects/1/tasks/1/subtasks/2/comments/7/edit"))
+                .andExpect(view().name("edit_comment"));
+    }
+
+    @Test
+    void showEditCommentThrowsForAnotherWorker() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(authAndPermissionsService.isManager(any())).thenReturn(false);
+        when(commentService.getCommentByID(7)).thenReturn(byMarqs);
+
+        mockMvc.perform(get("/projects/1/tasks/1/subtasks/2/comments/7/edit").session(sessionWithUser("RandomWorker")))
+                .andExpect(status().isForbidden())
+                .andExpect(model().attribute("message", "Managers may edit all comments, workers may only edit their own."))
+                .andExpect(view().name("error"));
+    }
+
+    @Test
+    void showEditCommentIsNotFoundForACommentOnAnotherTask() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(commentService.getCommentByID(7)).thenReturn(byMarqs);
+
+        mockMvc.perform(get("/projects/1/tasks/1/subtasks/3/comments/7/edit").session(sessionWithUser("marqs")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void updateCommentUpdatesAndRedirects() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(commentService.getCommentByID(7)).thenReturn(byMarqs);
+
+        mockMvc.perform(post("/projects/1/tasks/1/subtasks/2/comments/7/edit").session(sessionWithUser("marqs"))
+                        .param("title", "Answered")
+                        .param("description", "Found it."))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/projects/1/tasks/1/subtasks/2"));
+
+        verify(commentService, times(1)).updateComment(argThat(c -> "Answered".equals(c.getTitle()) && "Found it.".equals(c.getDescription())), eq(7));
+    }
+
+    @Test
+    void deleteCommentByAManagerDeletesAnyComment() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(authAndPermissionsService.isManager(any())).thenReturn(true);
+        when(commentService.getCommentByID(7)).thenReturn(byMarqs);
+
+        mockMvc.perform(post("/projects/1/tasks/1/subtasks/2/comments/7/delete").session(sessionWithUser("lildawg")))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/projects/1/tasks/1/subtasks/2"));
+
+        verify(commentService, times(1)).deleteComment(7);
+    }
+
+    @Test
+    void deleteCommentThrowsForAnotherWorker() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(authAndPermissionsService.isManager(any())).thenReturn(false);
+        when(commentService.getCommentByID(7)).thenReturn(byMarqs);
+
+        mockMvc.perform(post("/projects/1/tasks/1/subtasks/2/comments/7/delete").session(sessionWithUser("RandomWorker")))
+                .andExpect(status().isForbidden());
+
+        verify(commentService, never()).deleteComment(anyInt());
+    }
+}
@@ -0,0 +1,192 @@
+package com.plannex;
+
+import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Exception.InvalidValueException;
+import com.plannex.Model.Comment;
+import com.plannex.Model.CommentPage;
+import com.plannex.Repository.CommentRepository;
+import com.plannex.Repository.ProjectEmployeeRepository;
+import com.plannex.Repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Sql(scripts = { "classpath:schemah2.sql", "classpath:datah2.sql" }, executionPhase=BEFORE_TEST_METHOD)
+public class CommentRepositoryTests {
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private ProjectEmployeeRepository projectEmployeeRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    private final AssertThrowsHelper assertThrowsHelper = new AssertThrowsHelper();
+
+    private Comment comment(int taskID, String title) {
+        return new Comment(0, taskID, "marqs", title, "Text of " + title, LocalDateTime.of(2025, 11, 20, 9, 30));
+    }
+
+    private int taskCount(int taskID) {
+        return jdbcTemplate.queryForObject("SELECT CommentCount FROM Tasks WHERE TaskID = ?", Integer.class, taskID);
+    }
+
+    private int projectCount(int projectID) {
+        return jdbcTemplate.queryForObject("SELECT CommentCount FROM Projects WHERE ProjectID = ?", Integer.class, projectID);
+    }
+
+    @Test
+    public void addCommentOnASubtaskCountsItOnTheSubtaskItsTaskAndTheProject() {
+        assertEquals(1, commentRepository.addComment(comment(2, "First")));
+        assertEquals(1, commentRepository.addComment(comment(3, "Second")));
+
+        assertEquals(1, taskCount(2));
+        assertEquals(1, taskCount(3));
+        assertEquals(2, taskCount(1));
+        assertEquals(2, projectCount(1));
+        assertEquals(0, projectCount(2));
+    }
+
+    @Test
+    public void addCommentOnATaskCountsItOnceOnTheTask() {
+        commentRepository.addComment(comment(1, "On the task"));
+
+        assertEquals(1, taskCount(1));
+        assertEquals(1, projectCount(1));
+    }
+
+    @Test
+    public void addCommentSetsTheIDAndReadsBackTheSame() {
+        Comment added = comment(2, "First");
+        commentRepository.addComment(added);
+
+        assertNotEquals(0, added.getID());
+        assertEquals(added, commentRepository.getCommentByIDOrThrow(added.getID()));
+    }
+
+    @Test
+    public void addCommentThrowsOnNonExistentTask() {
+        assertThrowsHelper.verifyExceptionThrownWithMessage("No task with ID -1 exists.", EntityDoesNotExistException.class, () -> commentRepository.addComment(comment(-1, "Nowhere")));
+    }
+
+    @Test
+    public void addCommentThrowsOnEmptyTitle() {
+        assertThrowsHelper.verifyExceptionThrownWithMessage("A comment needs a title and a text.", InvalidValueException.class, () -> commentRepository.addComment(comment(2, " ")));
+        assertEquals(0, taskCount(2));
+    }
+
+    @Test
+    public void getCommentsForTaskPagesNewestFirst() {
+        for (int i = 1; i <= 5; i++) {
+            commentRepository.addComment(comment(2, "Comment " + i));
+        }
+        commentRepository.addComment(comment(3, "On another subtask"));
+
+        CommentPage first = commentRepository.getCommentsForTask(2, 0, 2);
+        assertEquals(List.of("Comment 5", "Comment 4"), first.comments().stream().map(Comment::getTitle).toList());
+        assertTrue(first.hasOlder());
+
+        CommentPage second = commentRepository.getCommentsForTask(2, first.olderThan(), 2);
+        assertEquals(List.of("Comment 3", "Comment 2"), second.comments().stream().map(Comment::getTitle).toList());
+        assertTrue(second.hasOlder());
+
+        CommentPage last = commentRepository.getCommentsForTask(2, second.olderThan(), 2);
+        assertEquals(List.of("Comment 1"), last.comments().stream().map(Comment::getTitle).toList());
+        assertFalse(last.hasOlder());
+    }
+
+    @Test
+    public void getCommentsForTaskIsEmptyWithoutComments() {
+        CommentPage page = commentRepository.getCommentsForTask(2, 0, 20);
+        assertTrue(page.comments().isEmpty());
+        assertFalse(page.hasOlder());
+    }
+
+    @Test
+    public void updateCommentChangesOnlyTitleAndText() {
+        Comment added = comment(2, "First");
+        commentRepository.addComment(added);
+
+        Comment modified = new Comment(0, 0, null, "Changed", "Changed text", null);
+        assertEquals(1, commentRepository.updateComment(modified, added.getID()));
+
+        Comment fromDB = commentRepository.getCommentByIDOrThrow(added.getID());
+        assertEquals("Changed", fromDB.getTitle());
+        assertEquals("Changed text", fromDB.getDescription());
+        assertEquals("marqs", fromDB.getCommentAuthor());
+        assertEquals(2, fromDB.getTaskID());
+        assertEquals(added.getPostedAt(), fromDB.getPostedAt());
+    }
+
+    @Test
+    public void deleteCommentUncountsIt() {
+        Comment added = comment(2, "First");
+        commentRepository.addComment(added);
+        commentRepository.addComment(comment(2, "Second"));
+
+        assertEquals(1, commentRepository.deleteComment(added.getID()));
+        assertTrue(commentRepository.findCommentByID(added.getID()).isEmpty());
+        assertEquals(1, taskCount(2));
+        assertEquals(1, taskCount(1));
+        assertEquals(1, projectCount(1));
+    }
+
+    @Test
+    public void deleteCommentThrowsOnNonExistentComment() {
+        assertThrowsHelper.verifyExceptionThrownWithMessage("No comment with ID -1 exists.", EntityDoesNotExistException.class, () -> commentRepository.deleteComment(-1));
+    }
+
+    @Test
+    public void deletingASubtaskTakesItsCommentsOffTheCountsAbove() {
+        commentRepository.addComment(comment(2, "First"));
+        commentRepository.addComment(comment(2, "Second"));
+        commentRepository.addComment(comment(3, "Third"));
+
+        taskRepository.deleteTaskByID(2);
+        assertEquals(1, taskCount(1));
+        assertEquals(1, projectCount(1));
+    }
+
+    @Test
+    public void deletingATaskTakesItsAndItsSubtasksCommentsOffTheProject() {
+        commentRepository.addComment(comment(1, "On the task"));
+        commentRepository.addComment(comment(2, "On a subtask"));
+        commentRepository.addComment(comment(8, "On another task"));
+
+        taskRepository.deleteTaskByID(1);
+        assertEquals(1, projectCount(1));
+    }
+
+    @Test
+    public void undeletingATaskPutsItsCommentsBackOnTheCounts() {
+        commentRepository.addComment(comment(2, "On a subtask"));
+        commentRepository.addComment(comment(8, "On another task"));
+        taskRepository.deleteTaskByID(1);
+
+        taskRepository.undeleteTaskByID(1);
+        assertEquals(1, taskCount(1));
+        assertEquals(2, projectCount(1));
+        assertEquals(1, commentRepository.getCommentsForTask(2, 0, 20).comments().size());
+    }
+
+    @Test
+    public void deletingTheAuthorKeepsTheCommentAndItsCount() {
+        Comment added = comment(2, "First");
+        commentRepository.addComment(added);
+
+        projectEmployeeRepository.deleteEmployeeByUsername("marqs");
+        assertNull(commentRepository.getCommentByIDOrThrow(added.getID()).getCommentAuthor());
+        assertEquals(1, taskCount(2));
+    }
+}
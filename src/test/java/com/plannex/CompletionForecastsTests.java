@@ -0,0 +1,179 @@
+package com.plannex;
+
+import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Forecast.CompletionForecasts;
+import com.plannex.Forecast.Simulation;
+import com.plannex.Model.CompletionForecast;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompletionForecastsTests {
+    private static final AtomicInteger databases = new AtomicInteger();
+    private static final double[] AS_PLANNED = new double[0];
+
+    private JdbcTemplate jdbc;
+    private CompletionForecasts forecasts;
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void createDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:forecast-" + databases.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schemah2.sql"), new ClassPathResource("datah2.sql")).execute(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        forecasts = new CompletionForecasts(jdbc, 5000, 2, 42, 16, Duration.ofHours(1), 5);
+        pool = new ForkJoinPool(3);
+    }
+
+    @AfterEach
+    void shutDown() {
+        forecasts.destroy();
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void aChainAsPlannedTakesItsLengthsOneAfterAnother() {
+        Simulation simulation = new Simulation(new int[] { 0, 0, 0 }, new int[] { 2, 3, 4 }, new int[] { 1, 0 }, new int[] { 2, 1 },
+                new double[][] { AS_PLANNED, AS_PLANNED, AS_PLANNED });
+
+        double[] finishes = simulation.run(100, 1, pool);
+
+        assertEquals(100, finishes.length);
+        assertEquals(9, finishes[0]);
+        assertEquals(9, finishes[99]);
+    }
+
+    @Test
+    public void aLaterPlannedStartWaitsForItsDay() {
+        Simulation simulation = new Simulation(new int[] { 0, 10 }, new int[] { 2, 1 }, new int[] { 0 }, new int[] { 1 },
+                new double[][] { { 0.5, 2 }, AS_PLANNED });
+
+        double[] finishes = simulation.run(100, 1, pool);
+
+        assertEquals(11, finishes[0]);
+        assertEquals(11, finishes[99]);
+    }
+
+    @Test
+    public void runsOnlyDependOnTheSeed() {
+        double[][] samples = { { 0.5, 1, 1.5, 3 }, { 0.8, 1.2 }, { 1, 2 }, { 0.5, 1, 1.5, 3 } };
+        Simulation simulation = new Simulation(new int[] { 0, 0, 2, 0 }, new int[] { 3, 5, 2, 4 }, new int[] { 0, 1, 2 }, new int[] { 2, 2, 3 }, samples);
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            double[] first = simulation.run(10 * 1024 + 7, 42, pool);
+
+            assertArrayEquals(first, simulation.run(10 * 1024 + 7, 42, single));
+            assertFalse(Arrays.equals(first, simulation.run(10 * 1024 + 7, 43, pool)));
+            assertTrue(first[0] >= 5 * 0.8 + 2 * 1 + 4 * 0.5);
+            assertTrue(first[first.length - 1] <= 3 * 3 + 2 * 2 + 4 * 3);
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    public void cyclesAreBrokenRatherThanRunForever() {
+        Simulation simulation = new Simulation(new int[] { 0, 0 }, new int[] { 1, 2 }, new int[] { 0, 1 }, new int[] { 1, 0 },
+                new double[][] { AS_PLANNED, AS_PLANNED });
+
+        assertEquals(3, simulation.run(10, 1, pool)[9]);
+    }
+
+    @Test
+    public void aProjectForecastIsOrderedFromLikelyToAlmostSure() {
+        CompletionForecast forecast = forecasts.forProject(1);
+
+        assertTrue(forecast.hasTasks());
+        assertEquals(16, forecast.tasks());
+        assertEquals(14, forecast.historySamples());
+        assertEquals(5000, forecast.runs());
+        assertEquals(LocalDate.of(2025, 12, 17), forecast.plannedEnd());
+        assertFalse(forecast.p50().isAfter(forecast.p80()));
+        assertFalse(forecast.p80().isAfter(forecast.p95()));
+        assertFalse(forecast.p50().isBefore(LocalDate.of(2025, 11, 25))); // Subtask 16 starts on the 24th at the earliest
+        assertTrue(forecast.onTimeProbability() >= 0 && forecast.onTimeProbability() <= 1);
+    }
+
+    @Test
+    public void theSameSeedGivesTheSameForecast() {
+        CompletionForecast first = forecasts.forProject(1);
+        CompletionForecasts again = new CompletionForecasts(jdbc, 5000, 1, 42, 16, Duration.ofHours(1), 5);
+        try {
+            CompletionForecast second = again.forProject(1);
+
+            assertEquals(first.p50(), second.p50());
+            assertEquals(first.p80(), second.p80());
+            assertEquals(first.p95(), second.p95());
+            assertEquals(first.onTimeProbability(), second.onTimeProbability());
+        } finally {
+            again.destroy();
+        }
+    }
+
+    @Test
+    public void aForecastIsKeptUntilThePlanChanges() {
+        CompletionForecast first = forecasts.forProject(1);
+        assertSame(first, forecasts.forProject(1));
+
+        forecasts.planChanged(2);
+        assertSame(first, forecasts.forProject(1));
+
+        forecasts.planChanged(1);
+        assertNotSame(first, forecasts.forProject(1));
+    }
+
+    @Test
+    public void aDependencyPushesTheCompletionBack() {
+        CompletionForecast before = forecasts.forProject(1);
+        jdbc.update("INSERT INTO Tasks (TaskID, ProjectID, ParentTaskID, TaskTitle, TaskDescription, TaskStart, TaskEnd, TaskDurationHours) VALUES (17, 1, NULL, 'Release', '', '20251112', '20251121', 10);");
+        jdbc.update("INSERT INTO TaskDependencies (TaskIDFor, MustComeAfterTaskWithID) VALUES (17, 8);");
+
+        assertSame(before, forecasts.forProject(1)); // Not told
+        forecasts.planChanged(1);
+        CompletionForecast after = forecasts.forProject(1);
+
+        assertEquals(17, after.tasks());
+        assertTrue(after.p50().isAfter(before.p50()));
+        assertTrue(after.p95().isAfter(before.p95()));
+    }
+
+    @Test
+    public void readingTheHoursAgainRenewsEveryForecast() {
+        CompletionForecasts renewing = new CompletionForecasts(jdbc, 1000, 1, 42, 16, Duration.ZERO, 5);
+        try {
+            CompletionForecast first = renewing.forProject(1);
+
+            assertNotSame(first, renewing.forProject(1));
+        } finally {
+            renewing.destroy();
+        }
+    }
+
+    @Test
+    public void projectsWithoutTasksHaveNoDatesAndUnknownOnesNoForecast() {
+        CompletionForecast forecast = forecasts.forProject(2);
+
+        assertFalse(forecast.hasTasks());
+        assertNull(forecast.p50());
+        assertThrows(EntityDoesNotExistException.class, () -> forecasts.forProject(999));
+    }
+
+    @Test
+    public void deletedProjectsHaveNoForecast() {
+        jdbc.update("UPDATE Projects SET DeletedAt = NOW() WHERE ProjectID = 1;");
+
+        assertThrows(EntityDoesNotExistException.class, () -> forecasts.forProject(1));
+    }
+}
@@ -0,0 +1,111 @@
+package com.plannex;
+
+import com.plannex.Controller.TaskController;
+import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Model.CommentPage;
+import com.plannex.Model.ProjectEmployee;
+import com.plannex.Model.Task;
+import com.plannex.Model.TaskSummary;
+import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.CommentService;
+import com.plannex.Service.PageLoadingService;
+import com.plannex.Service.ProjectEmployeeService;
+import com.plannex.Service.ProjectService;
+import com.plannex.Service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TaskController.class)
+@Import(PageLoadingService.class)
+@TestPropertySource(properties = "plannex.page-loading.concurrent=true")
+public class ConcurrentPageLoadingControllerTests {
+    @Autowired
+    MockMvc mockMvc;
+    @MockitoBean
+    TaskService taskService;
+    @MockitoBean
+    AuthAndPermissionsService authAndPermissionsService;
+    @MockitoBean
+    ProjectEmployeeService projectEmployeeService;
+    @MockitoBean
+    ProjectService projectService;
+    @MockitoBean
+    CommentService commentService;
+
+    @BeforeEach
+    void noComments() {
+        when(commentService.getCommentsForTask(anyInt(), any())).thenReturn(new CommentPage(List.of(), false));
+    }
+
+    private MockHttpSession sessionWithUser(String username) {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("username", username);
+        return session;
+    }
+
+    @Test
+    void showTaskPageLoadsAllPartsConcurrently() throws Exception {
+        Task task = new Task(1, 1, 0, "Project startup", "Building a good foundation for the actual work to come later.", LocalDate.of(2025, 11, 12), LocalDate.of(2025, 11, 13), 22.667f);
+        TaskSummary subtask = new TaskSummary(2, 1, 1, "Set up GitHub project", LocalDate.of(2025, 11, 12), LocalDate.of(2025, 11, 12), 0.5f, 0);
+        ProjectEmployee worker = new ProjectEmployee("lildawg", "Max-Emil", "MES@gmail.com", SeedPasswordHashes.LILDAWG, LocalTime.of(8, 0), LocalTime.of(16, 0));
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(taskService.getTaskByID(1)).thenReturn(task);
+        when(taskService.getAllSubtaskSummariesForParentTask(1)).thenReturn(List.of(subtask));
+        when(taskService.getAllAssigneesForSubtask(2)).thenReturn(List.of(worker));
+        when(taskService.getAllTimeContributionsForSubtask(2)).thenReturn(List.of(1.5f, 2.0f));
+
+        mockMvc.perform(get("/projects/1/tasks/1").session(sessionWithUser("MRY")))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("task", task))
+                .andExpect(model().attribute("subtasks", List.of(subtask)))
+                .andExpect(model().attribute("subtaskAssignees", List.of(List.of(worker))))
+                .andExpect(model().attribute("subtaskTimeSpents", List.of(3.5)))
+                .andExpect(view().name("task_window"));
+
+        verify(taskService, times(1)).getAllSubtaskSummariesForParentTask(1);
+    }
+
+    @Test
+    void showSubtaskPageGroupsSkillsPerAssignee() throws Exception {
+        Task subtask = new Task(2, 1, 1, "Set up GitHub project", "Description", LocalDate.of(2025, 11, 12), LocalDate.of(2025, 11, 12), 0.5f);
+        ProjectEmployee worker = new ProjectEmployee("lildawg", "Max-Emil", "MES@gmail.com", SeedPasswordHashes.LILDAWG, LocalTime.of(8, 0), LocalTime.of(16, 0));
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(taskService.getTaskByID(2)).thenReturn(subtask);
+        when(taskService.getAllAssigneesForSubtask(2)).thenReturn(List.of(worker));
+
+        mockMvc.perform(get("/projects/1/tasks/1/subtasks/2").session(sessionWithUser("MRY")))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("subtask", subtask))
+                .andExpect(model().attribute("skillsPerEmployee", Map.of("lildawg", List.of())))
+                .andExpect(view().name("subtask_window"));
+
+        verify(taskService, times(1)).getAllAssigneesForSubtask(2);
+    }
+
+    @Test
+    void showTaskPageStillMapsMissingTaskToNotFound() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(taskService.getTaskByID(-1)).thenThrow(new EntityDoesNotExistException("No task with ID -1 exists."));
+
+        mockMvc.perform(get("/projects/1/tasks/-1").session(sessionWithUser("MRY")))
+                .andExpect(status().isNotFound())
+                .andExpect(model().attribute("message", "No task with ID -1 exists."))
+                .andExpect(view().name("error"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.plannex.Dataset;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+
+// Buffers rows for one table and writes them as multi-row INSERT ... VALUES (...), (...) statements.
+// Full chunks reuse one multi-row prepared statement. A partial chunk, left over when a child table forces this one
+// to flush, goes through a single-row statement as a JDBC batch so no statement is ever prepared twice.
+// Tables named in flushFirst are flushed before this one so foreign keys always point at rows already written.
+final class BatchInserter implements AutoCloseable {
+    private final Connection connection;
+    private final String table;
+    private final String columnList;
+    private final int columns;
+    private final int rowsPerStatement;
+    private final List<BatchInserter> flushFirst;
+    private final Object[] buffer;
+    private int buffered;
+    private long written;
+    private PreparedStatement fullChunk;
+    private PreparedStatement singleRow;
+
+    BatchInserter(Connection connection, String table, List<String> columns, int rowsPerStatement, BatchInserter... flushFirst) {
+        this.connection = connection;
+        this.table = table;
+        this.columnList = String.join(", ", columns);
+        this.columns = columns.size();
+        this.rowsPerStatement = rowsPerStatement;
+        this.flushFirst = List.of(flushFirst);
+        this.buffer = new Object[rowsPerStatement * this.columns];
+    }
+
+    void add(Object... row) throws SQLException {
+        if (row.length != columns) {
+            throw new IllegalArgumentException("Expected " + columns + " values for " + table + ", got " + row.length + ".");
+        }
+
+        System.arraycopy(row, 0, buffer, buffered * columns, columns);
+        if (++buffered == rowsPerStatement) {
+            for (BatchInserter parent : flushFirst) {
+                parent.flush();
+            }
+            if (fullChunk == null) {
+                fullChunk = connection.prepareStatement(insertFor(rowsPerStatement));
+            }
+            writeFullChunk(fullChunk);
+        }
+    }
+
+    void flush() throws SQLException {
+        if (buffered == 0) {
+            return;
+        }
+
+        for (BatchInserter parent : flushFirst) {
+            parent.flush();
+        }
+        if (singleRow == null) {
+            singleRow = connection.prepareStatement(insertFor(1));
+        }
+        for (int r = 0; r < buffered; r++) {
+            for (int c = 0; c < columns; c++) {
+                singleRow.setObject(c + 1, buffer[r * columns + c]);
+            }
+            singleRow.addBatch();
+        }
+        singleRow.executeBatch();
+        clear();
+    }
+
+    long getRowsWritten() {
+        return written;
+    }
+
+    String getTable() {
+        return table;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (fullChunk != null) {
+            fullChunk.close();
+        }
+        if (singleRow != null) {
+            singleRow.close();
+        }
+    }
+
+    private void writeFullChunk(PreparedStatement statement) throws SQLException {
+        for (int i = 0; i < buffered * columns; i++) {
+            statement.setObject(i + 1, buffer[i]);
+        }
+        statement.executeUpdate();
+        clear();
+    }
+
+    private void clear() {
+        written += buffered;
+        Arrays.fill(buffer, 0, buffered * columns, null);
+        buffered = 0;
+    }
+
+    private String insertFor(int rows) {
+        StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+        for (int c = 0; c < columns; c++) {
+            placeholders.add("?");
+        }
+
+        StringJoiner values = new StringJoiner(", ");
+        for (int r = 0; r < rows; r++) {
+            values.add(placeholders.toString());
+        }
+
+        return "INSERT INTO " + table + " (" + columnList + ") VALUES " + values;
+    }
+}
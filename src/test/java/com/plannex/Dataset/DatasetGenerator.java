@@ -0,0 +1,71 @@
+package com.plannex.Dataset;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+// Command line front end for SyntheticDataset, e.g.
+// mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.plannex.Dataset.DatasetGenerator
+//     -Dexec.args="--url=jdbc:mysql://localhost:3306/Plannex --user=root --password=... --schema=schema.sql --projects=5000"
+// --schema runs schema.sql or schemah2.sql from the classpath first, which drops and recreates every table.
+public final class DatasetGenerator {
+    private DatasetGenerator() { }
+
+    public static void main(String[] args) {
+        Map<String, String> options = parse(args);
+        if (!options.containsKey("url")) {
+            System.err.println("""
+                    Usage: DatasetGenerator --url=<jdbc url> [--user=<user>] [--password=<password>] [--schema=schema.sql|schemah2.sql]
+                           [--projects=100] [--tasks-per-project=8] [--subtasks-per-task=5] [--dependency-density=0.3]
+                           [--assignees-per-subtask=1.6] [--time-entries-per-subtask=4] [--employees=...] [--skills=40]
+                           [--skills-per-employee=3] [--from=2022-01-03] [--years=4] [--seed=42]
+                           [--password-hash-iterations=600000]""");
+            System.exit(2);
+        }
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(options.get("url"), options.getOrDefault("user", "sa"), options.getOrDefault("password", ""));
+        if (options.containsKey("schema")) {
+            new ResourceDatabasePopulator(new ClassPathResource(options.get("schema"))).execute(dataSource);
+        }
+
+        SyntheticDataset.Summary summary = SyntheticDataset.generate(dataSource, spec(options));
+        summary.rowsPerTable().forEach((table, rows) -> System.out.printf("%-18s %,12d%n", table, rows));
+        System.out.printf("%-18s %,12d rows in %.2f s (%,.0f rows/s)%n", "Total", summary.totalRows(), summary.elapsedNanos() / 1e9, summary.rowsPerSecond());
+    }
+
+    static DatasetSpec spec(Map<String, String> options) {
+        DatasetSpec defaults = DatasetSpec.forProjects(Integer.parseInt(options.getOrDefault("projects", "100")));
+        return new DatasetSpec(defaults.projects(),
+                number(options, "tasks-per-project", defaults.tasksPerProject()),
+                number(options, "subtasks-per-task", defaults.subtasksPerTask()),
+                number(options, "dependency-density", defaults.dependencyDensity()),
+                number(options, "assignees-per-subtask", defaults.assigneesPerSubtask()),
+                number(options, "time-entries-per-subtask", defaults.timeEntriesPerSubtask()),
+                (int) number(options, "employees", defaults.employees()),
+                (int) number(options, "skills", defaults.skills()),
+                number(options, "skills-per-employee", defaults.skillsPerEmployee()),
+                options.containsKey("from") ? LocalDate.parse(options.get("from")) : defaults.from(),
+                (int) number(options, "years", defaults.years()),
+                options.containsKey("seed") ? Long.parseLong(options.get("seed")) : defaults.seed(),
+                (int) number(options, "password-hash-iterations", defaults.passwordHashIterations()));
+    }
+
+    public static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg + ".");
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    private static double number(Map<String, String> options, String name, double fallback) {
+        return options.containsKey(name) ? Double.parseDouble(options.get(name)) : fallback;
+    }
+}
@@ -0,0 +1,66 @@
+package com.plannex.Dataset;
+
+import com.plannex.Service.PasswordHasher;
+
+import java.time.LocalDate;
+
+// How much data SyntheticDataset writes. Fan-outs are means; the actual counts are skewed around them.
+// dependencyDensity is the chance that a task depends on an earlier sibling. passwordHashIterations should match
+// plannex.password.hash-iterations of the application logging in, or every first login rehashes.
+public record DatasetSpec(int projects, double tasksPerProject, double subtasksPerTask, double dependencyDensity,
+                          double assigneesPerSubtask, double timeEntriesPerSubtask, int employees, int skills,
+                          double skillsPerEmployee, LocalDate from, int years, long seed, int passwordHashIterations) {
+    public DatasetSpec {
+        if (projects < 1 || employees < 1 || skills < 1 || years < 1) {
+            throw new IllegalArgumentException("Projects, employees, skills and years must all be at least 1.");
+        }
+
+        if (tasksPerProject < 1 || assigneesPerSubtask < 1) {
+            throw new IllegalArgumentException("Every project needs at least one task and every subtask at least one assignee.");
+        }
+
+        if (subtasksPerTask < 0 || timeEntriesPerSubtask < 0 || skillsPerEmployee < 0) {
+            throw new IllegalArgumentException("Fan-outs cannot be negative.");
+        }
+
+        if (dependencyDensity < 0 || dependencyDensity > 1) {
+            throw new IllegalArgumentException("Dependency density must be between 0 and 1.");
+        }
+
+        if (passwordHashIterations < 1) {
+            throw new IllegalArgumentException("Password hash iterations must be at least 1.");
+        }
+    }
+
+    public static DatasetSpec forProjects(int projects) {
+        return new DatasetSpec(projects, 8, 5, 0.3, 1.6, 4, Math.max(20, projects / 2), 40, 3, LocalDate.of(2022, 1, 3), 4, 42, PasswordHasher.DEFAULT_ITERATIONS);
+    }
+
+    public DatasetSpec withFanOut(double tasksPerProject, double subtasksPerTask) {
+        return new DatasetSpec(projects, tasksPerProject, subtasksPerTask, dependencyDensity, assigneesPerSubtask, timeEntriesPerSubtask, employees, skills, skillsPerEmployee, from, years, seed, passwordHashIterations);
+    }
+
+    public DatasetSpec withDependencyDensity(double dependencyDensity) {
+        return new DatasetSpec(projects, tasksPerProject, subtasksPerTask, dependencyDensity, assigneesPerSubtask, timeEntriesPerSubtask, employees, skills, skillsPerEmployee, from, years, seed, passwordHashIterations);
+    }
+
+    public DatasetSpec withAssignees(double assigneesPerSubtask, double timeEntriesPerSubtask) {
+        return new DatasetSpec(projects, tasksPerProject, subtasksPerTask, dependencyDensity, assigneesPerSubtask, timeEntriesPerSubtask, employees, skills, skillsPerEmployee, from, years, seed, passwordHashIterations);
+    }
+
+    public DatasetSpec withEmployees(int employees, int skills, double skillsPerEmployee) {
+        return new DatasetSpec(projects, tasksPerProject, subtasksPerTask, dependencyDensity, assigneesPerSubtask, timeEntriesPerSubtask, employees, skills, skillsPerEmployee, from, years, seed, passwordHashIterations);
+    }
+
+    public DatasetSpec withTimeline(LocalDate from, int years) {
+        return new DatasetSpec(projects, tasksPerProject, subtasksPerTask, dependencyDensity, assigneesPerSubtask, timeEntriesPerSubtask, employees, skills, skillsPerEmployee, from, years, seed, passwordHashIterations);
+    }
+
+    public DatasetSpec withSeed(long seed) {
+        return new DatasetSpec(projects, tasksPerProject, subtasksPerTask, dependencyDensity, assigneesPerSubtask, timeEntriesPerSubtask, employees, skills, skillsPerEmployee, from, years, seed, passwordHashIterations);
+    }
+
+    public DatasetSpec withPasswordHashIterations(int passwordHashIterations) {
+        return new DatasetSpec(projects, tasksPerProject, subtasksPerTask, dependencyDensity, assigneesPerSubtask, timeEntriesPerSubtask, employees, skills, skillsPerEmployee, from, years, seed, passwordHashIterations);
+    }
+}
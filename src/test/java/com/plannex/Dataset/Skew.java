@@ -0,0 +1,46 @@
+package com.plannex.Dataset;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// The distributions behind the generator's skew: a few busy employees and popular skills (Zipf),
+// and fan-outs that are mostly small with a long tail (geometric).
+final class Skew {
+    private final double[] cumulativeWeights;
+
+    private Skew(double[] cumulativeWeights) {
+        this.cumulativeWeights = cumulativeWeights;
+    }
+
+    // Rank k (0-based) of n is drawn with weight 1 / (k + 1)^exponent
+    static Skew zipf(int n, double exponent) {
+        double[] cumulative = new double[n];
+        double total = 0;
+        for (int k = 0; k < n; k++) {
+            total += 1 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }
+        return new Skew(cumulative);
+    }
+
+    int next(SplittableRandom random) {
+        double target = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        int index = Arrays.binarySearch(cumulativeWeights, target);
+        return Math.min(index >= 0 ? index : -index - 1, cumulativeWeights.length - 1);
+    }
+
+    // A count >= 0 with the given mean
+    static int geometric(SplittableRandom random, double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+
+        double p = 1 / (1 + mean);
+        return (int) Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+    }
+
+    // A count >= minimum with the given mean
+    static int atLeast(SplittableRandom random, int minimum, double mean) {
+        return minimum + geometric(random, mean - minimum);
+    }
+}
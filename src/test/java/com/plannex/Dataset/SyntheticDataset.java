@@ -0,0 +1,297 @@
+package com.plannex.Dataset;
+
+import com.plannex.Service.PasswordHasher;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+// Fills an empty Plannex schema (schema.sql or schemah2.sql) with synthetic projects, tasks, subtasks, dependencies,
+// assignees, skills, time entries and artifacts. The same spec and seed always give the same rows, salts aside.
+// Projects and tasks get IDs from 1 in insertion order, every task directly followed by its subtasks.
+// Employees are emp0, emp1, ... and every tenth employee is a manager, starting with emp0. They all share PASSWORD,
+// hashed once, since hashing a password per employee at a production cost would dominate the run.
+// Rows are committed every ROWS_PER_COMMIT rows, so a failed run leaves a partial dataset; rerun the schema script first.
+public final class SyntheticDataset {
+    public static final String PASSWORD = "pw-synthetic";
+    static final int ROWS_PER_STATEMENT = 500;
+    static final int ROWS_PER_COMMIT = 100_000;
+
+    private static final String[] VERBS = { "Design", "Build", "Review", "Test", "Document", "Deploy", "Refactor", "Plan",
+            "Migrate", "Estimate", "Prototype", "Audit", "Clean up", "Set up", "Fix", "Measure" };
+    private static final String[] NOUNS = { "login page", "database schema", "task overview", "time tracking", "project report",
+            "build pipeline", "user manual", "test suite", "invoice export", "GANTT chart", "search", "dashboard",
+            "permissions", "skill matrix", "backup routine", "release notes", "coffee machine", "office party",
+            "customer meeting", "API", "style sheet", "onboarding", "server room", "budget" };
+    private static final String[] WORDS = { "the", "and", "to", "of", "for", "with", "customer", "team", "deadline",
+            "before", "after", "review", "should", "must", "data", "page", "report", "meeting", "agree", "scope",
+            "estimate", "hours", "manager", "worker", "feedback", "changes", "release", "bug", "test", "draft",
+            "budget", "risk", "priority", "sprint", "backlog", "approval", "document", "follow", "up", "weekly" };
+    private static final String[] FIRST_NAMES = { "Anna", "Mads", "Sofie", "Frederik", "Ida", "Mikkel", "Freja", "Emil",
+            "Clara", "Oliver", "Laura", "William", "Emma", "Noah", "Karla", "Lucas" };
+    private static final String[] LAST_NAMES = { "Jensen", "Nielsen", "Hansen", "Pedersen", "Andersen", "Christensen",
+            "Larsen", "Sørensen", "Rasmussen", "Jørgensen", "Petersen", "Madsen", "Kristensen", "Olsen" };
+    private static final String[] SKILLS = { "Java", "SQL", "Spring", "HTML", "CSS", "JavaScript", "Git", "Docker",
+            "Linux", "Testing", "UX", "Project management", "Scrum", "Networking", "Security", "Excel", "Writing",
+            "Python", "Azure", "Accounting", "Sales", "Support", "Thymeleaf", "MySQL", "Design", "Kotlin", "C#",
+            "Statistics", "Negotiation", "Coffee machine repair" };
+
+    public record Summary(int projects, int tasks, int subtasks, int employees, Map<String, Long> rowsPerTable, long elapsedNanos) {
+        public long totalRows() {
+            return rowsPerTable.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public double rowsPerSecond() {
+            return totalRows() / (elapsedNanos / 1e9);
+        }
+    }
+
+    private SyntheticDataset() { }
+
+    public static String username(int employee) {
+        return "emp" + employee;
+    }
+
+    public static Summary generate(DataSource dataSource, DatasetSpec spec) {
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                Generator generator = new Generator(connection, spec);
+                generator.run();
+                connection.commit();
+                return generator.summary(System.nanoTime() - started);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException sqle) {
+            throw new IllegalStateException("Could not generate the synthetic dataset: " + sqle.getMessage(), sqle);
+        }
+    }
+
+    private static final class Generator {
+        private final Connection connection;
+        private final DatasetSpec spec;
+        private final SplittableRandom random;
+        private final Skew busyEmployees;
+        private final Skew popularSkills;
+        private final Skew commonWords;
+        private final LocalDateTime epoch;
+        private final String passwordHash;
+        private final Set<Long> usedTimeSlots = new HashSet<>();
+
+        private final BatchInserter employees;
+        private final BatchInserter permissions;
+        private final BatchInserter skills;
+        private final BatchInserter employeeSkills;
+        private final BatchInserter projects;
+        private final BatchInserter tasks;
+        private final BatchInserter dependencies;
+        private final BatchInserter assignees;
+        private final BatchInserter timeSpent;
+        private final BatchInserter artifacts;
+        private final List<BatchInserter> all;
+
+        private int nextTaskID = 1;
+        private int topLevelTasks;
+        private int subtasks;
+        private long committedRows;
+
+        Generator(Connection connection, DatasetSpec spec) {
+            this.connection = connection;
+            this.spec = spec;
+            this.random = new SplittableRandom(spec.seed());
+            this.busyEmployees = Skew.zipf(spec.employees(), 1.07);
+            this.popularSkills = Skew.zipf(spec.skills(), 1.0);
+            this.commonWords = Skew.zipf(WORDS.length, 1.0);
+            this.epoch = spec.from().atStartOfDay();
+            this.passwordHash = new PasswordHasher(spec.passwordHashIterations()).hash(PASSWORD);
+
+            employees = new BatchInserter(connection, "ProjectEmployees", List.of("EmployeeUsername", "EmployeeName", "EmployeeEmail", "EmployeePassword", "EmployeeWorkingHoursFrom", "EmployeeWorkingHoursTo"), ROWS_PER_STATEMENT);
+            permissions = new BatchInserter(connection, "Permissions", List.of("PermissionTitle", "PermissionHolder"), ROWS_PER_STATEMENT, employees);
+            skills = new BatchInserter(connection, "Skills", List.of("SkillTitle"), ROWS_PER_STATEMENT);
+            employeeSkills = new BatchInserter(connection, "EmployeeSkills", List.of("EmployeeUsername", "SkillTitle", "SkillLevel"), ROWS_PER_STATEMENT, employees, skills);
+            projects = new BatchInserter(connection, "Projects", List.of("ProjectID", "ProjectTitle", "ProjectDescription", "ProjectStart", "ProjectEnd"), ROWS_PER_STATEMENT);
+            tasks = new BatchInserter(connection, "Tasks", List.of("TaskID", "ProjectID", "ParentTaskID", "TaskTitle", "TaskDescription", "TaskStart", "TaskEnd", "TaskDurationHours"), ROWS_PER_STATEMENT, projects);
+            dependencies = new BatchInserter(connection, "TaskDependencies", List.of("TaskIDFor", "MustComeAfterTaskWithID"), ROWS_PER_STATEMENT, tasks);
+            assignees = new BatchInserter(connection, "TaskAssignees", List.of("EmployeeUsername", "TaskID"), ROWS_PER_STATEMENT, employees, tasks);
+            timeSpent = new BatchInserter(connection, "TimeSpent", List.of("OnTaskID", "ByEmployee", "HoursSpent", "_When"), ROWS_PER_STATEMENT, employees, tasks);
+            artifacts = new BatchInserter(connection, "Artifacts", List.of("TaskID", "ArtifactAuthor", "PathToArtifact"), ROWS_PER_STATEMENT, employees, tasks);
+            all = List.of(employees, permissions, skills, employeeSkills, projects, tasks, dependencies, assignees, timeSpent, artifacts);
+        }
+
+        void run() throws SQLException {
+            try {
+                addEmployeesAndSkills();
+                for (int projectID = 1; projectID <= spec.projects(); projectID++) {
+                    addProject(projectID);
+                    commitEveryFewRows();
+                }
+                for (BatchInserter inserter : all) {
+                    inserter.flush();
+                }
+            } finally {
+                for (BatchInserter inserter : all) {
+                    inserter.close();
+                }
+            }
+        }
+
+        // One transaction per ~100k rows keeps H2's undo log and MySQL's redo log small on large datasets
+        private void commitEveryFewRows() throws SQLException {
+            long buffered = 0;
+            for (BatchInserter inserter : all) {
+                buffered += inserter.getRowsWritten();
+            }
+
+            if (buffered - committedRows >= ROWS_PER_COMMIT) {
+                for (BatchInserter inserter : all) {
+                    inserter.flush();
+                }
+                connection.commit();
+                committedRows = buffered;
+            }
+        }
+
+        Summary summary(long elapsedNanos) {
+            Map<String, Long> rowsPerTable = new LinkedHashMap<>();
+            for (BatchInserter inserter : all) {
+                rowsPerTable.put(inserter.getTable(), inserter.getRowsWritten());
+            }
+            return new Summary(spec.projects(), topLevelTasks, subtasks, spec.employees(), rowsPerTable, elapsedNanos);
+        }
+
+        private void addEmployeesAndSkills() throws SQLException {
+            for (int s = 0; s < spec.skills(); s++) {
+                skills.add(skillTitle(s));
+            }
+
+            for (int e = 0; e < spec.employees(); e++) {
+                String username = username(e);
+                LocalTime startsAt = LocalTime.of(7 + random.nextInt(3), 0);
+                employees.add(username, FIRST_NAMES[e % FIRST_NAMES.length] + " " + LAST_NAMES[(e / FIRST_NAMES.length) % LAST_NAMES.length],
+                        username + "@plannex.dk", passwordHash, startsAt, startsAt.plusHours(8));
+                permissions.add(e % 10 == 0 ? "Manager" : "Worker", username);
+
+                Set<Integer> known = new HashSet<>();
+                int wanted = Math.min(spec.skills(), Skew.geometric(random, spec.skillsPerEmployee()));
+                while (known.size() < wanted) {
+                    int skill = popularSkills.next(random);
+                    if (known.add(skill)) {
+                        employeeSkills.add(username, skillTitle(skill), random.nextInt(4) == 0 ? "Expert" : "Intermediate");
+                    }
+                }
+            }
+        }
+
+        private void addProject(int projectID) throws SQLException {
+            int days = spec.years() * 365;
+            LocalDate projectStart = spec.from().plusDays(random.nextInt(Math.max(1, days - 30)));
+            LocalDate projectEnd = projectStart.plusDays(14 + Skew.geometric(random, 90));
+            projects.add(projectID, title() + " " + projectID, description(), projectStart, projectEnd);
+
+            List<Integer> siblings = new ArrayList<>();
+            int taskCount = Skew.atLeast(random, 1, spec.tasksPerProject());
+            for (int t = 0; t < taskCount; t++) {
+                int taskID = nextTaskID++;
+                topLevelTasks++;
+                LocalDate taskStart = within(projectStart, projectEnd);
+                LocalDate taskEnd = min(taskStart.plusDays(1 + Skew.geometric(random, 10)), projectEnd);
+                tasks.add(taskID, projectID, null, title(), description(), taskStart, taskEnd, 1.0f + Skew.geometric(random, 20));
+                dependOnEarlierSibling(taskID, siblings);
+                siblings.add(taskID);
+                addSubtasks(projectID, taskID, taskStart, taskEnd);
+            }
+        }
+
+        private void addSubtasks(int projectID, int parentID, LocalDate parentStart, LocalDate parentEnd) throws SQLException {
+            List<Integer> siblings = new ArrayList<>();
+            int subtaskCount = Skew.geometric(random, spec.subtasksPerTask());
+            for (int s = 0; s < subtaskCount; s++) {
+                int subtaskID = nextTaskID++;
+                subtasks++;
+                LocalDate start = within(parentStart, parentEnd);
+                LocalDate end = min(start.plusDays(Skew.geometric(random, 3)), parentEnd);
+                tasks.add(subtaskID, projectID, parentID, title(), description(), start, end, 0.5f + Skew.geometric(random, 6));
+                dependOnEarlierSibling(subtaskID, siblings);
+                siblings.add(subtaskID);
+
+                List<Integer> assigned = new ArrayList<>();
+                int wanted = Math.min(spec.employees(), Skew.atLeast(random, 1, spec.assigneesPerSubtask()));
+                while (assigned.size() < wanted) {
+                    int employee = busyEmployees.next(random);
+                    if (!assigned.contains(employee)) {
+                        assigned.add(employee);
+                        assignees.add(username(employee), subtaskID);
+                    }
+                }
+
+                int entries = Skew.geometric(random, spec.timeEntriesPerSubtask());
+                for (int e = 0; e < entries; e++) {
+                    int employee = assigned.get(random.nextInt(assigned.size()));
+                    timeSpent.add(subtaskID, username(employee), 0.5f * (1 + random.nextInt(16)), freeTimeSlot(employee, within(start, end)));
+                }
+
+                if (random.nextInt(5) < 2) {
+                    artifacts.add(subtaskID, username(assigned.getFirst()), "docs/task-" + subtaskID + "/" + NOUNS[random.nextInt(NOUNS.length)].replace(' ', '-') + ".md");
+                }
+            }
+        }
+
+        private void dependOnEarlierSibling(int taskID, List<Integer> earlierSiblings) throws SQLException {
+            if (!earlierSiblings.isEmpty() && random.nextDouble() < spec.dependencyDensity()) {
+                dependencies.add(taskID, earlierSiblings.get(random.nextInt(earlierSiblings.size())));
+            }
+        }
+
+        // TimeSpent is keyed on (ByEmployee, _When), so an employee never logs twice at the same second
+        private LocalDateTime freeTimeSlot(int employee, LocalDate day) {
+            long second = ChronoUnit.SECONDS.between(epoch, day.atTime(8, 0)) + random.nextInt(9 * 3600);
+            while (!usedTimeSlots.add(((long) employee << 32) | second)) {
+                second++;
+            }
+            return epoch.plusSeconds(second);
+        }
+
+        private LocalDate within(LocalDate from, LocalDate to) {
+            long span = ChronoUnit.DAYS.between(from, to);
+            return span <= 0 ? from : from.plusDays(random.nextLong(span + 1));
+        }
+
+        private static LocalDate min(LocalDate a, LocalDate b) {
+            return a.isBefore(b) ? a : b;
+        }
+
+        private String title() {
+            return VERBS[random.nextInt(VERBS.length)] + " " + NOUNS[random.nextInt(NOUNS.length)];
+        }
+
+        // Descriptions keep the escaped \n line breaks of datah2.sql, which the row mappers turn into real ones
+        private String description() {
+            return sentence() + "\\n" + sentence();
+        }
+
+        private String sentence() {
+            int words = 6 + random.nextInt(10);
+            StringBuilder sentence = new StringBuilder(words * 8);
+            for (int w = 0; w < words; w++) {
+                String word = WORDS[commonWords.next(random)];
+                sentence.append(w == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : " " + word);
+            }
+            return sentence.append('.').toString();
+        }
+
+        private static String skillTitle(int skill) {
+            return skill < SKILLS.length ? SKILLS[skill] : "Skill " + skill;
+        }
+    }
+}
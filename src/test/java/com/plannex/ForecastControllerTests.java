@@ -0,0 +1,69 @@
+package com.plannex;
+
+import com.plannex.Controller.ForecastController;
+import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Model.CompletionForecast;
+import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.ForecastService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ForecastController.class)
+public class ForecastControllerTests {
+    private static final LocalDate DAY = LocalDate.of(2025, 11, 12);
+
+    @Autowired
+    MockMvc mockMvc;
+    @MockitoBean
+    ForecastService forecastService;
+    @MockitoBean
+    AuthAndPermissionsService authAndPermissionsService;
+
+    private MockHttpSession sessionWithUser(String username) {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("username", username);
+        return session;
+    }
+
+    @Test
+    void getProjectForecastReturnsTheDatesAsJson() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(forecastService.getForecastForProject(1)).thenReturn(new CompletionForecast(1, DAY.plusDays(5), DAY.plusDays(4), DAY.plusDays(6),
+                DAY.plusDays(9), 0.62, 1000, 8, 14, LocalDateTime.now(), 3));
+
+        mockMvc.perform(get("/projects/1/forecast").session(sessionWithUser("marqs")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.p50").value("2025-11-16"))
+                .andExpect(jsonPath("$.p95").value("2025-11-21"))
+                .andExpect(jsonPath("$.onTimeProbability").value(0.62))
+                .andExpect(jsonPath("$.runs").value(1000));
+    }
+
+    @Test
+    void getProjectForecastOfUnknownProjectIsNotFound() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(forecastService.getForecastForProject(999)).thenThrow(new EntityDoesNotExistException("No project with ID 999 exists."));
+
+        mockMvc.perform(get("/projects/999/forecast").session(sessionWithUser("marqs")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getProjectForecastIsUnauthorizedWhenNotLoggedIn() throws Exception {
+        mockMvc.perform(get("/projects/1/forecast"))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(forecastService);
+    }
+}
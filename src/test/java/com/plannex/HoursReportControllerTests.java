@@ -0,0 +1,98 @@
+package com.plannex;
+
+import com.plannex.Controller.HoursReportController;
+import com.plannex.Model.HoursQuery;
+import com.plannex.Model.HoursReport;
+import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.HoursReportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static com.plannex.Model.HoursQuery.Dimension.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(HoursReportController.class)
+public class HoursReportControllerTests {
+    @Autowired
+    MockMvc mockMvc;
+    @MockitoBean
+    HoursReportService hoursReportService;
+    @MockitoBean
+    AuthAndPermissionsService authAndPermissionsService;
+
+    private MockHttpSession sessionWithUser(String username) {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("username", username);
+        return session;
+    }
+
+    private void loggedInAsManager() {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(authAndPermissionsService.isManager(any())).thenReturn(true);
+    }
+
+    @Test
+    void getHoursReportPassesTheQueryAndReturnsTheGroupsAsJson() throws Exception {
+        loggedInAsManager();
+        HoursQuery query = new HoursQuery(List.of(SKILL_LEVEL, MONTH), Set.of(1, 3), Set.of(), "Java-Coder", null, LocalDate.of(2025, 11, 1), null);
+        when(hoursReportService.getHoursReport(query)).thenReturn(new HoursReport(List.of(SKILL_LEVEL, MONTH),
+                List.of(new HoursReport.Group(List.of("Expert", "2025-11"), 37.4, 16)), 37.4, 16, 21, LocalDateTime.of(2025, 11, 20, 9, 0), 12));
+
+        mockMvc.perform(get("/reports/hours?groupBy=skill-level,month&project=1,3&skill=Java-Coder&from=2025-11-01").session(sessionWithUser("marqs")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.groups[0].keys[0]").value("Expert"))
+                .andExpect(jsonPath("$.groups[0].keys[1]").value("2025-11"))
+                .andExpect(jsonPath("$.groups[0].hours").value(37.4))
+                .andExpect(jsonPath("$.rows").value(21));
+    }
+
+    @Test
+    void getHoursReportWithoutParametersSumsEverything() throws Exception {
+        loggedInAsManager();
+        when(hoursReportService.getHoursReport(HoursQuery.groupedBy())).thenReturn(new HoursReport(List.of(),
+                List.of(new HoursReport.Group(List.of(), 40.3, 21)), 40.3, 21, 21, LocalDateTime.of(2025, 11, 20, 9, 0), 3));
+
+        mockMvc.perform(get("/reports/hours").session(sessionWithUser("marqs")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalHours").value(40.3));
+    }
+
+    @Test
+    void getHoursReportByAnUnknownDimensionIsABadRequest() throws Exception {
+        loggedInAsManager();
+
+        mockMvc.perform(get("/reports/hours?groupBy=weather").session(sessionWithUser("marqs")))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(hoursReportService);
+    }
+
+    @Test
+    void getHoursReportIsUnauthorizedWhenNotLoggedIn() throws Exception {
+        mockMvc.perform(get("/reports/hours"))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(hoursReportService);
+    }
+
+    @Test
+    void getHoursReportIsForbiddenForWorkers() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+
+        mockMvc.perform(get("/reports/hours").session(sessionWithUser("RandomWorker")))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(hoursReportService);
+    }
+}
@@ -0,0 +1,99 @@
+package com.plannex;
+
+import com.plannex.Instrumentation.InstrumentedDataSource;
+import com.plannex.Instrumentation.JdbcStatementMetrics;
+import com.plannex.Repository.ProjectRepository;
+import com.plannex.Repository.TaskRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Sql(scripts = { "classpath:schemah2.sql", "classpath:datah2.sql" }, executionPhase=BEFORE_TEST_METHOD)
+public class JdbcInstrumentationTests {
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private DataSource dataSource;
+
+    private long statementCount(String method) {
+        Timer timer = meterRegistry.find("plannex.jdbc.statements").tag("method", method).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double rowTotal(String method) {
+        DistributionSummary summary = meterRegistry.find("plannex.jdbc.rows").tag("method", method).summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+
+    @Test
+    public void dataSourceIsInstrumentedButStillUnwrapsToThePool() throws SQLException {
+        assertInstanceOf(InstrumentedDataSource.class, dataSource);
+        assertTrue(dataSource.isWrapperFor(HikariDataSource.class));
+        assertNotNull(meterRegistry.find("hikaricp.connections.acquire").timer()); // Pool wait time
+        assertNotNull(meterRegistry.find("hikaricp.connections.active").gauge());
+    }
+
+    @Test
+    public void statementsAreAttributedToTheRepositoryMethodThatIssuedThem() {
+        long assigneeQueriesBefore = statementCount("TaskRepository.getAllAssigneesForTask");
+        double assigneeRowsBefore = rowTotal("TaskRepository.getAllAssigneesForTask");
+
+        int assignees = taskRepository.getAllAssigneesForTask(1).size();
+
+        assertEquals(assigneeQueriesBefore + 1, statementCount("TaskRepository.getAllAssigneesForTask"));
+        assertEquals(assigneeRowsBefore + assignees, rowTotal("TaskRepository.getAllAssigneesForTask"));
+    }
+
+    @Test
+    public void nestedRepositoryCallsAreAttributedToTheInnermostMethod() {
+        long lookupsBefore = statementCount("ProjectRepository.requireProject");
+        long sumsBefore = statementCount("ProjectRepository.getTotalTimeSpent");
+        double sumRowsBefore = rowTotal("ProjectRepository.getTotalTimeSpent");
+
+        projectRepository.getTotalTimeSpent(1);
+
+        assertEquals(lookupsBefore + 1, statementCount("ProjectRepository.requireProject"));
+        assertEquals(sumsBefore + 1, statementCount("ProjectRepository.getTotalTimeSpent"));
+        assertEquals(sumRowsBefore + 1, rowTotal("ProjectRepository.getTotalTimeSpent"), 0.0001);
+    }
+
+    @Test
+    public void updatesRecordRowsAffected() {
+        double rowsBefore = rowTotal("TaskRepository.addArtifact");
+        taskRepository.addArtifact(2, "lildawg", "docs/notes.txt");
+        assertEquals(rowsBefore + 1, rowTotal("TaskRepository.addArtifact"), 0.0001);
+    }
+
+    @Test
+    public void metricsAreExposedAsPrometheusHistograms() {
+        PrometheusMeterRegistry prometheusRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        JdbcStatementMetrics metrics = new JdbcStatementMetrics(prometheusRegistry);
+
+        metrics.onStatement("TaskRepository.getAllAssigneesForTask", "SELECT 1", 2_000_000, 3);
+        String scrape = prometheusRegistry.scrape();
+
+        assertTrue(scrape.contains("plannex_jdbc_statements_seconds_bucket{method=\"TaskRepository.getAllAssigneesForTask\""));
+        assertTrue(scrape.contains("plannex_jdbc_statements_seconds_count{method=\"TaskRepository.getAllAssigneesForTask\"} 1"));
+        assertTrue(scrape.contains("plannex_jdbc_rows_sum{method=\"TaskRepository.getAllAssigneesForTask\"} 3.0"));
+    }
+}
@@ -0,0 +1,178 @@
+package com.plannex;
+
+import com.plannex.Controller.OrgUnitController;
+import com.plannex.Model.OrgUnit;
+import com.plannex.Model.OrgUnitRollup;
+import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.OrgUnitService;
+import com.plannex.Service.ProjectEmployeeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(OrgUnitController.class)
+public class OrgUnitControllerTests {
+    @Autowired
+    MockMvc mockMvc;
+    @MockitoBean
+    OrgUnitService orgUnitService;
+    @MockitoBean
+    ProjectEmployeeService projectEmployeeService;
+    @MockitoBean
+    AuthAndPermissionsService authAndPermissionsService;
+
+    private final OrgUnit engineering = new OrgUnit(1, OrgUnit.DEPARTMENT, "Engineering", "Builds it", null);
+    private final OrgUnit backend = new OrgUnit(2, OrgUnit.TEAM, "Backend", "The server", 1);
+
+    private MockHttpSession sessionWithUser(String username) {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("username", username);
+        return session;
+    }
+
+    private void loggedInAsManager() {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(authAndPermissionsService.isManager(any())).thenReturn(true);
+    }
+
+    @Test
+    void showAddDepartmentRoutesCorrectly() throws Exception {
+        loggedInAsManager();
+        when(orgUnitService.getPossibleParents(OrgUnit.DEPARTMENT, 0)).thenReturn(List.of(engineering));
+
+        mockMvc.perform(get("/departments/add").session(sessionWithUser("marqs")))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("unit", "allEmployees"))
+                .andExpect(model().attribute("possibleParents", List.of(engineering)))
+                .andExpect(view().name("create_dept"));
+    }
+
+    @Test
+    void showAddTeamStartsUnderTheGivenParent() throws Exception {
+        loggedInAsManager();
+        when(orgUnitService.getPossibleParents(OrgUnit.TEAM, 0)).thenReturn(List.of(engineering, backend));
+
+        mockMvc.perform(get("/teams/add").param("parent", "1").session(sessionWithUser("marqs")))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("unit", hasProperty("parentID", is(1))))
+                .andExpect(view().name("create_team"));
+    }
+
+    @Test
+    void showAddRedirectsOnNotLoggedIn() throws Exception {
+        mockMvc.perform(get("/teams/add"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/login"));
+    }
+
+    @Test
+    void showAddIsForbiddenForWorkers() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+
+        mockMvc.perform(get("/departments/add").session(sessionWithUser("RandomWorker")))
+                .andExpect(status().isForbidden())
+                .andExpect(view().name("error"));
+    }
+
+    @Test
+    void saveTeamSetsItsKindAndRedirects() throws Exception {
+        loggedInAsManager();
+
+        mockMvc.perform(post("/teams/add").session(sessionWithUser("marqs"))
+                        .param("title", "Platform")
+                        .param("description", "Shared services")
+                        .param("parentID", "1")
+                        .param("memberUsernames", "marqs", "RandomWorker"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/employees"));
+
+        verify(orgUnitService, times(1)).addOrgUnit(argThat(u -> OrgUnit.TEAM.equals(u.getKind()) && "Platform".equals(u.getTitle())
+                && u.getParentID() == 1 && u.getMemberUsernames().equals(List.of("marqs", "RandomWorker"))));
+    }
+
+    @Test
+    void saveDepartmentWithoutParentOrMembers() throws Exception {
+        loggedInAsManager();
+
+        mockMvc.perform(post("/departments/add").session(sessionWithUser("marqs"))
+                        .param("title", "Research")
+                        .param("parentID", ""))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/employees"));
+
+        verify(orgUnitService, times(1)).addOrgUnit(argThat(u -> u.isDepartment() && u.getParentID() == null && u.getMemberUsernames().isEmpty()));
+    }
+
+    @Test
+    void showEditTeamRoutesCorrectly() throws Exception {
+        loggedInAsManager();
+        when(orgUnitService.getOrgUnitByID(2)).thenReturn(backend);
+        when(orgUnitService.getRollup(2)).thenReturn(new OrgUnitRollup(2, 16, 2.4f));
+
+        mockMvc.perform(get("/teams/2/edit").session(sessionWithUser("marqs")))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("unit", backend))
+                .andExpect(model().attributeExists("membersUnder", "rollup", "possibleParents"))
+                .andExpect(view().name("edit_team"));
+
+        verify(orgUnitService, times(1)).getPossibleParents(OrgUnit.TEAM, 2);
+    }
+
+    @Test
+    void showEditDepartmentOfATeamIsNotFound() throws Exception {
+        loggedInAsManager();
+        when(orgUnitService.getOrgUnitByID(2)).thenReturn(backend);
+
+        mockMvc.perform(get("/departments/2/edit").session(sessionWithUser("marqs")))
+                .andExpect(status().isNotFound())
+                .andExpect(view().name("error"));
+    }
+
+    @Test
+    void updateDepartmentCallsServiceAndRedirects() throws Exception {
+        loggedInAsManager();
+        when(orgUnitService.getOrgUnitByID(1)).thenReturn(engineering);
+
+        mockMvc.perform(post("/departments/1/edit").session(sessionWithUser("marqs"))
+                        .param("title", "Engineers")
+                        .param("description", "Builds it"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/employees"));
+
+        verify(orgUnitService, times(1)).updateOrgUnit(argThat(u -> "Engineers".equals(u.getTitle())), eq(1));
+    }
+
+    @Test
+    void deleteTeamCallsServiceAndRedirects() throws Exception {
+        loggedInAsManager();
+        when(orgUnitService.getOrgUnitByID(2)).thenReturn(backend);
+
+        mockMvc.perform(post("/teams/2/delete").session(sessionWithUser("marqs")))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/employees"));
+
+        verify(orgUnitService, times(1)).deleteOrgUnit(2);
+    }
+
+    @Test
+    void deleteIsForbiddenForWorkers() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+
+        mockMvc.perform(post("/teams/2/delete").session(sessionWithUser("RandomWorker")))
+                .andExpect(status().isForbidden());
+
+        verify(orgUnitService, never()).deleteOrgUnit(anyInt());
+    }
+}
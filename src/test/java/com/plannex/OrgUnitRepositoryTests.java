@@ -0,0 +1,203 @@
+package com.plannex;
+
+import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Exception.InvalidValueException;
+import com.plannex.Model.OrgUnit;
+import com.plannex.Model.OrgUnitRollup;
+import com.plannex.Model.ProjectEmployee;
+import com.plannex.Repository.OrgUnitRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Sql(scripts = { "classpath:schemah2.sql", "classpath:datah2.sql" }, executionPhase=BEFORE_TEST_METHOD)
+public class OrgUnitRepositoryTests {
+    @Autowired
+    private OrgUnitRepository orgUnitRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    private final AssertThrowsHelper assertThrowsHelper = new AssertThrowsHelper();
+
+    // Engineering (1) > Backend (2), Frontend (3); Management (4)
+    private OrgUnit team(String title, Integer parentID, String... members) {
+        OrgUnit unit = new OrgUnit(0, OrgUnit.TEAM, title, "The " + title + " team", parentID);
+        unit.setMemberUsernames(List.of(members));
+        return unit;
+    }
+
+    private List<Integer> ancestorsOf(int orgUnitID) {
+        return jdbcTemplate.queryForList("SELECT AncestorID FROM OrgUnitClosure WHERE DescendantID = ? ORDER BY Depth;", Integer.class, orgUnitID);
+    }
+
+    private List<String> usernames(List<ProjectEmployee> employees) {
+        return employees.stream().map(ProjectEmployee::getEmployeeUsername).toList();
+    }
+
+    @Test
+    public void addOrgUnitLinksItToEveryAncestor() {
+        OrgUnit platform = team("Platform", 2);
+        assertEquals(1, orgUnitRepository.addOrgUnit(platform));
+
+        assertEquals(5, platform.getID());
+        assertEquals(List.of(5, 2, 1), ancestorsOf(5));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT Depth FROM OrgUnitClosure WHERE AncestorID = 1 AND DescendantID = 5;", Integer.class));
+    }
+
+    @Test
+    public void addOrgUnitTakesMembersOutOfTheirOldUnit() {
+        orgUnitRepository.addOrgUnit(team("Platform", 2, "marqs"));
+
+        assertEquals(List.of("marqs"), orgUnitRepository.getOrgUnitByIDOrThrow(5).getMemberUsernames());
+        assertEquals(List.of("RandomWorker"), orgUnitRepository.getOrgUnitByIDOrThrow(2).getMemberUsernames());
+    }
+
+    @Test
+    public void addOrgUnitRejectsTeamsAtTheTopAndDepartmentsUnderTeams() {
+        assertThrowsHelper.verifyExceptionThrownWithMessage("A team must belong to a department or another team.", InvalidValueException.class,
+                () -> orgUnitRepository.addOrgUnit(team("Loose", null)));
+        assertThrowsHelper.verifyExceptionThrownWithMessage("A department can only sit under another department.", InvalidValueException.class,
+                () -> orgUnitRepository.addOrgUnit(new OrgUnit(0, OrgUnit.DEPARTMENT, "Research", null, 2)));
+        assertThrowsHelper.verifyExceptionThrownWithMessage("A department or team needs a title.", InvalidValueException.class,
+                () -> orgUnitRepository.addOrgUnit(team(" ", 1)));
+    }
+
+    @Test
+    public void addOrgUnitRejectsMembersWhoAreNotEmployees() {
+        assertThrowsHelper.verifyExceptionThrownWithMessage("Every member must be an existing employee.", EntityDoesNotExistException.class,
+                () -> orgUnitRepository.addOrgUnit(team("Ghosts", 1, "nobody")));
+        assertEquals(4, orgUnitRepository.getAllOrgUnits().size());
+    }
+
+    @Test
+    public void getOrgUnitByIDOrThrowThrowsOnNonExistentID() {
+        assertThrowsHelper.verifyExceptionThrownWithMessage("No department or team with ID 99 exists.", EntityDoesNotExistException.class,
+                () -> orgUnitRepository.getOrgUnitByIDOrThrow(99));
+        assertTrue(orgUnitRepository.findOrgUnitByID(99).isEmpty());
+    }
+
+    @Test
+    public void getAllOrgUnitsListsThemInTreeOrderWithTheirDepth() {
+        orgUnitRepository.addOrgUnit(team("Api", 2));
+
+        List<OrgUnit> units = orgUnitRepository.getAllOrgUnits();
+        assertEquals(List.of("Engineering", "Backend", "Api", "Frontend", "Management"), units.stream().map(OrgUnit::getTitle).toList());
+        assertEquals(List.of(0, 1, 2, 1, 0), units.stream().map(OrgUnit::getDepth).toList());
+    }
+
+    @Test
+    public void getMembersUnderIncludesEveryUnitUnderIt() {
+        assertEquals(List.of("RandomWorker", "bigdawg", "marqs"), usernames(orgUnitRepository.getMembersUnder(1)).stream().sorted().toList());
+        assertEquals(List.of("RandomWorker", "marqs"), usernames(orgUnitRepository.getMembersUnder(2)).stream().sorted().toList());
+        assertEquals(List.of("lildawg"), usernames(orgUnitRepository.getMembersUnder(4)));
+    }
+
+    @Test
+    public void getRollupSumsMembersCapacityAndLoggedHoursOfTheSubtree() {
+        OrgUnitRollup engineering = orgUnitRepository.getRollup(1);
+        assertEquals(3, engineering.members());
+        assertEquals(24, engineering.dailyCapacityHours(), 0.01);
+        assertEquals(2.9167, engineering.loggedHours(), 0.01);
+
+        OrgUnitRollup frontend = orgUnitRepository.getRollup(3);
+        assertEquals(1, frontend.members());
+        assertEquals(8, frontend.dailyCapacityHours(), 0.01);
+        assertEquals(0.5, frontend.loggedHours(), 0.01);
+    }
+
+    @Test
+    public void getAllRollupsMatchesTheRollupOfEachUnit() {
+        orgUnitRepository.addOrgUnit(team("Empty", 1));
+
+        Map<Integer, OrgUnitRollup> rollups = orgUnitRepository.getAllRollups();
+        for (int orgUnitID = 1; orgUnitID <= 4; orgUnitID++) {
+            OrgUnitRollup expected = orgUnitRepository.getRollup(orgUnitID);
+            assertEquals(expected.members(), rollups.get(orgUnitID).members());
+            assertEquals(expected.dailyCapacityHours(), rollups.get(orgUnitID).dailyCapacityHours(), 0.01);
+            assertEquals(expected.loggedHours(), rollups.get(orgUnitID).loggedHours(), 0.01);
+        }
+        assertFalse(rollups.containsKey(5));
+    }
+
+    @Test
+    public void updateOrgUnitMovesTheWholeSubtree() {
+        orgUnitRepository.addOrgUnit(team("Api", 2));
+        OrgUnit backend = orgUnitRepository.getOrgUnitByIDOrThrow(2);
+        backend.setParentID(4);
+
+        assertEquals(1, orgUnitRepository.updateOrgUnit(backend, 2));
+
+        assertEquals(List.of(2, 4), ancestorsOf(2));
+        assertEquals(List.of(5, 2, 4), ancestorsOf(5));
+        assertEquals(List.of("bigdawg"), usernames(orgUnitRepository.getMembersUnder(1)));
+        assertEquals(List.of("RandomWorker", "lildawg", "marqs"), usernames(orgUnitRepository.getMembersUnder(4)).stream().sorted().toList());
+        assertEquals(4, orgUnitRepository.getOrgUnitByIDOrThrow(2).getParentID());
+    }
+
+    @Test
+    public void updateOrgUnitMovesADepartmentToTheTop() {
+        OrgUnit research = new OrgUnit(0, OrgUnit.DEPARTMENT, "Research", null, 1);
+        orgUnitRepository.addOrgUnit(research);
+        orgUnitRepository.addOrgUnit(team("Lab", 5));
+
+        research.setParentID(null);
+        orgUnitRepository.updateOrgUnit(research, 5);
+
+        assertEquals(List.of(5), ancestorsOf(5));
+        assertEquals(List.of(6, 5), ancestorsOf(6));
+    }
+
+    @Test
+    public void updateOrgUnitRejectsMovingItUnderItself() {
+        orgUnitRepository.addOrgUnit(team("Api", 2));
+        OrgUnit backend = orgUnitRepository.getOrgUnitByIDOrThrow(2);
+        backend.setParentID(5);
+
+        assertThrowsHelper.verifyExceptionThrownWithMessage("A department or team cannot be moved under itself or anything under it.", InvalidValueException.class,
+                () -> orgUnitRepository.updateOrgUnit(backend, 2));
+        assertEquals(List.of(2, 1), ancestorsOf(2));
+    }
+
+    @Test
+    public void updateOrgUnitKeepsItsKind() {
+        OrgUnit engineering = orgUnitRepository.getOrgUnitByIDOrThrow(1);
+        engineering.setKind(OrgUnit.TEAM);
+        engineering.setTitle("Engineers");
+
+        orgUnitRepository.updateOrgUnit(engineering, 1);
+
+        OrgUnit after = orgUnitRepository.getOrgUnitByIDOrThrow(1);
+        assertTrue(after.isDepartment());
+        assertEquals("Engineers", after.getTitle());
+    }
+
+    @Test
+    public void updateOrgUnitReplacesItsMembers() {
+        OrgUnit frontend = orgUnitRepository.getOrgUnitByIDOrThrow(3);
+        frontend.setMemberUsernames(List.of("bigdawg", "marqs"));
+
+        orgUnitRepository.updateOrgUnit(frontend, 3);
+
+        assertEquals(List.of("bigdawg", "marqs"), orgUnitRepository.getOrgUnitByIDOrThrow(3).getMemberUsernames());
+        assertEquals(List.of("RandomWorker"), orgUnitRepository.getOrgUnitByIDOrThrow(2).getMemberUsernames());
+    }
+
+    @Test
+    public void deleteOrgUnitDeletesEverythingUnderIt() {
+        assertEquals(1, orgUnitRepository.deleteOrgUnit(1));
+
+        assertEquals(List.of("Management"), orgUnitRepository.getAllOrgUnits().stream().map(OrgUnit::getTitle).toList());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM OrgUnitClosure;", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM OrgUnitMembers;", Integer.class));
+    }
+}
@@ -0,0 +1,92 @@
+package com.plannex;
+
+import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Service.PageLoadingService;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageLoadingServiceTests {
+    private final PageLoadingService serialLoader = new PageLoadingService(false);
+    private final PageLoadingService concurrentLoader = new PageLoadingService(true);
+    private final AssertThrowsHelper assertThrowsHelper = new AssertThrowsHelper();
+
+    private static Map<String, Supplier<?>> threeFragments() {
+        Map<String, Supplier<?>> fragments = new LinkedHashMap<>();
+        fragments.put("task", () -> "Project startup");
+        fragments.put("timeSpent", () -> 22.5);
+        fragments.put("assignees", () -> List.of("lildawg", "marqs"));
+        return fragments;
+    }
+
+    @Test
+    void serialLoadAllKeepsNamesAndOrder() {
+        Map<String, Object> loaded = serialLoader.loadAll(threeFragments());
+        assertEquals(List.of("task", "timeSpent", "assignees"), List.copyOf(loaded.keySet()));
+        assertEquals("Project startup", loaded.get("task"));
+        assertEquals(22.5, loaded.get("timeSpent"));
+        assertEquals(List.of("lildawg", "marqs"), loaded.get("assignees"));
+    }
+
+    @Test
+    void concurrentLoadAllKeepsNamesAndOrder() {
+        assertEquals(serialLoader.loadAll(threeFragments()), concurrentLoader.loadAll(threeFragments()));
+        assertEquals(List.of("task", "timeSpent", "assignees"), List.copyOf(concurrentLoader.loadAll(threeFragments()).keySet()));
+    }
+
+    @Test
+    void concurrentLoadEachRunsSuppliersAtTheSameTime() {
+        CountDownLatch allStarted = new CountDownLatch(3);
+        Supplier<Boolean> waitsForTheOthers = () -> {
+            allStarted.countDown();
+            try {
+                return allStarted.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ie) {
+                return false;
+            }
+        };
+
+        assertEquals(List.of(true, true, true), concurrentLoader.loadEach(List.of(waitsForTheOthers, waitsForTheOthers, waitsForTheOthers)));
+    }
+
+    @Test
+    void concurrentLoadEachRethrowsTheOriginalExceptionAndCancelsTheRest() {
+        AtomicBoolean slowPartInterrupted = new AtomicBoolean(false);
+        Supplier<String> slowPart = () -> {
+            try {
+                Thread.sleep(10_000);
+                return "too late";
+            } catch (InterruptedException ie) {
+                slowPartInterrupted.set(true);
+                return null;
+            }
+        };
+        Supplier<String> failingPart = () -> {
+            throw new EntityDoesNotExistException("No task with ID -1 exists.");
+        };
+
+        long started = System.nanoTime();
+        assertThrowsHelper.verifyExceptionThrownWithMessage("No task with ID -1 exists.", EntityDoesNotExistException.class,
+                () -> concurrentLoader.loadEach(List.of(slowPart, failingPart)));
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started) < 5);
+        assertTrue(slowPartInterrupted.get());
+    }
+
+    @Test
+    void serialLoadEachRethrowsTheOriginalException() {
+        Supplier<String> failingPart = () -> {
+            throw new EntityDoesNotExistException("No task with ID -1 exists.");
+        };
+
+        assertThrowsHelper.verifyExceptionThrownWithMessage("No task with ID -1 exists.", EntityDoesNotExistException.class,
+                () -> serialLoader.loadEach(List.of(() -> "fine", failingPart)));
+    }
+}
@@ -0,0 +1,75 @@
+package com.plannex;
+
+import com.plannex.Search.PrefixTrie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrefixTrieTests {
+    private PrefixTrie<String> trie;
+
+    @BeforeEach
+    void fillTrie() {
+        trie = new PrefixTrie<>();
+        for (String key : List.of("marqs", "max", "max-emil", "markus", "random", "randomworker", "emil")) {
+            trie.put(key, key.toUpperCase());
+        }
+    }
+
+    @Test
+    public void completeReturnsMatchesInKeyOrder() {
+        assertEquals(List.of("MARKUS", "MARQS", "MAX", "MAX-EMIL"), trie.complete("ma", 10, v -> true));
+        assertEquals(List.of("MAX", "MAX-EMIL"), trie.complete("max", 10, v -> true));
+        assertEquals(List.of("RANDOM", "RANDOMWORKER"), trie.complete("rand", 10, v -> true));
+    }
+
+    @Test
+    public void completeMatchesPrefixesEndingInsideAnEdge() {
+        assertEquals(List.of("RANDOMWORKER"), trie.complete("randomw", 10, v -> true));
+        assertEquals(List.of(), trie.complete("randomx", 10, v -> true));
+        assertEquals(List.of(), trie.complete("marqsss", 10, v -> true));
+    }
+
+    @Test
+    public void completeStopsAtTheLimitAndAppliesTheFilter() {
+        assertEquals(List.of("MARKUS", "MARQS"), trie.complete("ma", 2, v -> true));
+        assertEquals(List.of("EMIL", "MAX-EMIL"), trie.complete("", 10, v -> v.contains("EMIL")));
+        assertEquals(List.of(), trie.complete("ma", 0, v -> true));
+    }
+
+    @Test
+    public void aValueUnderSeveralKeysIsReturnedOnce() {
+        trie.put("emil", "MAX-EMIL");
+
+        assertEquals(List.of("EMIL", "MAX-EMIL"), trie.complete("", 10, v -> v.contains("EMIL")));
+        assertEquals(List.of("EMIL", "MAX-EMIL"), trie.complete("e", 10, v -> true));
+    }
+
+    @Test
+    public void removeLeavesTheOtherKeysIntact() {
+        assertTrue(trie.remove("max", "MAX"));
+        assertFalse(trie.remove("max", "MAX"));
+        assertFalse(trie.remove("ma", "MA"));
+
+        assertEquals(List.of("MAX-EMIL"), trie.complete("max", 10, v -> true));
+        assertTrue(trie.remove("max-emil", "MAX-EMIL"));
+        assertEquals(List.of("MARKUS", "MARQS"), trie.complete("ma", 10, v -> true));
+        assertEquals(List.of("MARQS"), trie.complete("marq", 10, v -> true));
+        assertEquals(5, trie.size());
+    }
+
+    @Test
+    public void removingEverythingEmptiesTheTrie() {
+        for (String key : List.of("marqs", "max", "max-emil", "markus", "random", "randomworker", "emil")) {
+            assertTrue(trie.remove(key, key.toUpperCase()));
+        }
+
+        assertEquals(0, trie.size());
+        assertEquals(List.of(), trie.complete("", 10, v -> true));
+        trie.put("max", "MAX");
+        assertEquals(List.of("MAX"), trie.complete("m", 10, v -> true));
+    }
+}
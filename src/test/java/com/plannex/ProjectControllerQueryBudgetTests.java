@@ -0,0 +1,62 @@
+package com.plannex;
+
+import com.plannex.Instrumentation.QueryBudgetFilter;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Sql(scripts = { "classpath:schemah2.sql", "classpath:datah2.sql", "classpath:org/springframework/session/jdbc/schema-h2.sql" }, executionPhase=BEFORE_TEST_METHOD)
+// Budgets are the statement counts of today, session reads and writes included. Lower them when a page gets cheaper.
+public class ProjectControllerQueryBudgetTests {
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    QueryBudgetFilter queryBudgetFilter;
+    private Cookie sessionCookie;
+
+    @BeforeEach
+    void logIn() throws Exception {
+        sessionCookie = mockMvc.perform(post("/login").param("username", "lildawg").param("password", "fAbc#21Y"))
+                .andReturn().getResponse().getCookie("SESSION");
+    }
+
+    @Test
+    void displayProjectsPageStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/projects").cookie(sessionCookie))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(20));
+    }
+
+    @Test
+    void getProjectStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/projects/1").cookie(sessionCookie))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(46)); // 50 before the forecast was fetched after the page
+    }
+
+    // The logged budget matches the one pinned above, so viewing a project logs no warning
+    @Test
+    void getProjectHasItsOwnBudgetAndTheRestTheDefault() throws Exception {
+        MvcResult project = mockMvc.perform(get("/projects/1").cookie(sessionCookie)).andReturn();
+        MvcResult projects = mockMvc.perform(get("/projects").cookie(sessionCookie)).andReturn();
+
+        assertEquals(46, queryBudgetFilter.budgetFor(project.getRequest()));
+        assertEquals(25, queryBudgetFilter.budgetFor(projects.getRequest()));
+    }
+}
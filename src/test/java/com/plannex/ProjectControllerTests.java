@@ -1,9 +1,14 @@
 package com.plannex;
 
 import com.plannex.Controller.ProjectController;
+import com.plannex.Exception.EditConflictException;
 import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Model.BurnChart;
+import com.plannex.Model.CompletionForecast;
 import com.plannex.Model.Project;
+import com.plannex.Model.ProjectSummary;
 import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.BurnChartService;
 import com.plannex.Service.ProjectEmployeeService;
 import com.plannex.Service.ProjectService;
 import com.plannex.Service.TaskService;
@@ -17,6 +22,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDate;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -34,6 +40,8 @@ public class ProjectControllerTests {
     private AuthAndPermissionsService authAndPermissionsService;
     @MockitoBean
     private TaskService taskService;
+    @MockitoBean
+    private BurnChartService burnChartService;
 
     private MockHttpSession sessionWithUser(String username) {
         MockHttpSession session = new MockHttpSession();
@@ -91,14 +99,14 @@ public class ProjectControllerTests {
 
     @Test
     void displayProjectsShowsAllProjectsAndReturnsExpectedStatusOnLoggedIn() throws Exception {
-        List<Project> allProjects = List.of(
-                new Project(1, "The Plannex Project", "A project planning tool for our customer.\nIs to allow splitting of projects into tasks with subtasks.\nNice to have features would be GANTT chart generation and resource management", LocalDate.of(2025, 11, 12), LocalDate.of(2025, 12, 17)),
-                new Project(2, "Coffee machine repairs on the second floor", "The coffee machine has been broken for a grueling three days now.\nCalls to the repairman revealed that we could do this ourselves to save money.\nShould the machine remain in disrepair, none of our projects will be released on schedule.", LocalDate.of(2025, 11, 12), LocalDate.of(2025, 11, 13)),
-                new Project(3, "Secret Santa but in the Danish way", "Christmas is around the corner and it is an office tradition.\nHere, employees sign up to torment others and to being tormented by others.\nWarning: Extreme pranks (razor blades hidden in otherwise delicious fudge, irritants placed on toilet paper, ordering colleagues to write valid tar commands without access to the manual pages, etc.) will subject you to disciplinary action.", LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 20)),
-                new Project(4, "Calculator SaaS", "Our customers desparately want a calculator stored in the cloud, this is our answer to their prayers.\nIn essence, it is an expression lexer, parser and evaluator. It is to support:\n* Parenthesized expressions\n* User-defined and built in functions\n* Testable components", LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 8))
+        List<ProjectSummary> allProjects = List.of(
+                new ProjectSummary(1, "The Plannex Project", LocalDate.of(2025, 11, 12), LocalDate.of(2025, 12, 17), 0),
+                new ProjectSummary(2, "Coffee machine repairs on the second floor", LocalDate.of(2025, 11, 12), LocalDate.of(2025, 11, 13), 0),
+                new ProjectSummary(3, "Secret Santa but in the Danish way", LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 20), 0),
+                new ProjectSummary(4, "Calculator SaaS", LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 8), 0)
         );
 
-        when(projectService.getAllProjects()).thenReturn(allProjects);
+        when(projectService.getAllProjectSummaries()).thenReturn(allProjects);
         when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
 
         mockMvc.perform(get("/projects").session(sessionWithUser("MRY")))
@@ -111,10 +119,46 @@ public class ProjectControllerTests {
                 .andExpect(model().attributeExists("isManager"))
                 .andExpect(view().name("projects_window"));
 
-        verify(projectService, times(1)).getAllProjects();
+        verify(projectService, times(1)).getAllProjectSummaries();
         verify(authAndPermissionsService, times(1)).isLoggedIn(argThat(s -> "MRY".equals(s.getAttribute("username").toString())));
     }
 
+    @Test
+    void displayProjectsShowsManagersTheDeletedProjects() throws Exception {
+        List<Project> deleted = List.of(new Project(2, "Coffee machine repairs on the second floor", "Fixed.", LocalDate.of(2025, 11, 12), LocalDate.of(2025, 11, 13)));
+        when(projectService.getAllProjectSummaries()).thenReturn(List.of());
+        when(projectService.getDeletedProjects()).thenReturn(deleted);
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(authAndPermissionsService.isManager(any())).thenReturn(true);
+
+        mockMvc.perform(get("/projects").session(sessionWithUser("MRY")))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("deletedProjects", deleted))
+                .andExpect(view().name("projects_window"));
+    }
+
+    @Test
+    void undeleteProjectUndeletesAndRedirectsForManagers() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(authAndPermissionsService.isManager(any())).thenReturn(true);
+
+        mockMvc.perform(post("/projects/2/undelete").session(sessionWithUser("MRY")))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/projects/2"));
+        verify(projectService, times(1)).undeleteProjectByID(2);
+    }
+
+    @Test
+    void undeleteProjectIsForbiddenToWorkers() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(authAndPermissionsService.isManager(any())).thenReturn(false);
+
+        mockMvc.perform(post("/projects/2/undelete").session(sessionWithUser("lildawg")))
+                .andExpect(status().isForbidden())
+                .andExpect(model().attribute("message", "Only managers may undelete projects."));
+        verify(projectService, never()).undeleteProjectByID(anyInt());
+    }
+
     @Test
     void displayProjectsRedirectsOnNotLoggedIn() throws Exception {
         mockMvc.perform(get("/projects"))
@@ -142,6 +186,34 @@ public class ProjectControllerTests {
         verify(authAndPermissionsService, times(1)).isLoggedIn(argThat(s -> "MRY".equals(s.getAttribute("username").toString())));
     }
 
+    @Test
+    void getProjectDrawsTheBurnChart() throws Exception {
+        LocalDate start = LocalDate.of(2025, 11, 12);
+        when(projectService.getProjectByID(1)).thenReturn(new Project(1, "The Plannex Project", "", start, start.plusDays(1)));
+        when(burnChartService.getBurnChartForProject(1, null, null)).thenReturn(new BurnChart(1, 0, 10, start, start.plusDays(1), start, start.plusDays(1), 4,
+                List.of(start, start.plusDays(1)), new double[] { 1, 4 }, new double[] { 9, 6 }, new double[] { 10, 0 }));
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+
+        mockMvc.perform(get("/projects/1").session(sessionWithUser("MRY")))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("burnChart"))
+                .andExpect(content().string(containsString("<polyline class=\"burn-remaining\" points=\"0.0,20.0 600.0,80.0\">")));
+    }
+
+    // The forecast may take seconds to simulate, so forecast.js fetches it once the page is there
+    @Test
+    void getProjectLeavesTheCompletionForecastToLoadAfterThePage() throws Exception {
+        LocalDate start = LocalDate.of(2025, 11, 12);
+        when(projectService.getProjectByID(1)).thenReturn(new Project(1, "The Plannex Project", "", start, start.plusDays(5)));
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+
+        mockMvc.perform(get("/projects/1").session(sessionWithUser("MRY")))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeDoesNotExist("forecast"))
+                .andExpect(content().string(containsString("data-forecast=\"/projects/1/forecast\"")))
+                .andExpect(content().string(containsString("<script src=\"/forecast.js\"></script>")));
+    }
+
     @Test
     void getProjectRedirectsOnNotLoggedIn() throws Exception {
         mockMvc.perform(get("/projects/1"))
@@ -230,6 +302,22 @@ public class ProjectControllerTests {
         verify(projectService, times(1)).updateProject(new Project(0, "A title", "A description", LocalDate.of(2025, 11, 12), LocalDate.of(2025, 12, 17)), 1);
     }
 
+    @Test
+    void editProjectShowsAConflictIfSomeoneElseSavedTheProjectFirst() throws Exception {
+        when(projectService.updateProject(any(), eq(1))).thenThrow(new EditConflictException("Someone else saved changes to the project with ID 1 while you were editing it. Open it again to see them, then make your changes again."));
+
+        mockMvc.perform(post("/projects/1/edit")
+                        .param("version", "3")
+                        .param("projectTitle", "A title")
+                        .param("projectDescription", "A description")
+                        .param("projectStart", "2025-11-12")
+                        .param("projectEnd", "2025-12-17"))
+                .andExpect(status().isConflict())
+                .andExpect(model().attribute("message", "Someone else saved changes to the project with ID 1 while you were editing it. Open it again to see them, then make your changes again."))
+                .andExpect(view().name("error"));
+        verify(projectService, times(1)).updateProject(argThat(p -> p.getVersion() == 3), eq(1));
+    }
+
     @Test
     void deleteProjectWorksAsExpectedWithSufficientPermissions() throws Exception {
         Project aProject = new Project(1, "The Plannex Project", "A project planning tool for our customer.\nIs to allow splitting of projects into tasks with subtasks.\nNice to have features would be GANTT chart generation and resource management", LocalDate.of(2025, 11, 12), LocalDate.of(2025, 12, 17));
@@ -3,8 +3,11 @@ package com.plannex;
 import com.plannex.Controller.ProjectEmployeeController;
 import com.plannex.Exception.EntityDoesNotExistException;
 import com.plannex.Model.EmployeeSkill;
+import com.plannex.Model.OrgUnit;
+import com.plannex.Model.OrgUnitRollup;
 import com.plannex.Model.ProjectEmployee;
 import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.OrgUnitService;
 import com.plannex.Service.ProjectEmployeeService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +18,9 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.Mockito.*;
@@ -31,6 +36,8 @@ public class ProjectEmployeeControllerTests {
     ProjectEmployeeService projectEmployeeService;
     @MockitoBean
     AuthAndPermissionsService authAndPermissionsService;
+    @MockitoBean
+    OrgUnitService orgUnitService;
 
     private MockHttpSession sessionWithUser(String username) {
         MockHttpSession session = new MockHttpSession();
@@ -141,6 +148,23 @@ public class ProjectEmployeeControllerTests {
         verify(authAndPermissionsService, times(1)).isLoggedIn(argThat(s -> "MRY".equals(s.getAttribute("username").toString())));
     }
 
+    @Test
+    void showAllEmployeesListsDepartmentsAndTeamsWithTheirRollups() throws Exception {
+        OrgUnit engineering = new OrgUnit(1, OrgUnit.DEPARTMENT, "Engineering", null, null);
+        OrgUnit backend = new OrgUnit(2, OrgUnit.TEAM, "Backend", null, 1);
+        backend.setDepth(1);
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(orgUnitService.getAllOrgUnits()).thenReturn(List.of(engineering, backend));
+        when(orgUnitService.getAllRollups()).thenReturn(Map.of(1, new OrgUnitRollup(3, 24, 2.9f)));
+
+        mockMvc.perform(get("/employees").session(sessionWithUser("MRY")))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("orgUnits", List.of(engineering, backend)))
+                .andExpect(content().string(containsString("3 members, 24.0 h/day, 2.9 h logged")))
+                .andExpect(content().string(containsString("0 members, 0.0 h/day, 0.0 h logged")))
+                .andExpect(content().string(containsString("/teams/2/edit")));
+    }
+
     @Test
     void showAllEmployeesRedirectsOnNotLoggedIn() throws Exception {
         mockMvc.perform(get("/employees"))
@@ -393,7 +417,7 @@ public class ProjectEmployeeControllerTests {
                 .andExpect(status().isOk())
                 .andExpect(model().attributeExists("skillDTO"))
                 .andExpect(model().attribute("allLevels", List.of("Intermediate", "Expert")))
-                .andExpect(model().attributeExists("allUsers"))
+                .andExpect(model().attributeDoesNotExist("allUsers"))
                 .andExpect(model().attributeExists("sessionUser"))
                         .andExpect(view().name("add_skills"));
 
@@ -2,6 +2,8 @@ package com.plannex;
 
 import com.plannex.Exception.EntityAlreadyExistsException;
 import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Model.EmployeeCredentials;
+import com.plannex.Model.EmployeePrincipal;
 import com.plannex.Model.EmployeeSkill;
 import com.plannex.Model.ProjectEmployee;
 import com.plannex.Repository.ProjectEmployeeRepository;
@@ -15,6 +17,7 @@ import com.plannex.Model.Skill;
 
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
@@ -42,17 +45,29 @@ public class ProjectEmployeeRepositoryTests {
 
     @Test
     public void addEmployeeThrowsIfEmployeeAlreadyExists() {
-        ProjectEmployee MES = new ProjectEmployee("lildawg", "Max-Emil", "MES@gmail.com", "fAbc#21Y", LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0));
+        ProjectEmployee MES = new ProjectEmployee("lildawg", "Max-Emil", "MES@gmail.com", SeedPasswordHashes.LILDAWG, LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0));
         assertNotNull(projectEmployeeRepository.getEmployeeByUsername("lildawg"));
         assertThrowsHelper.verifyExceptionThrownWithMessage("An employee with username lildawg already exists.", EntityAlreadyExistsException.class, () -> projectEmployeeRepository.addEmployee(MES, "Manager"));
     }
 
     @Test
     public void getEmployeeByUsernameReturnsEmployeeWhenExists() {
-        ProjectEmployee MES = new ProjectEmployee("lildawg", "Max-Emil", "MES@gmail.com", "fAbc#21Y", LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0));
+        ProjectEmployee MES = new ProjectEmployee("lildawg", "Max-Emil", "MES@gmail.com", SeedPasswordHashes.LILDAWG, LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0));
         assertEquals(MES, projectEmployeeRepository.getEmployeeByUsername("lildawg"));
     }
 
+    @Test
+    public void findEmployeeByUsernameIsEmptyWhenEmployeeDoesNotExist() {
+        assertEquals(projectEmployeeRepository.getEmployeeByUsername("lildawg"), projectEmployeeRepository.findEmployeeByUsername("lildawg").orElseThrow());
+        assertTrue(projectEmployeeRepository.findEmployeeByUsername("jh5024").isEmpty());
+    }
+
+    @Test
+    public void findEmployeePermissionsIsEmptyWhenNoneAreRegistered() {
+        assertEquals(Optional.of("Manager"), projectEmployeeRepository.findEmployeePermissions("lildawg"));
+        assertTrue(projectEmployeeRepository.findEmployeePermissions("jh5024").isEmpty());
+    }
+
     @Test
     public void getEmployeeByUsernameReturnsNullWhenEmployeeDoesNotExist() {
         assertThrowsHelper.verifyExceptionThrownWithMessage("No employee with username jh5024 exists.", EntityDoesNotExistException.class, () -> projectEmployeeRepository.getEmployeeByUsername("jh5024"));
@@ -61,10 +76,10 @@ public class ProjectEmployeeRepositoryTests {
     @Test
     public void getAllEmployeesReturnsAllEmployees() {
         List<ProjectEmployee> expectedEmployeeList = List.of(
-                new ProjectEmployee("lildawg", "Max-Emil", "MES@gmail.com", "fAbc#21Y", LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0)),
-                new ProjectEmployee("bigdawg", "Max", "MRK@gmail.com", "0uFF!nÆr", LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0)),
-                new ProjectEmployee("marqs", "Markus", "MBR@gmail.com", "HhQEsN4t", LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0)),
-                new ProjectEmployee("RandomWorker", "Random", "RW@gmail.com", "notSecure", LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0))
+                new ProjectEmployee("lildawg", "Max-Emil", "MES@gmail.com", SeedPasswordHashes.LILDAWG, LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0)),
+                new ProjectEmployee("bigdawg", "Max", "MRK@gmail.com", SeedPasswordHashes.BIGDAWG, LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0)),
+                new ProjectEmployee("marqs", "Markus", "MBR@gmail.com", SeedPasswordHashes.MARQS, LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0)),
+                new ProjectEmployee("RandomWorker", "Random", "RW@gmail.com", SeedPasswordHashes.RANDOM_WORKER, LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0))
         );
 
         List<ProjectEmployee> actualEmployeeList = projectEmployeeRepository.getAllEmployees();
@@ -80,7 +95,7 @@ public class ProjectEmployeeRepositoryTests {
 
     @Test
     public void updateEmployeeUpdatesOnExistingEmployeeAndOnlyModifiedFields() {
-        ProjectEmployee newMES = new ProjectEmployee("lild4wg", "Max-Emil", "MES@gmail.com", "fAbc#21Y", LocalTime.of(8, 0, 0), LocalTime.of(10, 0, 0));
+        ProjectEmployee newMES = new ProjectEmployee("lild4wg", "Max-Emil", "MES@gmail.com", SeedPasswordHashes.LILDAWG, LocalTime.of(8, 0, 0), LocalTime.of(10, 0, 0));
         ProjectEmployee MESBefore = projectEmployeeRepository.getEmployeeByUsername("lildawg");
         int rowsAffected = projectEmployeeRepository.updateEmployee(newMES, "lildawg");
         assertTrue(rowsAffected >= 1); // Unsure if cascading counts
@@ -97,13 +112,13 @@ public class ProjectEmployeeRepositoryTests {
 
     @Test
     public void updateEmployeeThrowsOnNonExistentEmployee() {
-        ProjectEmployee newMES = new ProjectEmployee("lildowg", "Max-Emil", "MES@gmail.com", "fAbc#21Y", LocalTime.of(8, 0, 0), LocalTime.of(10, 0, 0));
+        ProjectEmployee newMES = new ProjectEmployee("lildowg", "Max-Emil", "MES@gmail.com", SeedPasswordHashes.LILDAWG, LocalTime.of(8, 0, 0), LocalTime.of(10, 0, 0));
         assertThrowsHelper.verifyExceptionThrownWithMessage("No employee with username lildowg exists.", EntityDoesNotExistException.class, () -> projectEmployeeRepository.updateEmployee(newMES, "lildowg"));
     }
 
     @Test
     public void updateEmployeeThrowsOnUsernameCollisionAfterUpdate() {
-        ProjectEmployee newMES = new ProjectEmployee("marqs", "Max-Emil", "MES@gmail.com", "fAbc#21Y", LocalTime.of(8, 0, 0), LocalTime.of(10, 0, 0));
+        ProjectEmployee newMES = new ProjectEmployee("marqs", "Max-Emil", "MES@gmail.com", SeedPasswordHashes.LILDAWG, LocalTime.of(8, 0, 0), LocalTime.of(10, 0, 0));
         ProjectEmployee MBRBefore = projectEmployeeRepository.getEmployeeByUsername("marqs");
         assertNotNull(MBRBefore);
         assertThrowsHelper.verifyExceptionThrownWithMessage("A different employee with username marqs already exists.", EntityAlreadyExistsException.class, () -> projectEmployeeRepository.updateEmployee(newMES, "lildawg"));
@@ -195,19 +210,27 @@ public class ProjectEmployeeRepositoryTests {
         assertEquals(0, projectEmployeeRepository.countIntermediateSkills("bigdawg"));
     }
     @Test
-    public void loginWorksOnMatchingCredentialsAndRefusesInvalidOnes() {
-        assertTrue(projectEmployeeRepository.login("lildawg", "fAbc#21Y"));
-        assertFalse(projectEmployeeRepository.login("lildawg", "wrongPassword"));
+    public void findCredentialsReturnsPasswordHashAndPrincipalInOneQuery() {
+        EmployeeCredentials credentials = projectEmployeeRepository.findCredentials("lildawg").orElseThrow();
+        assertEquals(SeedPasswordHashes.LILDAWG, credentials.getPasswordHash());
+        assertEquals(new EmployeePrincipal("lildawg", "Max-Emil", "MES@gmail.com", "Manager", LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0)), credentials.getPrincipal());
+        assertFalse(projectEmployeeRepository.findCredentials("RandomWorker").orElseThrow().getPrincipal().isManager());
     }
 
     @Test
-    public void loginWorksOnMatchingCredentialFailsWithWrongUsername() {
-        assertThrowsHelper.verifyExceptionThrownWithMessage("No employee with username lildowg exists.", EntityDoesNotExistException.class, () -> projectEmployeeRepository.login("lildowg", ""));
+    public void findCredentialsIsEmptyForUnknownUsername() {
+        assertTrue(projectEmployeeRepository.findCredentials("lildowg").isEmpty());
+    }
+
+    @Test
+    public void updatePasswordHashReplacesOnlyThePassword() {
+        assertEquals(1, projectEmployeeRepository.updatePasswordHash("lildawg", "new-hash"));
+        assertEquals(new ProjectEmployee("lildawg", "Max-Emil", "MES@gmail.com", "new-hash", LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0)), projectEmployeeRepository.getEmployeeByUsername("lildawg"));
     }
 
     @Test
     public void getAllWorkersReturnsAllWorkers() {
-        List<ProjectEmployee> expectedWorkers = List.of(new ProjectEmployee("RandomWorker", "Random", "RW@gmail.com", "notSecure", LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0)));
+        List<ProjectEmployee> expectedWorkers = List.of(new ProjectEmployee("RandomWorker", "Random", "RW@gmail.com", SeedPasswordHashes.RANDOM_WORKER, LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0)));
         List<ProjectEmployee> actualWorkers = projectEmployeeRepository.getAllWorkers();
         assertEquals(expectedWorkers, actualWorkers);
     }
@@ -234,6 +257,12 @@ public class ProjectEmployeeRepositoryTests {
         assertThrowsHelper.verifyExceptionThrownWithMessage("No skill with title NotASkill exists.", EntityDoesNotExistException.class, () -> projectEmployeeRepository.getSkillByTitle("NotASkill"));
     }
 
+    @Test
+    public void findSkillByTitleIsEmptyIfSkillDoesNotExist() {
+        assertEquals(Optional.of(new Skill("C#-Coder")), projectEmployeeRepository.findSkillByTitle("C#-Coder"));
+        assertTrue(projectEmployeeRepository.findSkillByTitle("NotASkill").isEmpty());
+    }
+
     @Test
     public void assignSkillToEmployeeWorksIfSkillExistsAndEmployeeDoesntAlreadyHaveIt() {
         List<EmployeeSkill> skillsBefore = projectEmployeeRepository.getSkillsForEmployee("bigdawg");
@@ -1,17 +1,23 @@
 package com.plannex;
 
+import com.plannex.Model.EmployeeCredentials;
+import com.plannex.Model.EmployeePrincipal;
 import com.plannex.Model.ProjectEmployee;
 import com.plannex.Repository.ProjectEmployeeRepository;
+import com.plannex.Service.PasswordHasher;
 import com.plannex.Service.ProjectEmployeeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import com.plannex.Model.EmployeeSkill;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,6 +28,9 @@ class ProjectEmployeeServiceTests {
     @Mock
     private ProjectEmployeeRepository repo;
 
+    @Spy
+    private PasswordHasher passwordHasher = new PasswordHasher(1000);
+
     @InjectMocks
     private ProjectEmployeeService service;
 
@@ -47,6 +56,7 @@ class ProjectEmployeeServiceTests {
 
         assertEquals(1, result);
         verify(repo, times(1)).addEmployee(emp, "LEADER");
+        assertTrue(passwordHasher.matches("password", emp.getEmployeePassword()));
     }
 
     @Test
@@ -96,6 +106,7 @@ class ProjectEmployeeServiceTests {
 
         assertEquals(1, result);
         verify(repo).updateEmployee(emp, "johnDoe");
+        assertTrue(passwordHasher.matches("password", emp.getEmployeePassword()));
     }
 
     @Test
@@ -109,23 +120,47 @@ class ProjectEmployeeServiceTests {
     }
 
     @Test
-    void login_ReturnsTrue() {
-        when(repo.login("johnDoe", "password")).thenReturn(true);
+    void authenticate_ReturnsPrincipalOnMatchingPassword() {
+        EmployeePrincipal principal = new EmployeePrincipal("johnDoe", "John Doe", "john@example.com", "Worker", LocalTime.of(9, 0), LocalTime.of(17, 0));
+        String passwordHash = passwordHasher.hash("password");
+        when(repo.findCredentials("johnDoe")).thenReturn(Optional.of(new EmployeeCredentials(passwordHash, principal)));
+
+        assertEquals(Optional.of(principal), service.authenticate("johnDoe", "password"));
+        verify(repo, never()).updatePasswordHash(anyString(), anyString());
+    }
+
+    @Test
+    void authenticate_ReturnsEmptyOnWrongPassword() {
+        EmployeePrincipal principal = new EmployeePrincipal("johnDoe", "John Doe", "john@example.com", "Worker", LocalTime.of(9, 0), LocalTime.of(17, 0));
+        String passwordHash = passwordHasher.hash("password");
+        when(repo.findCredentials("johnDoe")).thenReturn(Optional.of(new EmployeeCredentials(passwordHash, principal)));
+
+        assertTrue(service.authenticate("johnDoe", "wrong").isEmpty());
+    }
 
-        boolean result = service.login("johnDoe", "password");
+    @Test
+    void authenticate_ReturnsEmptyOnUnknownUsername() {
+        when(repo.findCredentials("janeDoe")).thenReturn(Optional.empty());
 
-        assertTrue(result);
-        verify(repo).login("johnDoe", "password");
+        assertTrue(service.authenticate("janeDoe", "password").isEmpty());
     }
 
     @Test
-    void login_ReturnsFalse() {
-        when(repo.login("johnDoe", "wrong")).thenReturn(false);
+    void authenticate_RehashesPlainTextAndOutdatedPasswords() {
+        EmployeePrincipal principal = new EmployeePrincipal("johnDoe", "John Doe", "john@example.com", "Worker", LocalTime.of(9, 0), LocalTime.of(17, 0));
+        when(repo.findCredentials("johnDoe"))
+                .thenReturn(Optional.of(new EmployeeCredentials("password", principal)))
+                .thenReturn(Optional.of(new EmployeeCredentials(new PasswordHasher(500).hash("password"), principal)));
 
-        boolean result = service.login("johnDoe", "wrong");
+        assertEquals(Optional.of(principal), service.authenticate("johnDoe", "password"));
+        assertEquals(Optional.of(principal), service.authenticate("johnDoe", "password"));
 
-        assertFalse(result);
-        verify(repo).login("johnDoe", "wrong");
+        ArgumentCaptor<String> rehashed = ArgumentCaptor.forClass(String.class);
+        verify(repo, times(2)).updatePasswordHash(eq("johnDoe"), rehashed.capture());
+        rehashed.getAllValues().forEach(hash -> {
+            assertTrue(passwordHasher.matches("password", hash));
+            assertFalse(passwordHasher.needsRehash(hash));
+        });
     }
 
     @Test
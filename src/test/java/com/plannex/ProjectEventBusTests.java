@@ -0,0 +1,221 @@
+package com.plannex;
+
+import com.plannex.Live.ProjectEvent;
+import com.plannex.Live.ProjectEventBus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProjectEventBusTests {
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    private final List<ProjectEventBus> buses = new ArrayList<>();
+
+    @AfterEach
+    void closeBuses() {
+        buses.forEach(ProjectEventBus::destroy);
+    }
+
+    private ProjectEventBus bus(int subscriberCapacity, int maxSubscribers, Duration heartbeatInterval) {
+        ProjectEventBus bus = new ProjectEventBus(true, subscriberCapacity, maxSubscribers, heartbeatInterval, NEVER);
+        buses.add(bus);
+        return bus;
+    }
+
+    private static final class Collecting implements ProjectEventBus.Sink {
+        final List<ProjectEvent> events = new CopyOnWriteArrayList<>();
+        volatile boolean closed;
+
+        @Override
+        public void send(ProjectEvent event) throws IOException {
+            events.add(event);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        List<String> names() {
+            return events.stream().filter(e -> !e.isHeartbeat()).map(ProjectEvent::name).toList();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    public void subscribersGetTheEventsOfTheirProjectOnly() throws InterruptedException {
+        ProjectEventBus bus = bus(16, 100, NEVER);
+        Collecting first = new Collecting();
+        Collecting alsoFirst = new Collecting();
+        Collecting second = new Collecting();
+        bus.subscribe(1, first);
+        bus.subscribe(1, alsoFirst);
+        bus.subscribe(2, second);
+
+        bus.publish(1, ProjectEvent.TIME_CONTRIBUTED, Map.of("subtaskID", 2, "hours", 1.5));
+
+        await(() -> first.events.size() == 1 && alsoFirst.events.size() == 1);
+        ProjectEvent event = first.events.getFirst();
+        assertEquals(1, event.projectID());
+        assertEquals(ProjectEvent.TIME_CONTRIBUTED, event.name());
+        assertTrue(event.data().contains("\"hours\":1.5"));
+        assertTrue(event.data().contains("\"subtaskID\":2"));
+        Thread.sleep(50);
+        assertTrue(second.events.isEmpty());
+    }
+
+    @Test
+    public void eventsArriveInTheOrderTheyWerePublished() throws InterruptedException {
+        ProjectEventBus bus = bus(1024, 100, NEVER);
+        Collecting sink = new Collecting();
+        bus.subscribe(1, sink);
+
+        for (int i = 0; i < 500; i++) {
+            bus.publish(1, "n" + i, Map.of());
+        }
+
+        await(() -> sink.events.size() == 500);
+        for (int i = 0; i < 500; i++) {
+            assertEquals("n" + i, sink.events.get(i).name());
+        }
+    }
+
+    @Test
+    public void aSlowSubscriberMissesEventsAndIsToldToResyncWithoutHoldingUpOthers() throws InterruptedException {
+        ProjectEventBus bus = bus(4, 100, NEVER);
+        CountDownLatch stuck = new CountDownLatch(1);
+        List<ProjectEvent> slowEvents = new CopyOnWriteArrayList<>();
+        bus.subscribe(1, event -> {
+            try {
+                stuck.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            slowEvents.add(event);
+        });
+        Collecting fast = new Collecting();
+        bus.subscribe(1, fast);
+
+        for (int i = 0; i < 20; i++) {
+            bus.publish(1, "n" + i, Map.of());
+            int published = i + 1;
+            await(() -> fast.events.size() == published); // Returns at once and reaches the others while the stuck one waits
+        }
+        assertTrue(bus.getDroppedCount() > 0);
+
+        stuck.countDown();
+        await(() -> slowEvents.stream().anyMatch(e -> ProjectEvent.RESYNC.equals(e.name())));
+        assertTrue(slowEvents.size() < 20);
+        assertFalse(fast.names().contains(ProjectEvent.RESYNC));
+    }
+
+    @Test
+    public void aFailingSinkIsClosedAndUnsubscribed() throws InterruptedException {
+        ProjectEventBus bus = bus(16, 100, NEVER);
+        List<Boolean> closed = new CopyOnWriteArrayList<>();
+        bus.subscribe(1, new ProjectEventBus.Sink() {
+            @Override
+            public void send(ProjectEvent event) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void close() {
+                closed.add(true);
+            }
+        });
+        assertEquals(1, bus.getSubscriberCount());
+
+        bus.publish(1, ProjectEvent.ARTIFACT_ADDED, Map.of());
+
+        await(() -> bus.getSubscriberCount() == 0);
+        assertEquals(List.of(true), closed);
+    }
+
+    @Test
+    public void cancelledSubscriptionsGetNothingMore() throws InterruptedException {
+        ProjectEventBus bus = bus(16, 100, NEVER);
+        Collecting sink = new Collecting();
+        ProjectEventBus.Subscription subscription = bus.subscribe(1, sink);
+
+        subscription.cancel();
+        subscription.cancel();
+        bus.publish(1, ProjectEvent.WORKER_ASSIGNED, Map.of());
+
+        Thread.sleep(50);
+        assertTrue(sink.events.isEmpty());
+        assertEquals(0, bus.getSubscriberCount());
+    }
+
+    @Test
+    public void subscribersBeyondTheMaximumAreTurnedAway() {
+        ProjectEventBus bus = bus(16, 2, NEVER);
+
+        assertNotNull(bus.subscribe(1, new Collecting()));
+        ProjectEventBus.Subscription second = bus.subscribe(2, new Collecting());
+        assertNull(bus.subscribe(3, new Collecting()));
+
+        second.cancel();
+        assertNotNull(bus.subscribe(3, new Collecting()));
+    }
+
+    @Test
+    public void idleSubscribersGetHeartbeats() throws InterruptedException {
+        ProjectEventBus bus = bus(16, 100, Duration.ofMillis(20));
+        Collecting sink = new Collecting();
+        bus.subscribe(1, sink);
+
+        await(() -> sink.events.stream().filter(ProjectEvent::isHeartbeat).count() >= 2);
+        assertTrue(sink.names().isEmpty());
+    }
+
+    @Test
+    public void eventsPublishedInATransactionAreSentWhenItCommits() throws InterruptedException {
+        ProjectEventBus bus = bus(16, 100, NEVER);
+        Collecting sink = new Collecting();
+        bus.subscribe(1, sink);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bus.publish(1, ProjectEvent.TIME_CONTRIBUTED, Map.of());
+            Thread.sleep(50);
+            assertTrue(sink.events.isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        await(() -> sink.events.size() == 1);
+    }
+
+    @Test
+    public void aTurnedOffBusTakesNoSubscribers() {
+        ProjectEventBus bus = new ProjectEventBus(false, 16, 100, NEVER, NEVER);
+        buses.add(bus);
+
+        assertNull(bus.subscribe(1, new Collecting()));
+        bus.publish(1, ProjectEvent.TIME_CONTRIBUTED, Map.of());
+        assertEquals(0, bus.getSubscriberCount());
+    }
+}
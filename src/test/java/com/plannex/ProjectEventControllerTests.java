@@ -0,0 +1,52 @@
+package com.plannex;
+
+import com.plannex.Controller.ProjectEventController;
+import com.plannex.Live.ProjectEventBus;
+import com.plannex.Service.AuthAndPermissionsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ProjectEventController.class)
+public class ProjectEventControllerTests {
+    @Autowired
+    MockMvc mockMvc;
+    @MockitoBean
+    ProjectEventBus projectEventBus;
+    @MockitoBean
+    AuthAndPermissionsService authAndPermissionsService;
+
+    private MockHttpSession sessionWithUser(String username) {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("username", username);
+        return session;
+    }
+
+    @Test
+    void streamProjectEventsStreamsTheProject() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(projectEventBus.stream(1)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/projects/1/events").accept(MediaType.TEXT_EVENT_STREAM).session(sessionWithUser("marqs")))
+                .andExpect(request().asyncStarted());
+
+        verify(projectEventBus, times(1)).stream(1);
+    }
+
+    @Test
+    void streamProjectEventsIsUnauthorizedWhenNotLoggedIn() throws Exception {
+        mockMvc.perform(get("/projects/1/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isUnauthorized());
+
+        verify(projectEventBus, never()).stream(anyInt());
+    }
+}
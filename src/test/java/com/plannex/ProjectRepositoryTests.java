@@ -1,16 +1,23 @@
 package com.plannex;
 
+import com.plannex.Exception.EditConflictException;
 import com.plannex.Exception.EntityDoesNotExistException;
 import com.plannex.Model.Project;
+import com.plannex.Model.ProjectSummary;
+import com.plannex.Model.TaskSummary;
 import com.plannex.Repository.ProjectRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
@@ -21,6 +28,8 @@ import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TE
 public class ProjectRepositoryTests {
     @Autowired
     private ProjectRepository projectRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
     private final AssertThrowsHelper assertThrowsHelper = new AssertThrowsHelper();
 
     @Test
@@ -44,6 +53,16 @@ public class ProjectRepositoryTests {
         assertThrowsHelper.verifyExceptionThrownWithMessage("No project with ID -1 exists.", EntityDoesNotExistException.class, () -> projectRepository.getProjectByIDOrThrow(-1));
     }
 
+    @Test
+    public void findProjectByIDFindsProjectIfItExists() {
+        assertEquals(projectRepository.getProjectByIDOrThrow(1), projectRepository.findProjectByID(1).orElseThrow());
+    }
+
+    @Test
+    public void findProjectByIDIsEmptyOnNonExistentProjectID() {
+        assertTrue(projectRepository.findProjectByID(-1).isEmpty());
+    }
+
     @Test
     public void getAllProjectsGetsAllProjects() {
         List<Project> expectedProjects = List.of(
@@ -56,6 +75,14 @@ public class ProjectRepositoryTests {
         assertEquals(expectedProjects, projectList);
     }
 
+    @Test
+    public void getAllProjectSummariesMatchAllProjectsWithoutDescriptions() {
+        List<ProjectSummary> expectedSummaries = projectRepository.getAllProjects().stream()
+                .map(p -> new ProjectSummary(p.getID(), p.getProjectTitle(), p.getProjectStart(), p.getProjectEnd(), 0))
+                .toList();
+        assertEquals(expectedSummaries, projectRepository.getAllProjectSummaries());
+    }
+
     @Test
     public void getAllTasksForProjectWithIDReturnsAllTasksFromAProject() {
         assertEquals(2, projectRepository.getAllTasksForProject(1).size());
@@ -66,6 +93,20 @@ public class ProjectRepositoryTests {
         assertEquals(0, projectRepository.getAllTasksForProject(2).size());
     }
 
+    @Test
+    public void getAllTaskSummariesForProjectMatchAllTasksForProject() {
+        List<TaskSummary> expectedSummaries = projectRepository.getAllTasksForProject(1).stream()
+                .map(t -> new TaskSummary(t.getID(), t.getParentProjectID(), t.getParentTaskID(), t.getTaskTitle(), t.getTaskStart(), t.getTaskEnd(), t.getTaskDurationHours(), 0))
+                .toList();
+        assertEquals(2, expectedSummaries.size());
+        assertEquals(expectedSummaries, projectRepository.getAllTaskSummariesForProject(1));
+    }
+
+    @Test
+    public void getAllTaskSummariesForProjectThrowsOnNonExistentProject() {
+        assertThrowsHelper.verifyExceptionThrownWithMessage("No project with ID -1 exists.", EntityDoesNotExistException.class, () -> projectRepository.getAllTaskSummariesForProject(-1));
+    }
+
     @Test
     public void getAllTasksForProjectWithIDThrowsOnNonExistentProject() {
         assertThrowsHelper.verifyExceptionThrownWithMessage("No project with ID -1 exists.", EntityDoesNotExistException.class, () -> projectRepository.getAllTasksForProject(-1));
@@ -84,6 +125,37 @@ public class ProjectRepositoryTests {
         assertEquals(modifiedProject, projectFromDBAfter);
     }
 
+    @Test
+    public void updateProjectIsAuditedWithTheValuesBeforeAndAfter() throws InterruptedException {
+        Project modifiedProject = new Project(1, "The PlanProject", "Shorter.", LocalDate.of(2025, 12, 12), LocalDate.of(2025, 12, 18));
+        projectRepository.updateProject(modifiedProject, 1);
+
+        // Written by the audit writer in the background, within its flush interval
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        List<Map<String, Object>> rows;
+        while ((rows = jdbcTemplate.queryForList("SELECT * FROM AuditLog WHERE Entity = 'Project' AND EntityKey = '1'")).isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, rows.size());
+        assertEquals("UPDATE", rows.getFirst().get("Action"));
+        assertEquals("system", rows.getFirst().get("Actor"));
+        assertTrue(rows.getFirst().get("BeforeValue").toString().contains("\"projectTitle\":\"The Plannex Project\""));
+        assertTrue(rows.getFirst().get("AfterValue").toString().contains("\"projectTitle\":\"The PlanProject\""));
+    }
+
+    @Test
+    public void updateProjectThrowsIfSomeoneElseSavedTheProjectSinceItWasRead() {
+        Project mine = projectRepository.getProjectByIDOrThrow(1);
+        Project theirs = projectRepository.getProjectByIDOrThrow(1);
+        theirs.setProjectTitle("Theirs");
+        projectRepository.updateProject(theirs, 1);
+        assertEquals(1, theirs.getVersion());
+
+        mine.setProjectTitle("Mine");
+        assertThrowsHelper.verifyExceptionThrownWithMessage("Someone else saved changes to the project with ID 1 while you were editing it. Open it again to see them, then make your changes again.", EditConflictException.class, () -> projectRepository.updateProject(mine, 1));
+        assertEquals("Theirs", projectRepository.getProjectByIDOrThrow(1).getProjectTitle());
+    }
+
     @Test
     public void updateProjectThrowsOnNonExistentProject() {
         Project modifiedProject = new Project(1, "The PlanProject", "A project planning tool for our customer.\nIs to allow splitting of projects into tasks with subtasks.\nNice to have features would be GANTT chart generation and resource management", LocalDate.of(2025, 12, 12), LocalDate.of(2025, 12, 18));
@@ -99,6 +171,32 @@ public class ProjectRepositoryTests {
         assertEquals(3, projectRepository.getAllProjects().size());
     }
 
+    @Test
+    public void aDeletedProjectIsHiddenWithItsTasksUntilUndeleted() {
+        float timeSpent = projectRepository.getTotalTimeSpent(1);
+        projectRepository.deleteProjectByID(1);
+        assertEquals(List.of(1), projectRepository.getDeletedProjects().stream().map(Project::getID).toList());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM VisibleTasks WHERE ProjectID = 1", Integer.class));
+        assertThrows(EntityDoesNotExistException.class, () -> projectRepository.getTotalTimeSpent(1));
+
+        assertEquals(1, projectRepository.undeleteProjectByID(1));
+
+        assertEquals(4, projectRepository.getAllProjects().size());
+        assertEquals(2, projectRepository.getAllTasksForProject(1).size());
+        assertEquals(timeSpent, projectRepository.getTotalTimeSpent(1));
+        assertEquals(List.of(), projectRepository.getDeletedProjects());
+    }
+
+    @Test
+    public void undeleteProjectByIDThrowsOnAProjectNotDeletedOrPastTheGracePeriod() {
+        assertThrowsHelper.verifyExceptionThrownWithMessage("No deleted project with ID 2 can be undeleted.", EntityDoesNotExistException.class, () -> projectRepository.undeleteProjectByID(2));
+
+        projectRepository.deleteProjectByID(2);
+        jdbcTemplate.update("UPDATE Projects SET DeletedAt = ? WHERE ProjectID = 2;", LocalDateTime.now().minusDays(2));
+        assertThrowsHelper.verifyExceptionThrownWithMessage("No deleted project with ID 2 can be undeleted.", EntityDoesNotExistException.class, () -> projectRepository.undeleteProjectByID(2));
+        assertEquals(List.of(), projectRepository.getDeletedProjects());
+    }
+
     @Test
     public void deleteProjectByIDThrowsOnNonExistentProject() {
         assertThrowsHelper.verifyExceptionThrownWithMessage("No project with ID -1 exists.", EntityDoesNotExistException.class, () -> projectRepository.deleteProjectByID(-1));
@@ -0,0 +1,95 @@
+package com.plannex;
+
+import com.plannex.Purge.Purger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PurgerTests {
+    private static final AtomicInteger databases = new AtomicInteger();
+
+    private JdbcTemplate jdbc;
+    private Purger purger;
+
+    @BeforeEach
+    void createDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:purge-" + databases.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schemah2.sql"), new ClassPathResource("datah2.sql")).execute(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        purger = new Purger(jdbc, false, Duration.ZERO, 2, Duration.ZERO, Duration.ofHours(1)); // Batches of 2, to have many
+    }
+
+    @AfterEach
+    void stopPurger() {
+        purger.destroy();
+    }
+
+    private int count(String sql, Object... args) {
+        return jdbc.queryForObject(sql, Integer.class, args);
+    }
+
+    private void markDeleted(String table, String key, int ID, LocalDateTime when) {
+        jdbc.update("UPDATE " + table + " SET DeletedAt = ? WHERE " + key + " = ?;", when, ID);
+    }
+
+    @Test
+    public void aDeletedProjectGoesWithEverythingUnderIt() throws InterruptedException {
+        int otherProjectsTasks = count("SELECT COUNT(*) FROM Tasks WHERE ProjectID <> 1");
+        int otherProjectsTime = count("SELECT COUNT(*) FROM TimeSpent ts JOIN Tasks t ON t.TaskID = ts.OnTaskID WHERE t.ProjectID <> 1");
+        markDeleted("Projects", "ProjectID", 1, Purger.deletionTime());
+
+        assertTrue(purger.purge() > 0);
+
+        assertEquals(0, count("SELECT COUNT(*) FROM Projects WHERE ProjectID = 1"));
+        assertEquals(0, count("SELECT COUNT(*) FROM Tasks WHERE ProjectID = 1"));
+        assertEquals(otherProjectsTasks, count("SELECT COUNT(*) FROM Tasks"));
+        assertEquals(otherProjectsTime, count("SELECT COUNT(*) FROM TimeSpent"));
+        assertEquals(0, count("SELECT COUNT(*) FROM Artifacts a LEFT JOIN Tasks t ON t.TaskID = a.TaskID WHERE t.TaskID IS NULL"));
+        assertEquals(0, count("SELECT COUNT(*) FROM TaskDependencies d LEFT JOIN Tasks t ON t.TaskID = d.TaskIDFor WHERE t.TaskID IS NULL"));
+    }
+
+    @Test
+    public void aDeletedTaskGoesWithItsSubtasksAndLeavesTheRestOfTheProject() throws InterruptedException {
+        LocalDateTime now = Purger.deletionTime();
+        jdbc.update("UPDATE Tasks SET DeletedAt = ? WHERE TaskID = 1 OR ParentTaskID = 1;", now);
+
+        purger.purge();
+
+        assertEquals(0, count("SELECT COUNT(*) FROM Tasks WHERE TaskID = 1 OR ParentTaskID = 1"));
+        assertEquals(0, count("SELECT COUNT(*) FROM TimeSpent WHERE OnTaskID BETWEEN 2 AND 7"));
+        assertEquals(0, count("SELECT COUNT(*) FROM TaskDependencies WHERE MustComeAfterTaskWithID = 1")); // From task 8, which stays
+        assertEquals(1, count("SELECT COUNT(*) FROM Tasks WHERE TaskID = 8"));
+        assertEquals(1, count("SELECT COUNT(*) FROM Projects WHERE ProjectID = 1"));
+    }
+
+    @Test
+    public void nothingIsPurgedWithinTheGracePeriod() throws InterruptedException {
+        Purger patient = new Purger(jdbc, false, Duration.ofHours(1), 2, Duration.ZERO, Duration.ofHours(1));
+        int tasks = count("SELECT COUNT(*) FROM Tasks");
+        markDeleted("Projects", "ProjectID", 2, Purger.deletionTime());
+        markDeleted("Tasks", "TaskID", 2, Purger.deletionTime());
+
+        assertEquals(0, patient.purge());
+        assertEquals(tasks, count("SELECT COUNT(*) FROM Tasks"));
+        assertTrue(patient.getPurgeableUntil().isBefore(LocalDateTime.now().minusMinutes(59)));
+        patient.destroy();
+    }
+
+    @Test
+    public void purgingAgainFindsNothingLeft() throws InterruptedException {
+        markDeleted("Projects", "ProjectID", 1, Purger.deletionTime());
+        purger.purge();
+
+        assertEquals(0, purger.purge());
+    }
+}
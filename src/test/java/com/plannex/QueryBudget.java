@@ -0,0 +1,20 @@
+package com.plannex;
+
+import com.plannex.Instrumentation.RequestQueryStats;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Asserts how many SQL statements a MockMvc request ran. Needs the full filter chain and a real DataSource,
+// i.e. @SpringBootTest with @AutoConfigureMockMvc rather than @WebMvcTest with mocked services.
+public class QueryBudget {
+    public static ResultMatcher atMost(int maxStatements) {
+        return result -> {
+            RequestQueryStats stats = (RequestQueryStats) result.getRequest().getAttribute(RequestQueryStats.ATTRIBUTE);
+            assertNotNull(stats, "No statement count recorded. Is QueryBudgetFilter in the filter chain?");
+            assertTrue(stats.getStatementCount() <= maxStatements, () -> "Expected at most " + maxStatements + " statements, but "
+                    + stats.getStatementCount() + " ran. Most repeated: " + stats.getMostRepeatedStatement().orElse(null));
+        };
+    }
+}
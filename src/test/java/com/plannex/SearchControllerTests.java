@@ -0,0 +1,84 @@
+package com.plannex;
+
+import com.plannex.Model.Project;
+import com.plannex.Model.Task;
+import com.plannex.Repository.ProjectRepository;
+import com.plannex.Repository.TaskRepository;
+import com.plannex.Search.SearchIndex;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Sql(scripts = { "classpath:schemah2.sql", "classpath:datah2.sql", "classpath:org/springframework/session/jdbc/schema-h2.sql" }, executionPhase=BEFORE_TEST_METHOD)
+public class SearchControllerTests {
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    SearchIndex searchIndex;
+    @Autowired
+    ProjectRepository projectRepository;
+    @Autowired
+    TaskRepository taskRepository;
+    private Cookie sessionCookie;
+
+    @BeforeEach
+    void logInAndReindex() throws Exception {
+        searchIndex.rebuild(); // The scripts above reload the database under the index
+        sessionCookie = mockMvc.perform(post("/login").param("username", "lildawg").param("password", "fAbc#21Y"))
+                .andReturn().getResponse().getCookie("SESSION");
+    }
+
+    @Test
+    void searchFindsSeededTasksAndLinksToThem() throws Exception {
+        mockMvc.perform(get("/search").param("q", "githu").cookie(sessionCookie))
+                .andExpect(status().isOk())
+                .andExpect(view().name("search_results"))
+                .andExpect(content().string(containsString("Set up GitHub project")))
+                .andExpect(content().string(containsString("/projects/1/tasks/1/subtasks/2")));
+    }
+
+    @Test
+    void searchFindsWhatWasAddedSinceStartup() throws Exception {
+        projectRepository.addProject(new Project(0, "Espresso tasting", "Compare the beans", LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 2)));
+        taskRepository.addTask(new Task(0, 2, 0, "Descale the espresso machine", "Vinegar works", LocalDate.of(2025, 11, 12), LocalDate.of(2025, 11, 13), 1));
+
+        mockMvc.perform(get("/search").param("q", "espresso").cookie(sessionCookie))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Espresso tasting")))
+                .andExpect(content().string(containsString("Descale the espresso machine")));
+    }
+
+    @Test
+    void searchForgetsDeletedProjectsAndTheirTasks() throws Exception {
+        projectRepository.deleteProjectByID(1);
+
+        mockMvc.perform(get("/search").param("q", "github").cookie(sessionCookie))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("Set up GitHub project"))));
+    }
+
+    @Test
+    void searchRedirectsWhenNotLoggedIn() throws Exception {
+        mockMvc.perform(get("/search").param("q", "github"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/login"));
+    }
+}
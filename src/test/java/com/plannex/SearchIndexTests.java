@@ -0,0 +1,131 @@
+package com.plannex;
+
+import com.plannex.Model.SearchHit;
+import com.plannex.Model.SearchResults;
+import com.plannex.Search.SearchIndex;
+import com.plannex.Search.Tokenizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchIndexTests {
+    private SearchIndex searchIndex;
+
+    @BeforeEach
+    void createIndex() {
+        searchIndex = new SearchIndex(null); // Only rebuild() reads the database
+        searchIndex.indexProject(1, "The Plannex Project", "A project planning tool.\\nSplits projects into tasks with subtasks.");
+        searchIndex.indexProject(2, "Coffee machine repairs", "The coffee machine has been broken for three days.");
+        searchIndex.indexTask(1, 1, 0, "Project startup", "Building a good foundation for the work to come.");
+        searchIndex.indexTask(2, 1, 1, "Set up GitHub project", "Go to github.com and register an organization.");
+        searchIndex.indexTask(3, 2, 0, "Order parts", "Find a replacement grinder for the coffee machine.");
+    }
+
+    private List<Integer> IDs(SearchResults results) {
+        return results.hits().stream().map(SearchHit::ID).toList();
+    }
+
+    @Test
+    public void tokenizeLowerCasesAndSplitsOnStoredLineBreaks() {
+        assertEquals(List.of("first", "line", "second", "github", "com"), Tokenizer.tokenize("First line.\\nSecond: GitHub.com"));
+        assertEquals(List.of(), Tokenizer.tokenize(null));
+    }
+
+    @Test
+    public void searchMatchesWholeWordsAndPrefixesOfTheLastWord() {
+        assertEquals(List.of(2), IDs(searchIndex.search("github", 10)));
+        assertEquals(List.of(2), IDs(searchIndex.search("githu", 10)));
+        assertEquals(SearchResults.NONE, searchIndex.search("githu project", 10)); // Only the last word is a prefix
+    }
+
+    @Test
+    public void searchRequiresEveryWord() {
+        SearchResults results = searchIndex.search("coffee grinder", 10);
+
+        assertEquals(1, results.totalHits());
+        assertEquals(SearchHit.Kind.TASK, results.hits().getFirst().kind());
+        assertEquals("/projects/2/tasks/3", results.hits().getFirst().path());
+    }
+
+    @Test
+    public void titleMatchesRankAboveDescriptionMatches() {
+        SearchResults results = searchIndex.search("coffee", 10);
+
+        assertEquals(2, results.totalHits());
+        assertEquals(SearchHit.Kind.PROJECT, results.hits().get(0).kind());
+        assertEquals(2, results.hits().get(0).ID());
+        assertTrue(results.hits().get(0).score() > results.hits().get(1).score());
+    }
+
+    @Test
+    public void searchKeepsOnlyTheBestHitsButCountsAll() {
+        SearchResults results = searchIndex.search("project", 1);
+
+        assertEquals(3, results.totalHits());
+        assertEquals(1, results.hits().size());
+        assertEquals("/projects/1", results.hits().getFirst().path());
+    }
+
+    @Test
+    public void searchForNothingFindsNothing() {
+        assertEquals(SearchResults.NONE, searchIndex.search("  ?! ", 10));
+        assertEquals(SearchResults.NONE, searchIndex.search("espresso", 10));
+    }
+
+    @Test
+    public void reindexingReplacesTheOldText() {
+        searchIndex.indexTask(3, 2, 0, "Order espresso beans", "While the machine is being repaired.");
+
+        assertEquals(List.of(3), IDs(searchIndex.search("espresso", 10)));
+        assertEquals(SearchResults.NONE, searchIndex.search("grinder", 10));
+        assertEquals(5, searchIndex.size());
+    }
+
+    @Test
+    public void removeProjectRemovesItsTasksAndSubtasks() {
+        searchIndex.removeProject(1);
+
+        assertEquals(SearchResults.NONE, searchIndex.search("github", 10));
+        assertEquals(SearchResults.NONE, searchIndex.search("plannex", 10));
+        assertEquals(2, searchIndex.size());
+    }
+
+    @Test
+    public void removeTaskRemovesItsSubtasks() {
+        searchIndex.removeTask(1);
+
+        assertEquals(SearchResults.NONE, searchIndex.search("github", 10));
+        assertEquals(List.of(1), IDs(searchIndex.search("plannex", 10)));
+        assertEquals(3, searchIndex.size());
+    }
+
+    @Test
+    public void compactionKeepsTheLiveDocumentsFindable() {
+        for (int taskID = 100; taskID < 3100; taskID++) {
+            searchIndex.indexTask(taskID, 2, 0, "Temporary " + taskID, "Short lived");
+        }
+        for (int taskID = 100; taskID < 3000; taskID++) {
+            searchIndex.removeTask(taskID);
+        }
+
+        assertEquals(105, searchIndex.size());
+        assertEquals(100, searchIndex.search("temporary", 200).totalHits());
+        assertEquals(List.of(3050), IDs(searchIndex.search("3050", 10)));
+        assertEquals(List.of(2), IDs(searchIndex.search("github", 10)));
+    }
+
+    @Test
+    public void reindexingOnEditsAloneCompactsTheIndex() {
+        for (int edit = 0; edit < 10_000; edit++) {
+            searchIndex.indexTask(3, 2, 0, "Order parts " + edit, "Find a replacement grinder for the coffee machine.");
+        }
+
+        assertEquals(5, searchIndex.size());
+        assertTrue(searchIndex.getDeletedCount() < 2048, () -> searchIndex.getDeletedCount() + " deleted documents kept");
+        assertEquals(List.of(3), IDs(searchIndex.search("grinder", 10)));
+        assertEquals(1, searchIndex.search("9999", 10).totalHits());
+    }
+}
@@ -0,0 +1,10 @@
+package com.plannex;
+
+// The stored passwords of the employees in datah2.sql, hashed with the test profile's plannex.password.hash-iterations.
+// Their plain text passwords are what the tests log in with.
+public class SeedPasswordHashes {
+    public static final String LILDAWG = "pbkdf2-sha256$1000$WlP0+wq94qrRD1YSSsRCTw$Oqvqph7q9sX2fiMgF3ITVWXgzeunJ2cYKTwryngSTTY"; // fAbc#21Y
+    public static final String BIGDAWG = "pbkdf2-sha256$1000$oBhmFra16m5UNAXYIByHXw$ycklX1THCnrUtp8VLmQpqBhhBEESP065p0VJSDFToLE"; // 0uFF!nÆr
+    public static final String MARQS = "pbkdf2-sha256$1000$RcsneDQsZ4+1iNSLxnEygw$8kJw1li55LJR0shg50sTl65fgNdnWl0PKGNksOBhCos"; // HhQEsN4t
+    public static final String RANDOM_WORKER = "pbkdf2-sha256$1000$SK3ZrgGigxDX2zaZjTeIXg$YASdiUtED961lmmm9/t9PGD/rtG5sPriySbrNB1sUaE"; // notSecure
+}
@@ -0,0 +1,94 @@
+package com.plannex;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = "plannex.server-timing.log-sample-rate=1")
+@Sql(scripts = { "classpath:schemah2.sql", "classpath:datah2.sql", "classpath:org/springframework/session/jdbc/schema-h2.sql" }, executionPhase=BEFORE_TEST_METHOD)
+@ExtendWith(OutputCaptureExtension.class)
+public class ServerTimingTests {
+    private static final String SERVER_TIMING = "db;dur=\\d+\\.\\d{2};desc=\"(\\d+) queries\", controller;dur=\\d+\\.\\d{2}, render;dur=\\d+\\.\\d{2}, total;dur=\\d+\\.\\d{2}";
+
+    @Autowired
+    MockMvc mockMvc;
+    private Cookie sessionCookie;
+
+    @BeforeEach
+    void logIn() throws Exception {
+        sessionCookie = mockMvc.perform(post("/login").param("username", "lildawg").param("password", "fAbc#21Y"))
+                .andReturn().getResponse().getCookie("SESSION");
+    }
+
+    @Test
+    void renderedPagesGetTheHeader() throws Exception {
+        mockMvc.perform(get("/projects/1").cookie(sessionCookie))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("The Plannex Project")))
+                .andExpect(header().string("Server-Timing", matchesPattern(SERVER_TIMING)));
+    }
+
+    @Test
+    void redirectsGetTheHeader() throws Exception {
+        mockMvc.perform(post("/projects/1/tasks/1/subtasks/2/contribute-time").cookie(sessionCookie).param("timeSpent", "1.5"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/projects/1/tasks/1/subtasks/2"))
+                .andExpect(header().string("Server-Timing", matchesPattern(SERVER_TIMING)));
+    }
+
+    @Test
+    void handledExceptionsGetTheHeader() throws Exception {
+        mockMvc.perform(get("/projects/999").cookie(sessionCookie))
+                .andExpect(header().string("Server-Timing", matchesPattern(SERVER_TIMING)));
+    }
+
+    @Test
+    void eventStreamsGetTheHeaderAndAreNotHeldBack() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/projects/1/events").cookie(sessionCookie).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string("Server-Timing", matchesPattern(SERVER_TIMING)))
+                .andReturn();
+
+        mockMvc.perform(post("/projects/1/tasks/1/subtasks/2/contribute-time").cookie(sessionCookie).param("timeSpent", "1.5"))
+                .andExpect(status().is3xxRedirection());
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!stream.getResponse().getContentAsString().contains("\"hours\":1.5") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(stream.getResponse().getContentAsString().contains("event:time-contributed\ndata:{\"taskID\":1,\"subtaskID\":2,\"username\":\"lildawg\",\"hours\":1.5}"));
+    }
+
+    @Test
+    void sampledRequestsAreLoggedAsKeyValuePairs(CapturedOutput output) throws Exception {
+        mockMvc.perform(get("/projects").cookie(sessionCookie)).andExpect(status().isOk());
+
+        assertTrue(output.getOut().lines().anyMatch(line -> line.matches(
+                ".*method=GET path=/projects handler=ProjectController.displayProjectsPage status=200 total_ms=[\\d.]+ db_ms=[\\d.]+ queries=\\d+ controller_ms=[\\d.]+ render_ms=[\\d.]+")));
+    }
+}
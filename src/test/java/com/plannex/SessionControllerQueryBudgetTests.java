@@ -0,0 +1,39 @@
+package com.plannex;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Sql(scripts = { "classpath:schemah2.sql", "classpath:datah2.sql", "classpath:org/springframework/session/jdbc/schema-h2.sql" }, executionPhase=BEFORE_TEST_METHOD)
+// One query for credentials, permissions and profile; the rest is creating the session.
+public class SessionControllerQueryBudgetTests {
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void loginStaysWithinBudget() throws Exception {
+        mockMvc.perform(post("/login").param("username", "lildawg").param("password", "fAbc#21Y"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("project_leader_page"))
+                .andExpect(QueryBudget.atMost(3));
+    }
+
+    @Test
+    void wrongPasswordStaysWithinBudget() throws Exception {
+        mockMvc.perform(post("/login").param("username", "lildawg").param("password", "wrongPassword"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("wrongCredentials", true))
+                .andExpect(QueryBudget.atMost(2));
+    }
+}
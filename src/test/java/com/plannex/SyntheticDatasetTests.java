@@ -0,0 +1,110 @@
+package com.plannex;
+
+import com.plannex.Audit.AuditLog;
+import com.plannex.Dataset.DatasetSpec;
+import com.plannex.Dataset.SyntheticDataset;
+import com.plannex.Purge.Purger;
+import com.plannex.Repository.ProjectEmployeeRepository;
+import com.plannex.Repository.ProjectRepository;
+import com.plannex.RowMapper.*;
+import com.plannex.Search.SearchIndex;
+import com.plannex.Search.Typeahead;
+import com.plannex.Service.PasswordHasher;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SyntheticDatasetTests {
+    private static final AtomicInteger databases = new AtomicInteger();
+
+    private static JdbcTemplate emptyDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:synthetic-" + databases.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schemah2.sql")).execute(dataSource);
+        return new JdbcTemplate(dataSource);
+    }
+
+    // These tests only read, so there is nothing to audit or publish
+    private static AuditLog noAuditLog(JdbcTemplate jdbc) {
+        return new AuditLog(jdbc, false, 2, 1, Duration.ofMillis(200), AuditLog.WhenFull.DROP, Duration.ZERO);
+    }
+
+    private static List<Map<String, Object>> everyRow(JdbcTemplate jdbc) {
+        return jdbc.queryForList("SELECT t.*, ts.ByEmployee, ts.HoursSpent, ts._When FROM Tasks t LEFT JOIN TimeSpent ts ON ts.OnTaskID = t.TaskID ORDER BY t.TaskID, ts.ByEmployee, ts._When");
+    }
+
+    @Test
+    public void summaryMatchesTheRowsWritten() {
+        JdbcTemplate jdbc = emptyDatabase();
+        SyntheticDataset.Summary summary = SyntheticDataset.generate(jdbc.getDataSource(), DatasetSpec.forProjects(40));
+
+        summary.rowsPerTable().forEach((table, rows) ->
+                assertEquals(rows, jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Long.class), table));
+        assertEquals(40, summary.projects());
+        assertEquals(summary.tasks(), jdbc.queryForObject("SELECT COUNT(*) FROM Tasks WHERE ParentTaskID IS NULL", Integer.class));
+        assertEquals(summary.subtasks(), jdbc.queryForObject("SELECT COUNT(*) FROM Tasks WHERE ParentTaskID IS NOT NULL", Integer.class));
+        assertTrue(summary.totalRows() > 40 * 8 * 5);
+    }
+
+    @Test
+    public void sameSeedGivesTheSameRowsAndAnotherSeedDoesNot() {
+        JdbcTemplate first = emptyDatabase();
+        JdbcTemplate second = emptyDatabase();
+        JdbcTemplate third = emptyDatabase();
+        SyntheticDataset.generate(first.getDataSource(), DatasetSpec.forProjects(10));
+        SyntheticDataset.generate(second.getDataSource(), DatasetSpec.forProjects(10));
+        SyntheticDataset.generate(third.getDataSource(), DatasetSpec.forProjects(10).withSeed(7));
+
+        assertEquals(everyRow(first), everyRow(second));
+        assertNotEquals(everyRow(first), everyRow(third));
+    }
+
+    @Test
+    public void dependenciesOnlyPointBackAtEarlierSiblings() {
+        JdbcTemplate jdbc = emptyDatabase();
+        SyntheticDataset.generate(jdbc.getDataSource(), DatasetSpec.forProjects(30).withDependencyDensity(1));
+
+        assertTrue(jdbc.queryForObject("SELECT COUNT(*) FROM TaskDependencies", Integer.class) > 0);
+        assertEquals(0, jdbc.queryForObject("""
+                SELECT COUNT(*) FROM TaskDependencies d
+                JOIN Tasks t ON t.TaskID = d.TaskIDFor
+                JOIN Tasks b ON b.TaskID = d.MustComeAfterTaskWithID
+                WHERE b.TaskID >= t.TaskID OR b.ProjectID <> t.ProjectID OR b.ParentTaskID IS DISTINCT FROM t.ParentTaskID""", Integer.class));
+    }
+
+    @Test
+    public void assignmentsAreSkewedTowardsAFewBusyEmployees() {
+        JdbcTemplate jdbc = emptyDatabase();
+        SyntheticDataset.generate(jdbc.getDataSource(), DatasetSpec.forProjects(100));
+
+        List<Integer> perEmployee = jdbc.queryForList("SELECT COUNT(*) FROM TaskAssignees GROUP BY EmployeeUsername ORDER BY COUNT(*) DESC", Integer.class);
+        assertTrue(perEmployee.getFirst() > 5 * perEmployee.get(perEmployee.size() / 2));
+    }
+
+    @Test
+    public void repositoriesReadTheGeneratedData() {
+        JdbcTemplate jdbc = emptyDatabase();
+        SyntheticDataset.generate(jdbc.getDataSource(), DatasetSpec.forProjects(5).withPasswordHashIterations(1000));
+        ProjectRepository projectRepository = new ProjectRepository(jdbc, new ProjectRowMapper(), new TaskRowMapper(), new ProjectSummaryRowMapper(), new TaskSummaryRowMapper(), new SearchIndex(jdbc),
+                new Purger(jdbc, false, Duration.ofHours(24), 500, Duration.ZERO, Duration.ofMinutes(5)), event -> { }, noAuditLog(jdbc));
+        ProjectEmployeeRepository projectEmployeeRepository = new ProjectEmployeeRepository(jdbc, new ProjectEmployeeRowMapper(), new EmployeeSkillRowMapper(), new SkillRowMapper(), new EmployeeCredentialsRowMapper(), new Typeahead(jdbc),
+                event -> { }, noAuditLog(jdbc));
+
+        assertEquals(5, projectRepository.getAllProjects().size());
+        assertFalse(projectRepository.getAllTasksForProject(1).isEmpty());
+        assertTrue(projectRepository.getProjectByIDOrThrow(1).getProjectDescription().contains("\n"));
+        String passwordHash = projectEmployeeRepository.findCredentials(SyntheticDataset.username(0)).orElseThrow().getPasswordHash();
+        assertTrue(new PasswordHasher(1000).matches(SyntheticDataset.PASSWORD, passwordHash));
+        assertFalse(new PasswordHasher(1000).needsRehash(passwordHash));
+        assertEquals("Manager", projectEmployeeRepository.getEmployeePermissions(SyntheticDataset.username(0)));
+        assertEquals("Worker", projectEmployeeRepository.getEmployeePermissions(SyntheticDataset.username(1)));
+    }
+}
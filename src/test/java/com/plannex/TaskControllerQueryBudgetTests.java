@@ -0,0 +1,69 @@
+package com.plannex;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Sql(scripts = { "classpath:schemah2.sql", "classpath:datah2.sql", "classpath:org/springframework/session/jdbc/schema-h2.sql" }, executionPhase=BEFORE_TEST_METHOD)
+// Budgets are the statement counts of today, session reads and writes included. Lower them when a page gets cheaper.
+public class TaskControllerQueryBudgetTests {
+    @Autowired
+    MockMvc mockMvc;
+    private Cookie sessionCookie;
+
+    @BeforeEach
+    void logIn() throws Exception {
+        sessionCookie = mockMvc.perform(post("/login").param("username", "lildawg").param("password", "fAbc#21Y"))
+                .andReturn().getResponse().getCookie("SESSION");
+    }
+
+    @Test
+    void showTaskPageStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/projects/1/tasks/1").cookie(sessionCookie))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(57)); // 56 before comments, which add one page query
+    }
+
+    @Test
+    void showSubtaskPageStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/projects/1/tasks/1/subtasks/2").cookie(sessionCookie))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(12)); // 11 before comments, which add one page query
+    }
+
+    @Test
+    void saveTimeContributionStaysWithinBudget() throws Exception {
+        mockMvc.perform(post("/projects/1/tasks/1/subtasks/2/contribute-time").cookie(sessionCookie).param("timeSpent", "1.5"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(QueryBudget.atMost(4));
+    }
+
+    @Test
+    void saveAssignmentsStaysWithinBudget() throws Exception {
+        mockMvc.perform(post("/projects/1/tasks/1/subtasks/2/assign-workers").cookie(sessionCookie).param("usernames", "RandomWorker"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(QueryBudget.atMost(7));
+    }
+
+    // One INSERT and the counter updates, never a COUNT(*)
+    @Test
+    void saveCommentStaysWithinBudget() throws Exception {
+        mockMvc.perform(post("/projects/1/tasks/1/subtasks/2/add-comment").cookie(sessionCookie).param("title", "Question").param("description", "Which repository?"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(QueryBudget.atMost(6));
+    }
+}
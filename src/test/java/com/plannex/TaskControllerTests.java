@@ -1,16 +1,21 @@
 package com.plannex;
 
 import com.plannex.Controller.TaskController;
+import com.plannex.Model.CommentPage;
 import com.plannex.Model.ProjectEmployee;
 import com.plannex.Model.Task;
 import com.plannex.Repository.TaskRepository;
 import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.CommentService;
+import com.plannex.Service.PageLoadingService;
 import com.plannex.Service.ProjectEmployeeService;
 import com.plannex.Service.ProjectService;
 import com.plannex.Service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -27,6 +32,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TaskController.class)
+@Import(PageLoadingService.class)
 public class TaskControllerTests {
     @Autowired
     MockMvc mockMvc;
@@ -38,6 +44,13 @@ public class TaskControllerTests {
     ProjectEmployeeService projectEmployeeService;
     @MockitoBean
     ProjectService projectService;
+    @MockitoBean
+    CommentService commentService;
+
+    @BeforeEach
+    void noComments() {
+        when(commentService.getCommentsForTask(anyInt(), any())).thenReturn(new CommentPage(List.of(), false));
+    }
 
     private MockHttpSession sessionWithUser(String username) {
         MockHttpSession session = new MockHttpSession();
@@ -189,7 +202,7 @@ public class TaskControllerTests {
 
         mockMvc.perform(get("/projects/1/tasks/1/subtasks/5/assign-workers").session(sessionWithUser("MRY")))
                 .andExpect(status().isOk())
-                .andExpect(model().attributeExists("allWorkers"))
+                .andExpect(model().attributeExists("assignees"))
                 .andExpect(model().attributeExists("assigneeDTO"))
                 .andExpect(model().attribute("sessionUser", "MRY"))
                 .andExpect(view().name("add_assignee"));
@@ -234,7 +247,7 @@ public class TaskControllerTests {
 
     @Test
     void saveAssignmentRemovesAssignementsRemoved() throws Exception {
-        List<ProjectEmployee> prev = List.of(new ProjectEmployee("lildawg", "Max-Emil", "MES@gmail.com", "fAbc#21Y", LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0)));
+        List<ProjectEmployee> prev = List.of(new ProjectEmployee("lildawg", "Max-Emil", "MES@gmail.com", SeedPasswordHashes.LILDAWG, LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0)));
         when(taskService.getAllAssigneesForSubtask(5)).thenReturn(prev);
 
         mockMvc.perform(post("/projects/1/tasks/1/subtasks/5/assign-workers")
@@ -297,6 +310,7 @@ public class TaskControllerTests {
                 .andExpect(model().attributeExists("dependencies"))
                 .andExpect(model().attributeExists("subtaskAssignees"))
                 .andExpect(model().attributeExists("subtaskTimeSpents"))
+                .andExpect(model().attributeExists("comments"))
                 .andExpect(model().attributeExists("isManager"))
                 .andExpect(model().attributeExists("sessionUser"))
                 .andExpect(view().name("task_window"));
@@ -324,6 +338,7 @@ public class TaskControllerTests {
                 .andExpect(model().attributeExists("assignees"))
                 .andExpect(model().attributeExists("dependencies"))
                 .andExpect(model().attributeExists("artifacts"))
+                .andExpect(model().attributeExists("comments"))
                 .andExpect(model().attributeExists("sessionUser"))
                 .andExpect(model().attributeExists("isManager"))
                 .andExpect(view().name("subtask_window"));
@@ -728,6 +743,17 @@ public class TaskControllerTests {
         verify(taskService, times(1)).deleteTaskByID(1);
     }
 
+    @Test
+    void undeleteTaskUndeletesAndRedirectsForManagers() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(authAndPermissionsService.isManager(any())).thenReturn(true);
+
+        mockMvc.perform(post("/projects/1/tasks/2/undelete").session(sessionWithUser("MRY")))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/projects/1"));
+        verify(taskService, times(1)).undeleteTaskByID(2);
+    }
+
     @Test
     void showAddDependencyTaskRoutesCorrectlyIfLoggedIn() throws Exception {
         when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
@@ -1,12 +1,22 @@
 package com.plannex;
 
+import com.plannex.Analytics.TimeAnalytics;
+import com.plannex.Exception.EditConflictException;
 import com.plannex.Exception.EntityAlreadyExistsException;
 import com.plannex.Exception.EntityDoesNotExistException;
 import com.plannex.Exception.InvalidValueException;
 import com.plannex.Exception.NotSupportedException;
+import com.plannex.Forecast.CompletionForecasts;
+import com.plannex.Live.ProjectEvent;
+import com.plannex.Live.ProjectEventBus;
+import com.plannex.Model.CompletionForecast;
+import com.plannex.Model.HoursQuery;
 import com.plannex.Model.ProjectEmployee;
 import com.plannex.Model.Task;
+import com.plannex.Model.TaskSummary;
+import com.plannex.Model.TimeEdit;
 import com.plannex.Repository.TaskRepository;
+import com.plannex.TimeLog.TimeLog;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -17,8 +27,13 @@ import org.springframework.test.context.jdbc.Sql;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.Duration;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
@@ -31,6 +46,14 @@ public class TaskRepositoryTests {
     private TaskRepository taskRepository;
     @Autowired
     private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ProjectEventBus projectEventBus;
+    @Autowired
+    private TimeLog timeLog;
+    @Autowired
+    private CompletionForecasts completionForecasts;
+    @Autowired
+    private TimeAnalytics timeAnalytics;
     private final AssertThrowsHelper assertThrowsHelper = new AssertThrowsHelper();
 
     @Test
@@ -114,6 +137,16 @@ public class TaskRepositoryTests {
         assertThrowsHelper.verifyExceptionThrownWithMessage("You may not set a task as blocking itself.", NotSupportedException.class, () -> taskRepository.addFollowsDependency(5, 5));
     }
 
+    @Test
+    public void addFollowsDependencyRenewsTheProjectsForecast() {
+        completionForecasts.planChanged(1); // Whatever an earlier test's database left in it
+        CompletionForecast before = completionForecasts.forProject(1);
+
+        taskRepository.addFollowsDependency(9, 7);
+
+        assertNotSame(before, completionForecasts.forProject(1));
+    }
+
     @Test
     public void deleteFollowsDependencyWorksOnExistingDependency() {
         int rowsAffected = taskRepository.deleteFollowsDependency(5, 4);
@@ -188,11 +221,40 @@ public class TaskRepositoryTests {
         assertThrowsHelper.verifyExceptionThrownWithMessage("No task with ID -1 exists.", EntityDoesNotExistException.class, () -> taskRepository.getTaskByIDOrThrow(-1));
     }
 
+    @Test
+    public void findTaskByIDFindsTaskIfItExists() {
+        assertEquals(taskRepository.getTaskByIDOrThrow(2), taskRepository.findTaskByID(2).orElseThrow());
+    }
+
+    @Test
+    public void findTaskByIDIsEmptyOnNonExistentTask() {
+        assertTrue(taskRepository.findTaskByID(-1).isEmpty());
+    }
+
+    @Test
+    public void nonExistentTaskIsReportedWithoutAStackTrace() {
+        EntityDoesNotExistException thrown = assertThrows(EntityDoesNotExistException.class, () -> taskRepository.getAllDependenciesForTask(-1));
+        assertEquals(0, thrown.getStackTrace().length);
+    }
+
     @Test
     public void getAllSubtasksForParentTaskWorksOnExistingProjectWithTasks() {
         assertEquals(6, taskRepository.getAllSubtasksForParentTask(1).size());
     }
 
+    @Test
+    public void getAllSubtaskSummariesForParentTaskMatchAllSubtasks() {
+        List<TaskSummary> expectedSummaries = taskRepository.getAllSubtasksForParentTask(1).stream()
+                .map(t -> new TaskSummary(t.getID(), t.getParentProjectID(), t.getParentTaskID(), t.getTaskTitle(), t.getTaskStart(), t.getTaskEnd(), t.getTaskDurationHours(), 0))
+                .toList();
+        assertEquals(expectedSummaries, taskRepository.getAllSubtaskSummariesForParentTask(1));
+    }
+
+    @Test
+    public void getAllSubtaskSummariesForParentTaskThrowsOnTryingToUseASubtaskAsParent() {
+        assertThrowsHelper.verifyExceptionThrownWithMessage("A subtask must have no subtasks.", NotSupportedException.class, () -> taskRepository.getAllSubtaskSummariesForParentTask(2));
+    }
+
     @Test
     public void getAllSubtasksForParentTaskThrowsOnNonExistentTask() {
         assertThrowsHelper.verifyExceptionThrownWithMessage("No task with ID -1 exists.", EntityDoesNotExistException.class, () -> taskRepository.getAllSubtasksForParentTask(-1));
@@ -297,7 +359,7 @@ public class TaskRepositoryTests {
 
     @Test
     public void getAllAssigneesGetsAllAsigneesIfSubtaskHasThem() {
-        List<ProjectEmployee> expectedAssigneeList = List.of(new ProjectEmployee("lildawg", "Max-Emil", "MES@gmail.com", "fAbc#21Y", LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0)));
+        List<ProjectEmployee> expectedAssigneeList = List.of(new ProjectEmployee("lildawg", "Max-Emil", "MES@gmail.com", SeedPasswordHashes.LILDAWG, LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0)));
         List<ProjectEmployee> actualAssigneeList = taskRepository.getAllAssigneesForSubtask(10);
         assertEquals(expectedAssigneeList, actualAssigneeList);
     }
@@ -305,9 +367,9 @@ public class TaskRepositoryTests {
     @Test // Only unique assignees, try the query in MySQL workbench without DISTINCT and see difference
     public void getAllAssigneesGetsAllAssignessFromAllSubtasksIfUsedOnTaskWithSubtasks() {
         List<ProjectEmployee> expectedAssignees = List.of(
-                new ProjectEmployee("lildawg", "Max-Emil", "MES@gmail.com", "fAbc#21Y", LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0)),
-                new ProjectEmployee("bigdawg", "Max", "MRK@gmail.com", "0uFF!nÆr", LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0)),
-                new ProjectEmployee("marqs", "Markus", "MBR@gmail.com", "HhQEsN4t", LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0))
+                new ProjectEmployee("lildawg", "Max-Emil", "MES@gmail.com", SeedPasswordHashes.LILDAWG, LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0)),
+                new ProjectEmployee("bigdawg", "Max", "MRK@gmail.com", SeedPasswordHashes.BIGDAWG, LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0)),
+                new ProjectEmployee("marqs", "Markus", "MBR@gmail.com", SeedPasswordHashes.MARQS, LocalTime.of(8, 0, 0), LocalTime.of(16, 0, 0))
         );
 
         List<ProjectEmployee> actualAssignees = taskRepository.getAllAssigneesForTask(1);
@@ -329,6 +391,58 @@ public class TaskRepositoryTests {
         assertEquals(expectedTask, taskFromDBAfter);
     }
 
+    @Test
+    public void updateTaskMovesTheTaskToItsNextVersion() {
+        Task modifiedTask = taskRepository.getTaskByIDOrThrow(2);
+        modifiedTask.setTaskTitle("Set up the GitHub project");
+        taskRepository.updateTask(modifiedTask, 2);
+        assertEquals(1, modifiedTask.getVersion());
+        assertEquals(1, taskRepository.getTaskByIDOrThrow(2).getVersion());
+    }
+
+    @Test
+    public void updateTaskThrowsIfSomeoneElseSavedTheTaskSinceItWasRead() {
+        Task mine = taskRepository.getTaskByIDOrThrow(2);
+        Task theirs = taskRepository.getTaskByIDOrThrow(2);
+        theirs.setTaskTitle("Theirs");
+        taskRepository.updateTask(theirs, 2);
+
+        mine.setTaskTitle("Mine");
+        assertThrowsHelper.verifyExceptionThrownWithMessage("Someone else saved changes to the task with ID 2 while you were editing it. Open it again to see them, then make your changes again.", EditConflictException.class, () -> taskRepository.updateTask(mine, 2));
+        assertEquals("Theirs", taskRepository.getTaskByIDOrThrow(2).getTaskTitle());
+    }
+
+    @Test
+    public void ofTwoEditsOfTheSameVersionAtOnceExactlyOneIsSaved() throws InterruptedException {
+        Task first = taskRepository.getTaskByIDOrThrow(2);
+        Task second = taskRepository.getTaskByIDOrThrow(2);
+        first.setTaskTitle("First");
+        second.setTaskTitle("Second");
+        AtomicInteger saved = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> editors = new ArrayList<>();
+        for (Task edit : List.of(first, second)) {
+            editors.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    saved.addAndGet(taskRepository.updateTask(edit, 2));
+                } catch (EditConflictException ece) {
+                    conflicts.incrementAndGet();
+                } catch (InterruptedException ignored) {
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread editor : editors) {
+            editor.join();
+        }
+
+        assertEquals(1, saved.get());
+        assertEquals(1, conflicts.get());
+        assertEquals(1, taskRepository.getTaskByIDOrThrow(2).getVersion());
+    }
+
     @Test
     public void updateTaskThrowsOnNonExistentTask() {
         Task newTask = new Task(-1, 1, 0, "TaskTitle", "TaskDescription", LocalDate.of(2025, 11, 12), LocalDate.of(2025, 11, 12), 0.5f);
@@ -405,12 +519,44 @@ public class TaskRepositoryTests {
     }
 
     @Test
-    public void contributeTimeAddsTimeSpent() {
+    public void contributeTimeAddsTimeSpent() throws InterruptedException {
         int rowsAffected = taskRepository.contributeTime("marqs", 2, 2.0f);
         assertEquals(1, rowsAffected);
+        assertTrue(timeLog.awaitInserted(Duration.ofSeconds(10)));
         assertNotNull(jdbcTemplate.queryForObject("SELECT COUNT(*) > 0 FROM TimeSpent WHERE OnTaskID = ? AND ByEmployee = ? AND HoursSpent = ?", Boolean.class, 1, "marqs", 2));
     }
 
+    @Test
+    public void writesOnSubtasksArePublishedToTheirProject() throws InterruptedException {
+        List<ProjectEvent> events = new CopyOnWriteArrayList<>();
+        ProjectEventBus.Subscription subscription = projectEventBus.subscribe(1, event -> {
+            if (!event.isHeartbeat()) {
+                events.add(event);
+            }
+        });
+
+        try {
+            taskRepository.contributeTime("marqs", 3, 1.5f);
+            assertTrue(timeLog.awaitInserted(Duration.ofSeconds(10))); // Published once inserted, by the time log's writer
+            taskRepository.assignTaskToEmployee(3, "bigdawg");
+            taskRepository.unassignTaskFromEmployee(3, "bigdawg");
+            taskRepository.addArtifact(3, "marqs", "docs/report.pdf");
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (events.size() < 4 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+        } finally {
+            subscription.cancel();
+        }
+
+        assertEquals(List.of(ProjectEvent.TIME_CONTRIBUTED, ProjectEvent.WORKER_ASSIGNED, ProjectEvent.WORKER_UNASSIGNED, ProjectEvent.ARTIFACT_ADDED),
+                events.stream().map(ProjectEvent::name).toList());
+        assertEquals("{\"taskID\":1,\"subtaskID\":3,\"username\":\"marqs\",\"hours\":1.5}", events.get(0).data());
+        assertEquals("{\"taskID\":1,\"subtaskID\":3,\"username\":\"bigdawg\"}", events.get(1).data());
+        assertEquals("{\"taskID\":1,\"subtaskID\":3,\"username\":\"marqs\",\"path\":\"docs/report.pdf\"}", events.get(3).data());
+    }
+
     @Test
     public void contributeTimeThrowsOnNonExistentTask() {
         assertThrowsHelper.verifyExceptionThrownWithMessage("No task with ID -1 exists.", EntityDoesNotExistException.class, () -> taskRepository.contributeTime("marqs", -1, 2.0f));
@@ -427,9 +573,31 @@ public class TaskRepositoryTests {
     }
 
     @Test
-    public void contributeTimeThrowsOnDuplicate() {
-        taskRepository.contributeTime("lildawg", 2, 2.0f);
-        assertThrowsHelper.verifyExceptionThrownWithMessage("You just added a similar time contribution. If this is intentional, wait a couple of seconds before trying again.", EntityAlreadyExistsException.class, () -> taskRepository.contributeTime("lildawg", 2, 2.0f));
+    public void contributionsInTheSameInstantAreBothKept() throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            assertEquals(1, taskRepository.contributeTime("lildawg", 2, 2.0f));
+        }
+        assertTrue(timeLog.awaitInserted(Duration.ofSeconds(10)));
+
+        List<LocalDateTime> whens = jdbcTemplate.queryForList("SELECT _When FROM TimeSpent WHERE ByEmployee = 'lildawg' AND OnTaskID = 2 ORDER BY _When", LocalDateTime.class);
+        assertEquals(50, whens.size());
+        assertEquals(50, whens.stream().distinct().count());
+    }
+
+    @Test
+    public void aContributionSentTwiceIsCountedOnce() throws InterruptedException {
+        taskRepository.contributeTime("lildawg", 2, 2.0f, "form-1");
+        taskRepository.contributeTime("lildawg", 2, 2.0f, "form-1"); // Still queued, or skipped by the database
+        assertTrue(timeLog.awaitInserted(Duration.ofSeconds(10)));
+        assertEquals(1, taskRepository.contributeTime("lildawg", 2, 2.0f, "form-1")); // Inserted already, skipped by the database
+        assertTrue(timeLog.awaitInserted(Duration.ofSeconds(10)));
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM TimeSpent WHERE IdempotencyKey = 'form-1'", Integer.class));
+    }
+
+    @Test
+    public void contributeTimeThrowsOnMissingIdempotencyKey() {
+        assertThrowsHelper.verifyExceptionThrownWithMessage("The idempotency key should be 1 to 36 characters.", InvalidValueException.class, () -> taskRepository.contributeTime("marqs", 2, 2.0f, " "));
     }
 
     @Test
@@ -455,6 +623,23 @@ public class TaskRepositoryTests {
         assertThrowsHelper.verifyExceptionThrownWithMessage("No time contribution by marqs on task with ID -1 at 2025-11-12T10:00 exists.", EntityDoesNotExistException.class, () -> taskRepository.updateTimeContribution("marqs", -1, 3.0f, LocalDateTime.of(LocalDate.of(2025, 11, 12), LocalTime.of(10, 0, 0))));
     }
 
+    @Test
+    public void updateTimeContributionsUpdatesEveryEdit() {
+        LocalDateTime at10 = LocalDateTime.of(2025, 11, 12, 10, 0), at1030 = LocalDateTime.of(2025, 11, 12, 10, 30);
+        int rowsAffected = taskRepository.updateTimeContributions("marqs", List.of(new TimeEdit(2, at10, 1.5f), new TimeEdit(3, at1030, 0.25f)));
+        assertEquals(2, rowsAffected);
+        assertEquals(1.5f, jdbcTemplate.queryForObject("SELECT HoursSpent FROM TimeSpent WHERE ByEmployee = ? AND _When = ?;", float.class, "marqs", at10));
+        assertEquals(0.25f, jdbcTemplate.queryForObject("SELECT HoursSpent FROM TimeSpent WHERE ByEmployee = ? AND _When = ?;", float.class, "marqs", at1030));
+    }
+
+    @Test
+    public void updateTimeContributionsUpdatesNoneIfOneIsMissing() {
+        LocalDateTime at10 = LocalDateTime.of(2025, 11, 12, 10, 0);
+        assertThrows(EntityDoesNotExistException.class, () -> taskRepository.updateTimeContributions("marqs",
+                List.of(new TimeEdit(2, at10, 1.5f), new TimeEdit(2, at10.plusHours(2), 1))));
+        assertEquals(0.5f, jdbcTemplate.queryForObject("SELECT HoursSpent FROM TimeSpent WHERE ByEmployee = ? AND _When = ?;", float.class, "marqs", at10));
+    }
+
     @Test
     public void deleteTimeContributionDeletesGivenValidValues() {
         int rowsAffected = taskRepository.deleteTimeContribution("marqs", 2, LocalDateTime.of(LocalDate.of(2025, 11, 12), LocalTime.of(10, 0, 0)));
@@ -463,6 +648,16 @@ public class TaskRepositoryTests {
                 float.class, "marqs", 2, LocalTime.of(10, 0, 0)));
     }
 
+    @Test
+    public void deleteTimeContributionTakesItOutOfTheHoursReport() {
+        timeAnalytics.changed(); // Whatever an earlier test's database left in it
+        double before = timeAnalytics.sumHours(HoursQuery.groupedBy()).totalHours();
+
+        taskRepository.deleteTimeContribution("lildawg", 16, LocalDateTime.of(2025, 11, 19, 14, 0));
+
+        assertEquals(before - 4, timeAnalytics.sumHours(HoursQuery.groupedBy()).totalHours(), 1e-3);
+    }
+
     @Test
     public void deleteTimeContributionThrowsOnNonExistentTimeContribution() {
         assertThrowsHelper.verifyExceptionThrownWithMessage("No time contribution by marqs on task with ID 2 at 2025-11-12T14:00 exists.", EntityDoesNotExistException.class, () -> taskRepository.deleteTimeContribution("marqs", 2, LocalDateTime.of(LocalDate.of(2025, 11, 12), LocalTime.of(14, 0, 0))));
@@ -485,6 +680,41 @@ public class TaskRepositoryTests {
         assertThrowsHelper.verifyExceptionThrownWithMessage("No task with ID -1 exists.", EntityDoesNotExistException.class, () -> taskRepository.deleteTaskByID(-1));
     }
 
+    @Test
+    public void aDeletedTaskComesBackWithItsSubtasksButNotOnesDeletedBefore() {
+        taskRepository.deleteTaskByID(2);
+        jdbcTemplate.update("UPDATE Tasks SET DeletedAt = ? WHERE TaskID = 2;", LocalDateTime.now().minusMinutes(1)); // Not in the same second
+        taskRepository.deleteTaskByID(1);
+        assertEquals(List.of(1), taskRepository.getDeletedTasksForProject(1).stream().map(Task::getID).toList());
+
+        assertEquals(1, taskRepository.undeleteTaskByID(1));
+
+        assertEquals(List.of(3, 4, 5, 6, 7), taskRepository.getAllSubtaskSummariesForParentTask(1).stream().map(TaskSummary::ID).toList());
+        assertEquals(List.of(2), taskRepository.getDeletedTasksForProject(1).stream().map(Task::getID).toList());
+        assertEquals(List.of(new TaskRepository.ConstPair<>(6, 5)), taskRepository.getAllDependenciesForTask(6));
+    }
+
+    @Test
+    public void undeleteTaskByIDThrowsUnderADeletedTaskOrPastTheGracePeriod() {
+        taskRepository.deleteTaskByID(1);
+        assertThrowsHelper.verifyExceptionThrownWithMessage("No deleted task with ID 2 can be undeleted.", EntityDoesNotExistException.class, () -> taskRepository.undeleteTaskByID(2));
+
+        jdbcTemplate.update("UPDATE Tasks SET DeletedAt = ? WHERE TaskID = 1;", LocalDateTime.now().minusDays(2));
+        assertThrowsHelper.verifyExceptionThrownWithMessage("No deleted task with ID 1 can be undeleted.", EntityDoesNotExistException.class, () -> taskRepository.undeleteTaskByID(1));
+        assertThrowsHelper.verifyExceptionThrownWithMessage("No deleted task with ID 8 can be undeleted.", EntityDoesNotExistException.class, () -> taskRepository.undeleteTaskByID(8));
+    }
+
+    @Test
+    public void aDeletedTasksSubtasksAndWhatIsOnThemAreHidden() {
+        taskRepository.deleteTaskByID(8);
+
+        assertThrows(EntityDoesNotExistException.class, () -> taskRepository.getTaskByIDOrThrow(12));
+        assertEquals(List.of(), taskRepository.getAllAssigneesForTask(8));
+        assertEquals(List.of(), taskRepository.getAllAssigneesForSubtask(12));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM VisibleTasks WHERE ParentTaskID IS NULL AND ProjectID = 1", Integer.class));
+        assertThrows(EntityDoesNotExistException.class, () -> taskRepository.deleteTimeContribution("lildawg", 16, LocalDateTime.of(2025, 11, 19, 8, 0)));
+    }
+
     @Test
     public void deleteTaskCascadesCorrectly() {
         int rowsDeleted = taskRepository.deleteTaskByID(1);
@@ -16,6 +16,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -95,14 +96,14 @@ public class TaskServiceTests {
 
     @Test
     void updateTaskThrowsIfTaskDoesNotExist() {
-        when(taskRepository.getTaskByIDOrThrow(1)).thenReturn(null);
+        when(taskRepository.findTaskByID(1)).thenReturn(Optional.empty());
         assertThrows(EntityDoesNotExistException.class, () -> taskService.updateTask(task, 1));
         verify(taskRepository, never()).updateTask(any(), anyInt());
     }
 
     @Test
     void updateTaskCallsRepositoryIfExists() {
-        when(taskRepository.getTaskByIDOrThrow(1)).thenReturn(task);
+        when(taskRepository.findTaskByID(1)).thenReturn(Optional.of(task));
         when(taskRepository.updateTask(task, 1)).thenReturn(1);
         int result = taskService.updateTask(task, 1);
         assertEquals(1, result);
@@ -111,14 +112,14 @@ public class TaskServiceTests {
 
     @Test
     void deleteTaskByIDThrowsIfTaskDoesNotExist() {
-        when(taskRepository.getTaskByIDOrThrow(1)).thenReturn(null);
+        when(taskRepository.findTaskByID(1)).thenReturn(Optional.empty());
         assertThrows(EntityDoesNotExistException.class, () -> taskService.deleteTaskByID(1));
         verify(taskRepository, never()).deleteTaskByID(anyInt());
     }
 
     @Test
     void deleteTaskByIDCallsRepositoryIfExists() {
-        when(taskRepository.getTaskByIDOrThrow(1)).thenReturn(task);
+        when(taskRepository.findTaskByID(1)).thenReturn(Optional.of(task));
         when(taskRepository.deleteTaskByID(1)).thenReturn(1);
         int result = taskService.deleteTaskByID(1);
         assertEquals(1, result);
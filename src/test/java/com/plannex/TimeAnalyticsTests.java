@@ -0,0 +1,148 @@
+package com.plannex;
+
+import com.plannex.Analytics.TimeAnalytics;
+import com.plannex.Event.TimeContributed;
+import com.plannex.Exception.InvalidValueException;
+import com.plannex.Model.HoursQuery;
+import com.plannex.Model.HoursReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.plannex.Model.HoursQuery.Dimension.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeAnalyticsTests {
+    private static final AtomicInteger databases = new AtomicInteger();
+    private static final double DELTA = 1e-3;
+
+    private JdbcTemplate jdbc;
+    private TimeAnalytics analytics;
+
+    @BeforeEach
+    void createDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:analytics-" + databases.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schemah2.sql"), new ClassPathResource("datah2.sql")).execute(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        analytics = new TimeAnalytics(jdbc, Duration.ZERO, Duration.ofDays(1));
+    }
+
+    @Test
+    public void hoursAreSummedByProjectAndEmployee() {
+        HoursReport report = analytics.sumHours(HoursQuery.groupedBy(PROJECT, EMPLOYEE));
+
+        assertEquals(21, report.rows());
+        assertEquals(21, report.entries());
+        assertEquals(40.333, report.totalHours(), DELTA);
+        assertEquals(3, report.groups().size());
+        assertEquals(List.of(1, "lildawg"), report.groups().getFirst().keys());
+        assertEquals(37.417, report.groups().getFirst().hours(), DELTA);
+        assertEquals(16, report.groups().getFirst().entries());
+        assertEquals(List.of(1, "bigdawg"), report.groups().getLast().keys());
+    }
+
+    @Test
+    public void hoursAreSummedBySkillLevelAndMonth() {
+        HoursReport report = analytics.sumHours(HoursQuery.groupedBy(SKILL_LEVEL, MONTH));
+
+        assertEquals(2, report.groups().size());
+        assertEquals(List.of("Expert", "2025-11"), report.groups().get(0).keys());
+        assertEquals(37.417, report.groups().get(0).hours(), DELTA);
+        assertEquals(List.of("Intermediate", "2025-11"), report.groups().get(1).keys());
+        assertEquals(2.917, report.groups().get(1).hours(), DELTA);
+        assertEquals(5, report.groups().get(1).entries());
+    }
+
+    @Test
+    public void employeesWithoutHoursAreInNoSkillGroup() {
+        HoursReport report = analytics.sumHours(HoursQuery.groupedBy(SKILL));
+
+        assertEquals(List.of(List.of("Java-Coder"), List.of("Leadership"), List.of("Business Degree")),
+                report.groups().stream().map(HoursReport.Group::keys).toList()); // Not RandomWorker's C#-Coder
+    }
+
+    @Test
+    public void filtersNarrowTheEntriesSummed() {
+        HoursReport report = analytics.sumHours(HoursQuery.groupedBy(TASK).forEmployees("lildawg")
+                .between(LocalDate.of(2025, 11, 17), LocalDate.of(2025, 11, 17)));
+
+        assertEquals(2, report.groups().size());
+        assertEquals(List.of(8), report.groups().get(0).keys());
+        assertEquals(4.5, report.groups().get(0).hours(), DELTA);
+        assertEquals(List.of(1), report.groups().get(1).keys());
+        assertEquals(2, report.groups().get(1).hours(), DELTA);
+        assertEquals(0, analytics.sumHours(HoursQuery.groupedBy().forProjects(2)).entries());
+        assertEquals(37.417, analytics.sumHours(HoursQuery.groupedBy().withSkill("java-coder", null)).totalHours(), DELTA);
+        assertEquals(2.917, analytics.sumHours(HoursQuery.groupedBy().withSkill(null, "Intermediate")).totalHours(), DELTA);
+    }
+
+    @Test
+    public void newEntriesAreReadOnceOnTheNextRefresh() {
+        analytics.sumHours(HoursQuery.groupedBy());
+        jdbc.update("INSERT INTO TimeSpent (OnTaskID, ByEmployee, HoursSpent, _When) VALUES (16, 'marqs', 2, '2025-11-20 09:00:00');");
+        jdbc.update("INSERT INTO TimeSpent (OnTaskID, ByEmployee, HoursSpent, _When) VALUES (16, 'bigdawg', 1, '2025-11-19 20:00:00');"); // Within the overlap
+
+        HoursReport report = analytics.sumHours(HoursQuery.groupedBy(EMPLOYEE));
+
+        assertEquals(23, report.rows());
+        assertEquals(43.333, report.totalHours(), DELTA);
+        assertEquals(23, analytics.sumHours(HoursQuery.groupedBy()).rows()); // Nothing read twice
+    }
+
+    @Test
+    public void anEntryTheTimeLogInsertsLateIsReadOnceContributed() {
+        analytics.sumHours(HoursQuery.groupedBy());
+        LocalDateTime when = LocalDateTime.of(2025, 11, 3, 9, 0); // Appended long before, inserted after a restart
+        jdbc.update("INSERT INTO TimeSpent (OnTaskID, ByEmployee, HoursSpent, _When) VALUES (16, 'marqs', 2, ?);", when);
+        assertEquals(21, analytics.sumHours(HoursQuery.groupedBy()).rows());
+
+        analytics.on(new TimeContributed(1, 8, 16, "marqs", 2, when));
+
+        assertEquals(22, analytics.sumHours(HoursQuery.groupedBy()).rows());
+        assertEquals(42.333, analytics.sumHours(HoursQuery.groupedBy()).totalHours(), DELTA);
+    }
+
+    @Test
+    public void editsAreOnlyReadAfterChanged() {
+        analytics.sumHours(HoursQuery.groupedBy());
+        jdbc.update("UPDATE TimeSpent SET HoursSpent = 10 WHERE ByEmployee = 'bigdawg';");
+
+        assertEquals(40.333, analytics.sumHours(HoursQuery.groupedBy()).totalHours(), DELTA);
+        analytics.changed();
+        assertEquals(49.833, analytics.sumHours(HoursQuery.groupedBy()).totalHours(), DELTA);
+    }
+
+    @Test
+    public void deletedTasksAndProjectsAreLeftOut() {
+        jdbc.update("UPDATE Tasks SET DeletedAt = NOW() WHERE TaskID = 8 OR ParentTaskID = 8;");
+        assertEquals(22.667, analytics.sumHours(HoursQuery.groupedBy()).totalHours(), DELTA);
+
+        jdbc.update("UPDATE Projects SET DeletedAt = NOW() WHERE ProjectID = 1;");
+        analytics.changed();
+        assertEquals(0, analytics.sumHours(HoursQuery.groupedBy(PROJECT)).groups().size());
+    }
+
+    @Test
+    public void aSnapshotIsKeptForTheRefreshInterval() {
+        TimeAnalytics cached = new TimeAnalytics(jdbc, Duration.ofHours(1), Duration.ofMinutes(5));
+        HoursReport first = cached.sumHours(HoursQuery.groupedBy());
+        jdbc.update("INSERT INTO TimeSpent (OnTaskID, ByEmployee, HoursSpent, _When) VALUES (16, 'marqs', 2, '2025-11-20 09:00:00');");
+
+        assertEquals(first.refreshedAt(), cached.sumHours(HoursQuery.groupedBy()).refreshedAt());
+        assertEquals(21, cached.sumHours(HoursQuery.groupedBy()).rows());
+    }
+
+    @Test
+    public void eachDimensionIsGroupedByOnce() {
+        assertThrows(InvalidValueException.class, () -> analytics.sumHours(HoursQuery.groupedBy(MONTH, MONTH)));
+    }
+}
@@ -0,0 +1,206 @@
+package com.plannex;
+
+import com.plannex.Audit.AuditLog;
+import com.plannex.Event.TimeContributed;
+import com.plannex.Live.ProjectEventBus;
+import com.plannex.TimeLog.TimeEntry;
+import com.plannex.TimeLog.TimeLog;
+import com.plannex.TimeLog.WriteAheadLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeLogTests {
+    private static final AtomicInteger databases = new AtomicInteger();
+    private static final Duration WAIT = Duration.ofSeconds(10);
+
+    @TempDir
+    Path directory;
+
+    private JdbcTemplate jdbc;
+    private AuditLog auditLog;
+    private ProjectEventBus projectEventBus;
+    private final List<Object> published = new CopyOnWriteArrayList<>();
+    private final List<TimeLog> timeLogs = new ArrayList<>();
+
+    @BeforeEach
+    void createDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:time-log-" + databases.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schemah2.sql"), new ClassPathResource("datah2.sql")).execute(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        auditLog = new AuditLog(jdbc, false, 2, 1, Duration.ofHours(1), AuditLog.WhenFull.DROP, Duration.ZERO);
+        projectEventBus = new ProjectEventBus(false, 64, 0, Duration.ofHours(1), Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void stopWriters() throws InterruptedException {
+        for (TimeLog timeLog : timeLogs) {
+            timeLog.destroy();
+        }
+        projectEventBus.destroy();
+        auditLog.destroy();
+    }
+
+    private TimeLog timeLog(int capacity, int batchSize) {
+        TimeLog timeLog = new TimeLog(jdbc, projectEventBus, auditLog, published::add, true, directory, DataSize.ofKilobytes(64), capacity, batchSize);
+        timeLogs.add(timeLog);
+        return timeLog;
+    }
+
+    private int rows(String username) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM TimeSpent WHERE ByEmployee = ?", Integer.class, username);
+    }
+
+    @Test
+    public void everyEmployeesEntriesAreInsertedInTheOrderTheyCame() throws InterruptedException {
+        TimeLog timeLog = timeLog(64, 16); // Small enough for appends to wait for the writer now and then
+        List<Thread> employees = new ArrayList<>();
+        for (String username : List.of("marqs", "lildawg", "bigdawg")) {
+            employees.add(Thread.ofPlatform().start(() -> {
+                for (int i = 1; i <= 300; i++) {
+                    timeLog.append(username + "-" + i, 1, 1, 2, username, i);
+                }
+            }));
+        }
+        for (Thread employee : employees) {
+            employee.join();
+        }
+
+        assertTrue(timeLog.awaitInserted(WAIT));
+        for (String username : List.of("marqs", "lildawg", "bigdawg")) {
+            List<Float> hoursInTimeOrder = jdbc.queryForList("SELECT HoursSpent FROM TimeSpent WHERE ByEmployee = ? AND IdempotencyKey IS NOT NULL ORDER BY _When", Float.class, username);
+            assertEquals(300, hoursInTimeOrder.size());
+            for (int i = 0; i < 300; i++) {
+                assertEquals(i + 1, hoursInTimeOrder.get(i));
+            }
+        }
+        assertEquals(900, timeLog.getWrittenCount());
+    }
+
+    @Test
+    public void entriesLeftInTheLogAreInsertedAfterARestart() throws InterruptedException {
+        WriteAheadLog beforeTheCrash = new WriteAheadLog(directory, 64 * 1024);
+        for (int i = 0; i < 10; i++) {
+            beforeTheCrash.append(new TimeEntry(0, "key-" + i, 1, 1, 2, "marqs", 1, LocalDateTime.of(2025, 12, 1, 9, 0, i)));
+        }
+        int rowsBefore = rows("marqs");
+
+        TimeLog timeLog = timeLog(64, 4);
+
+        assertTrue(timeLog.awaitInserted(WAIT));
+        assertEquals(rowsBefore + 10, rows("marqs"));
+    }
+
+    @Test
+    public void anEntryInsertedBeforeTheCrashIsNotInsertedAgain() throws InterruptedException {
+        WriteAheadLog beforeTheCrash = new WriteAheadLog(directory, 64 * 1024);
+        for (int i = 0; i < 3; i++) {
+            beforeTheCrash.append(new TimeEntry(0, "key-" + i, 1, 1, 2, "marqs", 1, LocalDateTime.of(2025, 12, 1, 9, 0, i)));
+        }
+        jdbc.update("INSERT INTO TimeSpent (OnTaskID, ByEmployee, HoursSpent, _When, IdempotencyKey) VALUES (2, 'marqs', 1, ?, 'key-0')", LocalDateTime.of(2025, 12, 1, 9, 0));
+        int rowsBefore = rows("marqs");
+
+        TimeLog timeLog = timeLog(64, 4);
+
+        assertTrue(timeLog.awaitInserted(WAIT));
+        assertEquals(rowsBefore + 2, rows("marqs"));
+        assertEquals(1, timeLog.getDuplicateCount());
+    }
+
+    @Test
+    public void aKeyStillQueuedIsRefusedAndOneInsertedIsSkipped() throws InterruptedException {
+        TimeLog timeLog = timeLog(64, 4);
+        timeLog.append("same", 1, 1, 2, "marqs", 1); // Keeps the writer busy for a moment
+        int accepted = 0;
+        for (int i = 0; i < 20; i++) {
+            accepted += timeLog.append("again", 1, 1, 2, "marqs", 1) ? 1 : 0;
+        }
+
+        assertTrue(accepted < 20);
+        assertTrue(timeLog.awaitInserted(WAIT));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM TimeSpent WHERE IdempotencyKey = 'again'", Integer.class));
+    }
+
+    @Test
+    public void anEntryTheDatabaseRefusesIsSkippedAndTheRestOfItsBatchInserted() throws InterruptedException {
+        TimeLog timeLog = timeLog(64, 64);
+        int rowsBefore = rows("marqs");
+        for (int i = 0; i < 5; i++) {
+            timeLog.append("key-" + i, 1, 1, i == 2 ? 999 : 2, "marqs", 1);
+        }
+
+        assertTrue(timeLog.awaitInserted(WAIT));
+        assertEquals(rowsBefore + 4, rows("marqs"));
+        assertEquals(1, timeLog.getFailedCount());
+        assertEquals(4, timeLog.getWrittenCount());
+        assertEquals(4, published.stream().filter(TimeContributed.class::isInstance).count());
+    }
+
+    @Test
+    public void entriesAreForcedToDiskWhileTheDatabaseIsDown() throws InterruptedException {
+        TimeLog timeLog = timeLog(64, 4);
+        int rowsBefore = rows("marqs");
+        jdbc.update("ALTER TABLE TimeSpent RENAME TO TimeSpentAway;");
+        for (int i = 0; i < 3; i++) {
+            timeLog.append("key-" + i, 1, 1, 2, "marqs", 1);
+        }
+
+        long deadline = System.nanoTime() + WAIT.toNanos();
+        while (timeLog.getForcedSequence() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(3, timeLog.getForcedSequence());
+        assertEquals(0, timeLog.getWrittenCount());
+
+        jdbc.update("ALTER TABLE TimeSpentAway RENAME TO TimeSpent;");
+        assertTrue(timeLog.awaitInserted(WAIT));
+        assertEquals(rowsBefore + 3, rows("marqs"));
+    }
+
+    @Test
+    public void shuttingDownInsertsWhatIsQueuedAndLeavesNoLogBehind() throws InterruptedException {
+        TimeLog timeLog = timeLog(1024, 8);
+        int rowsBefore = rows("lildawg");
+        for (int i = 0; i < 200; i++) {
+            timeLog.append("key-" + i, 1, 1, 2, "lildawg", 1);
+        }
+
+        timeLog.destroy();
+
+        assertEquals(rowsBefore + 200, rows("lildawg"));
+        assertFalse(Files.exists(directory));
+        timeLog.append("after", 1, 1, 2, "lildawg", 1); // Inserted straight away
+        assertEquals(rowsBefore + 201, rows("lildawg"));
+    }
+
+    @Test
+    public void aTurnedOffLogInsertsInTheCaller() {
+        TimeLog timeLog = new TimeLog(jdbc, projectEventBus, auditLog, published::add, false, directory.resolve("unused"), DataSize.ofKilobytes(64), 64, 4);
+        timeLogs.add(timeLog);
+        int rowsBefore = rows("marqs");
+
+        assertTrue(timeLog.append("key", 1, 1, 2, "marqs", 1));
+        assertTrue(timeLog.append("key", 1, 1, 2, "marqs", 1)); // Skipped by the database
+
+        assertEquals(rowsBefore + 1, rows("marqs"));
+        assertEquals(1, timeLog.getDuplicateCount());
+        assertFalse(Files.exists(directory.resolve("unused")));
+    }
+}
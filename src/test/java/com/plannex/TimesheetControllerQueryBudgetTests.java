@@ -0,0 +1,60 @@
+package com.plannex;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Sql(scripts = { "classpath:schemah2.sql", "classpath:datah2.sql", "classpath:org/springframework/session/jdbc/schema-h2.sql" }, executionPhase=BEFORE_TEST_METHOD)
+// Two statements read the session. A timesheet is one query and a page of them two, however many employees; saving
+// costs two statements an edited cell.
+public class TimesheetControllerQueryBudgetTests {
+    @Autowired
+    MockMvc mockMvc;
+    private Cookie sessionCookie;
+
+    @BeforeEach
+    void logIn() throws Exception {
+        sessionCookie = mockMvc.perform(post("/login").param("username", "lildawg").param("password", "fAbc#21Y"))
+                .andReturn().getResponse().getCookie("SESSION");
+    }
+
+    @Test
+    void showTimesheetStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/employees/lildawg/timesheet").param("week", "2025-11-17").cookie(sessionCookie))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(3));
+    }
+
+    @Test
+    void showAllTimesheetsStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/timesheets").param("week", "2025-11-17").cookie(sessionCookie))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(4));
+    }
+
+    @Test
+    void saveTimesheetStaysWithinBudget() throws Exception {
+        mockMvc.perform(post("/employees/lildawg/timesheet").cookie(sessionCookie)
+                        .param("week", "2025-11-17")
+                        .param("taskID", "9", "10")
+                        .param("when", "2025-11-17T11:30", "2025-11-17T12:30")
+                        .param("was", "1", "0.5")
+                        .param("hours", "2", "1"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(QueryBudget.atMost(6));
+    }
+}
@@ -0,0 +1,177 @@
+package com.plannex;
+
+import com.plannex.Controller.TimesheetController;
+import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Model.TimeEdit;
+import com.plannex.Model.Timesheet;
+import com.plannex.Model.TimesheetCell;
+import com.plannex.Model.TimesheetPage;
+import com.plannex.Model.TimesheetRow;
+import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.TimesheetService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TimesheetController.class)
+public class TimesheetControllerTests {
+    private static final LocalDate NOV_10 = LocalDate.of(2025, 11, 10);
+    private static final LocalDateTime AT_10 = LocalDateTime.of(2025, 11, 12, 10, 0);
+
+    @Autowired
+    MockMvc mockMvc;
+    @MockitoBean
+    TimesheetService timesheetService;
+    @MockitoBean
+    AuthAndPermissionsService authAndPermissionsService;
+
+    private MockHttpSession sessionWithUser(String username) {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("username", username);
+        return session;
+    }
+
+    private void loggedInAs(boolean owner, boolean manager) {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(authAndPermissionsService.isOwnerOfAccount(any(), any())).thenReturn(owner);
+        when(authAndPermissionsService.isManager(any())).thenReturn(manager);
+    }
+
+    private static Timesheet timesheetOf(String username) {
+        List<TimesheetCell> cells = new ArrayList<>(Collections.nCopies(Timesheet.DAYS, TimesheetCell.EMPTY));
+        cells.set(2, new TimesheetCell(0.5, 1, AT_10));
+        cells.set(3, new TimesheetCell(3, 2, null));
+        return new Timesheet(username, NOV_10, List.of(new TimesheetRow(1, "The Plannex Project", 1, 2, "Set up GitHub project", cells)));
+    }
+
+    @Test
+    void showTimesheetLetsTheOwnerEditSingleEntries() throws Exception {
+        loggedInAs(true, false);
+        when(timesheetService.getTimesheet("marqs", NOV_10.plusDays(2))).thenReturn(timesheetOf("marqs"));
+
+        mockMvc.perform(get("/employees/marqs/timesheet").param("week", "2025-11-12").session(sessionWithUser("marqs")))
+                .andExpect(status().isOk())
+                .andExpect(view().name("timesheet"))
+                .andExpect(model().attribute("isOwner", true))
+                .andExpect(content().string(containsString("Set up GitHub project")))
+                .andExpect(content().string(containsString("name=\"when\" value=\"2025-11-12T10:00\"")))
+                .andExpect(content().string(containsString("title=\"2 entries\"")));
+    }
+
+    @Test
+    void showTimesheetIsReadOnlyForManagers() throws Exception {
+        loggedInAs(false, true);
+        when(timesheetService.getTimesheet(eq("marqs"), any())).thenReturn(timesheetOf("marqs"));
+
+        mockMvc.perform(get("/employees/marqs/timesheet").session(sessionWithUser("lildawg")))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("isOwner", false))
+                .andExpect(content().string(not(containsString("name=\"hours\""))));
+    }
+
+    @Test
+    void showTimesheetIsForbiddenForOtherWorkers() throws Exception {
+        loggedInAs(false, false);
+
+        mockMvc.perform(get("/employees/marqs/timesheet").session(sessionWithUser("RandomWorker")))
+                .andExpect(status().isForbidden())
+                .andExpect(view().name("error"));
+
+        verifyNoInteractions(timesheetService);
+    }
+
+    @Test
+    void showTimesheetRedirectsOnNotLoggedIn() throws Exception {
+        mockMvc.perform(get("/employees/marqs/timesheet"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/login"));
+    }
+
+    @Test
+    void saveTimesheetSavesOnlyTheChangedCellsInOneBatch() throws Exception {
+        loggedInAs(true, false);
+
+        mockMvc.perform(post("/employees/marqs/timesheet").session(sessionWithUser("marqs"))
+                        .param("week", "2025-11-10")
+                        .param("taskID", "2", "3")
+                        .param("when", "2025-11-12T10:00", "2025-11-12T10:30")
+                        .param("was", "0.5", "0.1667")
+                        .param("hours", "1.5", "0.1667"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/employees/marqs/timesheet?week=2025-11-10"));
+
+        verify(timesheetService, times(1)).updateTimeContributions("marqs", List.of(new TimeEdit(2, AT_10, 1.5f)));
+    }
+
+    @Test
+    void saveTimesheetWithMissingContributionIsNotFound() throws Exception {
+        loggedInAs(true, false);
+        when(timesheetService.updateTimeContributions(eq("marqs"), any())).thenThrow(new EntityDoesNotExistException("No time contribution by marqs on task with ID 2 at 2025-11-12T10:00 exists."));
+
+        mockMvc.perform(post("/employees/marqs/timesheet").session(sessionWithUser("marqs"))
+                        .param("week", "2025-11-10").param("taskID", "2").param("when", "2025-11-12T10:00").param("was", "0.5").param("hours", "1"))
+                .andExpect(status().isNotFound())
+                .andExpect(view().name("error"));
+    }
+
+    @Test
+    void saveTimesheetWithMismatchedCellsIsRefused() throws Exception {
+        loggedInAs(true, false);
+
+        mockMvc.perform(post("/employees/marqs/timesheet").session(sessionWithUser("marqs"))
+                        .param("week", "2025-11-10").param("taskID", "2", "3").param("when", "2025-11-12T10:00").param("was", "0.5").param("hours", "1"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(timesheetService);
+    }
+
+    @Test
+    void saveTimesheetIsForbiddenForManagersOfOthers() throws Exception {
+        loggedInAs(false, true);
+
+        mockMvc.perform(post("/employees/marqs/timesheet").session(sessionWithUser("lildawg"))
+                        .param("week", "2025-11-10").param("taskID", "2").param("when", "2025-11-12T10:00").param("was", "0.5").param("hours", "1"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(timesheetService);
+    }
+
+    @Test
+    void showAllTimesheetsShowsAPageForManagers() throws Exception {
+        loggedInAs(false, true);
+        when(timesheetService.getTimesheets(NOV_10, 1)).thenReturn(new TimesheetPage(NOV_10, 1, List.of(timesheetOf("marqs"), timesheetOf("lildawg")), true));
+
+        mockMvc.perform(get("/timesheets").param("week", "2025-11-10").param("page", "1").session(sessionWithUser("lildawg")))
+                .andExpect(status().isOk())
+                .andExpect(view().name("timesheets"))
+                .andExpect(content().string(containsString("/employees/lildawg/timesheet?week=2025-11-10")))
+                .andExpect(content().string(containsString("page=2")))
+                .andExpect(content().string(containsString("page=0")));
+    }
+
+    @Test
+    void showAllTimesheetsIsForbiddenForWorkers() throws Exception {
+        loggedInAs(false, false);
+
+        mockMvc.perform(get("/timesheets").session(sessionWithUser("RandomWorker")))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(timesheetService);
+    }
+}
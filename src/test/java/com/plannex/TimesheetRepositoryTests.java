@@ -0,0 +1,108 @@
+package com.plannex;
+
+import com.plannex.Model.Timesheet;
+import com.plannex.Model.TimesheetCell;
+import com.plannex.Model.TimesheetRow;
+import com.plannex.Repository.TimesheetRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Sql(scripts = { "classpath:schemah2.sql", "classpath:datah2.sql" }, executionPhase=BEFORE_TEST_METHOD)
+public class TimesheetRepositoryTests {
+    private static final double DELTA = 0.001;
+    private static final LocalDate NOV_10 = LocalDate.of(2025, 11, 10); // A Monday
+    private static final LocalDate NOV_17 = LocalDate.of(2025, 11, 17);
+
+    @Autowired
+    private TimesheetRepository timesheetRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static TimesheetRow row(Timesheet timesheet, int subtaskID) {
+        return timesheet.rows().stream().filter(row -> row.subtaskID() == subtaskID).findFirst().orElseThrow();
+    }
+
+    @Test
+    public void weekStartOfGoesBackToMonday() {
+        assertEquals(NOV_10, TimesheetRepository.weekStartOf(LocalDate.of(2025, 11, 16)));
+        assertEquals(NOV_10, TimesheetRepository.weekStartOf(NOV_10));
+    }
+
+    @Test
+    public void getTimesheetsPivotsHoursBySubtaskAndDay() {
+        Timesheet marqs = timesheetRepository.getTimesheet("marqs", NOV_10);
+
+        assertEquals(List.of(2, 3, 4, 6), marqs.rows().stream().map(TimesheetRow::subtaskID).toList());
+        assertEquals(0.75, row(marqs, 4).cells().get(2).hours(), DELTA); // Wednesday the 12th
+        assertEquals(1, row(marqs, 6).cells().get(3).hours(), DELTA);
+        assertEquals(TimesheetCell.EMPTY, row(marqs, 6).cells().get(2));
+        assertEquals(1, row(marqs, 4).taskID());
+        assertEquals("The Plannex Project", row(marqs, 4).projectTitle());
+        assertEquals(2.4167, marqs.total(), DELTA);
+        assertEquals(1.4167, marqs.dayTotal(2), DELTA);
+    }
+
+    @Test
+    public void aCellOfOneEntryKnowsWhenItWasLogged() {
+        Timesheet lildawg = timesheetRepository.getTimesheet("lildawg", NOV_17);
+
+        TimesheetCell single = row(lildawg, 9).cells().get(0);
+        assertTrue(single.isEditable());
+        assertEquals(LocalDateTime.of(2025, 11, 17, 11, 30), single.when());
+
+        TimesheetCell twice = row(lildawg, 16).cells().get(2); // Two entries on the 19th
+        assertEquals(8, twice.hours(), DELTA);
+        assertEquals(2, twice.entries());
+        assertFalse(twice.isEditable());
+        assertNull(twice.when());
+    }
+
+    @Test
+    public void getTimesheetsReadsAPageOfEmployeesInOrderEvenWithoutHours() {
+        List<Timesheet> timesheets = timesheetRepository.getTimesheets(0, 3, NOV_10);
+
+        assertEquals(List.of("RandomWorker", "bigdawg", "lildawg"), timesheets.stream().map(Timesheet::username).toList()); // H2 orders case-sensitively
+        assertTrue(timesheets.get(0).rows().isEmpty());
+        assertEquals(1, timesheets.get(1).rows().size());
+        assertEquals(4, timesheets.get(2).rows().size());
+        assertEquals(List.of("marqs"), timesheetRepository.getTimesheets(3, 3, NOV_10).stream().map(Timesheet::username).toList());
+        assertTrue(timesheetRepository.getTimesheets(4, 3, NOV_10).isEmpty());
+    }
+
+    @Test
+    public void getTimesheetOfUnknownEmployeeIsEmpty() {
+        assertTrue(timesheetRepository.getTimesheet("nobody", NOV_10).rows().isEmpty());
+    }
+
+    @Test
+    public void getTimesheetsLeavesOutOtherWeeksAndDeletedTasks() {
+        jdbcTemplate.update("UPDATE Tasks SET DeletedAt = NOW() WHERE TaskID = 6;");
+
+        Timesheet marqs = timesheetRepository.getTimesheet("marqs", NOV_10);
+
+        assertEquals(3, marqs.rows().size());
+        jdbcTemplate.update("UPDATE Projects SET DeletedAt = NOW() WHERE ProjectID = 1;");
+        assertTrue(timesheetRepository.getTimesheet("marqs", NOV_10).rows().isEmpty());
+        assertTrue(timesheetRepository.getTimesheet("marqs", NOV_17).rows().isEmpty());
+    }
+
+    @Test
+    public void getUsernamesPagesThroughEveryEmployeeInOrder() {
+        assertEquals(List.of("RandomWorker", "bigdawg"), timesheetRepository.getUsernames(0, 2));
+        assertEquals(List.of("lildawg", "marqs"), timesheetRepository.getUsernames(2, 2));
+        assertTrue(timesheetRepository.getUsernames(4, 2).isEmpty());
+    }
+}
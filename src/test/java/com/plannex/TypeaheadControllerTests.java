@@ -0,0 +1,100 @@
+package com.plannex;
+
+import com.plannex.Model.ProjectEmployee;
+import com.plannex.Repository.ProjectEmployeeRepository;
+import com.plannex.Search.Typeahead;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalTime;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_METHOD;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Sql(scripts = { "classpath:schemah2.sql", "classpath:datah2.sql", "classpath:org/springframework/session/jdbc/schema-h2.sql" }, executionPhase=BEFORE_TEST_METHOD)
+public class TypeaheadControllerTests {
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    Typeahead typeahead;
+    @Autowired
+    ProjectEmployeeRepository projectEmployeeRepository;
+    private Cookie sessionCookie;
+
+    @BeforeEach
+    void logInAndReload() throws Exception {
+        typeahead.rebuild(); // The scripts above reload the database under it
+        sessionCookie = mockMvc.perform(post("/login").param("username", "lildawg").param("password", "fAbc#21Y"))
+                .andReturn().getResponse().getCookie("SESSION");
+    }
+
+    @Test
+    void employeesMatchByUsernameAndByAnyWordOfTheirName() throws Exception {
+        mockMvc.perform(get("/typeahead/employees").param("q", "MA").cookie(sessionCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].employeeUsername").value("marqs")) // By "markus", which sorts before "max"
+                .andExpect(jsonPath("$[*].employeeUsername").value(containsInAnyOrder("marqs", "bigdawg", "lildawg")));
+
+        mockMvc.perform(get("/typeahead/employees").param("q", "emi").cookie(sessionCookie))
+                .andExpect(jsonPath("$[0].employeeUsername").value("lildawg"))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void workersOnlyLeavesOutManagers() throws Exception {
+        mockMvc.perform(get("/typeahead/employees").param("q", "r").param("workersOnly", "true").cookie(sessionCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].employeeUsername").value("RandomWorker"))
+                .andExpect(jsonPath("$[0].worker").value(true));
+    }
+
+    @Test
+    void employeeChangesAreSuggestedStraightAway() throws Exception {
+        projectEmployeeRepository.addEmployee(new ProjectEmployee("newbie", "Zelda Nielsen", "zn@gmail.com", "pw", LocalTime.of(8, 0), LocalTime.of(16, 0)), "Worker");
+        mockMvc.perform(get("/typeahead/employees").param("q", "niel").param("workersOnly", "true").cookie(sessionCookie))
+                .andExpect(jsonPath("$[0].employeeUsername").value("newbie"));
+
+        projectEmployeeRepository.updateEmployee(new ProjectEmployee("oldie", "Zelda Nielsen", "zn@gmail.com", "pw", LocalTime.of(8, 0), LocalTime.of(16, 0)), "newbie");
+        mockMvc.perform(get("/typeahead/employees").param("q", "zel").param("workersOnly", "true").cookie(sessionCookie))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].employeeUsername").value("oldie"));
+
+        projectEmployeeRepository.deleteEmployeeByUsername("oldie");
+        mockMvc.perform(get("/typeahead/employees").param("q", "zel").cookie(sessionCookie))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void skillsMatchByAnyWordAndFollowAddsAndRemoves() throws Exception {
+        mockMvc.perform(get("/typeahead/skills").param("q", "cod").cookie(sessionCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(contains("C#-Coder", "Java-Coder")));
+
+        projectEmployeeRepository.addSkillUnlessItAlreadyExists("Cobol");
+        projectEmployeeRepository.removeSkillIfExists("C#-Coder");
+        mockMvc.perform(get("/typeahead/skills").param("q", "co").cookie(sessionCookie))
+                .andExpect(jsonPath("$").value(contains("Cobol", "Java-Coder")));
+    }
+
+    @Test
+    void suggestionsNeedALogin() throws Exception {
+        mockMvc.perform(get("/typeahead/skills").param("q", "j"))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,114 @@
+package com.plannex;
+
+import com.plannex.Controller.VarianceReportController;
+import com.plannex.Exception.EntityDoesNotExistException;
+import com.plannex.Model.EmployeeBias;
+import com.plannex.Model.ProjectVariance;
+import com.plannex.Model.TaskVariance;
+import com.plannex.Model.VarianceReport;
+import com.plannex.Service.AuthAndPermissionsService;
+import com.plannex.Service.VarianceReportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(VarianceReportController.class)
+public class VarianceReportControllerTests {
+    @Autowired
+    MockMvc mockMvc;
+    @MockitoBean
+    VarianceReportService varianceReportService;
+    @MockitoBean
+    AuthAndPermissionsService authAndPermissionsService;
+
+    private final TaskVariance overrun = new TaskVariance(1, 8, 0, "Database setup", 14.667f, 17.6667);
+
+    private MockHttpSession sessionWithUser(String username) {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("username", username);
+        return session;
+    }
+
+    private void loggedInAsManager() {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+        when(authAndPermissionsService.isManager(any())).thenReturn(true);
+    }
+
+    private static VarianceReport reportOf(int projects) {
+        List<ProjectVariance> variances = new ArrayList<>();
+        for (int i = 1; i <= projects; i++) {
+            variances.add(new ProjectVariance(i, "Project " + i, 10, 12, 3, 1));
+        }
+        return new VarianceReport(variances, Map.of(), List.of(new EmployeeBias("lildawg", 12, 34.4, 37.4)), LocalDateTime.of(2025, 11, 20, 9, 0), 12);
+    }
+
+    @Test
+    void showReportListsTheTopProjectsAndEmployees() throws Exception {
+        loggedInAsManager();
+        when(varianceReportService.getReport()).thenReturn(reportOf(80));
+
+        mockMvc.perform(get("/reports/variance").session(sessionWithUser("marqs")))
+                .andExpect(status().isOk())
+                .andExpect(view().name("variance_report"))
+                .andExpect(model().attribute("projects", hasSize(50)))
+                .andExpect(model().attribute("employees", hasSize(1)))
+                .andExpect(content().string(containsString("Project 50")))
+                .andExpect(content().string(containsString("1.09"))); // lildawg's bias
+    }
+
+    @Test
+    void showProjectReportListsItsTasks() throws Exception {
+        loggedInAsManager();
+        when(varianceReportService.getTaskVariancesForProject(1)).thenReturn(List.of(overrun));
+
+        mockMvc.perform(get("/reports/variance/1").session(sessionWithUser("marqs")))
+                .andExpect(status().isOk())
+                .andExpect(view().name("variance_report_project"))
+                .andExpect(model().attribute("tasks", List.of(overrun)))
+                .andExpect(content().string(containsString("Database setup")));
+    }
+
+    @Test
+    void showProjectReportOfUnknownProjectIsNotFound() throws Exception {
+        loggedInAsManager();
+        when(varianceReportService.getTaskVariancesForProject(999)).thenThrow(new EntityDoesNotExistException("No project with ID 999 has tasks in the report."));
+
+        mockMvc.perform(get("/reports/variance/999").session(sessionWithUser("marqs")))
+                .andExpect(status().isNotFound())
+                .andExpect(view().name("error"));
+    }
+
+    @Test
+    void showReportRedirectsOnNotLoggedIn() throws Exception {
+        mockMvc.perform(get("/reports/variance"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/login"));
+
+        verifyNoInteractions(varianceReportService);
+    }
+
+    @Test
+    void showReportIsForbiddenForWorkers() throws Exception {
+        when(authAndPermissionsService.isLoggedIn(any())).thenReturn(true);
+
+        mockMvc.perform(get("/reports/variance").session(sessionWithUser("RandomWorker")))
+                .andExpect(status().isForbidden())
+                .andExpect(view().name("error"));
+
+        verifyNoInteractions(varianceReportService);
+    }
+}
@@ -0,0 +1,170 @@
+package com.plannex;
+
+import com.plannex.Model.EmployeeBias;
+import com.plannex.Model.ProjectVariance;
+import com.plannex.Model.TaskVariance;
+import com.plannex.Model.VarianceReport;
+import com.plannex.Variance.VarianceReports;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VarianceReportsTests {
+    private static final AtomicInteger databases = new AtomicInteger();
+    private static final double DELTA = 0.001;
+
+    private JdbcTemplate jdbc;
+    private VarianceReports varianceReports;
+
+    @BeforeEach
+    void createDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:variance-" + databases.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schemah2.sql"), new ClassPathResource("datah2.sql")).execute(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        varianceReports = new VarianceReports(jdbc, 250, 2);
+    }
+
+    @AfterEach
+    void shutDown() {
+        varianceReports.destroy();
+    }
+
+    private static ProjectVariance project(VarianceReport report, int projectID) {
+        return report.projects().stream().filter(project -> project.projectID() == projectID).findFirst().orElseThrow();
+    }
+
+    private static TaskVariance task(VarianceReport report, int projectID, int taskID) {
+        return report.tasksByProject().get(projectID).stream().filter(task -> task.taskID() == taskID).findFirst().orElseThrow();
+    }
+
+    private static EmployeeBias employee(VarianceReport report, String username) {
+        return report.employees().stream().filter(bias -> bias.username().equals(username)).findFirst().orElseThrow();
+    }
+
+    @Test
+    public void aTaskCountsTheHoursOfItsSubtasks() {
+        VarianceReport report = varianceReports.getReport();
+
+        assertEquals(22.6667, task(report, 1, 1).actualHours(), DELTA);
+        assertFalse(task(report, 1, 1).isOverrun());
+        assertEquals(17.6667, task(report, 1, 8).actualHours(), DELTA);
+        assertEquals(3, task(report, 1, 8).hoursOver(), DELTA);
+        assertTrue(task(report, 1, 16).isOverrun());
+    }
+
+    @Test
+    public void projectsAddUpTheirTasksAndCountTheirOverruns() {
+        VarianceReport report = varianceReports.getReport();
+        ProjectVariance plannex = project(report, 1);
+
+        assertEquals(37.334, plannex.estimateHours(), DELTA);
+        assertEquals(40.3334, plannex.actualHours(), DELTA);
+        assertEquals(16, plannex.tasks());
+        assertEquals(2, plannex.overruns()); // Task 8 and its subtask 16
+        assertEquals(plannex, report.projects().getFirst());
+        assertEquals(2, report.overruns());
+    }
+
+    @Test
+    public void eachEmployeeIsHeldToTheirShareOfTheEstimates() {
+        VarianceReport report = varianceReports.getReport();
+
+        EmployeeBias bigdawg = employee(report, "bigdawg"); // A quarter of subtask 4's hours, so a quarter of its 2
+        assertEquals(1, bigdawg.subtasks());
+        assertEquals(0.5, bigdawg.estimateHours(), DELTA);
+        assertEquals(1, bigdawg.bias(), DELTA);
+
+        EmployeeBias lildawg = employee(report, "lildawg");
+        assertEquals(34.4167, lildawg.estimateHours(), DELTA);
+        assertEquals(37.4167, lildawg.actualHours(), DELTA);
+        assertEquals(lildawg, report.employees().getFirst());
+    }
+
+    @Test
+    public void theReportIsKeptUntilSomethingChanges() {
+        VarianceReport report = varianceReports.getReport();
+        jdbc.update("INSERT INTO TimeSpent (OnTaskID, ByEmployee, HoursSpent, _When) VALUES (2, 'marqs', 10, NOW());");
+
+        assertSame(report, varianceReports.getReport());
+
+        varianceReports.changed();
+
+        VarianceReport changed = varianceReports.getReport();
+        assertNotSame(report, changed);
+        assertEquals(50.3334, project(changed, 1).actualHours(), DELTA);
+        assertEquals(4, changed.overruns()); // Subtask 2 and so task 1 as well
+    }
+
+    @Test
+    public void deletedProjectsAndTasksAreLeftOut() {
+        jdbc.update("UPDATE Tasks SET DeletedAt = NOW() WHERE TaskID = 8 OR ParentTaskID = 8;");
+        jdbc.update("UPDATE Projects SET DeletedAt = NOW() WHERE ProjectID = 2;");
+
+        VarianceReport report = varianceReports.getReport();
+
+        assertEquals(0, project(report, 1).overruns());
+        assertEquals(22.6667, project(report, 1).actualHours(), DELTA);
+        assertTrue(report.projects().stream().noneMatch(project -> project.projectID() == 2));
+    }
+
+    @Test
+    public void smallPartitionsAddUpToTheSameReport() {
+        VarianceReports partitioned = new VarianceReports(jdbc, 1, 4);
+        try {
+            VarianceReport whole = varianceReports.getReport();
+            VarianceReport split = partitioned.getReport();
+
+            assertEquals(whole.projects(), split.projects());
+            assertEquals(whole.tasksByProject(), split.tasksByProject());
+            assertEquals(whole.employees().size(), split.employees().size());
+            for (EmployeeBias bias : whole.employees()) {
+                EmployeeBias other = employee(split, bias.username());
+                assertEquals(bias.estimateHours(), other.estimateHours(), DELTA);
+                assertEquals(bias.actualHours(), other.actualHours(), DELTA);
+            }
+        } finally {
+            partitioned.destroy();
+        }
+    }
+
+    @Test
+    public void anEmptyPortfolioGivesAnEmptyReport() {
+        jdbc.update("UPDATE Projects SET DeletedAt = NOW();");
+
+        VarianceReport report = varianceReports.getReport();
+
+        assertTrue(report.projects().isEmpty());
+        assertTrue(report.employees().isEmpty());
+    }
+
+    @Test
+    public void gapsBetweenProjectIDsCostNoQueries() {
+        jdbc.update("INSERT INTO Projects (ProjectID, ProjectTitle, ProjectDescription, ProjectStart, ProjectEnd) VALUES (1000000, 'Far away', '', '2025-11-01', '2025-12-01');");
+        AtomicInteger grouped = new AtomicInteger();
+        JdbcTemplate counting = new JdbcTemplate(jdbc.getDataSource()) {
+            @Override
+            public void query(String sql, RowCallbackHandler rch, Object... args) {
+                grouped.incrementAndGet();
+                super.query(sql, rch, args);
+            }
+        };
+        VarianceReports partitioned = new VarianceReports(counting, 2, 1);
+        try {
+            VarianceReport report = partitioned.getReport();
+
+            assertEquals(3, grouped.get()); // Projects 1 and 2, 3 and 4, then 1000000: not half a million ranges
+            assertEquals(varianceReports.getReport().projects(), report.projects());
+        } finally {
+            partitioned.destroy();
+        }
+    }
+}
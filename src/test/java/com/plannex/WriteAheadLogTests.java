@@ -0,0 +1,121 @@
+package com.plannex;
+
+import com.plannex.TimeLog.TimeEntry;
+import com.plannex.TimeLog.WriteAheadLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteAheadLogTests {
+    private static final int SEGMENT_BYTES = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private static TimeEntry entry(int i) {
+        return new TimeEntry(0, "key-" + i, 1, 1, 2, "lildawg", i / 2.0f, LocalDateTime.of(2025, 11, 12, 10, 0).plusNanos(i * 1000L));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".wal")).sorted().toList();
+        }
+    }
+
+    @Test
+    public void entriesAfterTheCheckpointAreRecoveredAsTheyWere() {
+        WriteAheadLog log = new WriteAheadLog(directory, SEGMENT_BYTES);
+        for (int i = 1; i <= 5; i++) {
+            assertEquals(i, log.append(entry(i)).sequence());
+        }
+        log.checkpoint(2);
+        // No close(): as if the process had died
+
+        WriteAheadLog reopened = new WriteAheadLog(directory, SEGMENT_BYTES);
+        assertEquals(List.of(entry(3).withSequence(3), entry(4).withSequence(4), entry(5).withSequence(5)), reopened.recovered());
+        assertEquals(6, reopened.append(entry(6)).sequence());
+    }
+
+    @Test
+    public void aTornRecordEndsWhatIsRecovered() throws IOException {
+        WriteAheadLog log = new WriteAheadLog(directory, SEGMENT_BYTES);
+        for (int i = 1; i <= 3; i++) {
+            log.append(entry(i));
+        }
+
+        try (RandomAccessFile segment = new RandomAccessFile(segments().getFirst().toFile(), "rw")) {
+            long third = 0;
+            for (int record = 0; record < 2; record++) {
+                segment.seek(third);
+                third += 8 + segment.readInt();
+            }
+            segment.seek(third + 8 + 10);
+            int damaged = segment.read();
+            segment.seek(third + 8 + 10);
+            segment.write(damaged ^ 0xFF);
+        }
+
+        WriteAheadLog reopened = new WriteAheadLog(directory, SEGMENT_BYTES);
+        assertEquals(List.of("key-1", "key-2"), reopened.recovered().stream().map(TimeEntry::idempotencyKey).toList());
+        assertEquals(3, reopened.append(entry(3)).sequence());
+    }
+
+    @Test
+    public void segmentsRollOverAndGoOnceCheckpointed() throws IOException {
+        WriteAheadLog log = new WriteAheadLog(directory, 512);
+        for (int i = 1; i <= 50; i++) {
+            log.append(entry(i));
+        }
+        assertTrue(segments().size() > 5);
+
+        log.checkpoint(40);
+        assertTrue(segments().size() < 5);
+        WriteAheadLog reopened = new WriteAheadLog(directory, 512);
+        assertEquals(10, reopened.recovered().size());
+        assertEquals(41, reopened.recovered().getFirst().sequence());
+
+        reopened.checkpoint(50);
+        assertEquals(1, segments().size());
+    }
+
+    @Test
+    public void aSegmentIsForcedWhenTheNextOneStarts() throws IOException {
+        WriteAheadLog log = new WriteAheadLog(directory, 512);
+        for (int i = 1; i <= 50; i++) {
+            log.append(entry(i));
+        }
+
+        long lastSegmentStart = Long.parseLong(segments().getLast().getFileName().toString().replace(".wal", ""));
+        assertEquals(lastSegmentStart - 1, log.getForcedSequence()); // Without a force(): everything before the last segment
+        log.force();
+        assertEquals(50, log.getForcedSequence());
+    }
+
+    @Test
+    public void closingWithEverythingCheckpointedLeavesNothingBehind() {
+        WriteAheadLog log = new WriteAheadLog(directory, SEGMENT_BYTES);
+        log.append(entry(1));
+        log.checkpoint(1);
+        log.close();
+
+        assertFalse(Files.exists(directory));
+    }
+
+    @Test
+    public void closingWithEntriesLeftKeepsThem() {
+        WriteAheadLog log = new WriteAheadLog(directory, SEGMENT_BYTES);
+        log.append(entry(1));
+        log.close();
+
+        assertEquals(1, new WriteAheadLog(directory, SEGMENT_BYTES).recovered().size());
+    }
+}
@@ -0,0 +1,174 @@
+package com.plannex;
+
+import com.plannex.Session.ExpiredSessionCleaner;
+import com.plannex.Session.WriteMinimisingSessionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteMinimisingSessionRepositoryTests {
+    private static final AtomicInteger databases = new AtomicInteger();
+    private static final Duration WRITE_INTERVAL = Duration.ofSeconds(60);
+
+    private JdbcTemplate jdbc;
+    private WriteMinimisingSessionRepository instanceA;
+    private WriteMinimisingSessionRepository instanceB;
+    private ExpiredSessionCleaner cleaner;
+
+    @BeforeEach
+    void createDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:sessions-" + databases.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("org/springframework/session/jdbc/schema-h2.sql")).execute(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        instanceA = repository(10);
+        instanceB = repository(10);
+        cleaner = new ExpiredSessionCleaner(jdbc, "SPRING_SESSION", 2, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void stopCleaner() {
+        cleaner.destroy();
+    }
+
+    @SuppressWarnings("unchecked")
+    private WriteMinimisingSessionRepository repository(int maxEntries) {
+        JdbcIndexedSessionRepository jdbcRepository = new JdbcIndexedSessionRepository(jdbc, new TransactionTemplate(new DataSourceTransactionManager(jdbc.getDataSource())));
+        jdbcRepository.setCleanupCron("-");
+        jdbcRepository.afterPropertiesSet();
+        return new WriteMinimisingSessionRepository((FindByIndexNameSessionRepository<Session>) (FindByIndexNameSessionRepository<?>) jdbcRepository,
+                jdbc, "SPRING_SESSION", maxEntries, WRITE_INTERVAL);
+    }
+
+    private String loggedIn(WriteMinimisingSessionRepository repository, String username) {
+        Session session = repository.createSession();
+        session.setAttribute("username", username);
+        repository.save(session);
+        return session.getId();
+    }
+
+    private long storedLastAccessTime(String id) {
+        return jdbc.queryForObject("SELECT LAST_ACCESS_TIME FROM SPRING_SESSION WHERE SESSION_ID = ?", Long.class, id);
+    }
+
+    private void access(WriteMinimisingSessionRepository repository, String id, Duration after) {
+        Session session = repository.findById(id);
+        session.setLastAccessedTime(session.getLastAccessedTime().plus(after));
+        repository.save(session);
+    }
+
+    @Test
+    public void accessWithinTheWriteIntervalIsNotWritten() {
+        String id = loggedIn(instanceA, "lildawg");
+        long stored = storedLastAccessTime(id);
+
+        access(instanceA, id, Duration.ofSeconds(20));
+        access(instanceA, id, Duration.ofSeconds(20));
+
+        assertEquals(stored, storedLastAccessTime(id));
+        assertEquals(Instant.ofEpochMilli(stored).plusSeconds(40), instanceA.findById(id).getLastAccessedTime().truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    @Test
+    public void accessAfterTheWriteIntervalIsWritten() {
+        String id = loggedIn(instanceA, "lildawg");
+        long stored = storedLastAccessTime(id);
+
+        access(instanceA, id, Duration.ofSeconds(40));
+        access(instanceA, id, Duration.ofSeconds(40));
+
+        assertEquals(stored + 80_000, storedLastAccessTime(id));
+    }
+
+    @Test
+    public void changedAttributesAreWrittenAndSeenByOtherInstances() {
+        String id = loggedIn(instanceA, "lildawg");
+        assertEquals("lildawg", instanceB.findById(id).getAttribute("username"));
+
+        Session session = instanceA.findById(id);
+        session.setAttribute("username", "bigdawg");
+        instanceA.save(session);
+
+        assertEquals("bigdawg", instanceB.findById(id).getAttribute("username"));
+        assertEquals("bigdawg", instanceA.findById(id).getAttribute("username"));
+    }
+
+    @Test
+    public void changesFromAnotherInstanceReplaceTheCachedCopy() {
+        String id = loggedIn(instanceA, "lildawg");
+        assertEquals("lildawg", instanceA.findById(id).getAttribute("username"));
+
+        Session session = instanceB.findById(id);
+        session.removeAttribute("username");
+        instanceB.save(session);
+
+        assertNull(instanceA.findById(id).getAttribute("username"));
+    }
+
+    @Test
+    public void sessionDeletedByAnotherInstanceIsGone() {
+        String id = loggedIn(instanceA, "lildawg");
+        assertNotNull(instanceA.findById(id));
+
+        instanceB.deleteById(id);
+
+        assertNull(instanceA.findById(id));
+        assertEquals(0, instanceA.getCachedSessionCount());
+    }
+
+    @Test
+    public void changedSessionIdIsWrittenAndTheOldOneStopsWorking() {
+        String id = loggedIn(instanceA, "lildawg");
+
+        Session session = instanceA.findById(id);
+        String newId = session.changeSessionId();
+        instanceA.save(session);
+
+        assertNotEquals(id, newId);
+        assertNull(instanceA.findById(id));
+        assertNull(instanceB.findById(id));
+        assertEquals("lildawg", instanceB.findById(newId).getAttribute("username"));
+    }
+
+    @Test
+    public void cacheKeepsOnlyTheMostRecentlyUsedSessions() {
+        WriteMinimisingSessionRepository small = repository(2);
+        String first = loggedIn(small, "first");
+        loggedIn(small, "second");
+        loggedIn(small, "third");
+
+        assertEquals(2, small.getCachedSessionCount());
+        assertEquals("first", small.findById(first).getAttribute("username"));
+    }
+
+    @Test
+    public void expiredSessionsAreDeletedInBatches() {
+        for (int i = 0; i < 5; i++) {
+            Session session = instanceA.createSession();
+            session.setAttribute("username", "gone" + i);
+            session.setLastAccessedTime(Instant.now().minus(Duration.ofHours(1)));
+            instanceA.save(session);
+        }
+        String live = loggedIn(instanceA, "lildawg");
+
+        assertEquals(5, cleaner.cleanUpExpiredSessions());
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM SPRING_SESSION", Integer.class));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM SPRING_SESSION_ATTRIBUTES", Integer.class));
+        assertNotNull(instanceB.findById(live));
+    }
+}